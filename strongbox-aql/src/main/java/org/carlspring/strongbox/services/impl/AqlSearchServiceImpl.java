@@ -2,6 +2,7 @@ package org.carlspring.strongbox.services.impl;
 
 import org.carlspring.strongbox.data.criteria.DetachQueryTemplate;
 import org.carlspring.strongbox.data.criteria.OQueryTemplate;
+import org.carlspring.strongbox.data.criteria.PageCursor;
 import org.carlspring.strongbox.data.criteria.QueryTemplate;
 import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.dependency.snippet.CodeSnippet;
@@ -68,6 +69,9 @@ public class AqlSearchServiceImpl implements AqlSearchService
             r.setSnippets(snippets);
         }
 
+        PageCursor next = selector.getPaginator().getNext();
+        result.setNext(next == null ? null : next.encode());
+
         return result;
     }
 
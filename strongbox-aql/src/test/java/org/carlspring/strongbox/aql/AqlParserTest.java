@@ -2,6 +2,8 @@ package org.carlspring.strongbox.aql;
 
 import org.carlspring.strongbox.aql.grammar.AqlQueryParser;
 import org.carlspring.strongbox.data.criteria.OQueryTemplate;
+import org.carlspring.strongbox.data.criteria.PageCursor;
+import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.data.criteria.QueryParserException;
 import org.carlspring.strongbox.data.criteria.Selector;
@@ -127,6 +129,36 @@ public class AqlParserTest
                      parameterMap);
     }
 
+    @Test
+    public void testKeysetPagination()
+    {
+        String query = "storage:storage-common-proxies +repository:carlspring asc: version";
+
+        AqlQueryParser aqlParser = new AqlQueryParser(query);
+        Selector<ArtifactEntry> selector = aqlParser.parseQuery();
+
+        PageCursor after = PageCursor.decode(new PageCursor("1.2.3", "some-uuid").encode());
+        assertEquals("1.2.3", after.getValue());
+        assertEquals("some-uuid", after.getUuid());
+
+        Paginator paginator = selector.getPaginator();
+        paginator.setKeyset(true);
+        paginator.setAfter(after);
+
+        OQueryTemplate<Object, ArtifactEntry> queryTemplate = new OQueryTemplate<>(null);
+
+        String sqlQuery = queryTemplate.calculateQueryString(selector);
+
+        logger.info(String.format("Query [%s] parse result:\n[%s]", query, sqlQuery));
+
+        assertTrue(sqlQuery.endsWith(" AND (artifactCoordinates.version > :keysetValue " +
+                                     "OR (artifactCoordinates.version = :keysetValue AND uuid > :keysetUuid)) " +
+                                     "ORDER BY artifactCoordinates.version ASC, uuid ASC " +
+                                     "LIMIT 25"),
+                   sqlQuery);
+        assertFalse(sqlQuery.contains("SKIP"));
+    }
+
     @Test
     public void testInvalidQuery()
     {
@@ -0,0 +1,44 @@
+package org.carlspring.strongbox.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pool of reset {@link MessageDigest} instances by algorithm, which saves the provider lookup of
+ * {@link MessageDigest#getInstance(String)} for every stream. Up to {@value #MAX_IDLE_DIGESTS} idle instances are
+ * kept per algorithm.
+ */
+public final class MessageDigestPool
+{
+
+    private static final int MAX_IDLE_DIGESTS = 64;
+
+    private static final Map<String, BlockingQueue<MessageDigest>> POOL = new ConcurrentHashMap<>();
+
+    private MessageDigestPool()
+    {
+    }
+
+    public static MessageDigest acquire(String algorithm)
+            throws NoSuchAlgorithmException
+    {
+        BlockingQueue<MessageDigest> idleDigests = POOL.get(algorithm);
+        MessageDigest result = idleDigests == null ? null : idleDigests.poll();
+
+        return result != null ? result : MessageDigest.getInstance(algorithm);
+    }
+
+    /**
+     * Resets the digest and returns it into the pool. The digest must not be used by the caller afterwards.
+     */
+    public static void release(MessageDigest digest)
+    {
+        digest.reset();
+        POOL.computeIfAbsent(digest.getAlgorithm(), a -> new ArrayBlockingQueue<>(MAX_IDLE_DIGESTS)).offer(digest);
+    }
+
+}
@@ -23,6 +23,8 @@ public class MessageDigestUtils
 
     private static final Logger logger = LoggerFactory.getLogger(MessageDigestUtils.class);
 
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
     private MessageDigestUtils() 
     {
     }
@@ -37,13 +39,14 @@ public class MessageDigestUtils
 
     public static String convertToHexadecimalString(byte[] hash)
     {
-        StringBuilder sb = new StringBuilder(2 * hash.length);
-        for (byte b : hash)
+        char[] result = new char[2 * hash.length];
+        for (int i = 0; i < hash.length; i++)
         {
-            sb.append(String.format("%02x", b & 0xff));
+            result[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0x0f];
+            result[2 * i + 1] = HEX_DIGITS[hash[i] & 0x0f];
         }
 
-        return sb.toString();
+        return new String(result);
     }
 
     public static void writeDigestAsHexadecimalString(MessageDigest digest,
@@ -0,0 +1,216 @@
+package org.carlspring.strongbox.util;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Calculates the digests of several algorithms in a single pass over the content, for the streams which digest what
+ * they read or write and for the checksum generation.
+ * <p>
+ * The {@link MessageDigest} instances are taken from the {@link MessageDigestPool}, and they are returned there once
+ * the digests have been {@link #finish() finished}. The digest results are kept, so they can be read any number of
+ * times, before or after that.
+ * <p>
+ * Instances are not thread safe.
+ */
+public class MultipleMessageDigest
+{
+
+    private String[] algorithms = new String[0];
+
+    private MessageDigest[] digests = new MessageDigest[0];
+
+    private final Map<String, byte[]> results = new LinkedHashMap<>();
+
+    private boolean finished;
+
+    public MultipleMessageDigest()
+    {
+    }
+
+    public MultipleMessageDigest(Collection<String> algorithms)
+            throws NoSuchAlgorithmException
+    {
+        for (String algorithm : algorithms)
+        {
+            addAlgorithm(algorithm);
+        }
+    }
+
+    /**
+     * Adds a digest algorithm, unless it has been added already. The new digest is calculated from the content which
+     * is passed from now on.
+     */
+    public void addAlgorithm(String algorithm)
+            throws NoSuchAlgorithmException
+    {
+        if (contains(algorithm))
+        {
+            return;
+        }
+        if (finished)
+        {
+            throw new IllegalStateException("The digests have been finished already.");
+        }
+
+        MessageDigest digest = MessageDigestPool.acquire(algorithm);
+
+        algorithms = Arrays.copyOf(algorithms, algorithms.length + 1);
+        algorithms[algorithms.length - 1] = algorithm;
+        digests = Arrays.copyOf(digests, digests.length + 1);
+        digests[digests.length - 1] = digest;
+    }
+
+    public boolean contains(String algorithm)
+    {
+        return indexOf(algorithm) >= 0;
+    }
+
+    public boolean isEmpty()
+    {
+        return algorithms.length == 0;
+    }
+
+    public Collection<String> getAlgorithms()
+    {
+        return Collections.unmodifiableList(Arrays.asList(algorithms));
+    }
+
+    public void update(byte b)
+    {
+        if (finished)
+        {
+            return;
+        }
+
+        for (MessageDigest digest : digests)
+        {
+            digest.update(b);
+        }
+    }
+
+    public void update(byte[] bytes,
+                       int offset,
+                       int length)
+    {
+        if (finished || length <= 0)
+        {
+            return;
+        }
+
+        for (MessageDigest digest : digests)
+        {
+            digest.update(bytes, offset, length);
+        }
+    }
+
+    /**
+     * Digests the remaining bytes of the buffer, and leaves its position at the limit.
+     */
+    public void update(ByteBuffer buffer)
+    {
+        if (finished)
+        {
+            buffer.position(buffer.limit());
+            return;
+        }
+
+        int position = buffer.position();
+        for (MessageDigest digest : digests)
+        {
+            buffer.position(position);
+            digest.update(buffer);
+        }
+        buffer.position(buffer.limit());
+    }
+
+    /**
+     * Completes the digest of the algorithm; the content passed afterwards is not included into it.
+     *
+     * @return the digest of the content passed so far, or {@code null} if the algorithm has not been added
+     */
+    public byte[] digest(String algorithm)
+    {
+        byte[] result = results.get(algorithm);
+        if (result != null)
+        {
+            return result;
+        }
+
+        int index = indexOf(algorithm);
+        if (index < 0 || finished)
+        {
+            return null;
+        }
+
+        result = digests[index].digest();
+        results.put(algorithm, result);
+
+        return result;
+    }
+
+    public String getHexDigest(String algorithm)
+    {
+        byte[] digest = digest(algorithm);
+
+        return digest == null ? null : MessageDigestUtils.convertToHexadecimalString(digest);
+    }
+
+    /**
+     * @return the digests of all the algorithms, in the order they have been added
+     */
+    public Map<String, byte[]> getDigests()
+    {
+        Map<String, byte[]> result = new LinkedHashMap<>();
+        for (String algorithm : algorithms)
+        {
+            result.put(algorithm, digest(algorithm));
+        }
+
+        return result;
+    }
+
+    /**
+     * Completes the digests and returns the {@link MessageDigest} instances into the pool. The content passed
+     * afterwards is not digested.
+     */
+    public void finish()
+    {
+        if (finished)
+        {
+            return;
+        }
+
+        for (String algorithm : algorithms)
+        {
+            digest(algorithm);
+        }
+        for (int i = 0; i < digests.length; i++)
+        {
+            MessageDigestPool.release(digests[i]);
+            digests[i] = null;
+        }
+
+        finished = true;
+    }
+
+    private int indexOf(String algorithm)
+    {
+        for (int i = 0; i < algorithms.length; i++)
+        {
+            if (algorithms[i].equals(algorithm))
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+}
@@ -0,0 +1,140 @@
+package org.carlspring.strongbox.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MultipleMessageDigestTest
+{
+
+    private static final byte[] CONTENT = "strongbox-multiple-message-digest".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void digestsShouldMatchTheSingleAlgorithmDigests()
+            throws Exception
+    {
+        MultipleMessageDigest digest = new MultipleMessageDigest(Arrays.asList("MD5", "SHA-1", "SHA-256"));
+
+        // Each kind of update, over consecutive parts of the content.
+        digest.update(CONTENT[0]);
+        digest.update(CONTENT, 1, 9);
+        digest.update(ByteBuffer.wrap(CONTENT, 10, 10));
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(CONTENT.length - 20);
+        directBuffer.put(CONTENT, 20, CONTENT.length - 20).flip();
+        digest.update(directBuffer);
+        digest.finish();
+
+        assertArrayEquals(expectedDigest("MD5", CONTENT), digest.digest("MD5"));
+        assertArrayEquals(expectedDigest("SHA-1", CONTENT), digest.digest("SHA-1"));
+        assertArrayEquals(expectedDigest("SHA-256", CONTENT), digest.digest("SHA-256"));
+        assertEquals(MessageDigestUtils.convertToHexadecimalString(expectedDigest("SHA-1", CONTENT)),
+                     digest.getHexDigest("SHA-1"));
+        assertEquals(Arrays.asList("MD5", "SHA-1", "SHA-256"), new ArrayList<>(digest.getDigests().keySet()));
+    }
+
+    @Test
+    public void bufferShouldBeConsumed()
+            throws Exception
+    {
+        MultipleMessageDigest digest = new MultipleMessageDigest(Arrays.asList("MD5", "SHA-1"));
+
+        ByteBuffer buffer = ByteBuffer.wrap(CONTENT);
+        digest.update(buffer);
+
+        assertEquals(buffer.limit(), buffer.position());
+    }
+
+    @Test
+    public void algorithmShouldBeAddedOnce()
+            throws Exception
+    {
+        MultipleMessageDigest digest = new MultipleMessageDigest(Arrays.asList("MD5", "MD5"));
+        digest.addAlgorithm("MD5");
+        digest.update(CONTENT, 0, CONTENT.length);
+
+        assertEquals(1, digest.getAlgorithms().size());
+        assertArrayEquals(expectedDigest("MD5", CONTENT), digest.digest("MD5"));
+    }
+
+    @Test
+    public void addedAlgorithmShouldDigestTheContentPassedFromThen()
+            throws Exception
+    {
+        MultipleMessageDigest digest = new MultipleMessageDigest(Arrays.asList("MD5"));
+        digest.update(CONTENT, 0, 10);
+        digest.addAlgorithm("SHA-1");
+        digest.update(CONTENT, 10, CONTENT.length - 10);
+
+        assertArrayEquals(expectedDigest("MD5", CONTENT), digest.digest("MD5"));
+        assertArrayEquals(expectedDigest("SHA-1", Arrays.copyOfRange(CONTENT, 10, CONTENT.length)),
+                          digest.digest("SHA-1"));
+    }
+
+    @Test
+    public void finishedDigestsShouldBeKept()
+            throws Exception
+    {
+        MultipleMessageDigest digest = new MultipleMessageDigest(Arrays.asList("MD5"));
+        digest.update(CONTENT, 0, CONTENT.length);
+        digest.finish();
+
+        digest.update(CONTENT, 0, CONTENT.length);
+        digest.finish();
+
+        assertArrayEquals(expectedDigest("MD5", CONTENT), digest.digest("MD5"));
+        assertNull(digest.digest("SHA-1"));
+        assertThrows(IllegalStateException.class, () -> digest.addAlgorithm("SHA-1"));
+    }
+
+    @Test
+    public void releasedDigestShouldBeResetAndReused()
+            throws Exception
+    {
+        // An algorithm which isn't used by the other tests, so that the pool is not shared with them.
+        String algorithm = "SHA-384";
+
+        MessageDigest messageDigest = MessageDigestPool.acquire(algorithm);
+        messageDigest.update(CONTENT);
+        MessageDigestPool.release(messageDigest);
+
+        MessageDigest reusedMessageDigest = MessageDigestPool.acquire(algorithm);
+
+        assertSame(messageDigest, reusedMessageDigest);
+        assertArrayEquals(expectedDigest(algorithm, new byte[0]), reusedMessageDigest.digest());
+    }
+
+    @Test
+    public void finishedDigestShouldBeReleasedReset()
+            throws Exception
+    {
+        // An algorithm which isn't used by the other tests, so that the pool is not shared with them.
+        String algorithm = "SHA-512";
+
+        MultipleMessageDigest digest = new MultipleMessageDigest(Arrays.asList(algorithm));
+        digest.update(CONTENT, 0, 10);
+        digest.finish();
+
+        MessageDigest reusedMessageDigest = MessageDigestPool.acquire(algorithm);
+        reusedMessageDigest.update(CONTENT);
+
+        assertArrayEquals(expectedDigest(algorithm, CONTENT), reusedMessageDigest.digest());
+    }
+
+    private static byte[] expectedDigest(String algorithm,
+                                         byte[] content)
+            throws NoSuchAlgorithmException
+    {
+        return MessageDigest.getInstance(algorithm).digest(content);
+    }
+
+}
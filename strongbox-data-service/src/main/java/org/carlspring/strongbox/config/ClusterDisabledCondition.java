@@ -0,0 +1,16 @@
+package org.carlspring.strongbox.config;
+
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+public class ClusterDisabledCondition
+        extends ClusterEnabledCondition
+{
+
+    @Override
+    public boolean matches(final ConditionContext context,
+                           final AnnotatedTypeMetadata metadata)
+    {
+        return !super.matches(context, metadata);
+    }
+}
@@ -0,0 +1,24 @@
+package org.carlspring.strongbox.config;
+
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+/**
+ * Matches when Strongbox runs as a member of a cluster, so that shared state (like locks) has to be coordinated
+ * through Hazelcast. This is the default, single node deployments can opt out with
+ * {@code strongbox.cluster.enabled=false}.
+ */
+public class ClusterEnabledCondition
+        implements Condition
+{
+
+    public static final String CLUSTER_ENABLED = "strongbox.cluster.enabled";
+
+    @Override
+    public boolean matches(final ConditionContext context,
+                           final AnnotatedTypeMetadata metadata)
+    {
+        return context.getEnvironment().getProperty(CLUSTER_ENABLED, Boolean.class, Boolean.TRUE);
+    }
+}
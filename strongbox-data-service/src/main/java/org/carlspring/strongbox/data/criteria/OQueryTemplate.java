@@ -2,6 +2,7 @@ package org.carlspring.strongbox.data.criteria;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.persistence.EntityManager;
@@ -49,11 +50,14 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
 
         OSQLSynchQuery<T> oQuery = new OSQLSynchQuery<>(sQuery);
         Map<String, Object> parameterMap = exposeParameterMap(s.getPredicate());
+        parameterMap.putAll(exposeParameterMap(s.getPaginator()));
 
         logger.debug(String.format("Executing SQL query:%n\t[%s]%nWith parameters:%n\t[%s]", sQuery, parameterMap));
 
         Object result = getEmDelegate().command(oQuery)
                                        .execute(parameterMap);
+        calculateNextPage(s.getPaginator(), result);
+
         if (result instanceof Collection && !((Collection) result).isEmpty()
                 && ((Collection) result).iterator().next() instanceof ODocument)
         {
@@ -72,6 +76,44 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         return (OObjectDatabaseTx) entityManager.getDelegate();
     }
 
+    private void calculateNextPage(Paginator paginator,
+                                   Object result)
+    {
+        if (paginator == null || !paginator.isKeyset())
+        {
+            return;
+        }
+
+        paginator.setNext(null);
+        if (!(result instanceof List) || ((List) result).size() < paginator.getLimit())
+        {
+            return;
+        }
+
+        Object last = ((List) result).get(((List) result).size() - 1);
+        if (last instanceof GenericEntity)
+        {
+            paginator.setNext(PageCursor.of((GenericEntity) last, paginator.getProperty()));
+        }
+    }
+
+    private Map<String, Object> exposeParameterMap(Paginator paginator)
+    {
+        HashMap<String, Object> result = new HashMap<>();
+        if (paginator == null || !paginator.isKeyset() || paginator.getAfter() == null)
+        {
+            return result;
+        }
+
+        result.put("keysetUuid", paginator.getAfter().getUuid());
+        if (paginator.getAfter().getValue() != null)
+        {
+            result.put("keysetValue", paginator.getAfter().getValue());
+        }
+
+        return result;
+    }
+
     public Map<String, Object> exposeParameterMap(Predicate p)
     {
         return exposeParameterMap(p, 0);
@@ -101,22 +143,37 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         sb.append("SELECT ").append(selector.getProjection());
         sb.append(" FROM ").append(selector.getTargetClass().getSimpleName());
 
+        Paginator paginator = selector.getPaginator();
+        boolean keyset = paginator != null && paginator.isKeyset();
+
         Predicate p = selector.getPredicate();
-        if (p.isEmpty())
+        if (p.isEmpty() && !keyset)
         {
             return sb.toString();
         }
 
         sb.append(" WHERE ");
-        sb.append(predicateToken(p, 0));
+        sb.append(p.isEmpty() ? "true = true" : predicateToken(p, 0));
 
-        Paginator paginator = selector.getPaginator();
-        if (paginator != null && paginator.getProperty() != null && !paginator.getProperty().trim().isEmpty())
+        if (keyset && paginator.getAfter() != null)
+        {
+            sb.append(" AND ").append(keysetToken(paginator));
+        }
+
+        String property = paginator == null ? null : paginator.getProperty();
+        boolean ordered = property != null && !property.trim().isEmpty();
+        if (keyset)
+        {
+            sb.append(ordered ? String.format(" ORDER BY %s %s, uuid %s", property, paginator.getOrder(),
+                                              paginator.getOrder())
+                    : String.format(" ORDER BY uuid %s", paginator.getOrder()));
+        }
+        else if (ordered)
         {
-            sb.append(String.format(" ORDER BY %s %s", paginator.getProperty(), paginator.getOrder()));
+            sb.append(String.format(" ORDER BY %s %s", property, paginator.getOrder()));
         }
 
-        if (paginator != null && paginator.getSkip() > 0)
+        if (!keyset && paginator != null && paginator.getSkip() > 0)
         {
             sb.append(String.format(" SKIP %s", paginator.getSkip()));
         }
@@ -133,6 +190,30 @@ public class OQueryTemplate<R, T extends GenericEntity> implements QueryTemplate
         return sb.toString();
     }
 
+    /**
+     * Seeks to the position right after {@link Paginator#getAfter()}, in the same order as {@link PageCursor#comparator}
+     * (the {@code null} values go first in ascending order).
+     */
+    protected String keysetToken(Paginator paginator)
+    {
+        String property = paginator.getProperty();
+        boolean desc = Paginator.Order.DESC.equals(paginator.getOrder());
+        String uuidToken = String.format("uuid %s :keysetUuid", desc ? "<" : ">");
+        if (property == null || property.trim().isEmpty())
+        {
+            return uuidToken;
+        }
+
+        if (paginator.getAfter().getValue() == null)
+        {
+            return desc ? String.format("(%s IS NULL AND %s)", property, uuidToken)
+                    : String.format("(%s IS NOT NULL OR %s)", property, uuidToken);
+        }
+
+        return String.format("(%s %s :keysetValue OR (%s = :keysetValue AND %s)%s)", property, desc ? "<" : ">",
+                             property, uuidToken, desc ? String.format(" OR %s IS NULL", property) : "");
+    }
+
     protected String predicateToken(Predicate p,
                                     int tokenCount)
     {
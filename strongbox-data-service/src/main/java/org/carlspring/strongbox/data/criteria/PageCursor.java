@@ -0,0 +1,188 @@
+package org.carlspring.strongbox.data.criteria;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Map;
+
+import org.carlspring.strongbox.data.criteria.Paginator.Order;
+import org.carlspring.strongbox.data.domain.GenericEntity;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyAccessorFactory;
+
+/**
+ * Position of an entity within the keyset pagination order, which is the {@link Paginator#getProperty()} value
+ * followed by the entity {@code uuid}.
+ * <p>
+ * Cursors are passed to the clients as opaque continuation tokens, see {@link #encode()} and {@link #decode(String)}.
+ */
+public class PageCursor
+{
+
+    private static final String SEPARATOR = "\n";
+
+    private final Object value;
+
+    private final String uuid;
+
+    public PageCursor(Object value,
+                      String uuid)
+    {
+        this.value = value;
+        this.uuid = uuid;
+    }
+
+    public Object getValue()
+    {
+        return value;
+    }
+
+    public String getUuid()
+    {
+        return uuid;
+    }
+
+    /**
+     * @param property ordering property path, the same as used for the query (for example
+     *                 {@code artifactCoordinates.coordinates.version}), or {@code null} to order by {@code uuid} only
+     */
+    public static PageCursor of(GenericEntity entity,
+                                String property)
+    {
+        return new PageCursor(property == null ? null : readProperty(entity, property), entity.getUuid());
+    }
+
+    private static Object readProperty(Object target,
+                                       String property)
+    {
+        Object result = target;
+        for (String segment : property.split("\\."))
+        {
+            if (result == null)
+            {
+                return null;
+            }
+            else if ("@class".equals(segment))
+            {
+                result = result.getClass().getSimpleName();
+            }
+            else if (result instanceof Map)
+            {
+                result = ((Map) result).get(segment);
+            }
+            else
+            {
+                BeanWrapper beanWrapper = PropertyAccessorFactory.forBeanPropertyAccess(result);
+                try
+                {
+                    result = beanWrapper.getPropertyValue(segment);
+                }
+                catch (BeansException e)
+                {
+                    return null;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Orders the cursors the same way as the keyset query does: by value, with {@code null}s first in ascending
+     * order, and then by {@code uuid}.
+     */
+    public static Comparator<PageCursor> comparator(Order order)
+    {
+        Comparator<Object> valueComparator = Comparator.nullsFirst((v1, v2) -> ((Comparable) v1).compareTo(v2));
+        Comparator<PageCursor> result = Comparator.comparing(PageCursor::getValue, valueComparator)
+                                                  .thenComparing(PageCursor::getUuid,
+                                                                 Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        return Order.DESC.equals(order) ? result.reversed() : result;
+    }
+
+    public String encode()
+    {
+        String type;
+        String valueString;
+        if (value == null)
+        {
+            type = "n";
+            valueString = "";
+        }
+        else if (value instanceof Date)
+        {
+            type = "d";
+            valueString = String.valueOf(((Date) value).getTime());
+        }
+        else if (value instanceof Integer)
+        {
+            type = "i";
+            valueString = value.toString();
+        }
+        else if (value instanceof Long)
+        {
+            type = "l";
+            valueString = value.toString();
+        }
+        else
+        {
+            type = "s";
+            valueString = value.toString();
+        }
+
+        String token = String.join(SEPARATOR, type, uuid, valueString);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token)
+    {
+        String[] parts;
+        try
+        {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR, 3);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new QueryParserException(String.format("Invalid continuation token [%s].", token));
+        }
+
+        if (parts.length != 3)
+        {
+            throw new QueryParserException(String.format("Invalid continuation token [%s].", token));
+        }
+
+        try
+        {
+            switch (parts[0])
+            {
+            case "n":
+                return new PageCursor(null, parts[1]);
+            case "d":
+                return new PageCursor(new Date(Long.parseLong(parts[2])), parts[1]);
+            case "i":
+                return new PageCursor(Integer.valueOf(parts[2]), parts[1]);
+            case "l":
+                return new PageCursor(Long.valueOf(parts[2]), parts[1]);
+            case "s":
+                return new PageCursor(parts[2], parts[1]);
+            default:
+                throw new QueryParserException(String.format("Invalid continuation token [%s].", token));
+            }
+        }
+        catch (NumberFormatException e)
+        {
+            throw new QueryParserException(String.format("Invalid continuation token [%s].", token));
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s:%s", value, uuid);
+    }
+
+}
@@ -11,6 +11,10 @@ public class Paginator
     private String property;
     private Order order = Order.ASC;
 
+    private boolean keyset;
+    private PageCursor after;
+    private PageCursor next;
+
     public Integer getSkip()
     {
         return skip == null ? Integer.valueOf(0) : skip;
@@ -51,6 +55,44 @@ public class Paginator
         this.order = order;
     }
 
+    /**
+     * In keyset mode the results are ordered by {@link #getProperty()} and then by {@code uuid}, and the page starts
+     * right after the {@link #getAfter()} position instead of skipping {@link #getSkip()} results.
+     */
+    public boolean isKeyset()
+    {
+        return keyset;
+    }
+
+    public void setKeyset(boolean keyset)
+    {
+        this.keyset = keyset;
+    }
+
+    public PageCursor getAfter()
+    {
+        return after;
+    }
+
+    public void setAfter(PageCursor after)
+    {
+        this.after = after;
+    }
+
+    /**
+     * @return position of the last result of a full keyset page, which should be used as {@link #getAfter()} for
+     *         the next page, or {@code null} if there are no more results.
+     */
+    public PageCursor getNext()
+    {
+        return next;
+    }
+
+    public void setNext(PageCursor next)
+    {
+        this.next = next;
+    }
+
     public static enum Order
     {
         ASC, DESC;
@@ -99,6 +99,23 @@ public abstract class EntitySerializer<T extends GenericEntity> implements Strea
         }
     }
 
+    /**
+     * @return a deep copy of the given entity, which shares no mutable state with it.
+     */
+    public T copy(T object)
+    {
+        Kryo kryo = getKryo();
+
+        try
+        {
+            return kryo.copy(object);
+        }
+        finally
+        {
+            releaseKryo(kryo);
+        }
+    }
+
     @Override
     public void destroy()
     {
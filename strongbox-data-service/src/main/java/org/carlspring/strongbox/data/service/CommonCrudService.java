@@ -6,15 +6,9 @@ import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
-import javax.persistence.CascadeType;
 import javax.persistence.EntityManager;
-import javax.persistence.ManyToMany;
-import javax.persistence.ManyToOne;
-import javax.persistence.OneToMany;
-import javax.persistence.OneToOne;
 import javax.persistence.PersistenceContext;
 
-import java.lang.annotation.Annotation;
 import java.util.*;
 
 import com.orientechnologies.orient.core.id.ORecordId;
@@ -24,7 +18,6 @@ import com.orientechnologies.orient.object.db.OObjectDatabaseTx;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.ReflectionUtils;
 
 @Transactional
 public abstract class CommonCrudService<T extends GenericEntity>
@@ -39,6 +32,11 @@ public abstract class CommonCrudService<T extends GenericEntity>
     @Inject
     private EntityServiceRegistry entityServiceRegistry;
 
+    /**
+     * Built on the first save, once all the entity services have been registered.
+     */
+    private volatile EntityCascadePlan<CommonCrudService<GenericEntity>> cascadePlan;
+
     @PostConstruct
     public void postConstruct()
     {
@@ -48,85 +46,43 @@ public abstract class CommonCrudService<T extends GenericEntity>
     protected <S extends T> S cascadeEntitySave(T entity)
     {
         identifyEntity(entity);
-        
-        ReflectionUtils.doWithFields(getEntityClass(), (field) -> {
-            ReflectionUtils.makeAccessible(field);
-
-            Set<CascadeType> cascadeTypeSet = Arrays.stream(field.getAnnotations())
-                                                    .map(a -> exposeCascadeType(a))
-                                                    .reduce((c1,
-                                                             c2) -> {
-                                                        c1.addAll(c2);
-                                                        return c1;
-                                                    })
-                                                    .orElse(Collections.emptySet());
-            
-            if (!cascadeTypeSet.stream().anyMatch(c -> CascadeType.ALL.equals(c) || CascadeType.MERGE.equals(c)
-                    || CascadeType.PERSIST.equals(c)))
-            {
-                return;
-            }
-            
-            Class<?> fieldType = field.getType();
-            Object fieldValue = ReflectionUtils.getField(field, entity);
-
-            if (fieldValue == null)
-            {
-                return;
-            }
-
-            if (Collection.class.isAssignableFrom(fieldType))
-            {
-                Collection<Object> collection = (Collection<Object>) fieldValue;
-                List<Object> replaceCollection = new LinkedList<>();
-                collection.removeIf(a -> {
-                    Object b = tryToCascadeEntitySave(a);
-                    if (b != a)
-                    {
-                        replaceCollection.add(b);
-                        return true;
-                    }
-                    return false;
-                });
-                collection.addAll(replaceCollection);
-            }
-            else
-            {
-                Object newFieldValue = tryToCascadeEntitySave(fieldValue);
-                if (newFieldValue != fieldValue)
-                {
-                    ReflectionUtils.setField(field, entity, newFieldValue);
-                }
-            }
-
-        });
+
+        getCascadePlan().apply(entity, this::tryToCascadeEntitySave);
 
         return getDelegate().save(entity);
     }
 
-    private Set<CascadeType> exposeCascadeType(Annotation a)
+    private EntityCascadePlan<CommonCrudService<GenericEntity>> getCascadePlan()
     {
-        Set<CascadeType> result = new HashSet<>();
-        if (a instanceof OneToMany)
+        EntityCascadePlan<CommonCrudService<GenericEntity>> result = cascadePlan;
+        if (result == null)
         {
-            result.addAll(Arrays.asList(((OneToMany) a).cascade()));
+            cascadePlan = result = EntityCascadePlan.of(getEntityClass(), this::resolveEntityService);
         }
-        else if (a instanceof OneToOne)
+
+        return result;
+    }
+
+    private CommonCrudService<GenericEntity> resolveEntityService(Class<?> entityClass)
+    {
+        if (!GenericEntity.class.isAssignableFrom(entityClass))
         {
-            result.addAll(Arrays.asList(((OneToOne) a).cascade()));
+            return null;
         }
-        else if (a instanceof ManyToMany)
+
+        try
         {
-            result.addAll(Arrays.asList(((ManyToMany) a).cascade()));
+            return (CommonCrudService<GenericEntity>) entityServiceRegistry.getEntityService((Class<GenericEntity>) entityClass);
         }
-        else if (a instanceof ManyToOne)
+        catch (RuntimeException e)
         {
-            result.addAll(Arrays.asList(((ManyToOne) a).cascade()));
+            // The values will tell their own service.
+            return null;
         }
-        return result;
     }
 
-    protected Object tryToCascadeEntitySave(Object entityCandidate)
+    protected Object tryToCascadeEntitySave(Object entityCandidate,
+                                            CommonCrudService<GenericEntity> entityService)
     {
         if (!(entityCandidate instanceof GenericEntity))
         {
@@ -134,7 +90,10 @@ public abstract class CommonCrudService<T extends GenericEntity>
         }
 
         GenericEntity entity = (GenericEntity) entityCandidate;
-        CommonCrudService<GenericEntity> entityService = (CommonCrudService<GenericEntity>) entityServiceRegistry.getEntityService(entity.getClass());
+        if (entityService == null)
+        {
+            entityService = (CommonCrudService<GenericEntity>) entityServiceRegistry.getEntityService(entity.getClass());
+        }
         return entityService.cascadeEntitySave(entity);
     }
     
@@ -0,0 +1,216 @@
+package org.carlspring.strongbox.data.service;
+
+import javax.persistence.CascadeType;
+import javax.persistence.ManyToMany;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import javax.persistence.OneToOne;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * The fields of an entity class which should be saved along with the entity, that is the ones annotated with
+ * {@link CascadeType#ALL}, {@link CascadeType#MERGE} or {@link CascadeType#PERSIST}.
+ * <p>
+ * The plan is built once per entity class, so that saving an entity doesn't need to scan the fields and their
+ * annotations every time. Each field knows whether it is cascaded element by element, which is the case if its
+ * declared type is a {@link Collection} whatever its value is, and the target (for example the service which saves
+ * the values) resolved for its declared value type. Values of another type than the declared one are passed without
+ * a target.
+ *
+ * @param <S> type of the cascade targets
+ */
+public class EntityCascadePlan<S>
+{
+
+    private static final Set<CascadeType> SAVE_CASCADE_TYPES = EnumSet.of(CascadeType.ALL, CascadeType.MERGE,
+                                                                          CascadeType.PERSIST);
+
+    private final List<CascadeField<S>> fields;
+
+    private EntityCascadePlan(List<CascadeField<S>> fields)
+    {
+        this.fields = fields;
+    }
+
+    public static EntityCascadePlan<Void> of(Class<?> entityClass)
+    {
+        return of(entityClass, t -> null);
+    }
+
+    /**
+     * @param targetResolver resolves the cascade target of the declared value type of a field, might return
+     *                       {@code null}
+     */
+    public static <S> EntityCascadePlan<S> of(Class<?> entityClass,
+                                              Function<Class<?>, S> targetResolver)
+    {
+        List<CascadeField<S>> fields = new ArrayList<>();
+        ReflectionUtils.doWithFields(entityClass, (field) -> {
+            if (!Arrays.stream(field.getAnnotations()).anyMatch(EntityCascadePlan::isSaveCascade))
+            {
+                return;
+            }
+
+            ReflectionUtils.makeAccessible(field);
+
+            boolean collection = Collection.class.isAssignableFrom(field.getType());
+            Class<?> valueType = collection ? getElementType(field) : field.getType();
+            fields.add(new CascadeField<>(field, collection, valueType,
+                                          valueType == null ? null : targetResolver.apply(valueType)));
+        });
+
+        return new EntityCascadePlan<>(Collections.unmodifiableList(fields));
+    }
+
+    public List<Field> getFields()
+    {
+        return fields.stream().map(f -> f.field).collect(Collectors.toList());
+    }
+
+    public void apply(Object entity,
+                      UnaryOperator<Object> cascade)
+    {
+        apply(entity, (value, target) -> cascade.apply(value));
+    }
+
+    /**
+     * Applies the cascade operation to all the cascaded field values of the entity. Field values (or collection
+     * elements) are replaced with the operation result if it's not the same instance.
+     */
+    public void apply(Object entity,
+                      CascadeOperation<S> cascade)
+    {
+        for (CascadeField<S> cascadeField : fields)
+        {
+            Field field = cascadeField.field;
+            Object fieldValue = ReflectionUtils.getField(field, entity);
+            if (fieldValue == null)
+            {
+                continue;
+            }
+
+            if (cascadeField.collection)
+            {
+                Collection<Object> collection = (Collection<Object>) fieldValue;
+                List<Object> replaceCollection = new LinkedList<>();
+                collection.removeIf(a -> {
+                    Object b = cascade.apply(a, cascadeField.getTarget(a));
+                    if (b != a)
+                    {
+                        replaceCollection.add(b);
+                        return true;
+                    }
+                    return false;
+                });
+                collection.addAll(replaceCollection);
+            }
+            else
+            {
+                Object newFieldValue = cascade.apply(fieldValue, cascadeField.getTarget(fieldValue));
+                if (newFieldValue != fieldValue)
+                {
+                    ReflectionUtils.setField(field, entity, newFieldValue);
+                }
+            }
+        }
+    }
+
+    private static Class<?> getElementType(Field field)
+    {
+        Type type = field.getGenericType();
+        if (!(type instanceof ParameterizedType))
+        {
+            return null;
+        }
+
+        Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+
+        return arguments.length == 1 && arguments[0] instanceof Class ? (Class<?>) arguments[0] : null;
+    }
+
+    private static boolean isSaveCascade(Annotation a)
+    {
+        CascadeType[] cascade;
+        if (a instanceof OneToMany)
+        {
+            cascade = ((OneToMany) a).cascade();
+        }
+        else if (a instanceof OneToOne)
+        {
+            cascade = ((OneToOne) a).cascade();
+        }
+        else if (a instanceof ManyToMany)
+        {
+            cascade = ((ManyToMany) a).cascade();
+        }
+        else if (a instanceof ManyToOne)
+        {
+            cascade = ((ManyToOne) a).cascade();
+        }
+        else
+        {
+            return false;
+        }
+
+        return Arrays.stream(cascade).anyMatch(SAVE_CASCADE_TYPES::contains);
+    }
+
+    @FunctionalInterface
+    public interface CascadeOperation<S>
+    {
+
+        /**
+         * @param target the target resolved for the field, or {@code null} if there is none for the value type
+         */
+        Object apply(Object value,
+                     S target);
+
+    }
+
+    private static class CascadeField<S>
+    {
+
+        private final Field field;
+
+        private final boolean collection;
+
+        private final Class<?> valueType;
+
+        private final S target;
+
+        private CascadeField(Field field,
+                             boolean collection,
+                             Class<?> valueType,
+                             S target)
+        {
+            this.field = field;
+            this.collection = collection;
+            this.valueType = valueType;
+            this.target = target;
+        }
+
+        private S getTarget(Object value)
+        {
+            return value.getClass() == valueType ? target : null;
+        }
+
+    }
+
+}
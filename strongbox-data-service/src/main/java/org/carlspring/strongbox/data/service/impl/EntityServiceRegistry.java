@@ -4,10 +4,10 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.carlspring.strongbox.data.domain.GenericEntity;
 import org.carlspring.strongbox.data.service.CommonCrudService;
-import org.carlspring.strongbox.data.service.CrudService;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
@@ -18,6 +18,12 @@ public class EntityServiceRegistry implements BeanFactoryPostProcessor
 {
 
     private Map<Class, CommonCrudService> entityServiceMap = new ConcurrentHashMap<>();
+    /**
+     * The services resolved for the entity classes which have no service of their own. These are resolved again
+     * after each registration, which might have brought a more specific service.
+     */
+    private Map<Class, CommonCrudService> resolvedEntityServiceMap = new ConcurrentHashMap<>();
+    private final AtomicInteger registrationCount = new AtomicInteger();
     private volatile List<String> crudServiceBeanList;
     private ConfigurableListableBeanFactory beanFactory;
 
@@ -32,6 +38,8 @@ public class EntityServiceRegistry implements BeanFactoryPostProcessor
                                                    CommonCrudService<T> commonCrudService)
     {
         entityServiceMap.putIfAbsent(entityClass, commonCrudService);
+        registrationCount.incrementAndGet();
+        resolvedEntityServiceMap.clear();
     }
 
     public <T extends GenericEntity> CommonCrudService<T> getEntityService(Class<T> entityClass)
@@ -40,16 +48,35 @@ public class EntityServiceRegistry implements BeanFactoryPostProcessor
         {
             init();
         }
-        Class<?> t = entityClass;
-        do
+        CommonCrudService result = entityServiceMap.get(entityClass);
+        if (result != null)
         {
-            CrudService result = entityServiceMap.get(t);
+            return (CommonCrudService<T>) result;
+        }
+
+        result = resolvedEntityServiceMap.get(entityClass);
+        if (result != null)
+        {
+            return (CommonCrudService<T>) result;
+        }
+
+        int registrationCountBefore = registrationCount.get();
+        Class<?> t = entityClass.getSuperclass();
+        while (t != null && !t.equals(Object.class))
+        {
+            result = entityServiceMap.get(t);
             if (result != null)
             {
+                resolvedEntityServiceMap.put(entityClass, result);
+                if (registrationCount.get() != registrationCountBefore)
+                {
+                    resolvedEntityServiceMap.remove(entityClass);
+                }
+
                 return (CommonCrudService<T>) result;
             }
             t = t.getSuperclass();
-        } while (!t.equals(Object.class));
+        }
 
         throw new RuntimeException(String.format("Failed to locate service for [%s]", entityClass));
     }
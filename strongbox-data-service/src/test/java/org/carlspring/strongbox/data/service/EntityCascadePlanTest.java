@@ -0,0 +1,160 @@
+package org.carlspring.strongbox.data.service;
+
+import javax.persistence.CascadeType;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+import javax.persistence.OneToOne;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@Execution(CONCURRENT)
+public class EntityCascadePlanTest
+{
+
+    @Test
+    public void onlySaveCascadedFieldsShouldBePlanned()
+    {
+        Set<String> fieldNames = EntityCascadePlan.of(Child.class)
+                                                  .getFields()
+                                                  .stream()
+                                                  .map(f -> f.getName())
+                                                  .collect(Collectors.toSet());
+
+        assertEquals(new HashSet<>(Arrays.asList("single", "elements", "untyped", "inherited")), fieldNames);
+    }
+
+    @Test
+    public void cascadeResultsShouldReplaceFieldValues()
+    {
+        Child entity = new Child();
+        entity.single = new Value("single");
+        entity.elements = new ArrayList<>(Arrays.asList(new Value("e1"), new Value("e2")));
+        entity.inherited = new Value("inherited");
+        entity.removed = new Value("removed");
+        Value removed = entity.removed;
+
+        EntityCascadePlan.of(Child.class).apply(entity, EntityCascadePlanTest::saved);
+
+        assertEquals("single saved", entity.single.name);
+        assertEquals(Arrays.asList("e1 saved", "e2 saved"),
+                     entity.elements.stream().map(v -> v.name).collect(Collectors.toList()));
+        assertEquals("inherited saved", entity.inherited.name);
+        assertSame(removed, entity.removed);
+        assertNull(entity.untyped);
+    }
+
+    @Test
+    public void unchangedCollectionElementsShouldBeKept()
+    {
+        Child entity = new Child();
+        Value kept = new Value("kept");
+        entity.elements = new ArrayList<>(Collections.singletonList(kept));
+
+        EntityCascadePlan.of(Child.class).apply(entity, v -> v);
+
+        assertEquals(1, entity.elements.size());
+        assertSame(kept, entity.elements.get(0));
+    }
+
+    @Test
+    public void fieldShouldBeCascadedByItsDeclaredType()
+    {
+        // A collection held by a field which isn't declared as one is cascaded as a whole, not element by element.
+        Child entity = new Child();
+        List<Value> values = new ArrayList<>(Collections.singletonList(new Value("e1")));
+        entity.untyped = values;
+
+        EntityCascadePlan.of(Child.class).apply(entity, v -> v instanceof Collection ? "collection saved" : v);
+
+        assertEquals("collection saved", entity.untyped);
+    }
+
+    @Test
+    public void targetShouldBeResolvedOnceForDeclaredValueType()
+    {
+        List<Class<?>> resolved = new ArrayList<>();
+        EntityCascadePlan<String> plan = EntityCascadePlan.of(Child.class, t -> {
+            resolved.add(t);
+
+            return t.getSimpleName();
+        });
+
+        Child entity = new Child();
+        entity.single = new Value("single");
+        entity.elements = new ArrayList<>(Collections.singletonList(new Value("e1")));
+        entity.untyped = new Value("untyped");
+
+        List<String> targets = new ArrayList<>();
+        plan.apply(entity, (value, target) -> {
+            targets.add(target);
+
+            return value;
+        });
+        plan.apply(entity, (value, target) -> value);
+
+        // The element type of the collection is declared, while the untyped value doesn't match its declared type.
+        assertEquals(Arrays.asList("Value", "Value", null), targets);
+        assertEquals(Arrays.asList(Value.class, Value.class, Object.class, Value.class), resolved);
+    }
+
+    private static Object saved(Object value)
+    {
+        return new Value(((Value) value).name + " saved");
+    }
+
+    private static class Value
+    {
+
+        private final String name;
+
+        private Value(String name)
+        {
+            this.name = name;
+        }
+
+    }
+
+    private static class Parent
+    {
+
+        @ManyToOne(cascade = CascadeType.PERSIST)
+        protected Value inherited;
+
+    }
+
+    private static class Child
+            extends Parent
+    {
+
+        @OneToOne(cascade = CascadeType.ALL)
+        private Value single;
+
+        @OneToMany(cascade = CascadeType.MERGE)
+        private List<Value> elements;
+
+        @OneToOne(cascade = CascadeType.ALL)
+        private Object untyped;
+
+        @OneToOne(cascade = CascadeType.REMOVE)
+        private Value removed;
+
+        @SuppressWarnings("unused")
+        private Value plain;
+
+    }
+
+}
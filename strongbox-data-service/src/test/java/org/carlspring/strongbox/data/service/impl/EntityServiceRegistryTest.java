@@ -0,0 +1,75 @@
+package org.carlspring.strongbox.data.service.impl;
+
+import org.carlspring.strongbox.data.domain.GenericEntity;
+import org.carlspring.strongbox.data.service.CommonCrudService;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+import static org.mockito.Mockito.mock;
+
+@Execution(CONCURRENT)
+public class EntityServiceRegistryTest
+{
+
+    private final CommonCrudService<ParentEntity> parentService = mock(CommonCrudService.class);
+
+    private final CommonCrudService<ChildEntity> childService = mock(CommonCrudService.class);
+
+    @Test
+    public void subclassShouldFallBackToSuperclassService()
+    {
+        EntityServiceRegistry registry = new EntityServiceRegistry();
+        registry.register(ParentEntity.class, parentService);
+
+        assertSame(parentService, registry.getEntityService(ChildEntity.class));
+        assertSame(parentService, registry.getEntityService(ChildEntity.class));
+        assertSame(parentService, registry.getEntityService(ParentEntity.class));
+    }
+
+    @Test
+    public void registrationShouldReplaceResolvedFallback()
+    {
+        EntityServiceRegistry registry = new EntityServiceRegistry();
+        registry.register(ParentEntity.class, parentService);
+        assertSame(parentService, registry.getEntityService(ChildEntity.class));
+
+        registry.register(ChildEntity.class, childService);
+
+        assertSame(childService, registry.getEntityService(ChildEntity.class));
+        assertSame(parentService, registry.getEntityService(ParentEntity.class));
+    }
+
+    @Test
+    public void firstRegistrationShouldWin()
+    {
+        EntityServiceRegistry registry = new EntityServiceRegistry();
+        registry.register(ChildEntity.class, childService);
+        registry.register(ChildEntity.class, mock(CommonCrudService.class));
+
+        assertSame(childService, registry.getEntityService(ChildEntity.class));
+    }
+
+    @Test
+    public void unknownEntityShouldFail()
+    {
+        EntityServiceRegistry registry = new EntityServiceRegistry();
+
+        assertThrows(RuntimeException.class, () -> registry.getEntityService(ChildEntity.class));
+    }
+
+    private static class ParentEntity
+            extends GenericEntity
+    {
+
+    }
+
+    private static class ChildEntity
+            extends ParentEntity
+    {
+
+    }
+
+}
@@ -0,0 +1,230 @@
+package org.carlspring.strongbox.event;
+
+import javax.inject.Inject;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Executes the asynchronous event handlers on bounded pools of named daemon threads, one pool per event handler
+ * (see {@link #execute(String, Runnable)}), and a {@link #DEFAULT_POOL} for the {@link AsyncEventListener}s.
+ * <p>
+ * Each pool has {@code strongbox.event.executor.pool.size} threads and a queue of
+ * {@code strongbox.event.executor.queue.capacity} tasks; the settings can be overridden for a single pool with
+ * {@code strongbox.event.executor.<pool>.pool.size} and {@code strongbox.event.executor.<pool>.queue.capacity}. When
+ * the queue is full, the task is dropped rather than run by the thread which publishes the event, so that a burst of
+ * events never stalls the request threads; the dropped tasks are logged and counted.
+ * <p>
+ * The events are handled synchronously when {@code strongbox.event.executor.synchronous} is set, which the tests do,
+ * and once the executor has been shut down.
+ * <p>
+ * The queue depth, the active threads, the time the tasks wait in the queue, the time they take and the dropped tasks
+ * are published as {@code strongbox.event.executor.*} metrics, tagged with the pool name.
+ */
+@Component("eventTaskExecutor")
+public class EventTaskExecutor
+        implements Executor, InitializingBean, DisposableBean
+{
+
+    public static final String DEFAULT_POOL = "default";
+
+    private static final Logger logger = LoggerFactory.getLogger(EventTaskExecutor.class);
+
+    private static final String PROPERTY_PREFIX = "strongbox.event.executor";
+
+    private static final String METRIC_PREFIX = "strongbox.event.executor";
+
+    private final Map<String, ThreadPoolExecutor> pools = new ConcurrentHashMap<>();
+
+    @Inject
+    private Environment environment;
+
+    private boolean synchronous;
+
+    private volatile boolean destroyed;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        synchronous = environment.getProperty(PROPERTY_PREFIX + ".synchronous", Boolean.class, false);
+
+        logger.info(String.format("Using [%s] execution for async events.", synchronous ? "synchronous" : "pooled"));
+    }
+
+    @Override
+    public void destroy()
+    {
+        destroyed = true;
+        pools.values().forEach(ThreadPoolExecutor::shutdown);
+    }
+
+    @Override
+    public void execute(Runnable task)
+    {
+        execute(DEFAULT_POOL, task);
+    }
+
+    /**
+     * Executes the task on the named pool, which is created on first use.
+     */
+    public void execute(String pool,
+                        Runnable task)
+    {
+        if (synchronous || destroyed)
+        {
+            task.run();
+
+            return;
+        }
+
+        pools.computeIfAbsent(pool, this::createPool).execute(new EventTask(pool, task));
+    }
+
+    private ThreadPoolExecutor createPool(String pool)
+    {
+        int poolSize = getProperty(pool, "pool.size", Integer.class, 4);
+        int queueCapacity = getProperty(pool, "queue.capacity", Integer.class, 1000);
+
+        ArrayBlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(Math.max(1, poolSize), Math.max(1, poolSize), 60L,
+                                                             TimeUnit.SECONDS, queue, new EventThreadFactory(pool),
+                                                             new DropHandler(pool));
+        executor.allowCoreThreadTimeOut(true);
+
+        Tags tags = Tags.of("pool", pool);
+        Metrics.gauge(METRIC_PREFIX + ".queue.size", tags, queue, ArrayBlockingQueue::size);
+        Metrics.gauge(METRIC_PREFIX + ".active", tags, executor, ThreadPoolExecutor::getActiveCount);
+
+        logger.info(String.format("Created event pool [%s] with [%s] threads and queue capacity [%s].",
+                                  pool, poolSize, queueCapacity));
+
+        return executor;
+    }
+
+    private <T> T getProperty(String pool,
+                              String name,
+                              Class<T> type,
+                              T defaultValue)
+    {
+        T value = environment.getProperty(String.format("%s.%s.%s", PROPERTY_PREFIX, pool, name), type);
+
+        return value != null ? value : environment.getProperty(PROPERTY_PREFIX + "." + name, type, defaultValue);
+    }
+
+    /**
+     * Drops the tasks rejected by a saturated (or shut down) pool.
+     */
+    private static class DropHandler
+            implements RejectedExecutionHandler
+    {
+
+        private final String pool;
+
+        private final Counter droppedCounter;
+
+        private DropHandler(String pool)
+        {
+            this.pool = pool;
+            this.droppedCounter = Metrics.counter(METRIC_PREFIX + ".dropped", "pool", pool);
+        }
+
+        @Override
+        public void rejectedExecution(Runnable task,
+                                      ThreadPoolExecutor executor)
+        {
+            droppedCounter.increment();
+
+            logger.warn(String.format("The [%s] pool is saturated, dropped event task [%s].", pool, task));
+        }
+
+    }
+
+    private static class EventTask
+            implements Runnable
+    {
+
+        private final Runnable task;
+
+        private final long submitTime = System.nanoTime();
+
+        private final Timer latencyTimer;
+
+        private final Timer durationTimer;
+
+        private EventTask(String pool,
+                          Runnable task)
+        {
+            this.task = task;
+            this.latencyTimer = Metrics.timer(METRIC_PREFIX + ".latency", "pool", pool);
+            this.durationTimer = Metrics.timer(METRIC_PREFIX + ".duration", "pool", pool);
+        }
+
+        @Override
+        public void run()
+        {
+            long startTime = System.nanoTime();
+            latencyTimer.record(startTime - submitTime, TimeUnit.NANOSECONDS);
+            try
+            {
+                task.run();
+            }
+            catch (RuntimeException e)
+            {
+                logger.error(String.format("Failed to execute event task [%s].", task), e);
+            }
+            finally
+            {
+                durationTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public String toString()
+        {
+            return task.toString();
+        }
+
+    }
+
+    private static class EventThreadFactory
+            implements ThreadFactory
+    {
+
+        private final String pool;
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private EventThreadFactory(String pool)
+        {
+            this.pool = pool;
+        }
+
+        @Override
+        public Thread newThread(Runnable r)
+        {
+            Thread thread = new Thread(r, String.format("strongbox-event-%s-%s", pool, counter.incrementAndGet()));
+            thread.setDaemon(true);
+
+            return thread;
+        }
+
+    }
+
+}
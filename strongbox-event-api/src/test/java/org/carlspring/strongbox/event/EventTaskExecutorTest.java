@@ -0,0 +1,129 @@
+package org.carlspring.strongbox.event;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EventTaskExecutorTest
+{
+
+    @Test
+    public void eventsShouldBeHandledSynchronouslyWhenConfigured()
+    {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("strongbox.event.executor.synchronous", true);
+
+        try (AnnotationConfigApplicationContext context = newContext(properties))
+        {
+            List<String> threads = new CopyOnWriteArrayList<>();
+            context.getBean(EventTaskExecutor.class).execute("test", () -> threads.add(Thread.currentThread().getName()));
+
+            assertEquals(Collections.singletonList(Thread.currentThread().getName()), threads);
+        }
+    }
+
+    @Test
+    public void eventsShouldBeHandledOnTheNamedPoolByDefault()
+        throws Exception
+    {
+        try (AnnotationConfigApplicationContext context = newContext(Collections.emptyMap()))
+        {
+            CountDownLatch done = new CountDownLatch(1);
+            List<String> threads = new CopyOnWriteArrayList<>();
+            context.getBean(EventTaskExecutor.class).execute("test", () -> {
+                threads.add(Thread.currentThread().getName());
+                done.countDown();
+            });
+
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals(Collections.singletonList("strongbox-event-test-1"), threads);
+        }
+    }
+
+    @Test
+    public void eventsShouldBeDroppedWhenThePoolIsSaturated()
+        throws Exception
+    {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("strongbox.event.executor.test.pool.size", 1);
+        properties.put("strongbox.event.executor.test.queue.capacity", 1);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.globalRegistry.add(registry);
+        try (AnnotationConfigApplicationContext context = newContext(properties))
+        {
+            EventTaskExecutor eventTaskExecutor = context.getBean(EventTaskExecutor.class);
+
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(2);
+            List<String> threads = new CopyOnWriteArrayList<>();
+            Runnable task = () -> {
+                threads.add(Thread.currentThread().getName());
+                done.countDown();
+            };
+
+            // The only thread is busy and the queue is full, so the third task is dropped.
+            eventTaskExecutor.execute("test", () -> {
+                try
+                {
+                    release.await(10, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                task.run();
+            });
+            eventTaskExecutor.execute("test", task);
+            eventTaskExecutor.execute("test", task);
+
+            assertEquals(1, registry.get("strongbox.event.executor.dropped").tag("pool", "test").counter().count());
+
+            release.countDown();
+
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList("strongbox-event-test-1", "strongbox-event-test-1"), threads);
+        }
+        finally
+        {
+            Metrics.globalRegistry.remove(registry);
+        }
+    }
+
+    @Test
+    public void eventsShouldBeHandledSynchronouslyOnceDestroyed()
+    {
+        AnnotationConfigApplicationContext context = newContext(Collections.emptyMap());
+        EventTaskExecutor eventTaskExecutor = context.getBean(EventTaskExecutor.class);
+        context.close();
+
+        List<String> threads = new CopyOnWriteArrayList<>();
+        eventTaskExecutor.execute("test", () -> threads.add(Thread.currentThread().getName()));
+
+        assertEquals(Collections.singletonList(Thread.currentThread().getName()), threads);
+    }
+
+    private static AnnotationConfigApplicationContext newContext(Map<String, Object> properties)
+    {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+        context.register(EventTaskExecutor.class);
+        context.refresh();
+
+        return context;
+    }
+
+}
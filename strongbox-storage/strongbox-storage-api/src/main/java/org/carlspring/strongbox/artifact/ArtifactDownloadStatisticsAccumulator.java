@@ -0,0 +1,360 @@
+package org.carlspring.strongbox.artifact;
+
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.orientechnologies.common.concur.ONeedRetryException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Accumulates artifact download statistics (download count and last used date) in memory and periodically flushes
+ * the aggregated deltas into {@link ArtifactEntry} records using batched transactions.
+ * <p>
+ * Deltas are kept in a {@link ConcurrentHashMap} and updated with {@link Map#compute}, so concurrent downloads of
+ * different artifacts are striped by the map bins and never wait on a distributed lock. The number of pending
+ * artifacts is bounded by {@code strongbox.artifact.download.statistics.queue.capacity}: downloads of artifacts which
+ * are not yet pending are dropped (and counted) once the capacity has been reached. The deltas of a batch which has to
+ * be retried are put back even above the capacity, they have been counted already.
+ * <p>
+ * The download count of {@link ArtifactEntry} is an {@code int}, it saturates at {@link Integer#MAX_VALUE}. Batches
+ * failing with anything else than {@link ONeedRetryException} are not retried, their artifacts are logged and counted.
+ */
+@Component
+public class ArtifactDownloadStatisticsAccumulator
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactDownloadStatisticsAccumulator.class);
+
+    private static final String METRIC_PREFIX = "strongbox.artifact.download.statistics";
+
+    private final Map<ArtifactKey, DownloadDelta> pending = new ConcurrentHashMap<>();
+
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${strongbox.artifact.download.statistics.flush.interval.ms:5000}")
+    private long flushIntervalMillis;
+
+    @Value("${strongbox.artifact.download.statistics.flush.batch.size:100}")
+    private int flushBatchSize;
+
+    @Value("${strongbox.artifact.download.statistics.queue.capacity:10000}")
+    private int queueCapacity;
+
+    private ScheduledExecutorService executor;
+
+    private Timer flushTimer;
+
+    private Counter droppedCounter;
+
+    private Counter failedCounter;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        flushTimer = Metrics.timer(METRIC_PREFIX + ".flush");
+        droppedCounter = Metrics.counter(METRIC_PREFIX + ".dropped");
+        failedCounter = Metrics.counter(METRIC_PREFIX + ".failed");
+        Metrics.gauge(METRIC_PREFIX + ".pending", pendingCount);
+
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, ArtifactDownloadStatisticsAccumulator.class.getSimpleName());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flushSafely, flushIntervalMillis, flushIntervalMillis,
+                                        TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy()
+    {
+        executor.shutdown();
+        try
+        {
+            executor.awaitTermination(flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        flushSafely();
+    }
+
+    public void recordDownload(String storageId,
+                               String repositoryId,
+                               String path)
+    {
+        ArtifactKey key = new ArtifactKey(storageId, repositoryId, path);
+        long now = System.currentTimeMillis();
+
+        // The capacity is reserved inside the atomic compute, so that it can't be exceeded by concurrent downloads.
+        DownloadDelta delta = pending.compute(key, (k, v) -> {
+            if (v != null)
+            {
+                return v.merge(1, now);
+            }
+            if (pendingCount.incrementAndGet() > queueCapacity)
+            {
+                pendingCount.decrementAndGet();
+
+                return null;
+            }
+
+            return new DownloadDelta(1, now);
+        });
+        if (delta == null)
+        {
+            droppedCounter.increment();
+            logger.warn(String.format("Download statistics queue is full, dropping download of [%s].", key));
+
+            return;
+        }
+
+        if (pendingCount.get() >= flushBatchSize && !executor.isShutdown() &&
+            flushRequested.compareAndSet(false, true))
+        {
+            executor.execute(this::flushSafely);
+        }
+    }
+
+    public int getPendingCount()
+    {
+        return pendingCount.get();
+    }
+
+    /**
+     * Writes all the accumulated deltas into the database.
+     */
+    public synchronized void flush()
+    {
+        flushRequested.set(false);
+        if (pending.isEmpty())
+        {
+            return;
+        }
+
+        flushTimer.record(() -> {
+            List<ArtifactKey> keys = new ArrayList<>(pending.keySet());
+            for (int i = 0; i < keys.size(); i += flushBatchSize)
+            {
+                flushBatch(drain(keys.subList(i, Math.min(i + flushBatchSize, keys.size()))));
+            }
+        });
+    }
+
+    private void flushSafely()
+    {
+        try
+        {
+            flush();
+        }
+        catch (Exception e)
+        {
+            logger.error("Failed to flush download statistics.", e);
+        }
+    }
+
+    private Map<ArtifactKey, DownloadDelta> drain(List<ArtifactKey> keys)
+    {
+        Map<ArtifactKey, DownloadDelta> batch = new HashMap<>();
+        for (ArtifactKey key : keys)
+        {
+            DownloadDelta delta = pending.remove(key);
+            if (delta != null)
+            {
+                pendingCount.decrementAndGet();
+                batch.put(key, delta);
+            }
+        }
+
+        return batch;
+    }
+
+    private void flushBatch(Map<ArtifactKey, DownloadDelta> batch)
+    {
+        if (batch.isEmpty())
+        {
+            return;
+        }
+
+        try
+        {
+            new TransactionTemplate(transactionManager).execute(t -> {
+                batch.forEach(this::apply);
+
+                return null;
+            });
+        }
+        catch (ONeedRetryException e)
+        {
+            logger.debug(String.format("Retry download statistics batch of [%s] artifacts.", batch.size()));
+
+            // Transaction was rolled back, so the deltas are returned to be applied with the next flush.
+            batch.forEach(this::requeue);
+        }
+        catch (RuntimeException e)
+        {
+            failedCounter.increment(batch.size());
+            logger.error(String.format("Failed to flush download statistics of [%s] artifacts, the downloads of %s " +
+                                       "are lost.", batch.size(), batch.keySet()), e);
+        }
+    }
+
+    private void requeue(ArtifactKey key,
+                         DownloadDelta delta)
+    {
+        pending.compute(key, (k, v) -> {
+            if (v != null)
+            {
+                return v.merge(delta);
+            }
+
+            pendingCount.incrementAndGet();
+
+            return delta;
+        });
+    }
+
+    private void apply(ArtifactKey key,
+                       DownloadDelta delta)
+    {
+        ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(key.storageId, key.repositoryId, key.path);
+        if (artifactEntry == null)
+        {
+            logger.debug(String.format("No [%s] found for [%s], skip download statistics.",
+                                       ArtifactEntry.class.getSimpleName(), key));
+
+            return;
+        }
+
+        long downloadCount = artifactEntry.getDownloadCount() + delta.count;
+        artifactEntry.setDownloadCount((int) Math.min(downloadCount, Integer.MAX_VALUE));
+
+        Date lastUsed = artifactEntry.getLastUsed();
+        if (lastUsed == null || lastUsed.getTime() < delta.lastUsed)
+        {
+            artifactEntry.setLastUsed(new Date(delta.lastUsed));
+        }
+
+        artifactEntryService.save(artifactEntry);
+    }
+
+    private static class ArtifactKey
+    {
+
+        private final String storageId;
+
+        private final String repositoryId;
+
+        private final String path;
+
+        private ArtifactKey(String storageId,
+                            String repositoryId,
+                            String path)
+        {
+            this.storageId = storageId;
+            this.repositoryId = repositoryId;
+            this.path = path;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o)
+            {
+                return true;
+            }
+            if (!(o instanceof ArtifactKey))
+            {
+                return false;
+            }
+
+            ArtifactKey that = (ArtifactKey) o;
+
+            return Objects.equals(storageId, that.storageId) && Objects.equals(repositoryId, that.repositoryId)
+                    && Objects.equals(path, that.path);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(storageId, repositoryId, path);
+        }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%s:%s:%s", storageId, repositoryId, path);
+        }
+
+    }
+
+    /**
+     * Mutable aggregate which is changed only inside {@link ConcurrentHashMap} atomic operations.
+     */
+    private static class DownloadDelta
+    {
+
+        private long count;
+
+        private long lastUsed;
+
+        private DownloadDelta(long count,
+                              long lastUsed)
+        {
+            this.count = count;
+            this.lastUsed = lastUsed;
+        }
+
+        private DownloadDelta merge(long count,
+                                    long lastUsed)
+        {
+            this.count += count;
+            this.lastUsed = Math.max(this.lastUsed, lastUsed);
+
+            return this;
+        }
+
+        private DownloadDelta merge(DownloadDelta other)
+        {
+            return merge(other.count, other.lastUsed);
+        }
+
+    }
+
+}
@@ -1,7 +1,7 @@
 package org.carlspring.strongbox.artifact;
 
 import org.carlspring.strongbox.domain.ArtifactEntry;
-import org.carlspring.strongbox.event.AsyncEventListener;
+import org.carlspring.strongbox.event.EventTaskExecutor;
 import org.carlspring.strongbox.event.artifact.ArtifactEvent;
 import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
@@ -19,8 +19,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.transaction.ChainedTransactionManager;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.transaction.support.TransactionTemplate;
-
+import org.springframework.util.ClassUtils;
+
+/**
+ * Updates the {@link ArtifactEntry} of an artifact on the events of the given type.
+ * <p>
+ * The event is accepted on the publishing thread, once its transaction has been committed, and handled on the
+ * {@link EventTaskExecutor} pool named after the handler class, within a new transaction.
+ */
 public abstract class AsyncArtifactEntryHandler
 {
 
@@ -37,6 +47,9 @@ public abstract class AsyncArtifactEntryHandler
     @Inject
     private PlatformTransactionManager transactionManager;
 
+    @Inject
+    private EventTaskExecutor eventTaskExecutor;
+
     private final ArtifactEventTypeEnum eventType;
 
     public AsyncArtifactEntryHandler(ArtifactEventTypeEnum eventType)
@@ -45,10 +58,10 @@ public abstract class AsyncArtifactEntryHandler
         this.eventType = eventType;
     }
 
-    @AsyncEventListener
+    // TransactionalEventListener.fallbackExecution() needed only for test environment
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
     public void handleEvent(final ArtifactEvent<RepositoryPath> event)
-        throws IOException,
-        InterruptedException
+        throws IOException
     {
         if (eventType.getType() != event.getType())
         {
@@ -61,24 +74,23 @@ public abstract class AsyncArtifactEntryHandler
             return;
         }
 
-        // TODO: this is needed just as workadound to have new transaction
-        // within this async event (expected to be replaced with
-        // just Propagation.REQUIRES_NEW after SB-1200)
-        Thread threadWithNewTransactionContext = new Thread(() -> {
+        String handlerName = ClassUtils.getUserClass(this).getSimpleName();
+        eventTaskExecutor.execute(handlerName, () -> {
             try
             {
                 handleLocked(repositoryPath);
             }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
             catch (Exception e)
             {
-                logger.error(String.format("Failed to handle async event [%s]",
-                                           AsyncArtifactEntryHandler.this.getClass().getSimpleName()),
+                logger.error(String.format("Failed to handle async event [%s] for path [%s]", handlerName,
+                                           repositoryPath),
                              e);
             }
         });
-
-        threadWithNewTransactionContext.start();
-        threadWithNewTransactionContext.join();
     }
 
     private void handleLocked(RepositoryPath repositoryPath)
@@ -150,9 +162,15 @@ public abstract class AsyncArtifactEntryHandler
 
     private void handleTransactional(RepositoryPath repositoryPath)
     {
-        new TransactionTemplate(transactionManager).execute(t -> {
+        // The handler may run on the publishing thread, while the transaction of the event is being completed.
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.execute(t -> {
             try
             {
+                // Every attempt should start with the actual entry state, not the one remembered by the path.
+                repositoryPath.invalidateArtifactEntry();
+
                 ArtifactEntry result = handleEvent(repositoryPath);
                 if (result == null)
                 {
@@ -164,7 +182,10 @@ public abstract class AsyncArtifactEntryHandler
                     return null;
                 }
 
-                return artifactEntryService.save(result);
+                ArtifactEntry saved = artifactEntryService.save(result);
+                repositoryPath.invalidateArtifactEntry();
+
+                return saved;
             }
             catch (IOException e)
             {
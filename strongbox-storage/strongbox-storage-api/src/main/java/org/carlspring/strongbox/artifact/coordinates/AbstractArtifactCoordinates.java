@@ -3,6 +3,7 @@ package org.carlspring.strongbox.artifact.coordinates;
 import java.net.URI;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.carlspring.strongbox.data.domain.GenericEntity;
 
@@ -20,6 +21,18 @@ public abstract class AbstractArtifactCoordinates<C extends AbstractArtifactCoor
      * This field is used as unique OrientDB index.
      */
     private String path;
+    /**
+     * Lowercased coordinate tokens, used as OrientDB index for case-insensitive search.
+     *
+     * @see ArtifactCoordinatesSearchIndex
+     */
+    private Set<String> searchTokens;
+    /**
+     * The kind of {@link #searchTokens}, which tells if they have to be recomputed.
+     *
+     * @see ArtifactCoordinatesSearchIndex#getTokensVersion()
+     */
+    private String searchTokensVersion;
 
     public AbstractArtifactCoordinates()
     {
@@ -90,6 +103,26 @@ public abstract class AbstractArtifactCoordinates<C extends AbstractArtifactCoor
         this.path = path;
     }
 
+    public Set<String> getSearchTokens()
+    {
+        return searchTokens;
+    }
+
+    public void setSearchTokens(Set<String> searchTokens)
+    {
+        this.searchTokens = searchTokens;
+    }
+
+    public String getSearchTokensVersion()
+    {
+        return searchTokensVersion;
+    }
+
+    public void setSearchTokensVersion(String searchTokensVersion)
+    {
+        this.searchTokensVersion = searchTokensVersion;
+    }
+
     @Override
     public URI toResource()
     {
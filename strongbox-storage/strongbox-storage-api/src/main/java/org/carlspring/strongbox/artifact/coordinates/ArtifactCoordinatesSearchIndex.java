@@ -0,0 +1,312 @@
+package org.carlspring.strongbox.artifact.coordinates;
+
+import javax.inject.Inject;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.orientechnologies.common.concur.ONeedRetryException;
+import com.orientechnologies.orient.core.db.ODatabasePool;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.id.ORID;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OSchema;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.impl.ODocument;
+import com.orientechnologies.orient.core.sql.query.OSQLSynchQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Indexed, case-insensitive search over the artifact coordinates.
+ * <p>
+ * Each {@link AbstractArtifactCoordinates} keeps a set of search tokens, computed at save time from the lowercased
+ * coordinate values, which is indexed with {@value #INDEX_NAME}. A token is {@code key=value} for exact lookups and,
+ * when {@code strongbox.artifact.search.ngram.enabled} is set, {@code key~abc} for every trigram of the value, so that
+ * substring lookups can be narrowed by the index before the actual {@code LIKE} match. Without the n-gram tokens
+ * substrings are matched against every coordinate value.
+ * <p>
+ * The properties and the index are created on startup if they don't exist yet, and the coordinates which were stored
+ * before (or with the other n-gram setting, as told by the non-indexed {@value #VERSION_PROPERTY_NAME}) are
+ * re-tokenized in background, in batches which are paged by record id. Until that is done {@link #isReady()} returns
+ * {@code false} and the searches fall back to the full scan.
+ */
+@Component
+public class ArtifactCoordinatesSearchIndex
+        implements DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactCoordinatesSearchIndex.class);
+
+    public static final String PROPERTY_NAME = "searchTokens";
+
+    public static final String VERSION_PROPERTY_NAME = "searchTokensVersion";
+
+    public static final String INDEX_NAME = "idx_artifact_coordinates_search_tokens";
+
+    private static final String VERSION_EXACT = "exact";
+
+    private static final String VERSION_NGRAM = "exact+ngram";
+
+    private static final int REINDEX_ATTEMPTS = 3;
+
+    private static final int NGRAM_SIZE = 3;
+
+    @Inject
+    private ODatabasePool databasePool;
+
+    @Value("${strongbox.artifact.search.ngram.enabled:false}")
+    private boolean ngramEnabled;
+
+    @Value("${strongbox.artifact.search.reindex.batch.size:1000}")
+    private int reindexBatchSize;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, ArtifactCoordinatesSearchIndex.class.getSimpleName());
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    private volatile State state = State.BUILDING;
+
+    @EventListener({ ContextRefreshedEvent.class })
+    public void contextRefreshedEvent(ContextRefreshedEvent e)
+    {
+        if (e.getApplicationContext().getParent() != null)
+        {
+            return;
+        }
+
+        executor.execute(() -> {
+            try
+            {
+                createIndexes();
+
+                state = reindex() ? State.READY : State.FAILED;
+            }
+            catch (Exception ex)
+            {
+                state = State.FAILED;
+
+                logger.error("Failed to build artifact coordinates search index, searches will use full scan.", ex);
+            }
+        });
+    }
+
+    @Override
+    public void destroy()
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return {@code true} if all the stored coordinates have up to date search tokens.
+     */
+    public boolean isReady()
+    {
+        return state == State.READY;
+    }
+
+    public State getState()
+    {
+        return state;
+    }
+
+    /**
+     * @return the kind of the tokens which {@link #tokenize(Map)} computes.
+     */
+    public String getTokensVersion()
+    {
+        return ngramEnabled ? VERSION_NGRAM : VERSION_EXACT;
+    }
+
+    public boolean isNgramEnabled()
+    {
+        return ngramEnabled;
+    }
+
+    /**
+     * @return {@code true} if a substring lookup of the given value can be narrowed with the n-gram tokens.
+     */
+    public boolean isNgramSearchable(String value)
+    {
+        return ngramEnabled && value != null && value.length() >= NGRAM_SIZE;
+    }
+
+    public Set<String> tokenize(Map<String, String> coordinates)
+    {
+        Set<String> result = new LinkedHashSet<>();
+        for (Map.Entry<String, String> e : coordinates.entrySet())
+        {
+            if (e.getValue() == null)
+            {
+                continue;
+            }
+
+            String value = e.getValue().toLowerCase();
+            result.add(exactToken(e.getKey(), value));
+            if (ngramEnabled)
+            {
+                result.addAll(ngramTokens(e.getKey(), value));
+            }
+        }
+
+        return result;
+    }
+
+    public static String exactToken(String key,
+                                    String value)
+    {
+        return String.format("%s=%s", key, value);
+    }
+
+    public static Set<String> ngramTokens(String key,
+                                          String value)
+    {
+        if (value.length() < NGRAM_SIZE)
+        {
+            return Collections.emptySet();
+        }
+
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i + NGRAM_SIZE <= value.length(); i++)
+        {
+            result.add(String.format("%s~%s", key, value.substring(i, i + NGRAM_SIZE)));
+        }
+
+        return result;
+    }
+
+    private void createIndexes()
+    {
+        try (ODatabaseSession session = databasePool.acquire())
+        {
+            OSchema schema = session.getMetadata().getSchema();
+
+            OClass coordinatesClass = schema.getClass(AbstractArtifactCoordinates.class.getSimpleName());
+            if (coordinatesClass.getProperty(PROPERTY_NAME) == null)
+            {
+                coordinatesClass.createProperty(PROPERTY_NAME, OType.EMBEDDEDSET, OType.STRING);
+            }
+            if (coordinatesClass.getProperty(VERSION_PROPERTY_NAME) == null)
+            {
+                coordinatesClass.createProperty(VERSION_PROPERTY_NAME, OType.STRING);
+            }
+            if (coordinatesClass.getClassIndex(INDEX_NAME) == null)
+            {
+                logger.info(String.format("Creating index [%s].", INDEX_NAME));
+
+                coordinatesClass.createIndex(INDEX_NAME, OClass.INDEX_TYPE.NOTUNIQUE, PROPERTY_NAME);
+            }
+        }
+    }
+
+    /**
+     * @return {@code false} if the reindex has been interrupted.
+     */
+    private boolean reindex()
+    {
+        String className = AbstractArtifactCoordinates.class.getSimpleName();
+        String sFirstQuery = String.format("SELECT FROM %s ORDER BY @rid LIMIT %s", className, reindexBatchSize);
+        String sNextQuery = String.format("SELECT FROM %s WHERE @rid > :last ORDER BY @rid LIMIT %s", className,
+                                          reindexBatchSize);
+
+        long total = 0;
+        try (ODatabaseSession session = databasePool.acquire())
+        {
+            ORID last = null;
+            List<ODocument> batch;
+            do
+            {
+                if (Thread.currentThread().isInterrupted())
+                {
+                    return false;
+                }
+
+                for (int attempt = 1; ; attempt++)
+                {
+                    Map<String, Object> params = new HashMap<>();
+                    params.put("last", last);
+                    batch = session.command(new OSQLSynchQuery<ODocument>(last == null ? sFirstQuery : sNextQuery))
+                                   .execute(params);
+                    try
+                    {
+                        total += reindex(session, batch);
+
+                        break;
+                    }
+                    catch (ONeedRetryException e)
+                    {
+                        // The coordinates which were saved in the meantime already have up to date tokens, and the
+                        // batch is read again to skip them.
+                        if (session.getTransaction().isActive())
+                        {
+                            session.rollback();
+                        }
+                        if (attempt == REINDEX_ATTEMPTS)
+                        {
+                            throw e;
+                        }
+
+                        logger.debug(String.format("Retrying search tokens batch after [%s].", last), e);
+                    }
+                }
+
+                if (!batch.isEmpty())
+                {
+                    last = batch.get(batch.size() - 1).getIdentity();
+                }
+            } while (batch.size() == reindexBatchSize);
+        }
+
+        if (total > 0)
+        {
+            logger.info(String.format("Updated search tokens of [%s] artifact coordinates.", total));
+        }
+
+        return true;
+    }
+
+    private int reindex(ODatabaseSession session,
+                        List<ODocument> batch)
+    {
+        String version = getTokensVersion();
+        int result = 0;
+
+        session.begin();
+        for (ODocument doc : batch)
+        {
+            if (version.equals(doc.field(VERSION_PROPERTY_NAME)))
+            {
+                continue;
+            }
+
+            Map<String, String> coordinates = doc.field("coordinates");
+            doc.field(PROPERTY_NAME, tokenize(coordinates == null ? Collections.emptyMap() : coordinates));
+            doc.field(VERSION_PROPERTY_NAME, version);
+            doc.save();
+
+            result++;
+        }
+        session.commit();
+
+        return result;
+    }
+
+    public enum State
+    {
+        BUILDING, READY, FAILED
+    }
+
+}
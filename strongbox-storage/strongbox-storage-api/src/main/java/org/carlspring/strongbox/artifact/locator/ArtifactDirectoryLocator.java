@@ -4,14 +4,39 @@ import org.carlspring.strongbox.artifact.locator.handlers.ArtifactDirectoryOpera
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 
 import java.io.IOException;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.stream.Stream;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Walks a repository once and passes each artifact directory, along with its version directories, to the
+ * {@link ArtifactDirectoryOperation}.
+ * <p>
+ * A version directory is a directory which contains the files the operation tells apart (see
+ * {@link ArtifactDirectoryOperation#isVersionDirectoryFile(RepositoryPath)}, by default the artifact metadata files),
+ * and its parent is an artifact directory. Both are recognized while the tree is walked, so an artifact directory is
+ * passed to the operation as soon as its subtree has been visited, without listing the repository upfront or walking
+ * the subtrees again. Directories which start with a dot (like {@code .index} or {@code .trash}) are skipped.
+ * <p>
+ * If the operation is {@link ArtifactDirectoryOperation#isConcurrent() concurrent}, the artifact directories are
+ * processed on a fork-join pool of {@link #setParallelism(int) parallelism} threads, while the walk goes on; at most
+ * twice as many directories are queued. The progress is logged every {@link #setProgressInterval(int) progress
+ * interval} artifact directories.
+ *
  * @author mtodorov
  */
 public class ArtifactDirectoryLocator
@@ -27,6 +52,10 @@ public class ArtifactDirectoryLocator
      */
     private RepositoryPath basedir;
 
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    private int progressInterval = 1000;
+
     public void locateArtifactDirectories()
         throws IOException
     {
@@ -34,20 +63,24 @@ public class ArtifactDirectoryLocator
 
         RepositoryPath startingPath = getStartingPath();
 
-        try (Stream<Path> pathStream = Files.walk(startingPath))
+        ArtifactDirectoryVisitor visitor = new ArtifactDirectoryVisitor(startingPath);
+        try
         {
-            pathStream.filter(Files::isDirectory)
-                      // Skip directories which start with a dot (like, for example: .index)
-                      .filter(path -> !path.getFileName().toString().startsWith("."))
-                      // Note: Sorting can be expensive:
-                      .sorted()
-                      .forEach(this::execute);
+            Files.walkFileTree(startingPath, visitor);
+
+            // The starting path may be a version directory itself, its artifact directory is outside of the walk.
+            visitor.flush();
+        }
+        finally
+        {
+            visitor.await();
         }
 
         long endTime = System.currentTimeMillis();
 
-        logger.debug("Executed (cache: " + -operation.getVisitedRootPaths().size() + ")" +
-                     " visits in " + (endTime - startTime) + " ms.");
+        logger.info(String.format("Executed [%s] on [%s] artifact directories of [%s] in [%s] ms.",
+                                  getOperation().getClass().getSimpleName(), visitor.processed.get(), startingPath,
+                                  endTime - startTime));
 
         getOperation().getVisitedRootPaths().clear();
     }
@@ -88,16 +121,192 @@ public class ArtifactDirectoryLocator
         this.basedir = basedir;
     }
 
-    void execute(Path path)
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of threads for the {@link ArtifactDirectoryOperation#isConcurrent() concurrent} operations.
+     */
+    public void setParallelism(int parallelism)
+    {
+        this.parallelism = parallelism;
+    }
+
+    public int getProgressInterval()
+    {
+        return progressInterval;
+    }
+
+    public void setProgressInterval(int progressInterval)
+    {
+        this.progressInterval = progressInterval;
+    }
+
+    void execute(RepositoryPath artifactDirectoryPath,
+                 List<RepositoryPath> versionDirectories)
     {
         try
         {
-            operation.execute((RepositoryPath) path);
+            operation.execute(artifactDirectoryPath, versionDirectories);
         }
-        catch (IOException e)
+        catch (IOException | RuntimeException e)
         {
-            logger.error(String.format("Failed to execute operation [%s]", operation.getClass().getSimpleName()), e);
+            logger.error(String.format("Failed to execute operation [%s] on [%s]",
+                                       operation.getClass().getSimpleName(), artifactDirectoryPath), e);
         }
     }
-    
+
+    private class ArtifactDirectoryVisitor
+            extends SimpleFileVisitor<Path>
+    {
+
+        private final RepositoryPath startingPath;
+
+        /**
+         * Directories of the current branch which contain version directory files.
+         */
+        private final Set<Path> versionDirectories = new HashSet<>();
+
+        /**
+         * Version directories of the current branch, by their artifact directory.
+         */
+        private final Map<Path, List<RepositoryPath>> artifactDirectories = new HashMap<>();
+
+        private final ForkJoinPool pool;
+
+        private final int queueCapacity;
+
+        private final Semaphore queue;
+
+        private final AtomicLong processed = new AtomicLong();
+
+        private final long startTime = System.currentTimeMillis();
+
+        private ArtifactDirectoryVisitor(RepositoryPath startingPath)
+        {
+            this.startingPath = startingPath;
+
+            boolean concurrent = operation.isConcurrent() && parallelism > 1;
+            this.pool = concurrent ? new ForkJoinPool(parallelism) : null;
+            this.queueCapacity = parallelism * 2;
+            this.queue = concurrent ? new Semaphore(queueCapacity) : null;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir,
+                                                 BasicFileAttributes attrs)
+        {
+            if (!dir.equals(startingPath) && dir.getFileName().toString().startsWith("."))
+            {
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file,
+                                         BasicFileAttributes attrs)
+            throws IOException
+        {
+            Path dir = file.getParent();
+            if (attrs.isRegularFile() && !versionDirectories.contains(dir) &&
+                operation.isVersionDirectoryFile((RepositoryPath) file))
+            {
+                versionDirectories.add(dir);
+            }
+
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file,
+                                               IOException e)
+        {
+            logger.error(String.format("Failed to visit [%s]", file), e);
+
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir,
+                                                  IOException e)
+        {
+            if (versionDirectories.remove(dir) && dir.getParent() != null)
+            {
+                artifactDirectories.computeIfAbsent(dir.getParent(), p -> new ArrayList<>())
+                                   .add((RepositoryPath) dir);
+            }
+
+            List<RepositoryPath> versions = artifactDirectories.remove(dir);
+            if (versions != null)
+            {
+                submit((RepositoryPath) dir, versions);
+            }
+
+            return FileVisitResult.CONTINUE;
+        }
+
+        private void flush()
+        {
+            new ArrayList<>(artifactDirectories.keySet()).forEach(dir -> submit((RepositoryPath) dir,
+                                                                                 artifactDirectories.remove(dir)));
+        }
+
+        private void submit(RepositoryPath artifactDirectoryPath,
+                            List<RepositoryPath> versions)
+        {
+            versions.sort(null);
+
+            if (pool == null)
+            {
+                execute(artifactDirectoryPath, versions);
+                progress();
+
+                return;
+            }
+
+            queue.acquireUninterruptibly();
+            pool.execute(() -> {
+                try
+                {
+                    execute(artifactDirectoryPath, versions);
+                    progress();
+                }
+                finally
+                {
+                    queue.release();
+                }
+            });
+        }
+
+        private void progress()
+        {
+            long count = processed.incrementAndGet();
+            if (progressInterval > 0 && count % progressInterval == 0)
+            {
+                logger.info(String.format("[%s] processed [%s] artifact directories of [%s] in [%s] ms.",
+                                          operation.getClass().getSimpleName(), count, startingPath,
+                                          System.currentTimeMillis() - startTime));
+            }
+        }
+
+        private void await()
+        {
+            if (pool == null)
+            {
+                return;
+            }
+
+            // All the permits are back once the queued directories have been processed.
+            queue.acquireUninterruptibly(queueCapacity);
+            queue.release(queueCapacity);
+
+            pool.shutdown();
+        }
+
+    }
+
 }
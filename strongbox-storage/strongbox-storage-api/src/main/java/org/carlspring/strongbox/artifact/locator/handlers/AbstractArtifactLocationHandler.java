@@ -8,6 +8,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.stream.Stream;
 
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
@@ -40,14 +41,14 @@ public abstract class AbstractArtifactLocationHandler
         throws IOException
     {
         Set<RepositoryPath> versionDirectorySet = new TreeSet<>();
-        Files.walk(basePath)
-             .forEach(p -> {
-                 if (isMetadata(p))
-                 {
-                     versionDirectorySet.add((RepositoryPath) p.getParent());
-                 }
-             });
-        
+        try (Stream<Path> pathStream = Files.walk(basePath))
+        {
+            pathStream.filter(p -> !versionDirectorySet.contains(p.getParent()))
+                      .filter(Files::isRegularFile)
+                      .filter(this::isMetadata)
+                      .forEach(p -> versionDirectorySet.add((RepositoryPath) p.getParent()));
+        }
+
         return new ArrayList<>(versionDirectorySet);
     }
 
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.util.LinkedHashMap;
 import java.util.List;
 
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 
 /**
@@ -15,12 +16,60 @@ public interface ArtifactDirectoryOperation
 
     /**
      * Operation logic which need to be performed on provided directory.
+     * <p>
+     * Unless {@link #execute(RepositoryPath, List)} is overridden, only the artifact and the version directories are
+     * provided; the directories which are neither (like the groupId directories) are not.
      * 
      * @param directoryPath
      * @throws IOException
      */
     void execute(RepositoryPath directoryPath) throws IOException;
 
+    /**
+     * Operation logic which need to be performed on an artifact directory, with the version directories (see
+     * {@link #isVersionDirectoryFile(RepositoryPath)}) found under it by the
+     * {@link org.carlspring.strongbox.artifact.locator.ArtifactDirectoryLocator}.
+     * <p>
+     * By default the artifact directory and then each version directory are passed to {@link #execute(RepositoryPath)}.
+     *
+     * @param artifactDirectoryPath
+     * @param versionDirectories
+     * @throws IOException
+     */
+    default void execute(RepositoryPath artifactDirectoryPath,
+                         List<RepositoryPath> versionDirectories)
+        throws IOException
+    {
+        execute(artifactDirectoryPath);
+        for (RepositoryPath versionDirectory : versionDirectories)
+        {
+            execute(versionDirectory);
+        }
+    }
+
+    /**
+     * Tells if a file makes its directory a version directory, and the parent of that directory an artifact directory.
+     * <p>
+     * By default these are the artifact metadata files, see {@link RepositoryFiles#isMetadata(RepositoryPath)}.
+     *
+     * @param path
+     * @throws IOException
+     */
+    default boolean isVersionDirectoryFile(RepositoryPath path)
+        throws IOException
+    {
+        return Boolean.TRUE.equals(RepositoryFiles.isMetadata(path));
+    }
+
+    /**
+     * @return {@code true} if {@link #execute(RepositoryPath, List)} can be performed on several artifact directories
+     *         at the same time
+     */
+    default boolean isConcurrent()
+    {
+        return false;
+    }
+
     LinkedHashMap<RepositoryPath, List<RepositoryPath>> getVisitedRootPaths();
 
     RepositoryPath getBasePath();
@@ -8,8 +8,11 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,9 +29,21 @@ public class ArtifactLocationGenerateChecksumOperation
 
     private boolean forceRegeneration = false;
 
+    /**
+     * Repository relative paths of the directories whose whole trees have had the checksums generated already.
+     */
+    private Set<String> generatedPaths = ConcurrentHashMap.newKeySet();
+
     public void execute(RepositoryPath path)
             throws IOException
     {
+        String relativePath = StringUtils.removeEnd(RepositoryFiles.relativizePath(path), "/");
+        if (isGenerated(relativePath))
+        {
+            logger.debug(String.format("Checksums for [%s] have been generated along with a parent directory.", path));
+            return;
+        }
+
         try (Stream<Path> pathStream = Files.list(path))
         {
             boolean containsMetadata = pathStream.anyMatch(p -> {
@@ -82,10 +97,54 @@ public class ArtifactLocationGenerateChecksumOperation
             previousPath = parentPath;
         }
 
-        RepositoryPath basePath = parentPath;
+        storeChecksum(parentPath, relativePath);
+    }
+
+    /**
+     * The checksums are generated for each version directory, as they are known to contain metadata files already.
+     */
+    @Override
+    public void execute(RepositoryPath artifactDirectoryPath,
+                        List<RepositoryPath> versionDirectories)
+            throws IOException
+    {
+        for (RepositoryPath versionDirectory : versionDirectories)
+        {
+            String relativePath = StringUtils.removeEnd(RepositoryFiles.relativizePath(versionDirectory), "/");
+            if (!isGenerated(relativePath))
+            {
+                storeChecksum(versionDirectory, relativePath);
+            }
+        }
+    }
+
+    @Override
+    public boolean isConcurrent()
+    {
+        return true;
+    }
+
+    private void storeChecksum(RepositoryPath basePath,
+                               String relativePath)
+            throws IOException
+    {
         LayoutFileSystemProvider provider = (LayoutFileSystemProvider) basePath.getFileSystem()
                                                                                                    .provider();
         provider.storeChecksum(basePath, forceRegeneration);
+        generatedPaths.add(relativePath);
+    }
+
+    private boolean isGenerated(String relativePath)
+    {
+        for (String p = relativePath; !p.isEmpty(); p = p.substring(0, Math.max(0, p.lastIndexOf('/'))))
+        {
+            if (generatedPaths.contains(p))
+            {
+                return true;
+            }
+        }
+
+        return generatedPaths.contains("");
     }
 
     public boolean getForceRegeneration()
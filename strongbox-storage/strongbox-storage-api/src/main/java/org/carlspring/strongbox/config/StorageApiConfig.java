@@ -7,13 +7,16 @@ import org.carlspring.strongbox.storage.checksum.ChecksumCacheManager;
 import org.carlspring.strongbox.storage.validation.ArtifactCoordinatesValidator;
 
 import javax.inject.Inject;
+import javax.sql.DataSource;
 import java.util.LinkedHashSet;
 import java.util.List;
 
+import liquibase.integration.spring.SpringLiquibase;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.scheduling.annotation.EnableAsync;
 
 @Configuration
@@ -35,6 +38,9 @@ public class StorageApiConfig
     @Inject
     private List<ArtifactCoordinatesValidator> versionValidators;
 
+    @Inject
+    private DataSource dataSource;
+
     @Bean
     ChecksumCacheManager checksumCacheManager()
     {
@@ -45,6 +51,20 @@ public class StorageApiConfig
         return checksumCacheManager;
     }
 
+    /**
+     * The indexes which the storage queries rely on, on top of the schema created by {@code liquibase}.
+     */
+    @Bean(name = "liquibaseStorageApi")
+    @DependsOn("liquibase")
+    SpringLiquibase liquibaseStorageApi(ResourceLoader resourceLoader)
+    {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setResourceLoader(resourceLoader);
+        liquibase.setChangeLog("classpath:/db/changelog/db.changelog-storage-api.xml");
+        return liquibase;
+    }
+
     @Bean
     LinkedHashSet<ArtifactCoordinatesValidator> versionValidators()
     {
@@ -0,0 +1,42 @@
+package org.carlspring.strongbox.domain;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Coordinates and creation time of an {@link ArtifactEntry} of an artifact group, as they are read by
+ * {@link org.carlspring.strongbox.services.RepositoryArtifactIdGroupService#findCatalog(String, String, String)}
+ * without loading the entries themselves.
+ */
+public class ArtifactCatalogEntry
+{
+
+    private final Map<String, String> coordinates;
+
+    private final Date created;
+
+    public ArtifactCatalogEntry(Map<String, String> coordinates,
+                                Date created)
+    {
+        this.coordinates = Collections.unmodifiableMap(new LinkedHashMap<>(coordinates));
+        this.created = created;
+    }
+
+    public Map<String, String> getCoordinates()
+    {
+        return coordinates;
+    }
+
+    public String getCoordinate(String name)
+    {
+        return coordinates.get(name);
+    }
+
+    public Date getCreated()
+    {
+        return created;
+    }
+
+}
@@ -218,6 +218,8 @@ public abstract class AbstractRepositoryProvider extends RepositoryStreamSupport
         
         RepositoryArtifactIdGroupEntry artifactGroup = repositoryArtifactIdGroupService.findOneOrCreate(storage.getId(), repository.getId(), coordinates.getId());
         repositoryArtifactIdGroupService.addArtifactToGroup(artifactGroup, artifactEntry);
+
+        repositoryPath.invalidateArtifactEntry();
     }
 
     protected ArtifactEntry provideArtifactEntry(RepositoryPath repositoryPath) throws IOException
@@ -0,0 +1,155 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactEntrySerializer;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+
+import javax.inject.Inject;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short-lived {@link ArtifactEntry} cache shared between the requests, keyed by storage, repository and path, which
+ * saves the database lookups when the same artifact is downloaded over and over again.
+ * <p>
+ * The cache is disabled by default, see {@code strongbox.artifact.entry.cache.enabled}. Only existing entries are
+ * cached. Each caller gets its own copy of the cached entry, so that the entries which are changed and saved by one
+ * request are never seen half-updated by another. Entries are invalidated when they are saved or deleted through the
+ * {@code ArtifactEntryService} and when the artifact, or a directory above it, is stored, updated or deleted, and in
+ * any case they expire after {@code strongbox.artifact.entry.cache.ttl.millis}. It's a {@link RepositoryPathCache} of
+ * {@code strongbox.artifact.entry.cache.max.size} entries, with {@code strongbox.artifact.entry.cache.*} metrics.
+ */
+@Component
+public class ArtifactEntryCache
+        implements InitializingBean
+{
+
+    private static final String METRIC_PREFIX = "strongbox.artifact.entry.cache";
+
+    @Inject
+    private ArtifactEntrySerializer artifactEntrySerializer;
+
+    @Value("${strongbox.artifact.entry.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${strongbox.artifact.entry.cache.max.size:10000}")
+    private int maxSize;
+
+    @Value("${strongbox.artifact.entry.cache.ttl.millis:5000}")
+    private long ttlMillis;
+
+    private RepositoryPathCache<ArtifactEntry> cache;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        cache = new RepositoryPathCache<>(METRIC_PREFIX, maxSize, ttlMillis);
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * @return a copy of the cached entry, or {@code null} if there is no one or it has been expired.
+     */
+    public ArtifactEntry get(String storageId,
+                             String repositoryId,
+                             String path)
+    {
+        if (!enabled)
+        {
+            return null;
+        }
+
+        ArtifactEntry result = cache.get(new RepositoryPathKey(storageId, repositoryId, path));
+
+        return result == null ? null : artifactEntrySerializer.copy(result);
+    }
+
+    public void put(String storageId,
+                    String repositoryId,
+                    String path,
+                    ArtifactEntry artifactEntry)
+    {
+        if (!enabled || artifactEntry == null)
+        {
+            return;
+        }
+
+        cache.put(new RepositoryPathKey(storageId, repositoryId, path), artifactEntrySerializer.copy(artifactEntry));
+    }
+
+    public void invalidate(String storageId,
+                           String repositoryId,
+                           String path)
+    {
+        if (cache.isEmpty())
+        {
+            return;
+        }
+
+        cache.invalidate(new RepositoryPathKey(storageId, repositoryId, path));
+    }
+
+    public void invalidate(ArtifactEntry artifactEntry)
+    {
+        if (artifactEntry == null || cache.isEmpty() || artifactEntry.getArtifactCoordinates() == null)
+        {
+            return;
+        }
+
+        invalidate(artifactEntry.getStorageId(), artifactEntry.getRepositoryId(), artifactEntry.getArtifactPath());
+    }
+
+    /**
+     * Invalidates the given path, and everything under it, in the given repository. An empty path invalidates the
+     * whole repository.
+     */
+    public void invalidateTree(String storageId,
+                               String repositoryId,
+                               String path)
+    {
+        if (cache.isEmpty())
+        {
+            return;
+        }
+
+        cache.invalidateTree(new RepositoryPathKey(storageId, repositoryId, path));
+    }
+
+    public void invalidateAll()
+    {
+        cache.invalidateAll();
+    }
+
+    long size()
+    {
+        return cache.size();
+    }
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        if (event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType()
+                && event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED.getType()
+                && event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType())
+        {
+            return;
+        }
+
+        if (cache.isEmpty())
+        {
+            return;
+        }
+
+        // Deleted directories take all the artifacts under them along.
+        cache.invalidateTree(RepositoryPathKey.of(event.getPath()));
+    }
+
+}
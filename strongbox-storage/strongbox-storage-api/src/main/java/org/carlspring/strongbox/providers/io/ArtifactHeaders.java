@@ -0,0 +1,117 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.common.net.MediaType;
+
+/**
+ * Compact record of what's needed to answer {@code HEAD} and conditional {@code GET} requests of a file: its size,
+ * modification time, content type and stored checksums by digest algorithm.
+ *
+ * @see ArtifactHeadersCache
+ */
+public class ArtifactHeaders
+{
+
+    private final long size;
+
+    private final long lastModified;
+
+    private final String contentType;
+
+    private final Map<String, String> checksums;
+
+    public ArtifactHeaders(long size,
+                           long lastModified,
+                           String contentType,
+                           Map<String, String> checksums)
+    {
+        this.size = size;
+        this.lastModified = lastModified;
+        this.contentType = contentType;
+        this.checksums = Collections.unmodifiableMap(new TreeMap<>(checksums));
+    }
+
+    public long getSize()
+    {
+        return size;
+    }
+
+    public long getLastModified()
+    {
+        return lastModified;
+    }
+
+    public String getContentType()
+    {
+        return contentType;
+    }
+
+    public Map<String, String> getChecksums()
+    {
+        return checksums;
+    }
+
+    /**
+     * Reads the headers of the given file, with the checksums of the checksum files which exist.
+     */
+    public static ArtifactHeaders read(RepositoryPath path)
+        throws IOException
+    {
+        BasicFileAttributes fileAttributes = Files.readAttributes(path, BasicFileAttributes.class);
+
+        return new ArtifactHeaders(fileAttributes.size(),
+                                   fileAttributes.lastModifiedTime().toMillis(),
+                                   probeContentType(path),
+                                   readChecksums(path));
+    }
+
+    private static Map<String, String> readChecksums(RepositoryPath path)
+    {
+        Map<String, String> result = new TreeMap<>();
+        path.getFileSystem().provider().resolveChecksumPathMap(path).entrySet().stream().forEach(e -> {
+            String checksumValue;
+            try
+            {
+                checksumValue = new String(Files.readAllBytes(e.getValue()), StandardCharsets.UTF_8).trim();
+            }
+            catch (IOException ioe)
+            {
+                return;
+            }
+            result.put(e.getKey(), checksumValue);
+        });
+
+        return result;
+    }
+
+    public static String probeContentType(RepositoryPath path)
+        throws IOException
+    {
+        // TODO: This is far from optimal and will need to have a content type approach at some point:
+        if (Boolean.TRUE.equals(RepositoryFiles.isChecksum(path)) ||
+            path.getFileName().toString().endsWith(".properties"))
+        {
+            return MediaType.PLAIN_TEXT_UTF_8.withoutParameters().toString();
+        }
+        else if (path.getFileName().toString().endsWith("xml"))
+        {
+            return MediaType.APPLICATION_XML_UTF_8.withoutParameters().toString();
+        }
+        else if (path.getFileName().toString().endsWith(".gz"))
+        {
+            return MediaType.GZIP.toString();
+        }
+        else
+        {
+            return MediaType.OCTET_STREAM.toString();
+        }
+    }
+
+}
@@ -0,0 +1,201 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link ArtifactHeaders} of the served files, keyed by storage, repository and path, so that the repeated
+ * {@code HEAD} requests of the build tools are answered without touching the file system.
+ * <p>
+ * Entries are invalidated by the {@link StorageFileSystemProvider} whenever a file is stored, copied, moved or
+ * deleted, and they are populated again once a file has been stored or its checksums have been written. Storing a
+ * checksum file refreshes the file it belongs to as well. The entries of a repository are dropped when its
+ * configuration changes, and changes made behind the provider's back are picked up once the entries expire after
+ * {@code strongbox.artifact.headers.cache.ttl.millis}.
+ * <p>
+ * The cache is disabled unless {@code strongbox.artifact.headers.cache.enabled} is set. It's a
+ * {@link RepositoryPathCache} of {@code strongbox.artifact.headers.cache.max.size} entries, with
+ * {@code strongbox.artifact.headers.cache.*} metrics.
+ */
+@Component
+public class ArtifactHeadersCache
+        implements InitializingBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactHeadersCache.class);
+
+    private static final String METRIC_PREFIX = "strongbox.artifact.headers.cache";
+
+    @Value("${strongbox.artifact.headers.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${strongbox.artifact.headers.cache.max.size:50000}")
+    private int maxSize;
+
+    @Value("${strongbox.artifact.headers.cache.ttl.millis:60000}")
+    private long ttlMillis;
+
+    private RepositoryPathCache<ArtifactHeaders> cache;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        cache = new RepositoryPathCache<>(METRIC_PREFIX, maxSize, ttlMillis);
+    }
+
+    /**
+     * @return the cached headers, or {@code null} if there are no ones or they have been expired.
+     */
+    public ArtifactHeaders get(RepositoryPath path)
+    {
+        if (!enabled)
+        {
+            return null;
+        }
+
+        return cache.get(RepositoryPathKey.of(path));
+    }
+
+    public void put(RepositoryPath path,
+                    ArtifactHeaders artifactHeaders)
+    {
+        if (!enabled || artifactHeaders == null)
+        {
+            return;
+        }
+
+        cache.put(RepositoryPathKey.of(path), artifactHeaders);
+    }
+
+    /**
+     * Reads the headers of the file, and caches them if it exists.
+     */
+    public void refresh(RepositoryPath path)
+        throws IOException
+    {
+        if (!enabled || !Files.isRegularFile(path))
+        {
+            return;
+        }
+
+        put(path, ArtifactHeaders.read(path));
+    }
+
+    /**
+     * Invalidates the headers of the path, and of the file it belongs to if it's a checksum file of one of the
+     * repository's digest algorithms.
+     */
+    public void invalidate(RepositoryPath path)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        cache.invalidate(RepositoryPathKey.of(path));
+
+        RepositoryPath checksumOwnerPath = getChecksumOwnerPath(path);
+        if (checksumOwnerPath != null)
+        {
+            cache.invalidate(RepositoryPathKey.of(checksumOwnerPath));
+        }
+    }
+
+    private RepositoryPath getChecksumOwnerPath(RepositoryPath path)
+    {
+        String fileName = path.getFileName().toString();
+        int extensionIndex = fileName.lastIndexOf('.');
+        if (extensionIndex <= 0)
+        {
+            return null;
+        }
+
+        // Checksum file extensions are made of the digest algorithm names: SHA-1->sha1
+        String extension = fileName.substring(extensionIndex + 1);
+        for (String digestAlgorithm : path.getFileSystem().getDigestAlgorithmSet())
+        {
+            if (digestAlgorithm.replaceAll("-", "").equalsIgnoreCase(extension))
+            {
+                return path.resolveSibling(fileName.substring(0, extensionIndex));
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Invalidates the headers of the path and of everything under it.
+     */
+    public void invalidateTree(RepositoryPath path)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        cache.invalidateTree(RepositoryPathKey.of(path));
+    }
+
+    public void invalidateStorage(String storageId)
+    {
+        cache.invalidateStorage(storageId);
+    }
+
+    public void invalidateRepository(String storageId,
+                                     String repositoryId)
+    {
+        cache.invalidateRepository(storageId, repositoryId);
+    }
+
+    public void invalidateAll()
+    {
+        cache.invalidateAll();
+    }
+
+    long size()
+    {
+        return cache.size();
+    }
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        if (event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType()
+                && event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED.getType())
+        {
+            return;
+        }
+
+        if (!enabled)
+        {
+            return;
+        }
+
+        RepositoryPath path = event.getPath();
+        try
+        {
+            refresh(path);
+
+            RepositoryPath checksumOwnerPath = getChecksumOwnerPath(path);
+            if (checksumOwnerPath != null)
+            {
+                refresh(checksumOwnerPath);
+            }
+        }
+        catch (IOException e)
+        {
+            logger.warn(String.format("Failed to read the headers of [%s]", path), e);
+        }
+    }
+
+}
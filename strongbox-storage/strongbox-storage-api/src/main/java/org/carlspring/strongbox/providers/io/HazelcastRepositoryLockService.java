@@ -0,0 +1,39 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.config.ClusterEnabledCondition;
+
+import javax.inject.Inject;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import ca.thoughtwire.lock.DistributedLockService;
+import com.hazelcast.core.HazelcastInstance;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cluster wide locks, which are shared between all the Strongbox nodes through Hazelcast.
+ */
+@Component
+@Conditional(ClusterEnabledCondition.class)
+public class HazelcastRepositoryLockService
+        implements RepositoryLockService
+{
+
+    private DistributedLockService lockService;
+
+    @Inject
+    public void setHazelcastInstance(HazelcastInstance hazelcastInstance)
+    {
+        lockService = DistributedLockService.newHazelcastLockService(hazelcastInstance);
+    }
+
+    @Override
+    public ReadWriteLock getLock(String lock,
+                                 String id)
+    {
+        String lockName = id == null ? lock : String.format("%s?%s", lock, id);
+
+        return lockService.getReentrantReadWriteLock(lockName);
+    }
+
+}
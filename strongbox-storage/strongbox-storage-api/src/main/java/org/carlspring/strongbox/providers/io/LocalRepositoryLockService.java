@@ -0,0 +1,63 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.config.ClusterDisabledCondition;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Component;
+
+/**
+ * JVM local locks for single node deployments.
+ * <p>
+ * The locks are taken from a fixed pool of {@link ReentrantReadWriteLock} stripes
+ * ({@code strongbox.lock.local.stripes}, rounded up to a power of two), selected by the hash of the lock key and
+ * qualifier, so there is nothing to allocate or clean up per lock. Different keys may share a stripe: nested write
+ * locks, or a read lock within a write lock, are fine since the locks are reentrant, but a write lock must not be
+ * requested while holding the read lock of another key, as it can't be granted if both keys share the stripe.
+ */
+@Component
+@Conditional(ClusterDisabledCondition.class)
+public class LocalRepositoryLockService
+        implements RepositoryLockService
+{
+
+    private final ReadWriteLock[] stripes;
+
+    private final int mask;
+
+    public LocalRepositoryLockService(@Value("${strongbox.lock.local.stripes:1024}") int stripeCount)
+    {
+        int size = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+
+        stripes = new ReadWriteLock[size];
+        for (int i = 0; i < size; i++)
+        {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+
+        mask = size - 1;
+    }
+
+    @Override
+    public ReadWriteLock getLock(String lock,
+                                 String id)
+    {
+        int h = lock.hashCode();
+        if (id != null)
+        {
+            h = 31 * h + id.hashCode();
+        }
+
+        // spread the higher bits down, the same way as `HashMap` does
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    int getStripeCount()
+    {
+        return stripes.length;
+    }
+
+}
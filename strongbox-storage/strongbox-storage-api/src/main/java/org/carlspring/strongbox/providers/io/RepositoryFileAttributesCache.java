@@ -0,0 +1,170 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Repository file attributes shared between all the {@link RepositoryPath} instances of the same file, so that the
+ * layout specific attribute calculation (checksum, artifact and metadata flags) is done once per path rather than
+ * once per {@link RepositoryPath} object.
+ * <p>
+ * Only the attributes which are pure functions of the path are cached. {@link RepositoryFileAttributeType#ARTIFACT}
+ * also depends on whether the path is a directory, so it's cached separately for directories and files. The entries
+ * are still invalidated by the {@link StorageFileSystemProvider} whenever a path is stored, moved, restored or deleted,
+ * so that a path recreated with other content never sees stale values, and the whole cache is dropped when the
+ * configuration changes, because a repository could be recreated with another layout.
+ * {@link RepositoryFileAttributeType#COORDINATES} are not shared, because they become a part of the persisted
+ * {@code ArtifactEntry}, and neither are the attributes which depend on time or configuration.
+ * <p>
+ * The cache is disabled unless {@code strongbox.repository.file.attributes.cache.enabled} is set. It's a
+ * {@link RepositoryPathCache} of {@code strongbox.repository.file.attributes.cache.max.size} entries, which never
+ * expire, with {@code strongbox.repository.file.attributes.cache.*} metrics.
+ */
+@Component
+public class RepositoryFileAttributesCache
+        implements InitializingBean
+{
+
+    private static final String METRIC_PREFIX = "strongbox.repository.file.attributes.cache";
+
+    private static final Set<RepositoryFileAttributeType> PATH_ATTRIBUTES =
+            EnumSet.of(RepositoryFileAttributeType.CHECKSUM,
+                       RepositoryFileAttributeType.METADATA,
+                       RepositoryFileAttributeType.TRASH,
+                       RepositoryFileAttributeType.TEMP,
+                       RepositoryFileAttributeType.ARTIFACT_PATH,
+                       RepositoryFileAttributeType.STORAGE_ID,
+                       RepositoryFileAttributeType.REPOSITORY_ID);
+
+    private static final Set<RepositoryFileAttributeType> DIRECTORY_DEPENDENT_ATTRIBUTES =
+            EnumSet.of(RepositoryFileAttributeType.ARTIFACT);
+
+    @Value("${strongbox.repository.file.attributes.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${strongbox.repository.file.attributes.cache.max.size:50000}")
+    private int maxSize;
+
+    private RepositoryPathCache<CachedAttributes> cache;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        cache = new RepositoryPathCache<>(METRIC_PREFIX, maxSize, 0);
+    }
+
+    public boolean isCacheable(RepositoryFileAttributeType attributeType)
+    {
+        return enabled && (PATH_ATTRIBUTES.contains(attributeType) || isDirectoryDependent(attributeType));
+    }
+
+    public boolean isDirectoryDependent(RepositoryFileAttributeType attributeType)
+    {
+        return DIRECTORY_DEPENDENT_ATTRIBUTES.contains(attributeType);
+    }
+
+    /**
+     * @param directory whether the path is a directory, required only for the directory dependent attributes
+     * @return the cached attribute value, or {@code null}
+     */
+    public Object get(RepositoryPath path,
+                      RepositoryFileAttributeType attributeType,
+                      boolean directory)
+    {
+        if (!enabled)
+        {
+            return null;
+        }
+
+        return cache.lookup(RepositoryPathKey.of(path), c -> c.get(attributeType, directory));
+    }
+
+    public void put(RepositoryPath path,
+                    RepositoryFileAttributeType attributeType,
+                    boolean directory,
+                    Object value)
+    {
+        if (!isCacheable(attributeType) || value == null)
+        {
+            return;
+        }
+
+        cache.computeIfAbsent(RepositoryPathKey.of(path), k -> new CachedAttributes())
+             .put(attributeType, directory, value);
+    }
+
+    public void invalidate(RepositoryPath path)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        cache.invalidate(RepositoryPathKey.of(path));
+    }
+
+    /**
+     * Invalidates the attributes of the path and of everything under it.
+     */
+    public void invalidateTree(RepositoryPath path)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        cache.invalidateTree(RepositoryPathKey.of(path));
+    }
+
+    public void invalidateAll()
+    {
+        cache.invalidateAll();
+    }
+
+    long size()
+    {
+        return cache.size();
+    }
+
+    private class CachedAttributes
+    {
+
+        private final Map<RepositoryFileAttributeType, Object> pathAttributes = new ConcurrentHashMap<>();
+
+        private final Map<RepositoryFileAttributeType, Object> fileAttributes = new ConcurrentHashMap<>();
+
+        private final Map<RepositoryFileAttributeType, Object> directoryAttributes = new ConcurrentHashMap<>();
+
+        private Map<RepositoryFileAttributeType, Object> attributes(RepositoryFileAttributeType attributeType,
+                                                                   boolean directory)
+        {
+            if (!isDirectoryDependent(attributeType))
+            {
+                return pathAttributes;
+            }
+
+            return directory ? directoryAttributes : fileAttributes;
+        }
+
+        private Object get(RepositoryFileAttributeType attributeType,
+                           boolean directory)
+        {
+            return attributes(attributeType, directory).get(attributeType);
+        }
+
+        private void put(RepositoryFileAttributeType attributeType,
+                         boolean directory,
+                         Object value)
+        {
+            attributes(attributeType, directory).put(attributeType, value);
+        }
+
+    }
+
+}
@@ -31,31 +31,31 @@ public abstract class RepositoryFiles
     public static Boolean isChecksum(RepositoryPath path)
         throws IOException
     {
-        return (Boolean) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.CHECKSUM));
+        return readAttribute(path, RepositoryFileAttributeType.CHECKSUM);
     }
 
     public static Boolean isMetadata(RepositoryPath path)
         throws IOException
     {
-        return (Boolean) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.METADATA));
+        return readAttribute(path, RepositoryFileAttributeType.METADATA);
     }
 
     public static Boolean isTrash(RepositoryPath path)
         throws IOException
     {
-        return (Boolean) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.TRASH));
+        return readAttribute(path, RepositoryFileAttributeType.TRASH);
     }
 
     public static Boolean isTemp(RepositoryPath path)
         throws IOException
     {
-        return (Boolean) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.TEMP));
+        return readAttribute(path, RepositoryFileAttributeType.TEMP);
     }
     
     public static Boolean isArtifact(RepositoryPath path)
         throws IOException
     {
-        return (Boolean) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.ARTIFACT));
+        return readAttribute(path, RepositoryFileAttributeType.ARTIFACT);
     }
 
     public static boolean wasModifiedAfter(RepositoryPath path,
@@ -69,20 +69,26 @@ public abstract class RepositoryFiles
     public static Boolean hasExpired(RepositoryPath path)
             throws IOException
     {
-        return (Boolean) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.EXPIRED));
+        return readAttribute(path, RepositoryFileAttributeType.EXPIRED);
     }
 
     public static ArtifactCoordinates readCoordinates(RepositoryPath path)
         throws IOException
     {
-        return (ArtifactCoordinates) Files.getAttribute(path,
-                                                        formatAttributes(RepositoryFileAttributeType.COORDINATES));
+        return readAttribute(path, RepositoryFileAttributeType.COORDINATES);
     }
 
     public static URL readResourceUrl(RepositoryPath path)
         throws IOException
     {
-        return (URL) Files.getAttribute(path, formatAttributes(RepositoryFileAttributeType.RESOURCE_URL));
+        return readAttribute(path, RepositoryFileAttributeType.RESOURCE_URL);
+    }
+
+    private static <T> T readAttribute(RepositoryPath path,
+                                       RepositoryFileAttributeType attributeType)
+        throws IOException
+    {
+        return path.getFileSystem().provider().readRepositoryFileAttribute(path, attributeType);
     }
     
     public static String formatAttributes(RepositoryFileAttributeType... attributeTypes)
@@ -0,0 +1,24 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Backend which provides the {@link ReadWriteLock}s used by {@link RepositoryPathLock}.
+ *
+ * @see HazelcastRepositoryLockService
+ * @see LocalRepositoryLockService
+ */
+public interface RepositoryLockService
+{
+
+    /**
+     * @param lock
+     *            the lock key (artifact coordinates ID or absolute path URI)
+     * @param id
+     *            optional lock qualifier, which allows to have several independent locks with the same key
+     * @return the lock
+     */
+    ReadWriteLock getLock(String lock,
+                          String id);
+
+}
@@ -15,9 +15,9 @@ import java.nio.file.WatchEvent.Kind;
 import java.nio.file.WatchEvent.Modifier;
 import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This implementation decorates storage {@link Path} implementation, which can be an "Cloud Path" or common
@@ -38,7 +38,7 @@ public class RepositoryPath
     
     protected ArtifactEntry artifactEntry;
     
-    protected Map<RepositoryFileAttributeType, Object> cachedAttributes = new HashMap<>();
+    protected Map<RepositoryFileAttributeType, Object> cachedAttributes = new ConcurrentHashMap<>();
     
     protected URI uri;
     
@@ -61,6 +61,16 @@ public class RepositoryPath
         return artifactEntry;
     }
 
+    /**
+     * Drops the {@link ArtifactEntry} which may be remembered by this path, so that the next
+     * {@link #getArtifactEntry()} call reads it from the database again. Should be called once the entry has been
+     * saved or deleted.
+     */
+    public void invalidateArtifactEntry()
+        throws IOException
+    {
+    }
+
     public LayoutFileSystem getFileSystem()
     {
         return fileSystem;
@@ -0,0 +1,248 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Bounded in-memory cache of values by {@link RepositoryPathKey}, which the caches of the repository files are built
+ * on.
+ * <p>
+ * The cache holds at most {@code maxSize} entries, and the least recently used ones are evicted when it's full (the
+ * cache is split into segments which are evicted separately, so the order is approximate). A {@code maxSize} of zero
+ * caches nothing. Entries expire {@code ttlMillis} after they have been put, or never if the TTL isn't positive.
+ * <p>
+ * Besides the single entries, the entries of a path and everything under it can be invalidated, either in one
+ * repository or in all of them, and so can the entries of a whole repository or storage. The keys are indexed by
+ * path for that, so that invalidating a directory only visits the keys around it rather than the whole cache.
+ * <p>
+ * Hits, misses, size evictions, the size and the hit ratio are published as {@code <metricPrefix>.hits},
+ * {@code .misses}, {@code .evictions}, {@code .size} and {@code .hit.ratio} metrics.
+ */
+public class RepositoryPathCache<V>
+{
+
+    private final Cache<RepositoryPathKey, V> cache;
+
+    /**
+     * The keys of the cache, sorted by path. Every cached key is indexed, but the index may briefly hold keys which
+     * have just been removed.
+     */
+    private final NavigableSet<RepositoryPathKey> keys = new ConcurrentSkipListSet<>();
+
+    private final Counter hitCounter;
+
+    private final Counter missCounter;
+
+    private final Counter evictionCounter;
+
+    public RepositoryPathCache(String metricPrefix,
+                               long maxSize,
+                               long ttlMillis)
+    {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().maximumSize(Math.max(maxSize, 0));
+        if (ttlMillis > 0)
+        {
+            builder.expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS);
+        }
+
+        cache = builder.removalListener(this::onRemoval).build();
+
+        hitCounter = Metrics.counter(metricPrefix + ".hits");
+        missCounter = Metrics.counter(metricPrefix + ".misses");
+        evictionCounter = Metrics.counter(metricPrefix + ".evictions");
+        Metrics.gauge(metricPrefix + ".size", cache, Cache::size);
+        Metrics.gauge(metricPrefix + ".hit.ratio", this, RepositoryPathCache::getHitRatio);
+    }
+
+    /**
+     * @return the cached value, or {@code null}
+     */
+    public V get(RepositoryPathKey key)
+    {
+        return getIfCurrent(key, v -> true);
+    }
+
+    /**
+     * @param current tells whether the cached value still applies; the ones which don't are invalidated
+     * @return the cached value, or {@code null}
+     */
+    public V getIfCurrent(RepositoryPathKey key,
+                          Predicate<? super V> current)
+    {
+        V result = cache.getIfPresent(key);
+        if (result != null && !current.test(result))
+        {
+            cache.asMap().remove(key, result);
+            result = null;
+        }
+
+        if (result == null)
+        {
+            missCounter.increment();
+
+            return null;
+        }
+
+        hitCounter.increment();
+
+        return result;
+    }
+
+    /**
+     * Looks up a part of the cached value, like one of the several values cached for the same path.
+     *
+     * @return the part of the cached value, or {@code null} if there's no value or the part is {@code null}
+     */
+    public <R> R lookup(RepositoryPathKey key,
+                        Function<? super V, R> lookup)
+    {
+        V value = cache.getIfPresent(key);
+
+        R result = value == null ? null : lookup.apply(value);
+        if (result == null)
+        {
+            missCounter.increment();
+
+            return null;
+        }
+
+        hitCounter.increment();
+
+        return result;
+    }
+
+    public void put(RepositoryPathKey key,
+                    V value)
+    {
+        cache.put(key, value);
+        keys.add(key);
+    }
+
+    /**
+     * @return the cached value, or the one computed and cached if there is none; the lookup isn't counted.
+     */
+    public V computeIfAbsent(RepositoryPathKey key,
+                             Function<RepositoryPathKey, V> mappingFunction)
+    {
+        V result = cache.asMap().computeIfAbsent(key, mappingFunction);
+        keys.add(key);
+
+        return result;
+    }
+
+    public void invalidate(RepositoryPathKey key)
+    {
+        cache.invalidate(key);
+    }
+
+    /**
+     * Invalidates the path of the key, and everything under it, in the repository of the key.
+     */
+    public void invalidateTree(RepositoryPathKey key)
+    {
+        invalidateTree(key.getPath(), k -> k.isInRepository(key.getStorageId(), key.getRepositoryId()));
+    }
+
+    /**
+     * Invalidates the given path, and everything under it, in all the repositories. An empty path invalidates
+     * everything.
+     */
+    public void invalidateTree(String path)
+    {
+        invalidateTree(new RepositoryPathKey("", "", path).getPath(), k -> true);
+    }
+
+    public void invalidateStorage(String storageId)
+    {
+        invalidateTree("", k -> k.getStorageId().equals(storageId));
+    }
+
+    public void invalidateRepository(String storageId,
+                                     String repositoryId)
+    {
+        invalidateTree("", k -> k.isInRepository(storageId, repositoryId));
+    }
+
+    public void invalidateAll()
+    {
+        cache.invalidateAll();
+    }
+
+    public boolean isEmpty()
+    {
+        return cache.size() == 0;
+    }
+
+    public long size()
+    {
+        cache.cleanUp();
+
+        return cache.size();
+    }
+
+    int indexSize()
+    {
+        return keys.size();
+    }
+
+    public double getHitRatio()
+    {
+        double hits = hitCounter.count();
+        double total = hits + missCounter.count();
+
+        return total == 0 ? 0 : hits / total;
+    }
+
+    private void invalidateTree(String directory,
+                                Predicate<RepositoryPathKey> filter)
+    {
+        if (isEmpty())
+        {
+            return;
+        }
+
+        // The paths under a directory sort between "dir" and "dir0", since '0' follows '/'.
+        NavigableSet<RepositoryPathKey> candidates = directory.isEmpty() ? keys :
+                                                     keys.subSet(new RepositoryPathKey("", "", directory), true,
+                                                                 new RepositoryPathKey("", "", directory + "0"),
+                                                                 false);
+        for (RepositoryPathKey key : candidates)
+        {
+            if (key.isUnder(directory) && filter.test(key))
+            {
+                cache.invalidate(key);
+            }
+        }
+    }
+
+    private void onRemoval(RemovalNotification<RepositoryPathKey, V> notification)
+    {
+        if (notification.getCause() == RemovalCause.REPLACED)
+        {
+            return;
+        }
+        if (notification.getCause() == RemovalCause.SIZE)
+        {
+            evictionCounter.increment();
+        }
+
+        // The key is indexed again if it has been put back meanwhile, since the index is updated after the cache.
+        RepositoryPathKey key = notification.getKey();
+        keys.remove(key);
+        if (cache.asMap().containsKey(key))
+        {
+            keys.add(key);
+        }
+    }
+
+}
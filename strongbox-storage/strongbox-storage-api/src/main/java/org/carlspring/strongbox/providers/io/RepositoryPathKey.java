@@ -0,0 +1,121 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Key of a {@link RepositoryPathCache}: the storage, the repository and the path relative to the repository root,
+ * with {@code /} separators. The paths of the trash and temporary files keep their {@code .trash} and {@code .temp}
+ * prefix, so they never collide with the files they come from.
+ * <p>
+ * The keys are sorted by path first, so that the same path of all the repositories, and the paths under a directory,
+ * are adjacent.
+ */
+public class RepositoryPathKey
+        implements Comparable<RepositoryPathKey>
+{
+
+    private static final Comparator<RepositoryPathKey> ORDER =
+            Comparator.comparing(RepositoryPathKey::getPath)
+                      .thenComparing(RepositoryPathKey::getStorageId)
+                      .thenComparing(RepositoryPathKey::getRepositoryId);
+
+    private final String storageId;
+
+    private final String repositoryId;
+
+    private final String path;
+
+    public RepositoryPathKey(String storageId,
+                             String repositoryId,
+                             String path)
+    {
+        this.storageId = storageId;
+        this.repositoryId = repositoryId;
+        this.path = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    public static RepositoryPathKey of(RepositoryPath repositoryPath)
+    {
+        LayoutFileSystem fileSystem = repositoryPath.getFileSystem();
+        Path root = fileSystem.getRootDirectory().getTarget();
+        String path = root.relativize(repositoryPath.toAbsolutePath().getTarget().normalize()).toString();
+        if (!"/".equals(fileSystem.getSeparator()))
+        {
+            path = path.replace(fileSystem.getSeparator(), "/");
+        }
+
+        return new RepositoryPathKey(repositoryPath.getRepository().getStorage().getId(),
+                                     repositoryPath.getRepository().getId(),
+                                     path);
+    }
+
+    public String getStorageId()
+    {
+        return storageId;
+    }
+
+    public String getRepositoryId()
+    {
+        return repositoryId;
+    }
+
+    public String getPath()
+    {
+        return path;
+    }
+
+    public boolean isInRepository(String storageId,
+                                  String repositoryId)
+    {
+        return this.storageId.equals(storageId) && this.repositoryId.equals(repositoryId);
+    }
+
+    /**
+     * @return {@code true} if the path of this key is the given directory, or is under it.
+     */
+    public boolean isUnder(String directory)
+    {
+        return directory.isEmpty() || path.equals(directory) ||
+               path.length() > directory.length() && path.startsWith(directory) &&
+               path.charAt(directory.length()) == '/';
+    }
+
+    @Override
+    public int compareTo(RepositoryPathKey other)
+    {
+        return ORDER.compare(this, other);
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (!(o instanceof RepositoryPathKey))
+        {
+            return false;
+        }
+
+        RepositoryPathKey that = (RepositoryPathKey) o;
+
+        return Objects.equals(storageId, that.storageId) && Objects.equals(repositoryId, that.repositoryId)
+                && Objects.equals(path, that.path);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(storageId, repositoryId, path);
+    }
+
+    @Override
+    public String toString()
+    {
+        return storageId + "/" + repositoryId + "/" + path;
+    }
+
+}
@@ -3,7 +3,6 @@ package org.carlspring.strongbox.providers.io;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
-import java.util.Optional;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 
@@ -12,15 +11,13 @@ import javax.inject.Inject;
 
 import org.apache.commons.io.input.ProxyInputStream;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryPolicyEnum;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
-import com.hazelcast.core.HazelcastInstance;
-
-import ca.thoughtwire.lock.DistributedLockService;
-
 /**
  * @author Przemyslaw Fusik
  */
@@ -30,13 +27,8 @@ public class RepositoryPathLock
 
     private static final Logger logger = LoggerFactory.getLogger(RepositoryPathLock.class);
 
-    private DistributedLockService lockService;
-
     @Inject
-    public void setHazelcastInstance(HazelcastInstance hazelcastInstance)
-    {
-        lockService = DistributedLockService.newHazelcastLockService(hazelcastInstance);
-    }
+    private RepositoryLockService lockService;
 
     public ReadWriteLock lock(final @Nonnull RepositoryPath repositoryPath) throws IOException
     {
@@ -46,16 +38,10 @@ public class RepositoryPathLock
     public ReadWriteLock lock(final @Nonnull RepositoryPath repositoryPath,
                               String id) throws IOException
     {
-        URI lock = getLock(repositoryPath);
-
-        String lockName = Optional.ofNullable(id)
-                                  .map(p -> String.format("%s?%s", lock, p))
-                                  .orElseGet(() -> lock.toString());
-
-        return lockService.getReentrantReadWriteLock(lockName);
+        return lockService.getLock(getLock(repositoryPath), id);
     }
 
-    private URI getLock(final @Nonnull RepositoryPath repositoryPath) throws IOException
+    private String getLock(final @Nonnull RepositoryPath repositoryPath) throws IOException
     {
         if (RepositoryFiles.isArtifact(repositoryPath))
         {
@@ -63,20 +49,25 @@ public class RepositoryPathLock
             // We should lock all the RepositoryArtifactIdGroup because there can be
             // `ArtifactEntryServiceImpl.updateLastVersionTag()` operations
             // which affetcs on other artifacts from group.
-            return URI.create(c.getId());
+            return c.getId();
         }
 
         final URI lock = repositoryPath.toUri();
 
         Assert.isTrue(lock.isAbsolute(), String.format("Unable to lock relative path %s", lock));
 
-        return lock;
+        return lock.toString();
     }
 
     public InputStream lockInputStream(RepositoryPath repositoryPath,
                                        StreamSupplier<? extends InputStream> streamSuplier)
         throws IOException
     {
+        if (isImmutable(repositoryPath))
+        {
+            return streamSuplier.get();
+        }
+
         Lock lock = lock(repositoryPath).readLock();
         try
         {
@@ -91,6 +82,22 @@ public class RepositoryPathLock
 
     }
 
+    /**
+     * Release artifacts of hosted repositories, which don't allow redeployment, are written once and then only
+     * replaced atomically (see {@link StorageFileSystemProvider#moveFromTemporaryDirectory(TempRepositoryPath)}), so
+     * they can be read without any lock.
+     */
+    public boolean isImmutable(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        Repository repository = repositoryPath.getRepository();
+
+        return repository.isHostedRepository()
+                && RepositoryPolicyEnum.RELEASE.getPolicy().equals(repository.getPolicy())
+                && !repository.allowsRedeployment()
+                && RepositoryFiles.isArtifact(repositoryPath);
+    }
+
     private void unlock(Lock lock)
     {
         if (lock == null)
@@ -29,6 +29,9 @@ public class RepositoryPathResolver
     @Inject
     protected RepositoryFileSystemRegistry fileSystemRegistry;
 
+    @Inject
+    protected ArtifactEntryCache artifactEntryCache;
+
     public RootRepositoryPath resolve(final Repository repository)
     {
         Objects.requireNonNull(repository, "Repository should be provided");
@@ -80,9 +83,17 @@ public class RepositoryPathResolver
         return new CachedRepositoryPath(repositoryPath.resolve(path));
     }
     
+    /**
+     * Loads the {@link ArtifactEntry} once per path instance, so that the repeated {@link #getArtifactEntry()} calls
+     * within a request don't go to the database; see {@link #invalidateArtifactEntry()}.
+     */
     private class CachedRepositoryPath extends RepositoryPath
     {
 
+        private volatile boolean artifactEntryLoaded;
+
+        private volatile ArtifactEntry cachedArtifactEntry;
+
         private CachedRepositoryPath(RepositoryPath target)
         {
             super(target.getTarget(), target.getFileSystem());
@@ -97,9 +108,21 @@ public class RepositoryPathResolver
                 return null;
             }
 
-            return artifactEntryService.findOneArtifact(getRepository().getStorage().getId(),
-                                                        getRepository().getId(),
-                                                        RepositoryFiles.relativizePath(this));
+            if (artifactEntryLoaded)
+            {
+                return cachedArtifactEntry;
+            }
+
+            String storageId = getRepository().getStorage().getId();
+            String repositoryId = getRepository().getId();
+            String path = RepositoryFiles.relativizePath(this);
+
+            ArtifactEntry result = artifactEntryCache.get(storageId, repositoryId, path);
+            if (result == null)
+            {
+                result = artifactEntryService.findOneArtifact(storageId, repositoryId, path);
+                artifactEntryCache.put(storageId, repositoryId, path, result);
+            }
             // TODO: we should check this restriction 
 //            if (Files.exists(this) && !Files.isDirectory(this) && RepositoryFiles.isArtifact(this) && result == null)
 //            {
@@ -107,6 +130,26 @@ public class RepositoryPathResolver
 //                                                    ArtifactEntry.class.getSimpleName(), this));
 //            }
 
+            cachedArtifactEntry = result;
+            artifactEntryLoaded = true;
+
+            return result;
+        }
+
+        @Override
+        public void invalidateArtifactEntry()
+            throws IOException
+        {
+            artifactEntryLoaded = false;
+            cachedArtifactEntry = null;
+
+            if (this.getRepository().isGroupRepository())
+            {
+                return;
+            }
+
+            artifactEntryCache.invalidate(getRepository().getStorage().getId(), getRepository().getId(),
+                                          RepositoryFiles.relativizePath(this));
         }
 
     }
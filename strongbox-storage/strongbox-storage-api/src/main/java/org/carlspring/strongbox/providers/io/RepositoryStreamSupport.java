@@ -6,7 +6,6 @@ import java.io.OutputStream;
 import java.nio.file.Path;
 import java.util.Optional;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
 
 import javax.inject.Inject;
 
@@ -61,25 +60,38 @@ public abstract class RepositoryStreamSupport implements RepositoryStreamCallbac
         RepositoryPath path = (RepositoryPath) ctx.getPath();
         logger.debug(String.format("Locking [%s]", path));
         
-        ReadWriteLock lockSource = repositoryPathLock.lock(path);
-        Lock lock;
-        if (ctx instanceof RepositoryStreamWriteContext)
-        {
-            lock = lockSource.writeLock();
-        }
-        else
+        Lock lock = getLock(ctx);
+        if (lock != null)
         {
-            lock = lockSource.readLock();
+            ctx.setLock(lock);
+            lock.lock();
         }
 
-        ctx.setLock(lock);
-        lock.lock();
-
         logger.debug(String.format("Locked [%s]", path));
         
         doOpen(ctx);
     }
 
+    /**
+     * @return the lock to hold while the stream is open, or {@code null} if the stream doesn't need one, like the
+     *         reads of the {@link RepositoryPathLock#isImmutable(RepositoryPath) immutable} artifacts.
+     */
+    protected Lock getLock(RepositoryStreamContext ctx)
+        throws IOException
+    {
+        RepositoryPath path = (RepositoryPath) ctx.getPath();
+        if (ctx instanceof RepositoryStreamWriteContext)
+        {
+            return repositoryPathLock.lock(path).writeLock();
+        }
+        if (repositoryPathLock.isImmutable(path))
+        {
+            return null;
+        }
+
+        return repositoryPathLock.lock(path).readLock();
+    }
+
     private void doOpen(RepositoryStreamContext ctx)
         throws IOException
     {
@@ -110,7 +122,10 @@ public abstract class RepositoryStreamSupport implements RepositoryStreamCallbac
         } 
         finally
         {
-            ctx.getLock().unlock();
+            if (ctx.getLock() != null)
+            {
+                ctx.getLock().unlock();
+            }
             clearContext();
         }
     }
@@ -203,6 +218,18 @@ public abstract class RepositoryStreamSupport implements RepositoryStreamCallbac
             open();
         }
 
+        /**
+         * Opens the stream as its first read would: the path is locked and the before read callback is run, which
+         * checks that the artifact exists and fires the downloading event. This is for the callers which send the
+         * content of the path without reading it through this stream, so that the stream must still be closed
+         * once the content has been sent.
+         */
+        public void open()
+            throws IOException
+        {
+            RepositoryStreamSupport.this.open();
+        }
+
         @Override
         public void close()
             throws IOException
@@ -210,7 +237,7 @@ public abstract class RepositoryStreamSupport implements RepositoryStreamCallbac
             try
             {
                 super.close();
-            } 
+            }
             finally
             {
                 RepositoryStreamSupport.this.close();
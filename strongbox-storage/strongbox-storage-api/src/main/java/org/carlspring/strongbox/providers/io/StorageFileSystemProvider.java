@@ -46,6 +46,12 @@ public abstract class StorageFileSystemProvider
 
     @Inject
     private RepositoryPathLock repositoryPathLock;
+
+    @Inject
+    private RepositoryFileAttributesCache repositoryFileAttributesCache;
+
+    @Inject
+    private ArtifactHeadersCache artifactHeadersCache;
     
     public StorageFileSystemProvider(FileSystemProvider target)
     {
@@ -214,6 +220,8 @@ public abstract class StorageFileSystemProvider
                     return FileVisitResult.CONTINUE;
                 }
             });
+
+            invalidateCachedTree(repositoryPath);
         }
     }
 
@@ -256,6 +264,8 @@ public abstract class StorageFileSystemProvider
                                 boolean force)
         throws IOException
     {
+        invalidateCachedPath(repositoryPath);
+
         Repository repository = repositoryPath.getFileSystem().getRepository();
         if (!repository.isTrashEnabled())
         {
@@ -302,6 +312,8 @@ public abstract class StorageFileSystemProvider
                                        path.getTarget(),
                                        StandardCopyOption.REPLACE_EXISTING));
         }
+
+        invalidateCachedTree(path);
     }
 
     public RepositoryPath moveFromTemporaryDirectory(TempRepositoryPath tempPath)
@@ -319,13 +331,36 @@ public abstract class StorageFileSystemProvider
             Files.createDirectories(unwrap(path).getParent());
         }
 
-        Files.move(tempPath.getTarget(), path.getTarget(), StandardCopyOption.REPLACE_EXISTING);
+        moveAtomically(tempPath.getTarget(), path.getTarget());
+
+        invalidateCachedPath(path);
 
         //path.artifactEntry = tempPath.artifactEntry;
 
         return path;
     }
 
+    /**
+     * Atomic move is required here because some reads are done without locking (see `RepositoryPathLock`), so the
+     * readers should see either the previous or the new file content, but never a partially written one. Where the file
+     * store can't move atomically, the file is replaced the way it was before.
+     */
+    static void moveAtomically(Path source,
+                               Path target)
+        throws IOException
+    {
+        try
+        {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException e)
+        {
+            logger.warn(String.format("Atomic move not supported for [%s].", target), e);
+
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
     public void deleteTrash(RepositoryPath path)
         throws IOException
     {
@@ -411,6 +446,8 @@ public abstract class StorageFileSystemProvider
         throws IOException
     {
         getTarget().copy(unwrap(source), unwrap(target), options);
+
+        invalidateCachedPath(target);
     }
 
     public void move(Path source,
@@ -419,6 +456,51 @@ public abstract class StorageFileSystemProvider
         throws IOException
     {
         getTarget().move(unwrap(source), unwrap(target), options);
+
+        invalidateCachedPath(source);
+        invalidateCachedPath(target);
+    }
+
+    private void invalidateCachedPath(Path path)
+    {
+        if (!(path instanceof RepositoryPath))
+        {
+            return;
+        }
+
+        // The caches are not injected when the provider is created outside of the Spring context.
+        if (artifactHeadersCache != null)
+        {
+            artifactHeadersCache.invalidate((RepositoryPath) path);
+        }
+        if (repositoryFileAttributesCache != null)
+        {
+            repositoryFileAttributesCache.invalidate((RepositoryPath) path);
+        }
+    }
+
+    /**
+     * Caches the headers of the given file, as they are once it has been stored completely.
+     */
+    protected void refreshArtifactHeaders(RepositoryPath path)
+        throws IOException
+    {
+        if (artifactHeadersCache != null)
+        {
+            artifactHeadersCache.refresh(path);
+        }
+    }
+
+    private void invalidateCachedTree(RepositoryPath path)
+    {
+        if (artifactHeadersCache != null)
+        {
+            artifactHeadersCache.invalidateTree(path);
+        }
+        if (repositoryFileAttributesCache != null)
+        {
+            repositoryFileAttributesCache.invalidateTree(path);
+        }
     }
 
     public boolean isSameFile(Path path,
@@ -473,9 +555,7 @@ public abstract class StorageFileSystemProvider
         }
 
         RepositoryFileAttributes repositoryFileAttributes = new RepositoryFileAttributes(targetAttributes,
-                getRepositoryFileAttributes((RepositoryPath) path,
-                                            RepositoryFiles.parseAttributes("*")
-                                                           .toArray(new RepositoryFileAttributeType[] {})));
+                fetchRepositoryFileAttributes((RepositoryPath) path, RepositoryFiles.parseAttributes("*")));
 
         return (A) repositoryFileAttributes;
     }
@@ -502,43 +582,111 @@ public abstract class StorageFileSystemProvider
             }
         }
 
-        Set<RepositoryFileAttributeType> targetRepositoryAttributes = new HashSet<>(
-                RepositoryFiles.parseAttributes(attributes));
+        Map<RepositoryFileAttributeType, Object> repositoryFileAttributes = fetchRepositoryFileAttributes(repositoryPath,
+                                                                                                          RepositoryFiles.parseAttributes(attributes));
 
-        final Map<RepositoryFileAttributeType, Object> repositoryFileAttributes = new HashMap<>();
-        for (Iterator<RepositoryFileAttributeType> iterator = targetRepositoryAttributes.iterator(); iterator.hasNext();)
+        result.putAll(repositoryFileAttributes.entrySet()
+                                              .stream()
+                                              .collect(Collectors.toMap(e -> e.getKey()
+                                                                              .getName(),
+                                                                        e -> e.getValue())));
+
+        return result;
+    }
+
+    /**
+     * Typed counterpart of {@code Files.getAttribute(path, "strongbox:...")}, which saves formatting and parsing the
+     * attribute names on the hot paths.
+     *
+     * @return the attribute value, or {@code null} if the attribute is not applicable to the path
+     */
+    public <T> T readRepositoryFileAttribute(RepositoryPath repositoryPath,
+                                             RepositoryFileAttributeType attributeType)
+        throws IOException
+    {
+        Object result = repositoryPath.cachedAttributes.get(attributeType);
+        if (result == null)
         {
-            RepositoryFileAttributeType repositoryFileAttributeType = iterator.next();
-            Optional.ofNullable(repositoryPath.cachedAttributes.get(repositoryFileAttributeType))
-                    .ifPresent(v -> {
-                        repositoryFileAttributes.put(repositoryFileAttributeType, v);
-                        iterator.remove();
-                    });
+            result = fetchRepositoryFileAttributes(repositoryPath, EnumSet.of(attributeType)).get(attributeType);
+        }
+
+        return (T) result;
+    }
+
+    /**
+     * Looks the attributes up in the {@link RepositoryPath} itself, then in the {@link RepositoryFileAttributesCache},
+     * and calculates only the rest of them.
+     */
+    private Map<RepositoryFileAttributeType, Object> fetchRepositoryFileAttributes(RepositoryPath repositoryPath,
+                                                                                   Set<RepositoryFileAttributeType> attributeTypes)
+        throws IOException
+    {
+        final Map<RepositoryFileAttributeType, Object> result = new HashMap<>();
+        final Set<RepositoryFileAttributeType> targetRepositoryAttributes = EnumSet.noneOf(RepositoryFileAttributeType.class);
+
+        Boolean directory = null;
+        for (RepositoryFileAttributeType repositoryFileAttributeType : attributeTypes)
+        {
+            Object value = repositoryPath.cachedAttributes.get(repositoryFileAttributeType);
+            if (value == null && isSharedCacheable(repositoryFileAttributeType))
+            {
+                if (directory == null && repositoryFileAttributesCache.isDirectoryDependent(repositoryFileAttributeType))
+                {
+                    directory = Files.isDirectory(repositoryPath);
+                }
+
+                value = repositoryFileAttributesCache.get(repositoryPath, repositoryFileAttributeType,
+                                                          Boolean.TRUE.equals(directory));
+            }
+
+            if (value == null)
+            {
+                targetRepositoryAttributes.add(repositoryFileAttributeType);
+                continue;
+            }
 
+            result.put(repositoryFileAttributeType, value);
+            repositoryPath.cachedAttributes.put(repositoryFileAttributeType, value);
         }
-        if (!targetRepositoryAttributes.isEmpty())
+
+        if (targetRepositoryAttributes.isEmpty())
         {
-            Map<RepositoryFileAttributeType, Object> newAttributes = getRepositoryFileAttributes(repositoryPath,
-                                                                                                 targetRepositoryAttributes.toArray(new RepositoryFileAttributeType[targetRepositoryAttributes.size()]));
-            newAttributes.entrySet()
-                         .stream()
-                         .forEach(e -> {
-                             repositoryFileAttributes.put(e.getKey(),
-                                                          e.getValue());
-                             repositoryPath.cachedAttributes.put(e.getKey(),
-                                                                 e.getValue());
-                         });
+            return result;
         }
 
-        result.putAll(repositoryFileAttributes.entrySet()
-                                              .stream()
-                                              .collect(Collectors.toMap(e -> e.getKey()
-                                                                              .getName(),
-                                                                        e -> e.getValue())));
+        Map<RepositoryFileAttributeType, Object> newAttributes = getRepositoryFileAttributes(repositoryPath,
+                                                                                             targetRepositoryAttributes.toArray(new RepositoryFileAttributeType[targetRepositoryAttributes.size()]));
+        for (Map.Entry<RepositoryFileAttributeType, Object> e : newAttributes.entrySet())
+        {
+            if (e.getValue() == null)
+            {
+                continue;
+            }
+
+            result.put(e.getKey(), e.getValue());
+            repositoryPath.cachedAttributes.put(e.getKey(), e.getValue());
+
+            if (isSharedCacheable(e.getKey()))
+            {
+                if (directory == null && repositoryFileAttributesCache.isDirectoryDependent(e.getKey()))
+                {
+                    directory = Files.isDirectory(repositoryPath);
+                }
+
+                repositoryFileAttributesCache.put(repositoryPath, e.getKey(), Boolean.TRUE.equals(directory),
+                                                  e.getValue());
+            }
+        }
 
         return result;
     }
 
+    private boolean isSharedCacheable(RepositoryFileAttributeType attributeType)
+    {
+        // The cache is not injected when the provider is created outside of the Spring context.
+        return repositoryFileAttributesCache != null && repositoryFileAttributesCache.isCacheable(attributeType);
+    }
+
     protected abstract Map<RepositoryFileAttributeType, Object> getRepositoryFileAttributes(RepositoryPath repositoryRelativePath,
                                                                                             RepositoryFileAttributeType... attributeTypes)
         throws IOException;
@@ -56,4 +56,11 @@ public class TempRepositoryPath extends RepositoryPath
         return tempTarget.getArtifactEntry();
     }
 
+    @Override
+    public void invalidateArtifactEntry()
+        throws IOException
+    {
+        tempTarget.invalidateArtifactEntry();
+    }
+
 }
@@ -0,0 +1,413 @@
+package org.carlspring.strongbox.providers.layout;
+
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.util.MultipleMessageDigest;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Regenerates the checksum files of all the files under a path.
+ * <p>
+ * The files are digested in parallel on a dedicated pool of {@code strongbox.checksum.generation.parallelism}
+ * threads. They are handed to the pool as the directory tree is walked, a few per thread at most, so that the files
+ * of a whole repository are never listed in memory and the digesting doesn't wait for the walk to complete.
+ * <p>
+ * Each file is read once, straight from its {@link FileChannel} with a buffer of
+ * {@code strongbox.checksum.generation.buffer.size} bytes, and all the digest algorithms of the repository are
+ * updated from the same buffer by a {@link MultipleMessageDigest}. Unless the regeneration is forced, the files whose
+ * checksum files are all present, non-empty and not older than the file itself are skipped without being read.
+ * <p>
+ * Each file is checked, digested and has its checksum files written under the read lock of its path, so that a
+ * concurrent deploy of the file can't have its checksum files overwritten with the ones of the previous content.
+ * The checksum files of a single file can also be written in the calling thread, see
+ * {@link #writeChecksums(RepositoryPath, boolean)}.
+ * <p>
+ * Progress is logged every {@code strongbox.checksum.generation.progress.interval.seconds}, and the digested files and
+ * bytes are published as {@code strongbox.checksum.generation.*} metrics.
+ */
+@Component
+public class BulkChecksumGenerator
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkChecksumGenerator.class);
+
+    private static final String METRIC_PREFIX = "strongbox.checksum.generation";
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
+    @Value("${strongbox.checksum.generation.parallelism:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int parallelism;
+
+    @Value("${strongbox.checksum.generation.buffer.size:1048576}")
+    private int bufferSize;
+
+    @Value("${strongbox.checksum.generation.progress.interval.seconds:30}")
+    private long progressIntervalSeconds;
+
+    private ForkJoinPool pool;
+
+    private ThreadLocal<ByteBuffer> buffers;
+
+    private Counter fileCounter;
+
+    private Counter byteCounter;
+
+    private Counter skippedCounter;
+
+    private Counter failedCounter;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        fileCounter = Metrics.counter(METRIC_PREFIX + ".files");
+        byteCounter = Metrics.counter(METRIC_PREFIX + ".bytes");
+        skippedCounter = Metrics.counter(METRIC_PREFIX + ".skipped");
+        failedCounter = Metrics.counter(METRIC_PREFIX + ".failed");
+
+        buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocate(bufferSize));
+        pool = new ForkJoinPool(Math.max(1, parallelism), p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName(String.format("%s-%s", BulkChecksumGenerator.class.getSimpleName(), thread.getPoolIndex()));
+            thread.setDaemon(true);
+
+            return thread;
+        }, null, false);
+    }
+
+    @Override
+    public void destroy()
+    {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Writes the checksum files of all the files under the given path, other than the checksum files themselves.
+     *
+     * @param force whether to rewrite the checksum files which are already up to date
+     */
+    public void generate(RepositoryPath basePath,
+                         boolean force)
+        throws IOException
+    {
+        int maxQueued = Math.max(1, parallelism) * 4;
+        Semaphore queued = new Semaphore(maxQueued);
+        Progress progress = new Progress(basePath);
+        try
+        {
+            Files.walkFileTree(basePath, new SimpleFileVisitor<Path>()
+            {
+                @Override
+                public FileVisitResult visitFile(Path file,
+                                                 BasicFileAttributes attributes)
+                    throws IOException
+                {
+                    RepositoryPath path = (RepositoryPath) file;
+                    if (!attributes.isRegularFile() || isChecksum(path))
+                    {
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    progress.found.incrementAndGet();
+
+                    acquire(queued, 1, basePath);
+                    try
+                    {
+                        pool.execute(() -> {
+                            try
+                            {
+                                generate(path, force, progress);
+                            }
+                            finally
+                            {
+                                queued.release();
+                            }
+                        });
+                    }
+                    catch (RejectedExecutionException e)
+                    {
+                        queued.release();
+
+                        throw new IOException(String.format("Failed to generate checksums for [%s].", basePath), e);
+                    }
+
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        finally
+        {
+            // All the permits are back once the files handed to the pool have been processed.
+            acquire(queued, maxQueued, basePath);
+        }
+
+        progress.log(true);
+    }
+
+    private void acquire(Semaphore semaphore,
+                         int permits,
+                         RepositoryPath basePath)
+        throws IOException
+    {
+        try
+        {
+            semaphore.acquire(permits);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new IOException(String.format("Interrupted while generating checksums for [%s].", basePath), e);
+        }
+    }
+
+    private void generate(RepositoryPath path,
+                          boolean force,
+                          Progress progress)
+    {
+        try
+        {
+            long size = generateChecksums(path, force);
+            if (size < 0)
+            {
+                skippedCounter.increment();
+                progress.skipped.incrementAndGet();
+
+                return;
+            }
+
+            fileCounter.increment();
+            byteCounter.increment(size);
+            progress.files.incrementAndGet();
+            progress.bytes.addAndGet(size);
+        }
+        catch (IOException | NoSuchAlgorithmException | RuntimeException e)
+        {
+            logger.error(String.format("Failed to write checksum for [%s]", path), e);
+
+            failedCounter.increment();
+            progress.failed.incrementAndGet();
+        }
+
+        progress.log(false);
+    }
+
+    /**
+     * Writes the missing checksum files of the given file in the calling thread, under the read lock of its path.
+     *
+     * @param force whether to rewrite the checksum files which already exist
+     */
+    public void writeChecksums(RepositoryPath path,
+                               boolean force)
+        throws IOException
+    {
+        Lock lock = repositoryPathLock.lock(path).readLock();
+        lock.lock();
+
+        try
+        {
+            Map<String, RepositoryPath> checksumPaths = new LinkedHashMap<>(
+                    path.getFileSystem().provider().resolveChecksumPathMap(path));
+            if (!force)
+            {
+                checksumPaths.values().removeIf(Files::exists);
+            }
+            if (checksumPaths.isEmpty())
+            {
+                return;
+            }
+
+            // Not the pooled buffer, which would be kept by every calling thread.
+            int size = (int) Math.min(bufferSize, Files.size(path));
+            writeChecksums(path, checksumPaths, ByteBuffer.allocate(Math.max(1, size)));
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IOException(String.format("Failed to write checksum for [%s]", path), e);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of bytes digested, or {@code -1} if the checksum files are up to date
+     */
+    private long generateChecksums(RepositoryPath path,
+                                   boolean force)
+        throws IOException, NoSuchAlgorithmException
+    {
+        Lock lock = repositoryPathLock.lock(path).readLock();
+        lock.lock();
+
+        try
+        {
+            Map<String, RepositoryPath> checksumPaths = resolveChecksumPaths(path, force);
+            if (checksumPaths.isEmpty())
+            {
+                return -1;
+            }
+
+            return writeChecksums(path, checksumPaths, buffers.get());
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the checksum files which should be written, by digest algorithm
+     */
+    private Map<String, RepositoryPath> resolveChecksumPaths(RepositoryPath path,
+                                                             boolean force)
+        throws IOException
+    {
+        Map<String, RepositoryPath> checksumPaths = path.getFileSystem().provider().resolveChecksumPathMap(path);
+        if (force)
+        {
+            return checksumPaths;
+        }
+
+        FileTime lastModified = Files.getLastModifiedTime(path);
+        for (RepositoryPath checksumPath : checksumPaths.values())
+        {
+            if (!Files.exists(checksumPath) || Files.size(checksumPath) == 0
+                    || Files.getLastModifiedTime(checksumPath).compareTo(lastModified) < 0)
+            {
+                return checksumPaths;
+            }
+        }
+
+        return new LinkedHashMap<>();
+    }
+
+    private long writeChecksums(RepositoryPath path,
+                                Map<String, RepositoryPath> checksumPaths,
+                                ByteBuffer buffer)
+        throws IOException, NoSuchAlgorithmException
+    {
+        MultipleMessageDigest digest = new MultipleMessageDigest(checksumPaths.keySet());
+
+        long size = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            for (buffer.clear(); channel.read(buffer) != -1; buffer.clear())
+            {
+                buffer.flip();
+                size += buffer.remaining();
+                digest.update(buffer);
+            }
+        }
+        finally
+        {
+            digest.finish();
+        }
+
+        for (Map.Entry<String, RepositoryPath> entry : checksumPaths.entrySet())
+        {
+            Files.write(entry.getValue(), digest.getHexDigest(entry.getKey()).getBytes());
+        }
+
+        return size;
+    }
+
+    private boolean isChecksum(RepositoryPath path)
+    {
+        try
+        {
+            return Boolean.TRUE.equals(RepositoryFiles.isChecksum(path));
+        }
+        catch (IOException e)
+        {
+            logger.error(String.format("Failed to read attributes for [%s]", path), e);
+        }
+
+        return true;
+    }
+
+    private class Progress
+    {
+
+        private final RepositoryPath basePath;
+
+        private final AtomicLong found = new AtomicLong();
+
+        private final long startTime = System.currentTimeMillis();
+
+        private final AtomicLong lastLogTime = new AtomicLong(startTime);
+
+        private final AtomicLong files = new AtomicLong();
+
+        private final AtomicLong skipped = new AtomicLong();
+
+        private final AtomicLong failed = new AtomicLong();
+
+        private final AtomicLong bytes = new AtomicLong();
+
+        private Progress(RepositoryPath basePath)
+        {
+            this.basePath = basePath;
+        }
+
+        private void log(boolean done)
+        {
+            long now = System.currentTimeMillis();
+            long lastLog = lastLogTime.get();
+            if (!done && (now - lastLog < progressIntervalSeconds * 1000 || !lastLogTime.compareAndSet(lastLog, now)))
+            {
+                return;
+            }
+
+            long elapsedMillis = Math.max(1, now - startTime);
+            String message = String.format("Checksum generation for [%s] %s: [%s/%s] files processed, [%s] digested, " +
+                                           "[%s] skipped, [%s] failed, [%s] MB in [%s] ms ([%.2f] MB/s).",
+                                           basePath, done ? "completed" : "in progress",
+                                           files.get() + skipped.get() + failed.get(), found.get(), files.get(),
+                                           skipped.get(), failed.get(), bytes.get() / (1024 * 1024), elapsedMillis,
+                                           bytes.get() * 1000.0 / elapsedMillis / (1024 * 1024));
+            if (done && found.get() < 1000)
+            {
+                logger.debug(message);
+            }
+            else
+            {
+                logger.info(message);
+            }
+        }
+
+    }
+
+}
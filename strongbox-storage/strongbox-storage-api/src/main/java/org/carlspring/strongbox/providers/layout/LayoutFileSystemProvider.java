@@ -26,6 +26,7 @@ import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.spi.FileSystemProvider;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -53,6 +54,9 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
     
     @Inject
     private ArtifactEntryService artifactEntryService;
+
+    @Inject
+    private BulkChecksumGenerator bulkChecksumGenerator;
     
     public LayoutFileSystemProvider(FileSystemProvider storageFileSystemProvider)
     {
@@ -103,8 +107,7 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
                                                InputStream is)
             throws NoSuchAlgorithmException, IOException
     {
-        Set<String> digestAlgorithmSet = path.getFileSystem().getDigestAlgorithmSet();
-        LayoutInputStream result = new LayoutInputStream(is, digestAlgorithmSet);
+        LayoutInputStream result = new LayoutInputStream(is, Collections.emptySet());
         
         // Add digest algorithm only if it is not a Checksum (we don't need a Checksum of Checksum).
         if (Boolean.TRUE.equals(RepositoryFiles.isChecksum(path)))
@@ -112,44 +115,45 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
             return result;
         }
         
-        digestAlgorithmSet.stream().forEach(a -> {
+        // Stored checksums are preferred, the content is digested while reading only if there is no checksum file.
+        for (String digestAlgorithm : path.getFileSystem().getDigestAlgorithmSet())
+        {
             String checksum = null;
             try
             {
-                checksum = getChecksum(path, result, a);
+                checksum = readChecksum(path, digestAlgorithm);
             }
             catch (IOException e)
             {
                 logger.error(String.format("Failed to get checksum for [%s]", path), e);
             }
+
             if (checksum == null)
             {
-                return;
+                result.addAlgorithm(digestAlgorithm);
             }
-
-            result.getHexDigests().put(a, checksum);
-        });
+            else
+            {
+                result.getHexDigests().put(digestAlgorithm, checksum);
+            }
+        }
         
         return result;
     }
 
-    private String getChecksum(RepositoryPath path,
-                               LayoutInputStream is,
-                               String digestAlgorithm) throws IOException
+    private String readChecksum(RepositoryPath path,
+                                String digestAlgorithm) throws IOException
     {
         RepositoryPath checksumPath = getChecksumPath(path, digestAlgorithm);
-        
-        String checksum = null;
-        if (Files.exists(checksumPath) && Files.size(checksumPath) != 0)
+        if (!Files.exists(checksumPath) || Files.size(checksumPath) == 0)
         {
-            checksum = MessageDigestUtils.readChecksumFile(Files.newInputStream(checksumPath));
+            return null;
         }
-        else
+
+        try (InputStream is = Files.newInputStream(checksumPath))
         {
-            checksum = is.getMessageDigestAsHexadecimalString(digestAlgorithm);
+            return MessageDigestUtils.readChecksumFile(is);
         }
-
-        return checksum;
     }
 
     public RepositoryPath getChecksumPath(RepositoryPath path,
@@ -210,63 +214,27 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
         return result;
     }
     
+    /**
+     * Writes the checksum files of all the files under the given path, see {@link BulkChecksumGenerator}.
+     */
     public void storeChecksum(RepositoryPath basePath,
                               boolean forceRegeneration)
         throws IOException
     {
-        Files.walk(basePath)
-             .filter(p -> !Files.isDirectory(p))
-             .filter(p -> {
-                 try
-                 {
-                     return !Boolean.TRUE.equals(RepositoryFiles.isChecksum((RepositoryPath) p));
-                 }
-                 catch (IOException e)
-                 {
-                     logger.error(String.format("Failed to read attributes for [%s]", p), e);
-                 }
-                 return false;
-             })
-             .forEach(p -> {
-                 try
-                 {
-                     writeChecksum((RepositoryPath) p, forceRegeneration);
-                 }
-                 catch (IOException e)
-                 {
-                     logger.error(String.format("Failed to write checksum for [%s]", p), e);
-                 }
-             });
+        bulkChecksumGenerator.generate(basePath, forceRegeneration);
     }
 
-    
+    /**
+     * Writes the missing checksum files of the given file, or all of them if forced, calculated from its content,
+     * and caches the headers of the file with the new checksums.
+     */
     public void writeChecksum(RepositoryPath path,
                               boolean force)
         throws IOException
     {
-        try (LayoutInputStream is = newInputStream(path))
-        {
-            Set<String> digestAlgorithmSet = path.getFileSystem().getDigestAlgorithmSet();
-            digestAlgorithmSet.stream()
-                              .forEach(p ->
-                                       {
-                                           String checksum = is.getHexDigests().get(p);
-                                           RepositoryPath checksumPath = getChecksumPath(path, p);
-                                           if (Files.exists(checksumPath) && !force)
-                                           {
-                                               return;
-                                           }
-                                           try
-                                           {
-                                               Files.write(checksumPath, checksum.getBytes());
-                                           }
-                                           catch (IOException e)
-                                           {
-                                               logger.error(String.format("Failed to write checksum for [%s]",
-                                                                          checksumPath.toString()), e);
-                                           }
-                                       });
-        }
+        bulkChecksumGenerator.writeChecksums(path, force);
+
+        refreshArtifactHeaders(path);
     }
 
     @Override
@@ -313,6 +281,7 @@ public abstract class LayoutFileSystemProvider extends StorageFileSystemProvider
         if (artifactEntry != null)
         {
             artifactEntryService.delete(artifactEntry);
+            repositoryPath.invalidateArtifactEntry();
         }
         
         super.doDeletePath(repositoryPath, force);
@@ -1,32 +1,49 @@
 package org.carlspring.strongbox.providers.repository;
 
 import java.io.IOException;
-import java.util.Date;
 
-import org.carlspring.strongbox.artifact.AsyncArtifactEntryHandler;
-import org.carlspring.strongbox.domain.ArtifactEntry;
+import javax.inject.Inject;
+
+import org.carlspring.strongbox.artifact.ArtifactDownloadStatisticsAccumulator;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
 import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.Repository;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+/**
+ * Download statistics are not written per download, but accumulated and flushed in batches by
+ * {@link ArtifactDownloadStatisticsAccumulator}, so this listener is cheap enough to run synchronously.
+ */
 @Component
-public class ArtifactDownloadingEventHandler extends AsyncArtifactEntryHandler
+public class ArtifactDownloadingEventHandler
 {
 
-    public ArtifactDownloadingEventHandler()
-    {
-        super(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_DOWNLOADING);
-    }
+    @Inject
+    private ArtifactDownloadStatisticsAccumulator downloadStatisticsAccumulator;
 
-    @Override
-    protected ArtifactEntry handleEvent(RepositoryPath repositoryPath) throws IOException
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleEvent(final ArtifactEvent<RepositoryPath> event)
+        throws IOException
     {
-        ArtifactEntry artifactEntry = repositoryPath.getArtifactEntry();
-        
-        artifactEntry.setDownloadCount(artifactEntry.getDownloadCount() + 1);
-        artifactEntry.setLastUsed(new Date());
+        if (ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_DOWNLOADING.getType() != event.getType())
+        {
+            return;
+        }
+
+        RepositoryPath repositoryPath = (RepositoryPath) event.getPath();
+        if (!RepositoryFiles.isArtifact(repositoryPath))
+        {
+            return;
+        }
 
-        return artifactEntry;
+        Repository repository = repositoryPath.getRepository();
+        downloadStatisticsAccumulator.recordDownload(repository.getStorage().getId(),
+                                                     repository.getId(),
+                                                     RepositoryFiles.relativizePath(repositoryPath));
     }
 
 }
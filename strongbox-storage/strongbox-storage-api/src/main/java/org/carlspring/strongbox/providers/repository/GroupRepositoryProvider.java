@@ -6,20 +6,33 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
 import org.carlspring.strongbox.data.criteria.OQueryTemplate;
+import org.carlspring.strongbox.data.criteria.PageCursor;
 import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.data.criteria.QueryTemplate;
@@ -30,13 +43,19 @@ import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
 import org.carlspring.strongbox.providers.repository.event.GroupRepositoryPathFetchEvent;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositoryParallelLookup;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositoryParallelLookup.ProbeResult;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositoryPathCache;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositoryPathCache.CachedMember;
 import org.carlspring.strongbox.providers.repository.group.GroupRepositorySetCollector;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactResolver;
 import org.carlspring.strongbox.services.support.ArtifactRoutingRulesChecker;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
@@ -58,12 +77,59 @@ public class GroupRepositoryProvider extends AbstractRepositoryProvider
 
     @Inject
     private GroupRepositorySetCollector groupRepositorySetCollector;
+
+    @Inject
+    private GroupRepositoryPathCache groupRepositoryPathCache;
+
+    @Inject
+    private ProxyRepositoryArtifactResolver proxyRepositoryArtifactResolver;
     
     @PersistenceContext
     private EntityManager entityManager;
     
     @Inject
     private RepositoryPathResolver repositoryPathResolver;
+
+    @Value("${strongbox.group.parallel.lookup.enabled:false}")
+    private boolean parallelLookupEnabled;
+
+    @Value("${strongbox.group.parallel.lookup.concurrency:4}")
+    private int parallelLookupConcurrency;
+
+    @Value("${strongbox.group.parallel.lookup.threads:32}")
+    private int parallelLookupThreads;
+
+    private ExecutorService parallelLookupExecutor;
+
+    private GroupRepositoryParallelLookup parallelLookup;
+
+    @PostConstruct
+    public void init()
+    {
+        if (!parallelLookupEnabled)
+        {
+            return;
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        parallelLookupExecutor = new ThreadPoolExecutor(0, Math.max(1, parallelLookupThreads), 60L, TimeUnit.SECONDS,
+                                                        new SynchronousQueue<>(), r -> {
+            Thread thread = new Thread(r, String.format("group-lookup-%s", threadNumber.incrementAndGet()));
+            thread.setDaemon(true);
+
+            return thread;
+        }, (r, e) -> r.run());
+        parallelLookup = new GroupRepositoryParallelLookup(parallelLookupExecutor, parallelLookupConcurrency);
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        if (parallelLookupExecutor != null)
+        {
+            parallelLookupExecutor.shutdownNow();
+        }
+    }
     
     @Override
     public String getAlias()
@@ -88,15 +154,119 @@ public class GroupRepositoryProvider extends AbstractRepositoryProvider
         {
             return result;
         }
+
+        result = resolvePathFromCachedMember(repositoryPath);
+        if (result != null)
+        {
+            return result;
+        }
         
-        return resolvePathTraversal(repositoryPath);
+        result = resolvePathTraversal(repositoryPath);
+        if (result != null)
+        {
+            groupRepositoryPathCache.put(repositoryPath, result.getRepository());
+        }
+
+        return result;
+    }
+
+    private RepositoryPath resolvePathFromCachedMember(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        CachedMember cachedMember = groupRepositoryPathCache.get(repositoryPath);
+        if (cachedMember == null)
+        {
+            return null;
+        }
+
+        Storage storage = getConfiguration().getStorage(cachedMember.getStorageId());
+        Repository member = storage == null ? null : storage.getRepository(cachedMember.getRepositoryId());
+        RepositoryPath result = null;
+        if (member != null && member.isInService())
+        {
+            result = resolvePathFromGroupMemberOrTraverse(repositoryPathResolver.resolve(member, repositoryPath));
+        }
+
+        if (result == null)
+        {
+            groupRepositoryPathCache.invalidate(repositoryPath);
+        }
+
+        return result;
     }
     
     protected RepositoryPath resolvePathTraversal(RepositoryPath repositoryPath) throws IOException
+    {
+        List<RepositoryPath> candidates = resolveCandidatePaths(repositoryPath);
+        if (parallelLookup != null && candidates.size() > 1)
+        {
+            return parallelLookup.lookup(candidates,
+                                         this::probeGroupMember,
+                                         this::resolvePathFromGroupMemberOrTraverse);
+        }
+
+        for (RepositoryPath candidate : candidates)
+        {
+            RepositoryPath result = resolvePathFromGroupMemberOrTraverse(candidate);
+            if (result == null)
+            {
+                continue;
+            }
+            
+            logger.debug(String.format("Located artifact: [%s]", result));
+            
+            return result;
+        }
+        return null;
+    }
+
+    /**
+     * Tells whether a group member has the path, without fetching it: a proxy member which doesn't have the path
+     * locally asks its remote, and a nested group probes its own members.
+     */
+    private ProbeResult probeGroupMember(RepositoryPath candidate)
+        throws IOException
+    {
+        Repository repository = candidate.getRepository();
+        if (getAlias().equals(repository.getType()))
+        {
+            ProbeResult result = ProbeResult.NOT_FOUND;
+            for (RepositoryPath nestedCandidate : resolveCandidatePaths(candidate))
+            {
+                ProbeResult nestedResult = probeGroupMember(nestedCandidate);
+                if (nestedResult == ProbeResult.FOUND)
+                {
+                    return nestedResult;
+                }
+                if (nestedResult == ProbeResult.UNKNOWN)
+                {
+                    result = nestedResult;
+                }
+            }
+
+            return result;
+        }
+        if (Files.exists(candidate))
+        {
+            return ProbeResult.FOUND;
+        }
+        if (!repository.isProxyRepository())
+        {
+            return ProbeResult.NOT_FOUND;
+        }
+
+        return proxyRepositoryArtifactResolver.existsInRemote(candidate) ? ProbeResult.FOUND : ProbeResult.NOT_FOUND;
+    }
+
+    /**
+     * @return the paths of the group members which may serve the given path, in the group order.
+     */
+    private List<RepositoryPath> resolveCandidatePaths(RepositoryPath repositoryPath)
     {
         Repository groupRepository = repositoryPath.getRepository();
         Storage storage = groupRepository.getStorage();
-        
+
+        List<RepositoryPath> result = new ArrayList<>();
         for (String storageAndRepositoryId : groupRepository.getGroupRepositories().keySet())
         {
             String sId = configurationManager.getStorageId(storage, storageAndRepositoryId);
@@ -108,23 +278,16 @@ public class GroupRepositoryProvider extends AbstractRepositoryProvider
                 continue;
             }
             
-            RepositoryPath result = repositoryPathResolver.resolve(subRepository, repositoryPath);
-            if (artifactRoutingRulesChecker.isDenied(groupRepository, result))
-            {
-                continue;
-            }
-            
-            result = resolvePathFromGroupMemberOrTraverse(result);
-            if (result == null)
+            RepositoryPath candidate = repositoryPathResolver.resolve(subRepository, repositoryPath);
+            if (artifactRoutingRulesChecker.isDenied(groupRepository, candidate))
             {
                 continue;
             }
-            
-            logger.debug(String.format("Located artifact: [%s]", result));
-            
-            return result;
+
+            result.add(candidate);
         }
-        return null;
+
+        return result;
     }
 
     private RepositoryPath resolvePathDirectlyFromGroupPathIfPossible(final RepositoryPath artifactPath)
@@ -186,6 +349,11 @@ public class GroupRepositoryProvider extends AbstractRepositoryProvider
             return new LinkedList<>();
         }
 
+        if (paginator.isKeyset())
+        {
+            return searchKeyset(groupRepositorySet, predicate, paginator);
+        }
+
         int skip = paginator.getSkip();
         int limit = paginator.getLimit();
 
@@ -248,6 +416,53 @@ public class GroupRepositoryProvider extends AbstractRepositoryProvider
         return resultList.subList(skip, toIndex);
     }
 
+    /**
+     * Merges the keyset pages of the group members, which are all sought to the same position, in the common order.
+     * Each member is queried for the next page only when its current page has been merged.
+     * <p>
+     * The artifacts which are stored in several members are returned once per page, from the member which comes
+     * first in the common order, but might show up again on a later page if the entries of the other members fall
+     * there.
+     */
+    private List<Path> searchKeyset(Set<Repository> groupRepositorySet,
+                                    Predicate predicate,
+                                    Paginator paginator)
+    {
+        Comparator<PageCursor> comparator = PageCursor.comparator(paginator.getOrder());
+        PriorityQueue<KeysetPage> queue = new PriorityQueue<>(groupRepositorySet.size(),
+                                                              (p1, p2) -> comparator.compare(p1.peekCursor(),
+                                                                                             p2.peekCursor()));
+        for (Repository r : groupRepositorySet)
+        {
+            KeysetPage page = new KeysetPage(r, predicate, paginator);
+            if (page.hasNext())
+            {
+                queue.add(page);
+            }
+        }
+
+        int limit = paginator.getLimit();
+        Map<ArtifactCoordinates, Path> resultMap = new LinkedHashMap<>();
+        PageCursor last = null;
+        while (resultMap.size() < limit && !queue.isEmpty())
+        {
+            KeysetPage page = queue.poll();
+
+            last = page.peekCursor();
+            Path path = page.poll();
+            resultMap.putIfAbsent(getArtifactCoordinates(path), path);
+
+            if (page.hasNext())
+            {
+                queue.add(page);
+            }
+        }
+
+        paginator.setNext(queue.isEmpty() ? null : last);
+
+        return new LinkedList<>(resultMap.values());
+    }
+
     private ArtifactCoordinates getArtifactCoordinates(Path p)
     {
         try
@@ -288,5 +503,93 @@ public class GroupRepositoryProvider extends AbstractRepositoryProvider
 
     }
 
-    
+    /**
+     * Keyset pages of a single group member.
+     */
+    private class KeysetPage
+    {
+
+        private final Repository repository;
+
+        private final Predicate predicate;
+
+        private final Paginator paginator;
+
+        private final Deque<Path> paths = new ArrayDeque<>();
+
+        private final Deque<PageCursor> cursors = new ArrayDeque<>();
+
+        private PageCursor after;
+
+        private boolean exhausted;
+
+        private KeysetPage(Repository repository,
+                           Predicate predicate,
+                           Paginator paginator)
+        {
+            this.repository = repository;
+            this.predicate = predicate;
+            this.paginator = paginator;
+            this.after = paginator.getAfter();
+        }
+
+        private boolean hasNext()
+        {
+            if (paths.isEmpty() && !exhausted)
+            {
+                fetch();
+            }
+
+            return !paths.isEmpty();
+        }
+
+        private PageCursor peekCursor()
+        {
+            return cursors.peek();
+        }
+
+        private Path poll()
+        {
+            cursors.poll();
+
+            return paths.poll();
+        }
+
+        private void fetch()
+        {
+            Paginator paginatorLocal = new Paginator();
+            paginatorLocal.setKeyset(true);
+            paginatorLocal.setLimit(paginator.getLimit());
+            paginatorLocal.setProperty(paginator.getProperty());
+            paginatorLocal.setOrder(paginator.getOrder());
+            paginatorLocal.setAfter(after);
+
+            RepositoryProvider repositoryProvider = repositoryProviderRegistry.getProvider(repository.getType());
+            List<Path> repositoryResult = repositoryProvider.search(repository.getStorage().getId(),
+                                                                    repository.getId(), predicate, paginatorLocal);
+            for (Path p : repositoryResult)
+            {
+                paths.add(p);
+                // The search results carry their entries, so this doesn't read them again.
+                cursors.add(getPageCursor(p));
+            }
+
+            after = cursors.peekLast();
+            exhausted = paginatorLocal.getNext() == null;
+        }
+
+        private PageCursor getPageCursor(Path p)
+        {
+            try
+            {
+                return PageCursor.of(((RepositoryPath) p).getArtifactEntry(), paginator.getProperty());
+            }
+            catch (IOException e)
+            {
+                throw new RuntimeException(String.format("Failed to resolve ArtifactEntry for [%s]", p), e);
+            }
+        }
+
+    }
+
 }
@@ -1,10 +1,14 @@
 package org.carlspring.strongbox.providers.repository;
 
 
+import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
 import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Predicate;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.RemoteArtifactEntry;
+import org.carlspring.strongbox.io.RepositoryStreamContext;
+import org.carlspring.strongbox.io.RepositoryStreamReadContext;
+import org.carlspring.strongbox.io.StreamUtils;
 import org.carlspring.strongbox.providers.io.AbstractRepositoryProvider;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
@@ -12,6 +16,10 @@ import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.providers.repository.event.ProxyRepositoryPathExpiredEvent;
 import org.carlspring.strongbox.providers.repository.event.RemoteRepositorySearchEvent;
 import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryArtifactResolver;
+import org.carlspring.strongbox.providers.repository.proxied.ProxyRepositoryNegativeCache;
+import org.carlspring.strongbox.providers.repository.proxied.TeeDownload;
+import org.carlspring.strongbox.providers.repository.proxied.TeeDownload.SpoolInputStream;
+import org.carlspring.strongbox.providers.repository.proxied.TeeDownloadRegistry;
 
 import javax.inject.Inject;
 import java.io.IOException;
@@ -49,6 +57,12 @@ public class ProxyRepositoryProvider
     @Inject
     private RepositoryPathLock repositoryPathLock;
 
+    @Inject
+    private TeeDownloadRegistry teeDownloadRegistry;
+
+    @Inject
+    private ProxyRepositoryNegativeCache negativeCache;
+
     @Override
     public String getAlias()
     {
@@ -59,9 +73,59 @@ public class ProxyRepositoryProvider
     protected InputStream getInputStreamInternal(RepositoryPath path)
         throws IOException
     {
+        TeeDownload teeDownload = teeDownloadRegistry.get(path);
+        InputStream is = teeDownload == null ? null : teeDownload.newInputStream();
+        if (is != null)
+        {
+            return is;
+        }
+
         return hostedRepositoryProvider.getInputStreamInternal(path);
     }
 
+    /**
+     * The artifact which is being downloaded is locked for write by the download itself, so its spool is read
+     * without the lock.
+     */
+    @Override
+    protected Lock getLock(RepositoryStreamContext ctx)
+        throws IOException
+    {
+        if (isTeeDownloadStream(ctx))
+        {
+            return null;
+        }
+
+        return super.getLock(ctx);
+    }
+
+    @Override
+    public void onBeforeRead(RepositoryStreamReadContext ctx)
+        throws IOException
+    {
+        if (!isTeeDownloadStream(ctx))
+        {
+            super.onBeforeRead(ctx);
+
+            return;
+        }
+
+        // The artifact entry doesn't exist until the download has been stored.
+        artifactEventListenerRegistry.dispatchArtifactDownloadingEvent((RepositoryPath) ctx.getPath());
+    }
+
+    private boolean isTeeDownloadStream(RepositoryStreamContext ctx)
+    {
+        if (!(ctx instanceof RepositoryStreamReadContext))
+        {
+            return false;
+        }
+
+        InputStream is = ((RepositoryStreamReadContext) ctx).getStream();
+
+        return StreamUtils.findSource(SpoolInputStream.class, is) != null;
+    }
+
     @Override
     protected RepositoryPath fetchPath(RepositoryPath repositoryPath)
         throws IOException
@@ -83,6 +147,12 @@ public class ProxyRepositoryProvider
     private RepositoryPath resolvePathExclusive(RepositoryPath repositoryPath)
             throws IOException
     {
+        if (negativeCache.isNotFound(repositoryPath))
+        {
+            logger.debug(String.format("Path [%s] was recently not found in remote.", repositoryPath));
+
+            throw new ArtifactNotFoundException(RepositoryFiles.resolveResource(repositoryPath));
+        }
 
         ReadWriteLock lockSource = repositoryPathLock.lock(repositoryPath, "pre-remote-fetch");
         Lock lock = lockSource.writeLock();
@@ -98,8 +168,19 @@ public class ProxyRepositoryProvider
                 return targetPath;
 
             }
+            if (teeDownloadRegistry.get(repositoryPath) != null)
+            {
+                // Attach to the download which is in progress.
+                return repositoryPath;
+            }
             return proxyRepositoryArtifactResolver.fetchRemoteResource(repositoryPath);
         }
+        catch (ArtifactNotFoundException e)
+        {
+            negativeCache.putNotFound(repositoryPath);
+
+            throw e;
+        }
         catch (IOException e)
         {
             logger.error(String.format("Failed to resolve Path for proxied artifact [%s]", repositoryPath),
@@ -0,0 +1,127 @@
+package org.carlspring.strongbox.providers.repository.group;
+
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves a path against the members of a group repository, probing up to {@code concurrency} members ahead of the
+ * one which is awaited.
+ * <p>
+ * The probes must not have side effects, since they run without the transaction and the security context of the
+ * request and might be cancelled at any time: they only check the file system, or ask the remote of a proxy member
+ * without downloading anything. The members are fetched in the requesting thread and in the group order: the ones
+ * which were probed as missing are skipped, all the others are fetched until one of them has the path. Probes of the
+ * members after the winner are cancelled.
+ *
+ * @see MemberProber
+ */
+public class GroupRepositoryParallelLookup
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupRepositoryParallelLookup.class);
+
+    private final ExecutorService executor;
+
+    private final int concurrency;
+
+    public GroupRepositoryParallelLookup(ExecutorService executor,
+                                         int concurrency)
+    {
+        this.executor = executor;
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    public RepositoryPath lookup(List<RepositoryPath> candidates,
+                                 MemberProber prober,
+                                 MemberFetcher fetcher)
+        throws IOException
+    {
+        List<Future<ProbeResult>> probes = new ArrayList<>(candidates.size());
+        try
+        {
+            for (int i = 0; i < candidates.size(); i++)
+            {
+                while (probes.size() < Math.min(candidates.size(), i + concurrency))
+                {
+                    RepositoryPath candidate = candidates.get(probes.size());
+                    probes.add(executor.submit(() -> prober.probe(candidate)));
+                }
+
+                RepositoryPath candidate = candidates.get(i);
+                if (awaitProbe(candidate, probes.get(i)) == ProbeResult.NOT_FOUND)
+                {
+                    continue;
+                }
+
+                RepositoryPath result = fetcher.fetch(candidate);
+                if (result != null)
+                {
+                    return result;
+                }
+            }
+
+            return null;
+        }
+        finally
+        {
+            probes.forEach(f -> f.cancel(true));
+        }
+    }
+
+    private ProbeResult awaitProbe(RepositoryPath candidate,
+                                   Future<ProbeResult> probe)
+        throws IOException
+    {
+        try
+        {
+            return probe.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException("Interrupted while resolving group member path.");
+        }
+        catch (ExecutionException e)
+        {
+            // The fetch will tell.
+            logger.debug(String.format("Failed to probe path [%s]", candidate), e.getCause());
+
+            return ProbeResult.UNKNOWN;
+        }
+    }
+
+    public enum ProbeResult
+    {
+        FOUND, NOT_FOUND, UNKNOWN
+    }
+
+    @FunctionalInterface
+    public interface MemberProber
+    {
+
+        ProbeResult probe(RepositoryPath candidate)
+            throws Exception;
+
+    }
+
+    @FunctionalInterface
+    public interface MemberFetcher
+    {
+
+        RepositoryPath fetch(RepositoryPath candidate)
+            throws IOException;
+
+    }
+
+}
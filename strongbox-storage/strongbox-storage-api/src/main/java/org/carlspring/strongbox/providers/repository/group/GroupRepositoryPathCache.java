@@ -0,0 +1,147 @@
+package org.carlspring.strongbox.providers.repository.group;
+
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathCache;
+import org.carlspring.strongbox.providers.io.RepositoryPathKey;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers which member repository a path of a group repository has been resolved from, so that the next lookup of
+ * the same path goes straight to that member instead of traversing the whole group.
+ * <p>
+ * The cache is disabled unless {@code strongbox.group.path.cache.enabled} is set. A path is the same in the group and
+ * in its members, so storing or deleting a path in any repository invalidates it, and everything under it, in all
+ * the groups. All the entries are dropped when the storages, repositories, group memberships, routing rules or
+ * repository states change, and in any case they expire after {@code strongbox.group.path.cache.ttl.seconds}. It's a
+ * {@link RepositoryPathCache} of {@code strongbox.group.path.cache.max.size} entries, with
+ * {@code strongbox.group.path.cache.*} metrics.
+ */
+@Component
+public class GroupRepositoryPathCache
+        implements InitializingBean
+{
+
+    private static final String METRIC_PREFIX = "strongbox.group.path.cache";
+
+    @Value("${strongbox.group.path.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${strongbox.group.path.cache.max.size:10000}")
+    private int maxSize;
+
+    @Value("${strongbox.group.path.cache.ttl.seconds:300}")
+    private long ttlSeconds;
+
+    private RepositoryPathCache<CachedMember> cache;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        cache = new RepositoryPathCache<>(METRIC_PREFIX, maxSize, TimeUnit.SECONDS.toMillis(ttlSeconds));
+    }
+
+    /**
+     * @return the member which the given group path has been resolved from, or {@code null}.
+     */
+    public CachedMember get(RepositoryPath groupPath)
+    {
+        if (!enabled)
+        {
+            return null;
+        }
+
+        return cache.get(RepositoryPathKey.of(groupPath));
+    }
+
+    public void put(RepositoryPath groupPath,
+                    Repository member)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        cache.put(RepositoryPathKey.of(groupPath), new CachedMember(member.getStorage().getId(), member.getId()));
+    }
+
+    public void invalidate(RepositoryPath groupPath)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        cache.invalidate(RepositoryPathKey.of(groupPath));
+    }
+
+    /**
+     * Invalidates the given path, and everything under it, in all the groups.
+     */
+    public void invalidate(String path)
+    {
+        cache.invalidateTree(path);
+    }
+
+    public void invalidateAll()
+    {
+        cache.invalidateAll();
+    }
+
+    long size()
+    {
+        return cache.size();
+    }
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        if (event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType()
+                && event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType())
+        {
+            return;
+        }
+
+        if (cache.isEmpty())
+        {
+            return;
+        }
+
+        invalidate(RepositoryPathKey.of(event.getPath()).getPath());
+    }
+
+    public static class CachedMember
+    {
+
+        private final String storageId;
+
+        private final String repositoryId;
+
+        private CachedMember(String storageId,
+                             String repositoryId)
+        {
+            this.storageId = storageId;
+            this.repositoryId = repositoryId;
+        }
+
+        public String getStorageId()
+        {
+            return storageId;
+        }
+
+        public String getRepositoryId()
+        {
+            return repositoryId;
+        }
+
+    }
+
+}
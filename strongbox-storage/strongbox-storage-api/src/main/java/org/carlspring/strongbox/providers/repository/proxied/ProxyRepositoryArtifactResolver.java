@@ -1,8 +1,10 @@
 package org.carlspring.strongbox.providers.repository.proxied;
 
+import org.carlspring.strongbox.client.CloseableRestResponse;
 import org.carlspring.strongbox.client.RestArtifactResolver;
 import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
 import org.carlspring.strongbox.providers.io.RepositoryFileAttributes;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathLock;
 import org.carlspring.strongbox.services.ArtifactManagementService;
@@ -12,6 +14,7 @@ import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
 import org.carlspring.strongbox.storage.repository.remote.heartbeat.RemoteRepositoryAlivenessCacheManager;
 
 import javax.inject.Inject;
+import javax.ws.rs.core.Response;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -46,6 +49,58 @@ public class ProxyRepositoryArtifactResolver
     @Inject
     private ArtifactManagementService artifactManagementService;
 
+    @Inject
+    private TeeDownloadRegistry teeDownloadRegistry;
+
+    @Inject
+    private ProxyRepositoryNegativeCache negativeCache;
+
+    /**
+     * Checks whether the remote has the resource, without downloading or storing anything: the negative cache is
+     * consulted first, and the remote is only asked with a {@code HEAD} request.
+     *
+     * @return {@code true} if the remote has the resource, {@code false} if it doesn't have it or is down.
+     * @throws IOException if the remote answered with something else than found or not found.
+     */
+    public boolean existsInRemote(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        Repository repository = repositoryPath.getFileSystem().getRepository();
+        final RemoteRepository remoteRepository = ((ImmutableRepository)repository).getRemoteRepository();
+        if (!remoteRepositoryAlivenessCacheManager.isAlive(remoteRepository))
+        {
+            return false;
+        }
+        if (teeDownloadRegistry.get(repositoryPath) != null)
+        {
+            return true;
+        }
+        if (negativeCache.isNotFound(repositoryPath))
+        {
+            return false;
+        }
+
+        RestArtifactResolver client = restArtifactResolverFactory.newInstance(remoteRepository);
+        try (CloseableRestResponse closeableRestResponse = client.head(RepositoryFiles.resolveResource(repositoryPath)
+                                                                                      .toString()))
+        {
+            Response response = closeableRestResponse.getResponse();
+            if (response.getStatus() == 200)
+            {
+                return true;
+            }
+            if (response.getStatus() == 404)
+            {
+                negativeCache.putNotFound(repositoryPath);
+
+                return false;
+            }
+
+            throw new IOException(String.format("Unexpected response status [%s] for [%s].",
+                                                response.getStatus(), repositoryPath));
+        }
+    }
+
     /**
      * This method has been developed to force fetch resource from remote.
      *
@@ -65,13 +120,29 @@ public class ProxyRepositoryArtifactResolver
             return null;
         }
 
+        if (teeDownloadRegistry.isEnabled() && RepositoryFiles.isArtifact(repositoryPath))
+        {
+            // The artifact is stored in background, and served from the download spool meanwhile.
+            teeDownloadRegistry.start(repositoryPath, d -> fetchRemoteResource(remoteRepository, repositoryPath, d));
+
+            return repositoryPath;
+        }
+
+        return fetchRemoteResource(remoteRepository, repositoryPath, null);
+    }
+
+    private RepositoryPath fetchRemoteResource(RemoteRepository remoteRepository,
+                                               RepositoryPath repositoryPath,
+                                               TeeDownload teeDownload)
+        throws IOException
+    {
         RestArtifactResolver client = restArtifactResolverFactory.newInstance(remoteRepository);
 
         ReadWriteLock lockSource = repositoryPathLock.lock(repositoryPath, "remote-fetch");
         Lock lock = lockSource.writeLock();
         lock.lock();
 
-        try (InputStream is = new BufferedInputStream(new ProxyRepositoryInputStream(client, repositoryPath)))
+        try (InputStream is = newRemoteInputStream(client, repositoryPath, teeDownload))
         {
             return doFetch(repositoryPath, is);
         }
@@ -81,6 +152,34 @@ public class ProxyRepositoryArtifactResolver
         }
     }
 
+    private InputStream newRemoteInputStream(RestArtifactResolver client,
+                                             RepositoryPath repositoryPath,
+                                             TeeDownload teeDownload)
+        throws IOException
+    {
+        ProxyRepositoryInputStream remoteInputStream = new ProxyRepositoryInputStream(client, repositoryPath);
+        InputStream is = new BufferedInputStream(remoteInputStream);
+        if (teeDownload == null)
+        {
+            return is;
+        }
+
+        try
+        {
+            // The requester is waiting for the remote response status, so we connect before the stream is handed
+            // over to the store.
+            is.available();
+
+            return teeDownload.connect(is, remoteInputStream.getContentLength());
+        }
+        catch (IOException e)
+        {
+            is.close();
+
+            throw e;
+        }
+    }
+
     private RepositoryPath doFetch(RepositoryPath repositoryPath,
                                    InputStream is)
         throws IOException
@@ -10,6 +10,7 @@ import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
 import org.carlspring.strongbox.client.RemoteRepositoryRetryArtifactDownloadConfiguration;
 import org.carlspring.strongbox.client.RestArtifactResolver;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.repository.proxied.RemoteArtifactStreamFetcher.RemoteArtifactInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -94,6 +95,15 @@ public class ProxyRepositoryInputStream extends FilterInputStream
         return super.available();
     }
 
+    /**
+     * @return the length of the remote resource, or {@code -1} if the remote didn't provide it.
+     */
+    public long getContentLength()
+        throws IOException
+    {
+        return ((RemoteArtifactInputStream) in).getConnection().getResponse().getLength();
+    }
+
     @Override
     public void close()
         throws IOException
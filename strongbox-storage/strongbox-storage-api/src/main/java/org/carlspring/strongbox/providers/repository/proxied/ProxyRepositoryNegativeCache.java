@@ -0,0 +1,202 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.event.repository.RepositoryEvent;
+import org.carlspring.strongbox.event.repository.RepositoryEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.repository.ImmutableRepository;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers the paths which were not found in the remote of a proxy repository, so that repeated lookups of missing
+ * paths (for example through a group repository) don't go to the remote every time.
+ * <p>
+ * The cache is disabled unless {@link RemoteRepository#getNegativeCacheTtlSeconds()} is set, since a path which has
+ * just been published in the remote is reported as missing until its entry expires. Each repository keeps at most
+ * {@link RemoteRepository#getNegativeCacheMaxSize()} entries, the least recently used are evicted first. A path is
+ * invalidated in all the repositories as soon as it has been stored anywhere, and the entries of a repository are
+ * dropped when it is created, deleted or has its cache disabled.
+ */
+@Component
+public class ProxyRepositoryNegativeCache
+{
+
+    private static final String METRIC_PREFIX = "strongbox.proxy.negative.cache";
+
+    private final Map<String, Map<String, Long>> cache = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter = Metrics.counter(METRIC_PREFIX + ".hits");
+
+    private final Counter missCounter = Metrics.counter(METRIC_PREFIX + ".misses");
+
+    /**
+     * @return {@code true} if the path is known to be missing in the remote repository.
+     */
+    public boolean isNotFound(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        RemoteRepository remoteRepository = getRemoteRepository(repositoryPath);
+        String repositoryKey = getRepositoryKey(repositoryPath.getRepository());
+        if (!isEnabled(remoteRepository))
+        {
+            if (!cache.isEmpty())
+            {
+                cache.remove(repositoryKey);
+            }
+
+            return false;
+        }
+
+        Map<String, Long> entries = cache.get(repositoryKey);
+        if (entries == null)
+        {
+            missCounter.increment();
+
+            return false;
+        }
+
+        String path = RepositoryFiles.relativizePath(repositoryPath);
+        synchronized (entries)
+        {
+            Long expiresAt = entries.get(path);
+            if (expiresAt == null || expiresAt < System.currentTimeMillis())
+            {
+                entries.remove(path);
+                missCounter.increment();
+
+                return false;
+            }
+        }
+
+        hitCounter.increment();
+
+        return true;
+    }
+
+    public void putNotFound(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        RemoteRepository remoteRepository = getRemoteRepository(repositoryPath);
+        if (!isEnabled(remoteRepository))
+        {
+            return;
+        }
+
+        long expiresAt = System.currentTimeMillis()
+                + TimeUnit.SECONDS.toMillis(remoteRepository.getNegativeCacheTtlSeconds());
+        int maxSize = remoteRepository.getNegativeCacheMaxSize();
+
+        Map<String, Long> entries = cache.computeIfAbsent(getRepositoryKey(repositoryPath.getRepository()),
+                                                          k -> new LinkedHashMap<>(16, 0.75f, true));
+        String path = RepositoryFiles.relativizePath(repositoryPath);
+        synchronized (entries)
+        {
+            entries.put(path, expiresAt);
+
+            for (Iterator<String> i = entries.keySet().iterator(); entries.size() > maxSize && i.hasNext(); )
+            {
+                i.next();
+                i.remove();
+            }
+        }
+    }
+
+    public void invalidate(String path)
+    {
+        for (Map<String, Long> entries : cache.values())
+        {
+            synchronized (entries)
+            {
+                entries.remove(path);
+            }
+        }
+    }
+
+    public void invalidateAll()
+    {
+        cache.clear();
+    }
+
+    @EventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+        throws IOException
+    {
+        if (event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType()
+                && event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED.getType()
+                && event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_METADATA_STORED.getType())
+        {
+            return;
+        }
+
+        invalidate(RepositoryFiles.relativizePath(event.getPath()));
+    }
+
+    /**
+     * A repository might have been recreated, with another remote.
+     */
+    @EventListener
+    public void handle(final RepositoryEvent event)
+    {
+        if (event.getType() != RepositoryEventTypeEnum.EVENT_REPOSITORY_CREATED.getType()
+                && event.getType() != RepositoryEventTypeEnum.EVENT_REPOSITORY_DELETED.getType())
+        {
+            return;
+        }
+
+        cache.remove(getRepositoryKey(event.getStorageId(), event.getRepositoryId()));
+    }
+
+    int size()
+    {
+        return cache.values().stream().mapToInt(entries -> {
+            synchronized (entries)
+            {
+                return entries.size();
+            }
+        }).sum();
+    }
+
+    private boolean isEnabled(RemoteRepository remoteRepository)
+    {
+        return remoteRepository != null
+                && remoteRepository.getNegativeCacheTtlSeconds() != null
+                && remoteRepository.getNegativeCacheTtlSeconds() > 0
+                && remoteRepository.getNegativeCacheMaxSize() != null
+                && remoteRepository.getNegativeCacheMaxSize() > 0;
+    }
+
+    private RemoteRepository getRemoteRepository(RepositoryPath repositoryPath)
+    {
+        Repository repository = repositoryPath.getRepository();
+
+        return repository instanceof ImmutableRepository ? ((ImmutableRepository) repository).getRemoteRepository()
+                : null;
+    }
+
+    private String getRepositoryKey(Repository repository)
+    {
+        return getRepositoryKey(repository.getStorage().getId(), repository.getId());
+    }
+
+    private String getRepositoryKey(String storageId,
+                                    String repositoryId)
+    {
+        return String.format("%s:%s", storageId, repositoryId);
+    }
+
+}
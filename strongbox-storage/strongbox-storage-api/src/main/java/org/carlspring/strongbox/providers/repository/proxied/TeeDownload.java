@@ -0,0 +1,436 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Remote artifact download which is in progress.
+ * <p>
+ * The remote stream is stored into the repository as usual, but every byte read from it is also appended to a spool
+ * file, which is created next to the temporary file of the store, in the temporary directory of the repository.
+ * Requesters of the same path attach to the download with {@link #newInputStream()} and read the spool behind the
+ * writer's offset, waiting for more bytes when they have caught up. The spool is deleted as soon as the download is
+ * done and there are no more attached readers. Readers which are garbage collected without having been closed are
+ * detached by {@link #sweep()}.
+ */
+public class TeeDownload
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(TeeDownload.class);
+
+    private final RepositoryPath repositoryPath;
+
+    private final Path spoolPath;
+
+    private final FileChannel spool;
+
+    private final CompletableFuture<Void> connected = new CompletableFuture<>();
+
+    private volatile long contentLength = -1;
+
+    private long written;
+
+    private boolean received;
+
+    private boolean done;
+
+    private IOException failure;
+
+    private final Set<ReaderReference> readers = new HashSet<>();
+
+    private final ReferenceQueue<SpoolInputStream> abandonedReaders = new ReferenceQueue<>();
+
+    private boolean released;
+
+    public TeeDownload(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        this(repositoryPath, RepositoryFiles.temporary(repositoryPath).getParent().getTarget());
+    }
+
+    TeeDownload(RepositoryPath repositoryPath,
+                Path spoolDirectory)
+        throws IOException
+    {
+        this.repositoryPath = repositoryPath;
+        this.spoolPath = Files.createTempFile(spoolDirectory, "strongbox-tee-", ".tmp");
+        this.spool = FileChannel.open(spoolPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    public RepositoryPath getRepositoryPath()
+    {
+        return repositoryPath;
+    }
+
+    /**
+     * @return the length of the remote artifact, or {@code -1} if the remote didn't provide it.
+     */
+    public long getContentLength()
+    {
+        return contentLength;
+    }
+
+    /**
+     * Marks the remote connection as established and wraps the remote stream, so that all the bytes read from it are
+     * appended to the spool.
+     */
+    public InputStream connect(InputStream remoteInputStream,
+                               long contentLength)
+    {
+        this.contentLength = contentLength;
+        connected.complete(null);
+
+        return new TeeInputStream(remoteInputStream);
+    }
+
+    /**
+     * Waits until the remote connection is established, or rethrows the reason why it could not be.
+     */
+    public void awaitConnected()
+        throws IOException
+    {
+        try
+        {
+            connected.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException(String.format("Interrupted while connecting to remote for [%s].",
+                                                           repositoryPath));
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+
+    public synchronized void complete()
+    {
+        done = true;
+        connected.complete(null);
+        notifyAll();
+
+        releaseIfUnused();
+    }
+
+    public synchronized void fail(Exception cause)
+    {
+        failure = cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        done = true;
+        connected.completeExceptionally(failure);
+        notifyAll();
+
+        releaseIfUnused();
+    }
+
+    /**
+     * @return a stream which reads the artifact content as it arrives from the remote, or {@code null} if the
+     *         download is already done and the artifact should be read from the repository.
+     */
+    public synchronized InputStream newInputStream()
+    {
+        if (released || (done && failure == null))
+        {
+            return null;
+        }
+
+        SpoolInputStream result = new SpoolInputStream();
+        readers.add(result.reference);
+
+        return result;
+    }
+
+    /**
+     * Detaches the readers which have been garbage collected without having been closed, and deletes the spool if the
+     * download is done and no readers are left.
+     *
+     * @return {@code true} if the spool has been deleted
+     */
+    public synchronized boolean sweep()
+    {
+        for (Reference<? extends SpoolInputStream> reference; (reference = abandonedReaders.poll()) != null; )
+        {
+            if (readers.remove(reference))
+            {
+                logger.warn(String.format("Reader of [%s] has not been closed.", repositoryPath));
+            }
+        }
+
+        releaseIfUnused();
+
+        return released;
+    }
+
+    Path getSpoolPath()
+    {
+        return spoolPath;
+    }
+
+    private synchronized void append(byte[] b,
+                                     int off,
+                                     int len)
+        throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+        while (buffer.hasRemaining())
+        {
+            spool.write(buffer, written + buffer.position() - off);
+        }
+
+        written += len;
+        notifyAll();
+    }
+
+    private synchronized void endOfStream()
+    {
+        received = true;
+        notifyAll();
+    }
+
+    /**
+     * @return the number of bytes which can be read at the given position without blocking, or {@code -1} if the
+     *         end of the artifact has been reached.
+     */
+    private synchronized long awaitAvailable(long position)
+        throws IOException
+    {
+        while (position >= written && !received && !done)
+        {
+            try
+            {
+                wait();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+
+                throw new InterruptedIOException(String.format("Interrupted while reading [%s].", repositoryPath));
+            }
+        }
+
+        if (failure != null)
+        {
+            throw new IOException(String.format("Failed to fetch [%s] from remote.", repositoryPath), failure);
+        }
+
+        return position < written ? written - position : -1;
+    }
+
+    private synchronized void detach(ReaderReference reference)
+    {
+        readers.remove(reference);
+
+        releaseIfUnused();
+    }
+
+    private void releaseIfUnused()
+    {
+        if (!done || !readers.isEmpty() || released)
+        {
+            return;
+        }
+
+        released = true;
+        try
+        {
+            spool.close();
+            Files.deleteIfExists(spoolPath);
+        }
+        catch (IOException e)
+        {
+            logger.warn(String.format("Failed to delete spool [%s] of [%s].", spoolPath, repositoryPath), e);
+        }
+    }
+
+    private class TeeInputStream extends FilterInputStream
+    {
+
+        private TeeInputStream(InputStream in)
+        {
+            super(in);
+        }
+
+        @Override
+        public int read()
+            throws IOException
+        {
+            byte[] b = new byte[1];
+
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b,
+                        int off,
+                        int len)
+            throws IOException
+        {
+            int n = super.read(b, off, len);
+            if (n == -1)
+            {
+                endOfStream();
+            }
+            else if (n > 0)
+            {
+                append(b, off, n);
+            }
+
+            return n;
+        }
+
+        /**
+         * The skipped bytes are read, so that they are appended to the spool and stored.
+         */
+        @Override
+        public long skip(long n)
+            throws IOException
+        {
+            if (n <= 0)
+            {
+                return 0;
+            }
+
+            byte[] buffer = new byte[(int) Math.min(n, 8192)];
+
+            long skipped = 0;
+            while (skipped < n)
+            {
+                int read = read(buffer, 0, (int) Math.min(n - skipped, buffer.length));
+                if (read == -1)
+                {
+                    break;
+                }
+
+                skipped += read;
+            }
+
+            return skipped;
+        }
+
+    }
+
+    /**
+     * Stream of a requester attached to the download.
+     */
+    public class SpoolInputStream extends InputStream
+    {
+
+        private final ReaderReference reference = new ReaderReference(this, abandonedReaders);
+
+        private long position;
+
+        private SpoolInputStream()
+        {
+        }
+
+        @Override
+        public int read()
+            throws IOException
+        {
+            byte[] b = new byte[1];
+
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b,
+                        int off,
+                        int len)
+            throws IOException
+        {
+            if (len == 0)
+            {
+                return 0;
+            }
+
+            long available = awaitAvailable(position);
+            if (available == -1)
+            {
+                return -1;
+            }
+
+            int n = spool.read(ByteBuffer.wrap(b, off, (int) Math.min(len, available)), position);
+            position += n;
+
+            return n;
+        }
+
+        /**
+         * Skips the bytes which are in the spool already, waiting for them if the reader has caught up.
+         */
+        @Override
+        public long skip(long n)
+            throws IOException
+        {
+            if (n <= 0)
+            {
+                return 0;
+            }
+
+            long available = awaitAvailable(position);
+            if (available == -1)
+            {
+                return 0;
+            }
+
+            long skipped = Math.min(n, available);
+            position += skipped;
+
+            return skipped;
+        }
+
+        @Override
+        public void close()
+        {
+            if (reference.closed)
+            {
+                return;
+            }
+
+            reference.closed = true;
+            detach(reference);
+        }
+
+    }
+
+    /**
+     * Tracks a reader, so that it can be detached even if it is never closed.
+     */
+    private static class ReaderReference
+            extends WeakReference<SpoolInputStream>
+    {
+
+        private boolean closed;
+
+        private ReaderReference(SpoolInputStream referent,
+                                ReferenceQueue<SpoolInputStream> queue)
+        {
+            super(referent, queue);
+        }
+
+    }
+
+}
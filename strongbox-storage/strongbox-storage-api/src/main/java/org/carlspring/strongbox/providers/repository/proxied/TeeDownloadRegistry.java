@@ -0,0 +1,184 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps track of the {@link TeeDownload}s which are in progress.
+ * <p>
+ * When {@code strongbox.proxy.tee.enabled} is set, remote artifacts are fetched by a background thread, and the
+ * requesters are served from the {@link TeeDownload} spool as soon as the remote connection has been established,
+ * instead of waiting for the whole artifact to be stored. The number of background fetches is bounded by
+ * {@code strongbox.proxy.tee.threads}; above it the fetch runs in the requester's thread, as it does without tee mode.
+ * <p>
+ * Downloads which are done but still have attached readers are swept on every request, so that the spools of readers
+ * which have been garbage collected without being closed are deleted.
+ */
+@Component
+public class TeeDownloadRegistry
+        implements InitializingBean, DisposableBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(TeeDownloadRegistry.class);
+
+    private static final String METRIC_PREFIX = "strongbox.proxy.tee";
+
+    private final Map<URI, TeeDownload> downloads = new ConcurrentHashMap<>();
+
+    private final Set<TeeDownload> draining = ConcurrentHashMap.newKeySet();
+
+    @Value("${strongbox.proxy.tee.enabled:false}")
+    private boolean enabled;
+
+    @Value("${strongbox.proxy.tee.threads:16}")
+    private int threads;
+
+    private ExecutorService executor;
+
+    private Counter failedCounter;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        failedCounter = Metrics.counter(METRIC_PREFIX + ".failed");
+        Metrics.gauge(METRIC_PREFIX + ".active", downloads, Map::size);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(0, threads, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+            Thread thread = new Thread(r, String.format("%s-%s", TeeDownloadRegistry.class.getSimpleName(),
+                                                        threadNumber.incrementAndGet()));
+            thread.setDaemon(true);
+
+            return thread;
+        }, (r, e) -> r.run());
+    }
+
+    @Override
+    public void destroy()
+    {
+        executor.shutdownNow();
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * @return the download of the given path which is in progress, or {@code null}.
+     */
+    public TeeDownload get(RepositoryPath repositoryPath)
+    {
+        sweep();
+
+        return downloads.get(repositoryPath.toUri());
+    }
+
+    /**
+     * Starts the download of the given path in background and waits until the remote connection is established. If
+     * the path is being downloaded already, waits for that download instead.
+     *
+     * @throws IOException if the remote connection could not be established (for example if the remote artifact
+     *                     doesn't exist)
+     */
+    public TeeDownload start(RepositoryPath repositoryPath,
+                             TeeDownloadTask task)
+        throws IOException
+    {
+        sweep();
+
+        URI uri = repositoryPath.toUri();
+        TeeDownload download = newDownload(repositoryPath);
+        TeeDownload existing = downloads.putIfAbsent(uri, download);
+        if (existing != null)
+        {
+            // Nobody is attached to the new download, so completing it just deletes its spool.
+            download.complete();
+            existing.awaitConnected();
+
+            return existing;
+        }
+
+        executor.execute(() -> {
+            try
+            {
+                task.execute(download);
+                download.complete();
+            }
+            catch (ArtifactNotFoundException e)
+            {
+                logger.debug(String.format("Remote artifact [%s] not found.", repositoryPath));
+
+                download.fail(e);
+            }
+            catch (Exception e)
+            {
+                logger.error(String.format("Failed to fetch [%s] from remote.", repositoryPath), e);
+
+                failedCounter.increment();
+                download.fail(e);
+            }
+            finally
+            {
+                downloads.remove(uri, download);
+                if (!download.sweep())
+                {
+                    draining.add(download);
+                }
+            }
+        });
+
+        download.awaitConnected();
+
+        return download;
+    }
+
+    TeeDownload newDownload(RepositoryPath repositoryPath)
+        throws IOException
+    {
+        return new TeeDownload(repositoryPath);
+    }
+
+    int getDrainingCount()
+    {
+        return draining.size();
+    }
+
+    void sweep()
+    {
+        if (!draining.isEmpty())
+        {
+            draining.removeIf(TeeDownload::sweep);
+        }
+    }
+
+    @FunctionalInterface
+    public interface TeeDownloadTask
+    {
+
+        void execute(TeeDownload download)
+            throws IOException;
+
+    }
+
+}
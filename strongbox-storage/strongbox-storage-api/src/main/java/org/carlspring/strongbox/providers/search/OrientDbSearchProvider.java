@@ -1,5 +1,8 @@
 package org.carlspring.strongbox.providers.search;
 
+import org.carlspring.strongbox.data.criteria.PageCursor;
+import org.carlspring.strongbox.data.criteria.Paginator;
+import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.storage.search.SearchRequest;
 import org.carlspring.strongbox.storage.search.SearchResult;
@@ -75,16 +78,26 @@ public class OrientDbSearchProvider
             }
             while (matcher.find());
 
+            // Without keyset pagination all the matching entries are returned at once.
+            Paginator paginator = searchRequest.getPaginator();
+            List<ArtifactEntry> entries = paginator.isKeyset() ?
+                                          artifactEntryService.findArtifactList(searchRequest.getStorageId(),
+                                                                                searchRequest.getRepositoryId(),
+                                                                                coordinates, false, paginator) :
+                                          artifactEntryService.findArtifactList(searchRequest.getStorageId(),
+                                                                                searchRequest.getRepositoryId(),
+                                                                                coordinates, false);
+
             List<SearchResult> results = new LinkedList<>();
-            results.addAll(artifactEntryService.findArtifactList(searchRequest.getStorageId(),
-                                                                 searchRequest.getRepositoryId(),
-                                                                 coordinates, false)
-                                               .stream()
-                                               .map(this::createSearchResult)
-                                               .collect(Collectors.toList()));
+            results.addAll(entries.stream()
+                                  .map(this::createSearchResult)
+                                  .collect(Collectors.toList()));
 
             searchResults.getResults().addAll(results);
 
+            PageCursor next = paginator.getNext();
+            searchResults.setNext(next == null ? null : next.encode());
+
             return searchResults;
         }
 
@@ -7,6 +7,7 @@ import java.util.Set;
 
 import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.service.CrudService;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
@@ -53,6 +54,16 @@ public interface ArtifactEntryService
                                          String orderBy,
                                          boolean strict);
 
+    /**
+     * Same as {@link #findArtifactList(String, String, Map, boolean)}, one page at a time. In keyset mode the entries
+     * are ordered by {@code uuid} and the {@link Paginator#getNext()} cursor is set while more entries exist.
+     */
+    List<ArtifactEntry> findArtifactList(String storageId,
+                                         String repositoryId,
+                                         Map<String, String> coordinates,
+                                         boolean strict,
+                                         Paginator paginator);
+
     List<ArtifactEntry> findMatching(ArtifactEntrySearchCriteria searchCriteria,
                                      PagingCriteria pagingCriteria);
 
@@ -1,7 +1,10 @@
 package org.carlspring.strongbox.services;
 
+import org.carlspring.strongbox.domain.ArtifactCatalogEntry;
 import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
 
+import java.util.List;
+
 /**
  * @author Przemyslaw Fusik
  */
@@ -17,6 +20,14 @@ public interface RepositoryArtifactIdGroupService
                                            String repositoryId,
                                            String artifactId);
 
+    /**
+     * @return the coordinates and creation time of all the artifact entries of the group, read with a single query
+     *         over the group index; an empty list if there is no such group
+     */
+    List<ArtifactCatalogEntry> findCatalog(String storageId,
+                                           String repositoryId,
+                                           String artifactId);
+
     @Override
     default Class<RepositoryArtifactIdGroupEntry> getEntityClass()
     {
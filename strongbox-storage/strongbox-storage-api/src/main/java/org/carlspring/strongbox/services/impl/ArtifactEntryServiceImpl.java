@@ -1,5 +1,7 @@
 package org.carlspring.strongbox.services.impl;
 
+import javax.inject.Inject;
+
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -16,10 +18,15 @@ import java.util.stream.IntStream;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.time.DateUtils;
 import org.carlspring.strongbox.artifact.ArtifactTag;
+import org.carlspring.strongbox.artifact.coordinates.AbstractArtifactCoordinates;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinatesSearchIndex;
+import org.carlspring.strongbox.data.criteria.PageCursor;
+import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.service.support.search.PagingCriteria;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
+import org.carlspring.strongbox.providers.io.ArtifactEntryCache;
 import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.services.support.ArtifactEntrySearchCriteria;
 import org.javatuples.Pair;
@@ -45,6 +52,12 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
 
     private static final Logger logger = LoggerFactory.getLogger(ArtifactEntryService.class);
 
+    @Inject
+    private ArtifactCoordinatesSearchIndex searchIndex;
+
+    @Inject
+    private ArtifactEntryCache artifactEntryCache;
+
     private boolean artifactEntryIsSavedForTheFirstTime(ArtifactEntry artifactEntry)
     {
         return artifactEntry.getUuid() == null;
@@ -54,10 +67,20 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
     protected <S extends ArtifactEntry> S cascadeEntitySave(ArtifactEntry entity)
     {
         entity.setArtifactCoordinates(entity.getArtifactCoordinates());
+        if (entity.getArtifactCoordinates() instanceof AbstractArtifactCoordinates)
+        {
+            AbstractArtifactCoordinates artifactCoordinates = (AbstractArtifactCoordinates) entity.getArtifactCoordinates();
+            artifactCoordinates.setSearchTokens(searchIndex.tokenize(artifactCoordinates.getCoordinates()));
+            artifactCoordinates.setSearchTokensVersion(searchIndex.getTokensVersion());
+        }
         if (artifactEntryIsSavedForTheFirstTime(entity))
         {
             entity.setCreated(new Date());
         }
+        else
+        {
+            artifactEntryCache.invalidate(entity);
+        }
 
         return super.cascadeEntitySave(entity);
     }
@@ -87,18 +110,19 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
             orderBy = "uuid";
         }
 
-        coordinates = prepareParameterMap(coordinates, strict);
+        coordinates = prepareParameterMap(coordinates);
+        boolean indexed = searchIndex.isReady();
 
         Map<String, ArtifactTagEntry> tagMap = tagSet.stream()
                                                      .collect(Collectors.toMap(t -> String.format("%sTag", t.getName().replaceAll("-", "")),
                                                                                t -> (ArtifactTagEntry) t));
 
-        String sQuery = buildCoordinatesQuery(toList(storageId, repositoryId), coordinates.keySet(), tagMap.keySet(),
+        String sQuery = buildCoordinatesQuery(toList(storageId, repositoryId), coordinates, tagMap.keySet(),
                                               skip,
-                                              limit, orderBy, strict);
+                                              limit, orderBy, strict, indexed);
         OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
 
-        Map<String, Object> parameterMap = new HashMap<>(coordinates);
+        Map<String, Object> parameterMap = buildCoordinatesParameterMap(coordinates, strict, indexed);
         if (storageId != null && !storageId.trim().isEmpty())
         {
             parameterMap.put("storageId0", storageId);
@@ -115,6 +139,49 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         return entries;
     }
 
+    @Override
+    @Transactional
+    public List<ArtifactEntry> findArtifactList(String storageId,
+                                                String repositoryId,
+                                                Map<String, String> coordinates,
+                                                boolean strict,
+                                                Paginator paginator)
+    {
+        if (!paginator.isKeyset())
+        {
+            return findArtifactList(storageId, repositoryId, coordinates, Collections.emptySet(),
+                                    paginator.getSkip(), paginator.getLimit(), null, strict);
+        }
+
+        coordinates = prepareParameterMap(coordinates);
+        boolean indexed = searchIndex.isReady();
+
+        String sQuery = buildCoordinatesKeysetQuery(toList(storageId, repositoryId), coordinates, paginator, strict,
+                                                    indexed);
+        OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
+
+        Map<String, Object> parameterMap = buildCoordinatesParameterMap(coordinates, strict, indexed);
+        if (storageId != null && !storageId.trim().isEmpty())
+        {
+            parameterMap.put("storageId0", storageId);
+        }
+        if (repositoryId != null && !repositoryId.trim().isEmpty())
+        {
+            parameterMap.put("repositoryId0", repositoryId);
+        }
+        if (paginator.getAfter() != null)
+        {
+            parameterMap.put("keysetUuid", paginator.getAfter().getUuid());
+        }
+
+        List<ArtifactEntry> entries = getDelegate().command(oQuery).execute(parameterMap);
+
+        paginator.setNext(entries.size() < paginator.getLimit() ? null
+                : PageCursor.of(entries.get(entries.size() - 1), null));
+
+        return entries;
+    }
+
     @Override
     public List<ArtifactEntry> findMatching(ArtifactEntrySearchCriteria searchCriteria,
                                             PagingCriteria pagingCriteria)
@@ -175,12 +242,14 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                  Map<String, String> coordinates,
                                  boolean strict)
     {
-        coordinates = prepareParameterMap(coordinates, strict);
-        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinates.keySet(), Collections.emptySet(), 0, 0, null, strict);
+        coordinates = prepareParameterMap(coordinates);
+        boolean indexed = searchIndex.isReady();
+        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinates, Collections.emptySet(), 0, 0, null,
+                                              strict, indexed);
         sQuery = sQuery.replace("*", "count(distinct(artifactCoordinates))");
         OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
 
-        Map<String, Object> parameterMap = new HashMap<>(coordinates);
+        Map<String, Object> parameterMap = buildCoordinatesParameterMap(coordinates, strict, indexed);
 
         Pair<String, String>[] p = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
         IntStream.range(0, storageRepositoryPairList.size()).forEach(idx -> {
@@ -207,12 +276,14 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
                                Map<String, String> coordinates,
                                boolean strict)
     {
-        coordinates = prepareParameterMap(coordinates, strict);
-        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinates.keySet(), Collections.emptySet(), 0, 0, null, strict);
+        coordinates = prepareParameterMap(coordinates);
+        boolean indexed = searchIndex.isReady();
+        String sQuery = buildCoordinatesQuery(storageRepositoryPairList, coordinates, Collections.emptySet(), 0, 0, null,
+                                              strict, indexed);
         sQuery = sQuery.replace("*", "count(*)");
         OSQLSynchQuery<ArtifactEntry> oQuery = new OSQLSynchQuery<>(sQuery);
 
-        Map<String, Object> parameterMap = new HashMap<>(coordinates);
+        Map<String, Object> parameterMap = buildCoordinatesParameterMap(coordinates, strict, indexed);
 
         Pair<String, String>[] p = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
         IntStream.range(0, storageRepositoryPairList.size()).forEach(idx -> {
@@ -250,13 +321,18 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         return Arrays.asList(new Pair[] { Pair.with(storageId, repositoryId) });
     }
 
+    /**
+     * @param coordinates lowercased coordinate values
+     * @param indexed     if the coordinates should be looked up with the {@link ArtifactCoordinatesSearchIndex}
+     */
     protected String buildCoordinatesQuery(Collection<Pair<String, String>> storageRepositoryPairList,
-                                           Set<String> parameterNameSet,
+                                           Map<String, String> coordinates,
                                            Set<String> tagNameSet,
                                            int skip,
                                            int limit,
                                            String orderBy,
-                                           boolean strict)
+                                           boolean strict,
+                                           boolean indexed)
     {
         StringBuilder sb = new StringBuilder();
         sb.append("SELECT * FROM ").append(getEntityClass().getSimpleName());
@@ -264,13 +340,38 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         Pair<String, String>[] storageRepositoryPairArray = storageRepositoryPairList.toArray(new Pair[storageRepositoryPairList.size()]);
         // COORDINATES
         StringBuffer c1 = new StringBuffer();
-        parameterNameSet.stream()
-                        .forEach(e -> c1.append(c1.length() > 0 ? " AND " : "")
-                                        .append("artifactCoordinates.coordinates.")
-                                        .append(e)
-                                        .append(".toLowerCase()")
-                                        .append(strict ? " = " : " like ")
-                                        .append(String.format(":%s", e)));
+        if (indexed)
+        {
+            StringBuffer indexedConditions = new StringBuffer();
+            coordinates.entrySet()
+                       .stream()
+                       .forEach(e -> {
+                           if (strict || searchIndex.isNgramSearchable(e.getValue()))
+                           {
+                               indexedConditions.append(indexedConditions.length() > 0 ? " AND " : "")
+                                                .append(calculateIndexedCoordinateCondition(e, strict));
+                           }
+                           else
+                           {
+                               // There are no tokens to look up a substring with, so it is matched in place.
+                               c1.append(c1.length() > 0 ? " AND " : "")
+                                 .append(calculateCoordinateCondition(e.getKey(), strict));
+                           }
+                       });
+            if (indexedConditions.length() > 0)
+            {
+                c1.append(c1.length() > 0 ? " AND " : "")
+                  .append(String.format("artifactCoordinates IN (SELECT FROM %s WHERE %s)",
+                                        AbstractArtifactCoordinates.class.getSimpleName(), indexedConditions));
+            }
+        }
+        else
+        {
+            coordinates.keySet()
+                       .stream()
+                       .forEach(e -> c1.append(c1.length() > 0 ? " AND " : "")
+                                       .append(calculateCoordinateCondition(e, strict)));
+        }
         sb.append(" WHERE ").append(c1.length() > 0 ? c1.append(" AND ").toString() : " true = true AND ");
 
         //REPOSITORIES
@@ -311,6 +412,59 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         return sb.toString();
     }
 
+    /**
+     * Seeks on the entry {@code uuid}, which is indexed, instead of skipping the previous pages.
+     */
+    protected String buildCoordinatesKeysetQuery(Collection<Pair<String, String>> storageRepositoryPairList,
+                                                 Map<String, String> coordinates,
+                                                 Paginator paginator,
+                                                 boolean strict,
+                                                 boolean indexed)
+    {
+        StringBuilder sb = new StringBuilder(buildCoordinatesQuery(storageRepositoryPairList, coordinates,
+                                                                   Collections.emptySet(), 0, 0, null, strict,
+                                                                   indexed));
+        if (paginator.getAfter() != null)
+        {
+            sb.append(" AND uuid > :keysetUuid");
+        }
+        sb.append(String.format(" ORDER BY uuid LIMIT %s", paginator.getLimit()));
+
+        return sb.toString();
+    }
+
+    private String calculateCoordinateCondition(String key,
+                                                boolean strict)
+    {
+        return String.format("artifactCoordinates.coordinates.%s.toLowerCase()%s:%s", key, strict ? " = " : " like ",
+                             key);
+    }
+
+    /**
+     * Substring lookups need the n-gram tokens.
+     *
+     * @see ArtifactCoordinatesSearchIndex#isNgramSearchable(String)
+     */
+    private String calculateIndexedCoordinateCondition(Entry<String, String> e,
+                                                       boolean strict)
+    {
+        String property = ArtifactCoordinatesSearchIndex.PROPERTY_NAME;
+        if (strict)
+        {
+            return String.format("%s CONTAINS :%s", property, e.getKey());
+        }
+
+        // N-gram tokens only narrow the candidates, the `like` still has to match.
+        StringBuilder result = new StringBuilder();
+        int ngramCount = ArtifactCoordinatesSearchIndex.ngramTokens(e.getKey(), e.getValue()).size();
+        IntStream.range(0, ngramCount)
+                 .forEach(idx -> result.append(String.format("%s CONTAINS :%sNgram%s AND ", property, e.getKey(),
+                                                             idx)));
+
+        return result.append(String.format("coordinates.%s.toLowerCase() like :%s", e.getKey(), e.getKey()))
+                     .toString();
+    }
+
     public String calculateStorageAndRepositoryCondition(Pair<String, String> storageRepositoryPairArray,
                                                          int idx)
     {
@@ -341,25 +495,48 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         return result.toString();
     }
 
-    private Map<String, String> prepareParameterMap(Map<String, String> coordinates,
-                                                    boolean strict)
+    private Map<String, String> prepareParameterMap(Map<String, String> coordinates)
     {
         return coordinates.entrySet()
                           .stream()
                           .filter(e -> e.getValue() != null)
                           .collect(Collectors.toMap(Map.Entry::getKey,
-                                                    e -> calculateParameterValue(e, strict)));
+                                                    e -> e.getValue().toLowerCase()));
+    }
+
+    private Map<String, Object> buildCoordinatesParameterMap(Map<String, String> coordinates,
+                                                             boolean strict,
+                                                             boolean indexed)
+    {
+        Map<String, Object> result = new HashMap<>();
+        for (Entry<String, String> e : coordinates.entrySet())
+        {
+            result.put(e.getKey(), calculateParameterValue(e, strict, indexed));
+            if (!indexed || strict || !searchIndex.isNgramSearchable(e.getValue()))
+            {
+                continue;
+            }
+
+            int idx = 0;
+            for (String token : ArtifactCoordinatesSearchIndex.ngramTokens(e.getKey(), e.getValue()))
+            {
+                result.put(String.format("%sNgram%s", e.getKey(), idx++), token);
+            }
+        }
+
+        return result;
     }
 
     private String calculateParameterValue(Entry<String, String> e,
-                                           boolean strict)
+                                           boolean strict,
+                                           boolean indexed)
     {
-        String result = e.getValue() == null ? null : e.getValue().toLowerCase();
         if (!strict)
         {
-            result = "%" + result + "%";
+            return "%" + e.getValue() + "%";
         }
-        return result;
+
+        return indexed ? ArtifactCoordinatesSearchIndex.exactToken(e.getKey(), e.getValue()) : e.getValue();
     }
 
     @Override
@@ -385,19 +562,25 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
     @Override
     public void delete(String id)
     {
+        // The entry is only looked up when it might be cached, to know which path to invalidate.
+        ArtifactEntry artifactEntry = artifactEntryCache.isEnabled() ? findOne(id).orElse(null) : null;
+
         super.delete(id);
+        artifactEntryCache.invalidate(artifactEntry);
     }
 
     @Override
     public void delete(ArtifactEntry entity)
     {
         super.delete(entity);
+        artifactEntryCache.invalidate(entity);
     }
 
     @Override
     public void deleteAll()
     {
         super.deleteAll();
+        artifactEntryCache.invalidateAll();
     }
 
     @Override
@@ -414,6 +597,8 @@ class ArtifactEntryServiceImpl extends AbstractArtifactEntryService
         Map<String, Object> parameterMap = new HashMap<>();
         parameterMap.put("uuids", artifactEntries.stream().map(ArtifactEntry::getUuid).collect(Collectors.toList()));
 
+        artifactEntries.forEach(artifactEntryCache::invalidate);
+
         OCommandSQL oCommandSQL = new OCommandSQL(sb.toString());
         return getDelegate().command(oCommandSQL).execute(parameterMap);
     }
@@ -5,8 +5,11 @@ import org.carlspring.strongbox.configuration.*;
 import org.carlspring.strongbox.event.repository.RepositoryEvent;
 import org.carlspring.strongbox.event.repository.RepositoryEventListenerRegistry;
 import org.carlspring.strongbox.event.repository.RepositoryEventTypeEnum;
+import org.carlspring.strongbox.providers.io.ArtifactHeadersCache;
+import org.carlspring.strongbox.providers.io.RepositoryFileAttributesCache;
 import org.carlspring.strongbox.providers.layout.LayoutProvider;
 import org.carlspring.strongbox.providers.layout.LayoutProviderRegistry;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositoryPathCache;
 import org.carlspring.strongbox.service.ProxyRepositoryConnectionPoolConfigurationService;
 import org.carlspring.strongbox.services.ConfigurationManagementService;
 import org.carlspring.strongbox.storage.MutableStorage;
@@ -55,6 +58,15 @@ public class ConfigurationManagementServiceImpl
     @Inject
     private PlatformTransactionManager transactionManager;
 
+    @Inject
+    private GroupRepositoryPathCache groupRepositoryPathCache;
+
+    @Inject
+    private RepositoryFileAttributesCache repositoryFileAttributesCache;
+
+    @Inject
+    private ArtifactHeadersCache artifactHeadersCache;
+
     /**
      * Yes, this is a state object.
      * It is protected by the {@link #configurationLock} here
@@ -120,12 +132,14 @@ public class ConfigurationManagementServiceImpl
     {
         Objects.requireNonNull(newConf, "Configuration cannot be null");
 
-        modifyInLock(configuration ->
+        modifyRepositoriesInLock(configuration ->
                      {
                          ConfigurationManagementServiceImpl.this.configuration = newConf;
                          setProxyRepositoryConnectionPoolConfigurations();
                          setRepositoryStorageRelationships();
                          setAllows();
+
+                         artifactHeadersCache.invalidateAll();
                      });
     }
 
@@ -170,20 +184,30 @@ public class ConfigurationManagementServiceImpl
     @Override
     public void saveStorage(MutableStorage storage)
     {
-        modifyInLock(configuration -> configuration.addStorage(storage));
+        modifyRepositoriesInLock(configuration ->
+                     {
+                         configuration.addStorage(storage);
+
+                         artifactHeadersCache.invalidateStorage(storage.getId());
+                     });
     }
 
     @Override
     public void removeStorage(String storageId)
     {
-        modifyInLock(configuration -> configuration.getStorages().remove(storageId));
+        modifyRepositoriesInLock(configuration ->
+                     {
+                         configuration.getStorages().remove(storageId);
+
+                         artifactHeadersCache.invalidateStorage(storageId);
+                     });
     }
 
     @Override
     public void saveRepository(String storageId,
                                MutableRepository repository)
     {
-        modifyInLock(configuration ->
+        modifyRepositoriesInLock(configuration ->
                      {
                          final MutableStorage storage = configuration.getStorage(storageId);
                          repository.setStorage(storage);
@@ -195,6 +219,9 @@ public class ConfigurationManagementServiceImpl
                                      repository.getRemoteRepository().getUrl(),
                                      repository.getHttpConnectionPool().getAllocatedConnections());
                          }
+
+                         // The digest algorithms, and so the checksums provided, might have changed.
+                         artifactHeadersCache.invalidateRepository(storageId, repository.getId());
                      });
     }
 
@@ -202,7 +229,7 @@ public class ConfigurationManagementServiceImpl
     public void removeRepositoryFromAssociatedGroups(String storageId,
                                                      String repositoryId)
     {
-        modifyInLock(configuration ->
+        modifyRepositoriesInLock(configuration ->
                      {
                          List<Repository> includedInGroupRepositories = getConfiguration().getGroupRepositoriesContaining(
                                  storageId, repositoryId);
@@ -223,10 +250,12 @@ public class ConfigurationManagementServiceImpl
     public void removeRepository(String storageId,
                                  String repositoryId)
     {
-        modifyInLock(configuration ->
+        modifyRepositoriesInLock(configuration ->
                      {
                          configuration.getStorage(storageId).removeRepository(repositoryId);
                          removeRepositoryFromAssociatedGroups(storageId, repositoryId);
+
+                         artifactHeadersCache.invalidateRepository(storageId, repositoryId);
                      });
     }
 
@@ -252,7 +281,7 @@ public class ConfigurationManagementServiceImpl
                                      MutableRoutingRule routingRule)
     {
         final MutableBoolean result = new MutableBoolean();
-        modifyInLock(configuration ->
+        modifyRepositoriesInLock(configuration ->
                              configuration.getRoutingRules()
                                           .getRules()
                                           .stream()
@@ -267,7 +296,7 @@ public class ConfigurationManagementServiceImpl
     public boolean addRoutingRule(MutableRoutingRule routingRule)
     {
         final MutableBoolean result = new MutableBoolean();
-        modifyInLock(configuration ->
+        modifyRepositoriesInLock(configuration ->
                      {
                          routingRule.setUuid(UUID.randomUUID());
                          result.setValue(configuration.getRoutingRules()
@@ -282,7 +311,7 @@ public class ConfigurationManagementServiceImpl
     public boolean removeRoutingRule(UUID uuid)
     {
         final MutableBoolean result = new MutableBoolean();
-        modifyInLock(configuration ->
+        modifyRepositoriesInLock(configuration ->
                      {
                          configuration.getRoutingRules()
                                       .getRules()
@@ -303,7 +332,7 @@ public class ConfigurationManagementServiceImpl
                                      String repositoryId,
                                      String repositoryGroupMemberId)
     {
-        modifyInLock(configuration ->
+        modifyRepositoriesInLock(configuration ->
                      {
                          final MutableRepository repository = configuration.getStorage(storageId)
                                                                            .getRepository(repositoryId);
@@ -416,7 +445,7 @@ public class ConfigurationManagementServiceImpl
     public void putInService(final String storageId,
                              final String repositoryId)
     {
-        modifyInLock(configuration ->
+        modifyRepositoriesInLock(configuration ->
                      {
                          configuration.getStorage(storageId)
                                       .getRepository(repositoryId)
@@ -435,7 +464,7 @@ public class ConfigurationManagementServiceImpl
     public void putOutOfService(final String storageId,
                                 final String repositoryId)
     {
-        modifyInLock(configuration ->
+        modifyRepositoriesInLock(configuration ->
                      {
                          configuration.getStorage(storageId)
                                       .getRepository(repositoryId)
@@ -549,6 +578,14 @@ public class ConfigurationManagementServiceImpl
         });
     }
 
+    /**
+     * For the operations which might change how the paths of group repositories are resolved.
+     */
+    private void modifyRepositoriesInLock(final Consumer<MutableConfiguration> operation)
+    {
+        modifyInLock(operation.andThen(configuration -> groupRepositoryPathCache.invalidateAll()));
+    }
+
     private void modifyInLock(final Consumer<MutableConfiguration> operation)
     {
         modifyInLock(operation, true);
@@ -564,6 +601,9 @@ public class ConfigurationManagementServiceImpl
         {
             operation.accept(configuration);
 
+            // A repository might have been recreated with another layout.
+            repositoryFileAttributesCache.invalidateAll();
+
             if (storeInFile)
             {
                 configurationFileManager.store(configuration);
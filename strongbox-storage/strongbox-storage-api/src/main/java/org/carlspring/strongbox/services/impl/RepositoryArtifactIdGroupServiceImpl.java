@@ -1,14 +1,18 @@
 package org.carlspring.strongbox.services.impl;
 
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
 import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.domain.ArtifactCatalogEntry;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.ArtifactTagEntry;
 import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
@@ -161,4 +165,30 @@ public class RepositoryArtifactIdGroupServiceImpl
         return resultList.stream().findFirst().orElse(null);
     }
 
+    @Override
+    public List<ArtifactCatalogEntry> findCatalog(String storageId,
+                                                  String repositoryId,
+                                                  String artifactId)
+    {
+        Map<String, String> params = new HashMap<>();
+        params.put("storageId", storageId);
+        params.put("repositoryId", repositoryId);
+        params.put("name", artifactId);
+
+        String sQuery = String.format("SELECT artifactCoordinates.coordinates AS coordinates, created " +
+                                      "FROM (SELECT expand(artifactEntries) FROM %s " +
+                                      "WHERE storageId = :storageId AND repositoryId = :repositoryId AND name = :name)",
+                                      getEntityClass().getSimpleName());
+
+        OSQLSynchQuery<ODocument> oQuery = new OSQLSynchQuery<>(sQuery);
+
+        List<ODocument> resultList = getDelegate().command(oQuery).execute(params);
+        return resultList.stream()
+                         .filter(Objects::nonNull)
+                         .filter(doc -> doc.field("coordinates") != null)
+                         .map(doc -> new ArtifactCatalogEntry(doc.<Map<String, String>>field("coordinates"),
+                                                              doc.<Date>field("created")))
+                         .collect(Collectors.toList());
+    }
+
 }
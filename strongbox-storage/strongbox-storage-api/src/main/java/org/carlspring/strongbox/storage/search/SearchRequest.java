@@ -1,6 +1,7 @@
 package org.carlspring.strongbox.storage.search;
 
 import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.providers.search.OrientDbSearchProvider;
 
 import java.util.LinkedHashMap;
@@ -27,6 +28,7 @@ public class SearchRequest
 
     private ArtifactCoordinates artifactCoordinates;
 
+    private Paginator paginator = new Paginator();
 
     public SearchRequest()
     {
@@ -139,5 +141,15 @@ public class SearchRequest
     {
         this.artifactCoordinates = artifactCoordinates;
     }
-    
+
+    public Paginator getPaginator()
+    {
+        return paginator;
+    }
+
+    public void setPaginator(Paginator paginator)
+    {
+        this.paginator = paginator;
+    }
+
 }
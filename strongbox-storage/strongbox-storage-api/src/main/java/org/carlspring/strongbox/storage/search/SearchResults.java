@@ -3,6 +3,7 @@ package org.carlspring.strongbox.storage.search;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
 
@@ -16,6 +17,12 @@ public class SearchResults
     @JsonProperty("artifact")
     private Set<SearchResult> results = new LinkedHashSet<>();
 
+    /**
+     * Continuation token of the next page, if the search was requested with keyset pagination.
+     */
+    @JsonProperty("next")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String next;
 
     public SearchResults()
     {
@@ -31,6 +38,16 @@ public class SearchResults
         this.results = results;
     }
 
+    public String getNext()
+    {
+        return next;
+    }
+
+    public void setNext(String next)
+    {
+        this.next = next;
+    }
+
     @Override
     public String toString()
     {
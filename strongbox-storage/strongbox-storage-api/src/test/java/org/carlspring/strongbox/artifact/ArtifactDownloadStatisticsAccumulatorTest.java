@@ -0,0 +1,160 @@
+package org.carlspring.strongbox.artifact;
+
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+
+import java.util.Date;
+
+import com.orientechnologies.common.concur.ONeedRetryException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+@Execution(CONCURRENT)
+public class ArtifactDownloadStatisticsAccumulatorTest
+{
+
+    private static final String STORAGE_ID = "storage0";
+
+    private static final String REPOSITORY_ID = "releases";
+
+    private static final String PATH = "org/carlspring/a1/1.0/a1-1.0.jar";
+
+    @Mock
+    private ArtifactEntryService artifactEntryService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ArtifactDownloadStatisticsAccumulator accumulator;
+
+    private ArtifactEntry artifactEntry;
+
+    @BeforeEach
+    public void setUp()
+    {
+        initMocks(this);
+
+        artifactEntry = new ArtifactEntry();
+        when(artifactEntryService.findOneArtifact(STORAGE_ID, REPOSITORY_ID, PATH)).thenReturn(artifactEntry);
+
+        accumulator = new ArtifactDownloadStatisticsAccumulator();
+        ReflectionTestUtils.setField(accumulator, "artifactEntryService", artifactEntryService);
+        ReflectionTestUtils.setField(accumulator, "transactionManager", transactionManager);
+        // The flushes are triggered by the tests only.
+        ReflectionTestUtils.setField(accumulator, "flushIntervalMillis", 3600000L);
+        ReflectionTestUtils.setField(accumulator, "flushBatchSize", 100);
+        ReflectionTestUtils.setField(accumulator, "queueCapacity", 2);
+        accumulator.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        accumulator.destroy();
+    }
+
+    @Test
+    public void downloadsShouldBeAccumulatedAndFlushedOnce()
+    {
+        accumulator.recordDownload(STORAGE_ID, REPOSITORY_ID, PATH);
+        accumulator.recordDownload(STORAGE_ID, REPOSITORY_ID, PATH);
+        accumulator.recordDownload(STORAGE_ID, REPOSITORY_ID, PATH);
+
+        assertEquals(1, accumulator.getPendingCount());
+        verify(artifactEntryService, never()).save(any());
+
+        accumulator.flush();
+
+        assertEquals(0, accumulator.getPendingCount());
+        verify(artifactEntryService, times(1)).save(artifactEntry);
+        assertEquals(Integer.valueOf(3), artifactEntry.getDownloadCount());
+        assertNotNull(artifactEntry.getLastUsed());
+
+        accumulator.flush();
+
+        verify(artifactEntryService, times(1)).save(any());
+    }
+
+    @Test
+    public void downloadsAboveCapacityShouldBeDropped()
+    {
+        accumulator.recordDownload(STORAGE_ID, REPOSITORY_ID, PATH);
+        accumulator.recordDownload(STORAGE_ID, REPOSITORY_ID, "org/carlspring/a2/1.0/a2-1.0.jar");
+        accumulator.recordDownload(STORAGE_ID, REPOSITORY_ID, "org/carlspring/a3/1.0/a3-1.0.jar");
+
+        assertEquals(2, accumulator.getPendingCount());
+
+        // Artifacts which are pending already are still counted.
+        accumulator.recordDownload(STORAGE_ID, REPOSITORY_ID, PATH);
+        accumulator.flush();
+
+        assertEquals(Integer.valueOf(2), artifactEntry.getDownloadCount());
+    }
+
+    @Test
+    public void retriedBatchShouldBeAppliedWithTheNextFlush()
+    {
+        doThrow(mock(ONeedRetryException.class)).when(artifactEntryService).save(any());
+
+        accumulator.recordDownload(STORAGE_ID, REPOSITORY_ID, PATH);
+        accumulator.recordDownload(STORAGE_ID, REPOSITORY_ID, PATH);
+        accumulator.flush();
+
+        assertEquals(1, accumulator.getPendingCount());
+
+        reset(artifactEntryService);
+        ArtifactEntry reloaded = new ArtifactEntry();
+        when(artifactEntryService.findOneArtifact(STORAGE_ID, REPOSITORY_ID, PATH)).thenReturn(reloaded);
+
+        accumulator.recordDownload(STORAGE_ID, REPOSITORY_ID, PATH);
+        accumulator.flush();
+
+        assertEquals(0, accumulator.getPendingCount());
+        ArgumentCaptor<ArtifactEntry> saved = ArgumentCaptor.forClass(ArtifactEntry.class);
+        verify(artifactEntryService, times(1)).save(saved.capture());
+        assertEquals(Integer.valueOf(3), saved.getValue().getDownloadCount());
+    }
+
+    @Test
+    public void failedBatchShouldNotBeRetried()
+    {
+        doThrow(new IllegalStateException("test")).when(artifactEntryService).save(any());
+
+        accumulator.recordDownload(STORAGE_ID, REPOSITORY_ID, PATH);
+        accumulator.flush();
+
+        assertEquals(0, accumulator.getPendingCount());
+    }
+
+    @Test
+    public void downloadCountShouldSaturate()
+    {
+        artifactEntry.setDownloadCount(Integer.MAX_VALUE);
+        artifactEntry.setLastUsed(new Date(Long.MAX_VALUE));
+
+        accumulator.recordDownload(STORAGE_ID, REPOSITORY_ID, PATH);
+        accumulator.flush();
+
+        assertEquals(Integer.valueOf(Integer.MAX_VALUE), artifactEntry.getDownloadCount());
+        assertEquals(new Date(Long.MAX_VALUE), artifactEntry.getLastUsed());
+    }
+
+}
@@ -0,0 +1,263 @@
+package org.carlspring.strongbox.artifact;
+
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.event.EventTaskExecutor;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.LayoutFileSystem;
+import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.io.StorageFileSystemProvider;
+import org.carlspring.strongbox.services.ArtifactEntryService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that the artifact entry events are accepted once their transaction is committed (or right away without a
+ * transaction), and then handed off to the handler's pool, where the entry is updated within a new transaction.
+ */
+public class AsyncArtifactEntryHandlerTest
+{
+
+    private AnnotationConfigApplicationContext context;
+
+    private RecordingEventTaskExecutor eventTaskExecutor;
+
+    private RecordingTransactionManager transactionManager;
+
+    private ArtifactEntryService artifactEntryService;
+
+    private RepositoryPath repositoryPath;
+
+    @BeforeEach
+    public void setUp()
+        throws Exception
+    {
+        context = new AnnotationConfigApplicationContext(TestConfig.class);
+        eventTaskExecutor = context.getBean(RecordingEventTaskExecutor.class);
+        transactionManager = context.getBean(RecordingTransactionManager.class);
+        artifactEntryService = context.getBean(ArtifactEntryService.class);
+
+        StorageFileSystemProvider provider = mock(StorageFileSystemProvider.class);
+        LayoutFileSystem fileSystem = mock(LayoutFileSystem.class);
+        when(fileSystem.provider()).thenReturn(provider);
+
+        repositoryPath = mock(RepositoryPath.class);
+        when(repositoryPath.getFileSystem()).thenReturn(fileSystem);
+        doReturn(Boolean.TRUE).when(provider)
+                              .readRepositoryFileAttribute(repositoryPath, RepositoryFileAttributeType.ARTIFACT);
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        context.close();
+    }
+
+    @Test
+    public void eventShouldBeHandedOffAfterCommit()
+    {
+        new TransactionTemplate(transactionManager).execute(status -> {
+            publishEvent(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED);
+
+            assertTrue(eventTaskExecutor.pools.isEmpty());
+
+            return null;
+        });
+
+        assertEquals(1, eventTaskExecutor.tasks.size());
+        assertEquals(TestArtifactEntryHandler.class.getSimpleName(), eventTaskExecutor.pools.get(0));
+    }
+
+    @Test
+    public void eventShouldNotBeHandedOffAfterRollback()
+    {
+        new TransactionTemplate(transactionManager).execute(status -> {
+            publishEvent(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED);
+            status.setRollbackOnly();
+
+            return null;
+        });
+
+        assertTrue(eventTaskExecutor.tasks.isEmpty());
+    }
+
+    @Test
+    public void eventShouldBeHandedOffWithoutTransaction()
+    {
+        publishEvent(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED);
+
+        assertEquals(1, eventTaskExecutor.tasks.size());
+    }
+
+    @Test
+    public void otherEventsShouldBeIgnored()
+    {
+        publishEvent(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_DOWNLOADED);
+
+        assertTrue(eventTaskExecutor.tasks.isEmpty());
+    }
+
+    @Test
+    public void entryShouldBeUpdatedWithinNewTransaction()
+        throws Exception
+    {
+        publishEvent(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED);
+        verify(artifactEntryService, never()).save(any(ArtifactEntry.class));
+
+        transactionManager.definitions.clear();
+        eventTaskExecutor.tasks.get(0).run();
+
+        verify(artifactEntryService).save(any(ArtifactEntry.class));
+        assertEquals(1, transactionManager.definitions.size());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW,
+                     transactionManager.definitions.get(0).getPropagationBehavior());
+        assertEquals(1, transactionManager.commits);
+    }
+
+    private void publishEvent(ArtifactEventTypeEnum type)
+    {
+        context.publishEvent(new ArtifactEvent<>(repositoryPath, type.getType()));
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class TestConfig
+    {
+
+        @Bean
+        RecordingTransactionManager transactionManager()
+        {
+            return new RecordingTransactionManager();
+        }
+
+        @Bean
+        RecordingEventTaskExecutor eventTaskExecutor()
+        {
+            return new RecordingEventTaskExecutor();
+        }
+
+        @Bean
+        ArtifactEntryService artifactEntryService()
+        {
+            return mock(ArtifactEntryService.class);
+        }
+
+        @Bean
+        RepositoryPathLock repositoryPathLock()
+            throws Exception
+        {
+            RepositoryPathLock repositoryPathLock = mock(RepositoryPathLock.class);
+            when(repositoryPathLock.lock(any(), anyString())).thenReturn(new ReentrantReadWriteLock());
+
+            return repositoryPathLock;
+        }
+
+        @Bean
+        TestArtifactEntryHandler testArtifactEntryHandler()
+        {
+            return new TestArtifactEntryHandler();
+        }
+
+    }
+
+    static class TestArtifactEntryHandler
+            extends AsyncArtifactEntryHandler
+    {
+
+        TestArtifactEntryHandler()
+        {
+            super(ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_UPDATED);
+        }
+
+        @Override
+        protected ArtifactEntry handleEvent(RepositoryPath repositoryPath)
+        {
+            return new ArtifactEntry();
+        }
+
+    }
+
+    /**
+     * Records the tasks instead of executing them, so that the hand-off can be checked.
+     */
+    static class RecordingEventTaskExecutor
+            extends EventTaskExecutor
+    {
+
+        private final List<String> pools = new CopyOnWriteArrayList<>();
+
+        private final List<Runnable> tasks = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void execute(String pool,
+                            Runnable task)
+        {
+            pools.add(pool);
+            tasks.add(task);
+        }
+
+    }
+
+    static class RecordingTransactionManager
+            extends AbstractPlatformTransactionManager
+            implements PlatformTransactionManager
+    {
+
+        private final List<TransactionDefinition> definitions = new ArrayList<>();
+
+        private int commits;
+
+        @Override
+        protected Object doGetTransaction()
+        {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction,
+                               TransactionDefinition definition)
+        {
+            definitions.add(definition);
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status)
+        {
+            commits++;
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status)
+        {
+        }
+
+    }
+
+}
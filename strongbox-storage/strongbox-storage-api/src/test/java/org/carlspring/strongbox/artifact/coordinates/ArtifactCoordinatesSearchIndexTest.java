@@ -0,0 +1,87 @@
+package org.carlspring.strongbox.artifact.coordinates;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@Execution(CONCURRENT)
+public class ArtifactCoordinatesSearchIndexTest
+{
+
+    @Test
+    public void exactTokensShouldBeLowercased()
+    {
+        ArtifactCoordinatesSearchIndex searchIndex = newSearchIndex(false);
+
+        Set<String> tokens = searchIndex.tokenize(coordinates("Org.Carlspring", "A1", null));
+
+        assertEquals(new HashSet<>(Arrays.asList("groupId=org.carlspring", "artifactId=a1")), tokens);
+        assertFalse(searchIndex.isNgramSearchable("carl"));
+    }
+
+    @Test
+    public void ngramTokensShouldBeAdded()
+    {
+        ArtifactCoordinatesSearchIndex searchIndex = newSearchIndex(true);
+
+        Set<String> tokens = searchIndex.tokenize(coordinates("org", "AbcD", null));
+
+        assertEquals(new HashSet<>(Arrays.asList("groupId=org", "groupId~org", "artifactId=abcd", "artifactId~abc",
+                                                 "artifactId~bcd")),
+                     tokens);
+        assertTrue(searchIndex.isNgramSearchable("abc"));
+        assertFalse(searchIndex.isNgramSearchable("ab"));
+    }
+
+    @Test
+    public void tokensShouldNotShareCommonKey()
+    {
+        // A token which every coordinates have would be a single, ever growing, key of the index.
+        Set<String> tokens1 = newSearchIndex(true).tokenize(coordinates("org.a", "a1", "1.0"));
+        Set<String> tokens2 = newSearchIndex(true).tokenize(coordinates("com.b", "b2", "2.0"));
+
+        tokens1.retainAll(tokens2);
+
+        assertTrue(tokens1.isEmpty());
+    }
+
+    @Test
+    public void tokensVersionShouldFollowNgramSetting()
+    {
+        assertNotEquals(newSearchIndex(false).getTokensVersion(), newSearchIndex(true).getTokensVersion());
+        assertEquals(ArtifactCoordinatesSearchIndex.State.BUILDING, newSearchIndex(false).getState());
+        assertFalse(newSearchIndex(false).isReady());
+    }
+
+    private static ArtifactCoordinatesSearchIndex newSearchIndex(boolean ngramEnabled)
+    {
+        ArtifactCoordinatesSearchIndex searchIndex = new ArtifactCoordinatesSearchIndex();
+        ReflectionTestUtils.setField(searchIndex, "ngramEnabled", ngramEnabled);
+
+        return searchIndex;
+    }
+
+    private static Map<String, String> coordinates(String groupId,
+                                                   String artifactId,
+                                                   String version)
+    {
+        Map<String, String> result = new LinkedHashMap<>();
+        result.put("groupId", groupId);
+        result.put("artifactId", artifactId);
+        result.put("version", version);
+
+        return result;
+    }
+
+}
@@ -0,0 +1,305 @@
+package org.carlspring.strongbox.artifact.locator;
+
+import org.carlspring.strongbox.artifact.locator.handlers.AbstractArtifactLocationHandler;
+import org.carlspring.strongbox.artifact.locator.handlers.ArtifactDirectoryOperation;
+import org.carlspring.strongbox.artifact.locator.handlers.ArtifactLocationGenerateChecksumOperation;
+import org.carlspring.strongbox.providers.io.LayoutFileSystem;
+import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.layout.AbstractLayoutProvider;
+import org.carlspring.strongbox.providers.layout.BulkChecksumGenerator;
+import org.carlspring.strongbox.providers.layout.LayoutFileSystemProvider;
+import org.carlspring.strongbox.storage.repository.ImmutableRepository;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@Execution(CONCURRENT)
+public class ArtifactDirectoryLocatorTest
+{
+
+    private final Set<String> generatedChecksumPaths = ConcurrentHashMap.newKeySet();
+
+    @TempDir
+    Path repositoryDir;
+
+    private RepositoryPath rootPath;
+
+    @BeforeEach
+    public void setUp()
+        throws IOException
+    {
+        // A groupId directory with the plugin metadata, an artifact in it and one in a nested group.
+        write("org/carlspring/maven-metadata.xml");
+        write("org/carlspring/strongbox/maven-metadata.xml");
+        write("org/carlspring/strongbox/foo/maven-metadata.xml");
+        write("org/carlspring/strongbox/foo/1.0/foo-1.0.pom");
+        write("org/carlspring/strongbox/foo/1.0/foo-1.0.jar");
+        write("org/carlspring/strongbox/foo/1.1/foo-1.1.pom");
+        write("org/carlspring/strongbox/nested/bar/maven-metadata.xml");
+        write("org/carlspring/strongbox/nested/bar/2.0/bar-2.0.pom");
+        write(".index/ignored/1.0/ignored-1.0.pom");
+
+        LayoutFileSystemProvider provider = new LayoutFileSystemProvider(FileSystems.getDefault().provider())
+        {
+            @Override
+            protected AbstractLayoutProvider getLayoutProvider()
+            {
+                return null;
+            }
+
+            @Override
+            protected Map<RepositoryFileAttributeType, Object> getRepositoryFileAttributes(RepositoryPath repositoryPath,
+                                                                                           RepositoryFileAttributeType... attributeTypes)
+            {
+                String fileName = repositoryPath.getFileName().toString();
+
+                Map<RepositoryFileAttributeType, Object> result = new EnumMap<>(RepositoryFileAttributeType.class);
+                result.put(RepositoryFileAttributeType.METADATA,
+                           fileName.endsWith(".pom") || fileName.equals("maven-metadata.xml"));
+
+                return result;
+            }
+        };
+        ReflectionTestUtils.setField(provider, "bulkChecksumGenerator", new BulkChecksumGenerator()
+        {
+            @Override
+            public void generate(RepositoryPath basePath,
+                                 boolean force)
+                throws IOException
+            {
+                generatedChecksumPaths.add(relativize(basePath));
+            }
+        });
+
+        MutableRepository repository = new MutableRepository();
+        repository.setBasedir(repositoryDir.toString());
+
+        LayoutFileSystem fileSystem = new LayoutFileSystem(new ImmutableRepository(repository),
+                                                           FileSystems.getDefault(), provider);
+
+        rootPath = fileSystem.getRootDirectory();
+    }
+
+    @Test
+    public void layoutShouldTellTheVersionDirectories()
+        throws Exception
+    {
+        // Like the Maven operations, which look for the POM-s only.
+        RecordingOperation operation = new RecordingOperation(false, "pom");
+
+        locate(operation, 1);
+
+        Map<String, List<String>> expected = new TreeMap<>();
+        expected.put("org/carlspring/strongbox/foo",
+                      Arrays.asList("org/carlspring/strongbox/foo/1.0", "org/carlspring/strongbox/foo/1.1"));
+        expected.put("org/carlspring/strongbox/nested/bar",
+                     Collections.singletonList("org/carlspring/strongbox/nested/bar/2.0"));
+
+        assertEquals(expected, new TreeMap<>(operation.artifactDirectories));
+    }
+
+    @Test
+    public void metadataDirectoriesShouldBeVersionDirectoriesByDefault()
+        throws Exception
+    {
+        RecordingOperation operation = new RecordingOperation(false, null);
+
+        locate(operation, 1);
+
+        // The directories with a maven-metadata.xml only are included as well.
+        assertEquals(new TreeSet<>(Arrays.asList("org", "org/carlspring", "org/carlspring/strongbox",
+                                                 "org/carlspring/strongbox/foo", "org/carlspring/strongbox/nested",
+                                                 "org/carlspring/strongbox/nested/bar")),
+                     new TreeSet<>(operation.artifactDirectories.keySet()));
+        assertEquals(Collections.singletonList("org/carlspring/strongbox"),
+                     operation.artifactDirectories.get("org/carlspring"));
+    }
+
+    @Test
+    public void onlyArtifactAndVersionDirectoriesShouldBeExecutedByDefault()
+        throws Exception
+    {
+        List<String> executedPaths = Collections.synchronizedList(new ArrayList<>());
+        AbstractArtifactLocationHandler operation = new AbstractArtifactLocationHandler()
+        {
+            @Override
+            public void execute(RepositoryPath directoryPath)
+                throws IOException
+            {
+                executedPaths.add(relativize(directoryPath));
+            }
+
+            @Override
+            public boolean isVersionDirectoryFile(RepositoryPath path)
+            {
+                return path.getFileName().toString().endsWith(".pom");
+            }
+        };
+        operation.setBasePath(rootPath);
+
+        locate(operation, 1);
+
+        // The groupId directories, which are neither artifact nor version directories, are not executed.
+        assertEquals(Arrays.asList("org/carlspring/strongbox/foo",
+                                   "org/carlspring/strongbox/foo/1.0",
+                                   "org/carlspring/strongbox/foo/1.1",
+                                   "org/carlspring/strongbox/nested/bar",
+                                   "org/carlspring/strongbox/nested/bar/2.0"),
+                     executedPaths.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void concurrentOperationShouldProcessEachArtifactDirectoryOnce()
+        throws Exception
+    {
+        for (int i = 0; i < 50; i++)
+        {
+            write(String.format("org/concurrent/a%s/1.0/a%s-1.0.pom", i, i));
+        }
+
+        RecordingOperation operation = new RecordingOperation(true, "pom");
+
+        locate(operation, 4);
+
+        // All the artifact directories have been processed by the time the locator returns.
+        assertEquals(52, operation.artifactDirectories.size());
+        assertEquals(52, operation.executions.get());
+        assertEquals(Collections.singletonList("org/concurrent/a7/1.0"),
+                     operation.artifactDirectories.get("org/concurrent/a7"));
+    }
+
+    @Test
+    public void checksumsShouldBeGeneratedForEachVersionDirectory()
+        throws Exception
+    {
+        ArtifactLocationGenerateChecksumOperation operation = new ArtifactLocationGenerateChecksumOperation();
+        operation.setBasePath(rootPath);
+
+        locate(operation, 4);
+
+        // A version directory is skipped if its checksums have been generated along with a parent directory.
+        for (String versionDirectory : Arrays.asList("org/carlspring/strongbox/foo/1.0",
+                                                     "org/carlspring/strongbox/foo/1.1",
+                                                     "org/carlspring/strongbox/nested/bar/2.0"))
+        {
+            assertTrue(generatedChecksumPaths.stream().anyMatch(p -> (versionDirectory + "/").startsWith(p + "/")),
+                       generatedChecksumPaths.toString());
+        }
+        assertTrue(generatedChecksumPaths.contains("org/carlspring/strongbox"), generatedChecksumPaths.toString());
+        assertTrue(generatedChecksumPaths.stream().noneMatch(p -> p.startsWith(".index")),
+                   generatedChecksumPaths.toString());
+    }
+
+    private void locate(ArtifactDirectoryOperation operation,
+                        int parallelism)
+        throws IOException
+    {
+        ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
+        locator.setOperation(operation);
+        locator.setParallelism(parallelism);
+        locator.locateArtifactDirectories();
+    }
+
+    private void write(String path)
+        throws IOException
+    {
+        Path file = repositoryDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[]{ 1 });
+    }
+
+    private static String relativize(RepositoryPath path)
+        throws IOException
+    {
+        return StringUtils.removeEnd(RepositoryFiles.relativizePath(path), "/");
+    }
+
+    private class RecordingOperation
+            extends AbstractArtifactLocationHandler
+    {
+
+        private final ConcurrentMap<String, List<String>> artifactDirectories = new ConcurrentHashMap<>();
+
+        private final AtomicInteger executions = new AtomicInteger();
+
+        private final boolean concurrent;
+
+        private final String extension;
+
+        private RecordingOperation(boolean concurrent,
+                                   String extension)
+        {
+            this.concurrent = concurrent;
+            this.extension = extension;
+            setBasePath(rootPath);
+        }
+
+        @Override
+        public void execute(RepositoryPath directoryPath)
+        {
+        }
+
+        @Override
+        public void execute(RepositoryPath artifactDirectoryPath,
+                            List<RepositoryPath> versionDirectories)
+            throws IOException
+        {
+            List<String> versions = new ArrayList<>();
+            for (RepositoryPath versionDirectory : versionDirectories)
+            {
+                versions.add(relativize(versionDirectory));
+            }
+
+            artifactDirectories.put(relativize(artifactDirectoryPath), versions);
+            executions.incrementAndGet();
+        }
+
+        @Override
+        public boolean isVersionDirectoryFile(RepositoryPath path)
+            throws IOException
+        {
+            if (extension == null)
+            {
+                return super.isVersionDirectoryFile(path);
+            }
+
+            return path.getFileName().toString().endsWith("." + extension);
+        }
+
+        @Override
+        public boolean isConcurrent()
+        {
+            return concurrent;
+        }
+
+    }
+
+}
@@ -0,0 +1,101 @@
+package org.carlspring.strongbox.data.service;
+
+import org.carlspring.strongbox.artifact.coordinates.MockedMavenArtifactCoordinates;
+import org.carlspring.strongbox.data.domain.GenericEntity;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactTagEntry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Cost of walking the cascade fields of an {@link ArtifactEntry} graph on save, with the fields scanned on every save
+ * (as {@link CommonCrudService} used to do) compared to the {@link EntityCascadePlan} built once per entity class. The
+ * database save itself is left out, so that only the cascade overhead is measured.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.carlspring.strongbox.data.service.EntityCascadePlanBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityCascadePlanBenchmark
+{
+
+    private final Map<Class<?>, EntityCascadePlan> plans = new ConcurrentHashMap<>();
+
+    private ArtifactEntry artifactEntry;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        ArtifactTagEntry lastVersionTag = new ArtifactTagEntry();
+        lastVersionTag.setName("last-version");
+
+        artifactEntry = new ArtifactEntry();
+        artifactEntry.setStorageId("storage0");
+        artifactEntry.setRepositoryId("releases");
+        artifactEntry.setArtifactCoordinates(new MockedMavenArtifactCoordinates("org.carlspring.strongbox",
+                                                                                "strongbox-commons", "1.0", null,
+                                                                                "jar"));
+        artifactEntry.getTagSet().add(lastVersionTag);
+    }
+
+    @Benchmark
+    public Object scanOnEverySave()
+    {
+        return cascadeWithScan(artifactEntry);
+    }
+
+    @Benchmark
+    public Object precomputedPlan()
+    {
+        return cascadeWithPlan(artifactEntry);
+    }
+
+    private Object cascadeWithScan(Object entity)
+    {
+        if (entity instanceof GenericEntity)
+        {
+            EntityCascadePlan.of(entity.getClass()).apply(entity, this::cascadeWithScan);
+        }
+
+        return entity;
+    }
+
+    private Object cascadeWithPlan(Object entity)
+    {
+        if (entity instanceof GenericEntity)
+        {
+            plans.computeIfAbsent(entity.getClass(), EntityCascadePlan::of).apply(entity, this::cascadeWithPlan);
+        }
+
+        return entity;
+    }
+
+    public static void main(String[] args)
+        throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(EntityCascadePlanBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
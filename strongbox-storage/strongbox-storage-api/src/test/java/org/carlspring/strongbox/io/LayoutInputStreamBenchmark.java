@@ -0,0 +1,111 @@
+package org.carlspring.strongbox.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Read throughput of a 100 MB artifact through {@link LayoutInputStream}, without digests (the checksums are stored)
+ * and with the MD5 and SHA-1 digests calculated on the fly.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.carlspring.strongbox.io.LayoutInputStreamBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LayoutInputStreamBenchmark
+{
+
+    private static final int ARTIFACT_SIZE = 100 * 1024 * 1024;
+
+    @Param({ "", "MD5,SHA-1" })
+    private String algorithms;
+
+    private Path artifact;
+
+    private Set<String> algorithmSet;
+
+    private final byte[] buffer = new byte[8192];
+
+    @Setup(Level.Trial)
+    public void setUp()
+        throws IOException
+    {
+        algorithmSet = algorithms.isEmpty() ? Collections.emptySet()
+                : new LinkedHashSet<>(Arrays.asList(algorithms.split(",")));
+
+        artifact = Files.createTempFile("strongbox-benchmark-", ".jar");
+
+        Random random = new Random(0);
+        byte[] chunk = new byte[1024 * 1024];
+        try (OutputStream os = Files.newOutputStream(artifact))
+        {
+            for (int i = 0; i < ARTIFACT_SIZE / chunk.length; i++)
+            {
+                random.nextBytes(chunk);
+                os.write(chunk);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+        throws IOException
+    {
+        Files.deleteIfExists(artifact);
+    }
+
+    @Benchmark
+    public long read()
+        throws IOException, NoSuchAlgorithmException
+    {
+        long total = 0;
+        try (InputStream is = new LayoutInputStream(Files.newInputStream(artifact), algorithmSet))
+        {
+            int n;
+            while ((n = is.read(buffer)) != -1)
+            {
+                total += n;
+            }
+        }
+
+        return total;
+    }
+
+    public static void main(String[] args)
+        throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(LayoutInputStreamBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
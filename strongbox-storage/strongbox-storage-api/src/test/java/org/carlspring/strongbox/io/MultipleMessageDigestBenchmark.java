@@ -0,0 +1,87 @@
+package org.carlspring.strongbox.io;
+
+import org.carlspring.strongbox.util.MultipleMessageDigest;
+
+import java.nio.ByteBuffer;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Digest throughput of {@link MultipleMessageDigest} with the MD5 and SHA-1 algorithms, for contents from 1 KB to
+ * 1 GB passed in 1 MB buffers.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.carlspring.strongbox.io.MultipleMessageDigestBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MultipleMessageDigestBenchmark
+{
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    @Param({ "1024", "1048576", "104857600", "1073741824" })
+    private long size;
+
+    private ByteBuffer buffer;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        byte[] content = new byte[BUFFER_SIZE];
+        new Random(0).nextBytes(content);
+
+        buffer = ByteBuffer.wrap(content);
+    }
+
+    @Benchmark
+    public byte[] digest()
+        throws NoSuchAlgorithmException
+    {
+        MultipleMessageDigest digest = new MultipleMessageDigest(Arrays.asList("MD5", "SHA-1"));
+        try
+        {
+            for (long remaining = size; remaining > 0; remaining -= buffer.limit())
+            {
+                buffer.clear();
+                buffer.limit((int) Math.min(BUFFER_SIZE, remaining));
+                digest.update(buffer);
+            }
+        }
+        finally
+        {
+            digest.finish();
+        }
+
+        return digest.digest("SHA-1");
+    }
+
+    public static void main(String[] args)
+        throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(MultipleMessageDigestBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
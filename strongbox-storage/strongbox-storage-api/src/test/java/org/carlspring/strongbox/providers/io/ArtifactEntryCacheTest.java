@@ -0,0 +1,201 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.artifact.coordinates.MockedMavenArtifactCoordinates;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.domain.ArtifactEntrySerializer;
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@Execution(CONCURRENT)
+public class ArtifactEntryCacheTest
+{
+
+    private static final String STORAGE_ID = RepositoryFileSystemFixture.STORAGE_ID;
+
+    private static final String REPOSITORY_ID = "releases";
+
+    private static final String ARTIFACT_PATH = "org/carlspring/a1/1.0/a1-1.0.jar";
+
+    @TempDir
+    Path storageDir;
+
+    private RepositoryFileSystemFixture fixture;
+
+    private ArtifactEntryCache artifactEntryCache;
+
+    @BeforeEach
+    public void setUp()
+    {
+        fixture = new RepositoryFileSystemFixture(storageDir);
+
+        artifactEntryCache = newArtifactEntryCache(3, 60000L);
+    }
+
+    @Test
+    public void cacheShouldBeDisabledByDefault()
+    {
+        ArtifactEntryCache defaultArtifactEntryCache = new ArtifactEntryCache();
+        ReflectionTestUtils.setField(defaultArtifactEntryCache, "artifactEntrySerializer",
+                                     new ArtifactEntrySerializer());
+        defaultArtifactEntryCache.afterPropertiesSet();
+
+        defaultArtifactEntryCache.put(STORAGE_ID, REPOSITORY_ID, ARTIFACT_PATH, newArtifactEntry(ARTIFACT_PATH));
+
+        assertNull(defaultArtifactEntryCache.get(STORAGE_ID, REPOSITORY_ID, ARTIFACT_PATH));
+    }
+
+    @Test
+    public void callersShouldGetTheirOwnCopy()
+    {
+        ArtifactEntry artifactEntry = newArtifactEntry(ARTIFACT_PATH);
+        artifactEntryCache.put(STORAGE_ID, REPOSITORY_ID, ARTIFACT_PATH, artifactEntry);
+        artifactEntry.setDownloadCount(10);
+
+        ArtifactEntry cachedArtifactEntry = artifactEntryCache.get(STORAGE_ID, REPOSITORY_ID, ARTIFACT_PATH);
+        assertNotNull(cachedArtifactEntry);
+        assertNotSame(artifactEntry, cachedArtifactEntry);
+        assertNotSame(artifactEntry.getArtifactCoordinates(), cachedArtifactEntry.getArtifactCoordinates());
+        assertEquals(ARTIFACT_PATH, cachedArtifactEntry.getArtifactPath());
+        assertEquals(Integer.valueOf(0), cachedArtifactEntry.getDownloadCount());
+
+        cachedArtifactEntry.setDownloadCount(20);
+
+        assertEquals(Integer.valueOf(0),
+                     artifactEntryCache.get(STORAGE_ID, REPOSITORY_ID, ARTIFACT_PATH).getDownloadCount());
+    }
+
+    @Test
+    public void expiredEntriesShouldBeDropped()
+        throws Exception
+    {
+        artifactEntryCache = newArtifactEntryCache(3, 1L);
+
+        artifactEntryCache.put(STORAGE_ID, REPOSITORY_ID, ARTIFACT_PATH, newArtifactEntry(ARTIFACT_PATH));
+        Thread.sleep(10);
+
+        assertNull(artifactEntryCache.get(STORAGE_ID, REPOSITORY_ID, ARTIFACT_PATH));
+        assertEquals(0, artifactEntryCache.size());
+    }
+
+    @Test
+    public void savedEntryShouldBeInvalidated()
+    {
+        String otherPath = "org/carlspring/a1/1.0/a1-1.0.pom";
+        ArtifactEntry artifactEntry = newArtifactEntry(ARTIFACT_PATH);
+        artifactEntryCache.put(STORAGE_ID, REPOSITORY_ID, ARTIFACT_PATH, artifactEntry);
+        artifactEntryCache.put(STORAGE_ID, REPOSITORY_ID, otherPath, newArtifactEntry(otherPath));
+
+        artifactEntryCache.invalidate(artifactEntry);
+
+        assertNull(artifactEntryCache.get(STORAGE_ID, REPOSITORY_ID, ARTIFACT_PATH));
+        assertNotNull(artifactEntryCache.get(STORAGE_ID, REPOSITORY_ID, otherPath));
+        assertEquals(1, artifactEntryCache.size());
+    }
+
+    @Test
+    public void deletedDirectoryShouldInvalidateItsSubtree()
+        throws Exception
+    {
+        String siblingPath = "org/carlspring/a10/1.0/a10-1.0.jar";
+        artifactEntryCache.put(STORAGE_ID, REPOSITORY_ID, ARTIFACT_PATH, newArtifactEntry(ARTIFACT_PATH));
+        artifactEntryCache.put(STORAGE_ID, REPOSITORY_ID, siblingPath, newArtifactEntry(siblingPath));
+        artifactEntryCache.put(STORAGE_ID, "snapshots", ARTIFACT_PATH, newArtifactEntry(ARTIFACT_PATH));
+
+        artifactEntryCache.handle(new ArtifactEvent<>(newPath(REPOSITORY_ID, "org/carlspring/a1"),
+                                                      ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType()));
+
+        assertNull(artifactEntryCache.get(STORAGE_ID, REPOSITORY_ID, ARTIFACT_PATH));
+        assertNotNull(artifactEntryCache.get(STORAGE_ID, REPOSITORY_ID, siblingPath));
+        assertNotNull(artifactEntryCache.get(STORAGE_ID, "snapshots", ARTIFACT_PATH));
+        assertEquals(2, artifactEntryCache.size());
+    }
+
+    @Test
+    public void deletedRepositoryShouldBeInvalidated()
+        throws Exception
+    {
+        artifactEntryCache.put(STORAGE_ID, REPOSITORY_ID, ARTIFACT_PATH, newArtifactEntry(ARTIFACT_PATH));
+        artifactEntryCache.put(STORAGE_ID, REPOSITORY_ID + "1", ARTIFACT_PATH, newArtifactEntry(ARTIFACT_PATH));
+
+        artifactEntryCache.handle(new ArtifactEvent<>(newPath(REPOSITORY_ID, ""),
+                                                      ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType()));
+
+        assertNull(artifactEntryCache.get(STORAGE_ID, REPOSITORY_ID, ARTIFACT_PATH));
+        assertNotNull(artifactEntryCache.get(STORAGE_ID, REPOSITORY_ID + "1", ARTIFACT_PATH));
+    }
+
+    @Test
+    public void otherEventsShouldNotInvalidate()
+        throws Exception
+    {
+        artifactEntryCache.put(STORAGE_ID, REPOSITORY_ID, ARTIFACT_PATH, newArtifactEntry(ARTIFACT_PATH));
+
+        artifactEntryCache.handle(new ArtifactEvent<>(newPath(REPOSITORY_ID, ARTIFACT_PATH),
+                                                      ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_DOWNLOADED.getType()));
+
+        assertNotNull(artifactEntryCache.get(STORAGE_ID, REPOSITORY_ID, ARTIFACT_PATH));
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesShouldBeEvicted()
+    {
+        for (int i = 0; i < 10; i++)
+        {
+            artifactEntryCache.put(STORAGE_ID, REPOSITORY_ID, "a" + i, newArtifactEntry(ARTIFACT_PATH));
+            assertNotNull(artifactEntryCache.get(STORAGE_ID, REPOSITORY_ID, "a0"));
+        }
+
+        assertEquals(3, artifactEntryCache.size());
+        assertNotNull(artifactEntryCache.get(STORAGE_ID, REPOSITORY_ID, "a0"));
+        assertNull(artifactEntryCache.get(STORAGE_ID, REPOSITORY_ID, "a7"));
+        assertNotNull(artifactEntryCache.get(STORAGE_ID, REPOSITORY_ID, "a8"));
+        assertNotNull(artifactEntryCache.get(STORAGE_ID, REPOSITORY_ID, "a9"));
+
+        // Evicted entries are dropped from the sorted keys as well.
+        artifactEntryCache.invalidateTree(STORAGE_ID, REPOSITORY_ID, "");
+        assertEquals(0, artifactEntryCache.size());
+    }
+
+    private static ArtifactEntryCache newArtifactEntryCache(int maxSize,
+                                                            long ttlMillis)
+    {
+        ArtifactEntryCache artifactEntryCache = new ArtifactEntryCache();
+        ReflectionTestUtils.setField(artifactEntryCache, "artifactEntrySerializer", new ArtifactEntrySerializer());
+        ReflectionTestUtils.setField(artifactEntryCache, "enabled", true);
+        ReflectionTestUtils.setField(artifactEntryCache, "maxSize", maxSize);
+        ReflectionTestUtils.setField(artifactEntryCache, "ttlMillis", ttlMillis);
+        artifactEntryCache.afterPropertiesSet();
+
+        return artifactEntryCache;
+    }
+
+    private static ArtifactEntry newArtifactEntry(String path)
+    {
+        ArtifactEntry artifactEntry = new ArtifactEntry();
+        artifactEntry.setStorageId(STORAGE_ID);
+        artifactEntry.setRepositoryId(REPOSITORY_ID);
+        artifactEntry.setArtifactCoordinates(new MockedMavenArtifactCoordinates(path));
+
+        return artifactEntry;
+    }
+
+    private RepositoryPath newPath(String repositoryId,
+                                   String path)
+    {
+        return fixture.path(repositoryId, path);
+    }
+
+}
@@ -0,0 +1,255 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@Execution(CONCURRENT)
+public class ArtifactHeadersCacheTest
+{
+
+    private static final ArtifactHeaders ARTIFACT_HEADERS = new ArtifactHeaders(1, 1, "application/octet-stream",
+                                                                                 Collections.emptyMap());
+
+    @TempDir
+    Path storageDir;
+
+    private RepositoryFileSystemFixture fixture;
+
+    private ArtifactHeadersCache artifactHeadersCache;
+
+    @BeforeEach
+    public void setUp()
+    {
+        fixture = new RepositoryFileSystemFixture(storageDir, repositoryPath -> Collections.singletonMap(
+                RepositoryFileAttributeType.CHECKSUM,
+                repositoryPath.getFileName().toString().matches(".*\\.(md5|sha1)")));
+
+        artifactHeadersCache = newArtifactHeadersCache(100, 60000L);
+        ReflectionTestUtils.setField(fixture.getProvider(), "artifactHeadersCache", artifactHeadersCache);
+    }
+
+    @Test
+    public void cacheShouldBeDisabledByDefault()
+    {
+        ArtifactHeadersCache defaultArtifactHeadersCache = new ArtifactHeadersCache();
+        defaultArtifactHeadersCache.afterPropertiesSet();
+
+        defaultArtifactHeadersCache.put(path("a1-1.0.jar"), ARTIFACT_HEADERS);
+
+        assertNull(defaultArtifactHeadersCache.get(path("a1-1.0.jar")));
+        assertEquals(0, defaultArtifactHeadersCache.size());
+    }
+
+    @Test
+    public void expiredEntriesShouldBeDropped()
+        throws Exception
+    {
+        artifactHeadersCache = newArtifactHeadersCache(100, 1L);
+
+        artifactHeadersCache.put(path("a1-1.0.jar"), ARTIFACT_HEADERS);
+        Thread.sleep(10);
+
+        assertNull(artifactHeadersCache.get(path("a1-1.0.jar")));
+        assertEquals(0, artifactHeadersCache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesShouldBeEvicted()
+    {
+        artifactHeadersCache = newArtifactHeadersCache(2, 60000L);
+
+        artifactHeadersCache.put(path("a"), ARTIFACT_HEADERS);
+        artifactHeadersCache.put(path("b"), ARTIFACT_HEADERS);
+        assertNotNull(artifactHeadersCache.get(path("a")));
+        artifactHeadersCache.put(path("c"), ARTIFACT_HEADERS);
+
+        assertEquals(2, artifactHeadersCache.size());
+        assertNotNull(artifactHeadersCache.get(path("a")));
+        assertNull(artifactHeadersCache.get(path("b")));
+        assertNotNull(artifactHeadersCache.get(path("c")));
+    }
+
+    @Test
+    public void storedFileShouldBeInvalidated()
+        throws Exception
+    {
+        artifactHeadersCache.put(path("a1-1.0.jar"), ARTIFACT_HEADERS);
+        artifactHeadersCache.put(path("a1-1.0.pom"), ARTIFACT_HEADERS);
+
+        Files.write(path("a1-1.0.jar"), new byte[]{ 1 });
+
+        assertNull(artifactHeadersCache.get(path("a1-1.0.jar")));
+        assertNotNull(artifactHeadersCache.get(path("a1-1.0.pom")));
+    }
+
+    @Test
+    public void storedChecksumShouldInvalidateItsFile()
+        throws Exception
+    {
+        artifactHeadersCache.put(path("a1-1.0.jar"), ARTIFACT_HEADERS);
+        artifactHeadersCache.put(path("a1-1.0.pom"), ARTIFACT_HEADERS);
+
+        Files.write(path("a1-1.0.jar.sha1"), new byte[]{ 1 });
+
+        assertNull(artifactHeadersCache.get(path("a1-1.0.jar")));
+        assertNotNull(artifactHeadersCache.get(path("a1-1.0.pom")));
+    }
+
+    @Test
+    public void storedFileShouldNotInvalidateFilesWithoutExtension()
+        throws Exception
+    {
+        artifactHeadersCache.put(path("a1"), ARTIFACT_HEADERS);
+        artifactHeadersCache.put(path("a1-1.0"), ARTIFACT_HEADERS);
+
+        Files.write(path("a1.jar"), new byte[]{ 1 });
+        Files.write(path("a1-1.0.pom"), new byte[]{ 1 });
+
+        assertNotNull(artifactHeadersCache.get(path("a1")));
+        assertNotNull(artifactHeadersCache.get(path("a1-1.0")));
+    }
+
+    @Test
+    public void deletedFileShouldBeInvalidated()
+        throws Exception
+    {
+        Files.write(path("a1-1.0.jar"), new byte[]{ 1 });
+        artifactHeadersCache.put(path("a1-1.0.jar"), ARTIFACT_HEADERS);
+
+        Files.delete(path("a1-1.0.jar"));
+
+        assertNull(artifactHeadersCache.get(path("a1-1.0.jar")));
+    }
+
+    @Test
+    public void deletedDirectoryShouldInvalidateItsSubtree()
+        throws Exception
+    {
+        Files.createDirectories(path("a1/1.0"));
+        Files.write(path("a1/1.0/a1-1.0.jar"), new byte[]{ 1 });
+        artifactHeadersCache.put(path("a1/1.0/a1-1.0.jar"), ARTIFACT_HEADERS);
+        artifactHeadersCache.put(path("a10/1.0/a10-1.0.jar"), ARTIFACT_HEADERS);
+
+        Files.delete(path("a1"));
+
+        assertNull(artifactHeadersCache.get(path("a1/1.0/a1-1.0.jar")));
+        assertNotNull(artifactHeadersCache.get(path("a10/1.0/a10-1.0.jar")));
+    }
+
+    @Test
+    public void copiedFileShouldInvalidateTheTarget()
+        throws Exception
+    {
+        Files.write(path("a1-1.0.jar"), new byte[]{ 1 });
+        artifactHeadersCache.put(path("a1-1.0.jar"), ARTIFACT_HEADERS);
+        artifactHeadersCache.put(path("a1-1.1.jar"), ARTIFACT_HEADERS);
+
+        Files.copy(path("a1-1.0.jar"), path("a1-1.1.jar"));
+
+        assertNotNull(artifactHeadersCache.get(path("a1-1.0.jar")));
+        assertNull(artifactHeadersCache.get(path("a1-1.1.jar")));
+    }
+
+    @Test
+    public void movedFileShouldInvalidateTheSourceAndTheTarget()
+        throws Exception
+    {
+        Files.write(path("a1-1.0.jar"), new byte[]{ 1 });
+        artifactHeadersCache.put(path("a1-1.0.jar"), ARTIFACT_HEADERS);
+        artifactHeadersCache.put(path("a1-1.1.jar"), ARTIFACT_HEADERS);
+
+        Files.move(path("a1-1.0.jar"), path("a1-1.1.jar"));
+
+        assertNull(artifactHeadersCache.get(path("a1-1.0.jar")));
+        assertNull(artifactHeadersCache.get(path("a1-1.1.jar")));
+        assertEquals(0, artifactHeadersCache.size());
+    }
+
+    @Test
+    public void storedFileShouldBeCached()
+        throws Exception
+    {
+        Files.write(path("a1-1.0.jar"), new byte[]{ 1, 2 });
+        Files.write(path("a1-1.0.jar.sha1"), "a1-sha1".getBytes(StandardCharsets.UTF_8));
+
+        artifactHeadersCache.handle(new ArtifactEvent<>(path("a1-1.0.jar"),
+                                                        ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType()));
+
+        ArtifactHeaders artifactHeaders = artifactHeadersCache.get(path("a1-1.0.jar"));
+        assertNotNull(artifactHeaders);
+        assertEquals(2, artifactHeaders.getSize());
+        assertEquals("application/octet-stream", artifactHeaders.getContentType());
+        assertEquals(Collections.singletonMap("SHA-1", "a1-sha1"), artifactHeaders.getChecksums());
+    }
+
+    @Test
+    public void storedChecksumShouldRefreshItsFile()
+        throws Exception
+    {
+        Files.write(path("a1-1.0.jar"), new byte[]{ 1 });
+        artifactHeadersCache.refresh(path("a1-1.0.jar"));
+        Files.write(path("a1-1.0.jar.md5"), "a1-md5".getBytes(StandardCharsets.UTF_8));
+
+        artifactHeadersCache.handle(new ArtifactEvent<>(path("a1-1.0.jar.md5"),
+                                                        ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType()));
+
+        assertEquals(Collections.singletonMap("MD5", "a1-md5"),
+                     artifactHeadersCache.get(path("a1-1.0.jar")).getChecksums());
+        assertEquals("text/plain", artifactHeadersCache.get(path("a1-1.0.jar.md5")).getContentType());
+    }
+
+    @Test
+    public void missingFileShouldNotBeCached()
+        throws Exception
+    {
+        artifactHeadersCache.refresh(path("a1-1.0.jar"));
+        artifactHeadersCache.refresh(path(""));
+
+        assertEquals(0, artifactHeadersCache.size());
+    }
+
+    @Test
+    public void repositoryShouldBeInvalidated()
+    {
+        artifactHeadersCache.put(path("a1-1.0.jar"), ARTIFACT_HEADERS);
+        artifactHeadersCache.put(fixture.path("snapshots", "a1-1.0.jar"), ARTIFACT_HEADERS);
+
+        artifactHeadersCache.invalidateRepository(RepositoryFileSystemFixture.STORAGE_ID, "releases");
+
+        assertNull(artifactHeadersCache.get(path("a1-1.0.jar")));
+        assertNotNull(artifactHeadersCache.get(fixture.path("snapshots", "a1-1.0.jar")));
+    }
+
+    private RepositoryPath path(String path)
+    {
+        return fixture.path("releases", path);
+    }
+
+    private static ArtifactHeadersCache newArtifactHeadersCache(int maxSize,
+                                                                long ttlMillis)
+    {
+        ArtifactHeadersCache artifactHeadersCache = new ArtifactHeadersCache();
+        ReflectionTestUtils.setField(artifactHeadersCache, "enabled", true);
+        ReflectionTestUtils.setField(artifactHeadersCache, "maxSize", maxSize);
+        ReflectionTestUtils.setField(artifactHeadersCache, "ttlMillis", ttlMillis);
+        artifactHeadersCache.afterPropertiesSet();
+
+        return artifactHeadersCache;
+    }
+
+}
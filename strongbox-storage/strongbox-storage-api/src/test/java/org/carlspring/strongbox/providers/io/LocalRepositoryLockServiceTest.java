@@ -0,0 +1,123 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@Execution(CONCURRENT)
+public class LocalRepositoryLockServiceTest
+{
+
+    private LocalRepositoryLockService lockService;
+
+    @BeforeEach
+    public void setUp()
+    {
+        lockService = new LocalRepositoryLockService(1024);
+    }
+
+    @Test
+    public void stripeCountShouldBeRoundedUpToPowerOfTwo()
+    {
+        assertEquals(1, new LocalRepositoryLockService(0).getStripeCount());
+        assertEquals(1, new LocalRepositoryLockService(1).getStripeCount());
+        assertEquals(1024, new LocalRepositoryLockService(1000).getStripeCount());
+        assertEquals(1024, new LocalRepositoryLockService(1024).getStripeCount());
+        assertEquals(2048, new LocalRepositoryLockService(1025).getStripeCount());
+    }
+
+    @Test
+    public void sameKeyShouldGetSameLock()
+    {
+        assertSame(lockService.getLock("org.carlspring:a1", null), lockService.getLock("org.carlspring:a1", null));
+        assertSame(lockService.getLock("org.carlspring:a1", "metadata"),
+                   lockService.getLock("org.carlspring:a1", "metadata"));
+    }
+
+    @Test
+    public void keysShouldBeSpreadOverTheStripes()
+    {
+        Set<ReadWriteLock> locks = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < 4096; i++)
+        {
+            locks.add(lockService.getLock("org.carlspring:a" + i, null));
+            locks.add(lockService.getLock("org.carlspring:a" + i, "metadata"));
+        }
+
+        // 8192 similar keys over 1024 stripes, nearly all the stripes should be used.
+        assertTrue(locks.size() > 900, String.valueOf(locks.size()));
+    }
+
+    @Test
+    public void keysOfDifferentStripesShouldNotBlockEachOther()
+        throws Exception
+    {
+        for (int i = 0; i < 100; i++)
+        {
+            ReadWriteLock lock = lockService.getLock("key" + i, null);
+            ReadWriteLock other = lockService.getLock("key" + (i + 1), null);
+            if (lock == other)
+            {
+                continue;
+            }
+
+            lock.writeLock().lock();
+            try
+            {
+                assertTrue(CompletableFuture.supplyAsync(() -> tryLockAndUnlock(other.writeLock()))
+                                            .get(5, TimeUnit.SECONDS));
+                assertFalse(CompletableFuture.supplyAsync(() -> tryLockAndUnlock(lock.readLock()))
+                                             .get(5, TimeUnit.SECONDS));
+            }
+            finally
+            {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Test
+    public void nestedWriteLocksOfSharedStripeShouldBeReentrant()
+    {
+        // Like `MavenMetadataManager.doInLock()`, which locks a directory and then its metadata file.
+        lockService = new LocalRepositoryLockService(1);
+
+        Lock baseLock = lockService.getLock("path", null).writeLock();
+        baseLock.lock();
+        try
+        {
+            assertTrue(tryLockAndUnlock(lockService.getLock("path/file", null).writeLock()));
+            assertTrue(tryLockAndUnlock(lockService.getLock("path/file", null).readLock()));
+        }
+        finally
+        {
+            baseLock.unlock();
+        }
+    }
+
+    private boolean tryLockAndUnlock(Lock lock)
+    {
+        if (!lock.tryLock())
+        {
+            return false;
+        }
+
+        lock.unlock();
+
+        return true;
+    }
+
+}
@@ -0,0 +1,154 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@Execution(CONCURRENT)
+public class RepositoryFileAttributesCacheTest
+{
+
+    private static final RepositoryFileAttributeType CHECKSUM = RepositoryFileAttributeType.CHECKSUM;
+
+    @TempDir
+    Path storageDir;
+
+    private RepositoryFileSystemFixture fixture;
+
+    private RepositoryFileAttributesCache repositoryFileAttributesCache;
+
+    @BeforeEach
+    public void setUp()
+    {
+        fixture = new RepositoryFileSystemFixture(storageDir, repositoryPath -> Collections.singletonMap(
+                CHECKSUM, repositoryPath.getFileName().toString().endsWith(".sha1")));
+
+        repositoryFileAttributesCache = newRepositoryFileAttributesCache(100);
+        ReflectionTestUtils.setField(fixture.getProvider(), "repositoryFileAttributesCache",
+                                     repositoryFileAttributesCache);
+    }
+
+    @Test
+    public void cacheShouldBeDisabledByDefault()
+    {
+        RepositoryFileAttributesCache defaultRepositoryFileAttributesCache = new RepositoryFileAttributesCache();
+        defaultRepositoryFileAttributesCache.afterPropertiesSet();
+
+        defaultRepositoryFileAttributesCache.put(path("a1-1.0.jar"), CHECKSUM, false, Boolean.FALSE);
+
+        assertNull(defaultRepositoryFileAttributesCache.get(path("a1-1.0.jar"), CHECKSUM, false));
+        assertEquals(0, defaultRepositoryFileAttributesCache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedPathsShouldBeEvicted()
+    {
+        repositoryFileAttributesCache = newRepositoryFileAttributesCache(2);
+
+        repositoryFileAttributesCache.put(path("a"), CHECKSUM, false, Boolean.FALSE);
+        repositoryFileAttributesCache.put(path("b"), CHECKSUM, false, Boolean.FALSE);
+        assertNotNull(repositoryFileAttributesCache.get(path("a"), CHECKSUM, false));
+        repositoryFileAttributesCache.put(path("c"), CHECKSUM, false, Boolean.FALSE);
+
+        assertEquals(2, repositoryFileAttributesCache.size());
+        assertNotNull(repositoryFileAttributesCache.get(path("a"), CHECKSUM, false));
+        assertNull(repositoryFileAttributesCache.get(path("b"), CHECKSUM, false));
+        assertNotNull(repositoryFileAttributesCache.get(path("c"), CHECKSUM, false));
+    }
+
+    @Test
+    public void storedFileShouldBeInvalidated()
+        throws Exception
+    {
+        Files.write(path("a1-1.0.jar"), new byte[]{ 1 });
+        readChecksumAttribute("a1-1.0.jar");
+        readChecksumAttribute("a1-1.0.jar.sha1");
+
+        Files.write(path("a1-1.0.jar"), new byte[]{ 2 });
+
+        assertNull(repositoryFileAttributesCache.get(path("a1-1.0.jar"), CHECKSUM, false));
+        assertNotNull(repositoryFileAttributesCache.get(path("a1-1.0.jar.sha1"), CHECKSUM, false));
+    }
+
+    @Test
+    public void deletedFileShouldBeInvalidated()
+        throws Exception
+    {
+        Files.write(path("a1-1.0.jar"), new byte[]{ 1 });
+        readChecksumAttribute("a1-1.0.jar");
+
+        Files.delete(path("a1-1.0.jar"));
+
+        assertNull(repositoryFileAttributesCache.get(path("a1-1.0.jar"), CHECKSUM, false));
+        assertEquals(0, repositoryFileAttributesCache.size());
+    }
+
+    @Test
+    public void movedFileShouldBeInvalidated()
+        throws Exception
+    {
+        Files.write(path("a1-1.0.jar"), new byte[]{ 1 });
+        readChecksumAttribute("a1-1.0.jar");
+        readChecksumAttribute("a1-1.1.jar");
+
+        Files.move(path("a1-1.0.jar"), path("a1-1.1.jar"));
+
+        assertEquals(0, repositoryFileAttributesCache.size());
+    }
+
+    @Test
+    public void deletedDirectoryShouldInvalidateItsSubtree()
+        throws Exception
+    {
+        Files.createDirectories(path("a1/1.0"));
+        Files.createDirectories(path("a10/1.0"));
+        Files.write(path("a1/1.0/a1-1.0.jar"), new byte[]{ 1 });
+        Files.write(path("a10/1.0/a10-1.0.jar"), new byte[]{ 1 });
+        readChecksumAttribute("a1");
+        readChecksumAttribute("a1/1.0/a1-1.0.jar");
+        readChecksumAttribute("a10/1.0/a10-1.0.jar");
+
+        Files.delete(path("a1"));
+
+        assertNull(repositoryFileAttributesCache.get(path("a1"), CHECKSUM, false));
+        assertNull(repositoryFileAttributesCache.get(path("a1/1.0/a1-1.0.jar"), CHECKSUM, false));
+        assertNotNull(repositoryFileAttributesCache.get(path("a10/1.0/a10-1.0.jar"), CHECKSUM, false));
+        assertEquals(1, repositoryFileAttributesCache.size());
+    }
+
+    private void readChecksumAttribute(String path)
+        throws IOException
+    {
+        // A new path instance each time, so that the shared cache is populated rather than the path's own one.
+        fixture.getProvider().readRepositoryFileAttribute(path(path), CHECKSUM);
+
+        assertNotNull(repositoryFileAttributesCache.get(path(path), CHECKSUM, false));
+    }
+
+    private RepositoryPath path(String path)
+    {
+        return fixture.path("releases", path);
+    }
+
+    private static RepositoryFileAttributesCache newRepositoryFileAttributesCache(int maxSize)
+    {
+        RepositoryFileAttributesCache repositoryFileAttributesCache = new RepositoryFileAttributesCache();
+        ReflectionTestUtils.setField(repositoryFileAttributesCache, "enabled", true);
+        ReflectionTestUtils.setField(repositoryFileAttributesCache, "maxSize", maxSize);
+        repositoryFileAttributesCache.afterPropertiesSet();
+
+        return repositoryFileAttributesCache;
+    }
+
+}
@@ -0,0 +1,108 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.ImmutableRepository;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Repositories of one storage in a directory, with a {@link StorageFileSystemProvider} which works without the
+ * Spring context, for the tests of the caches of the repository files. The caches under test are set on the
+ * {@link #getProvider() provider}. The repositories use the {@code MD5} and {@code SHA-1} digest algorithms.
+ */
+public class RepositoryFileSystemFixture
+{
+
+    public static final String STORAGE_ID = "storage0";
+
+    private final Path basedir;
+
+    private final StorageFileSystemProvider provider;
+
+    private final Map<String, LayoutFileSystem> fileSystems = new ConcurrentHashMap<>();
+
+    public RepositoryFileSystemFixture(Path basedir)
+    {
+        this(basedir, repositoryPath -> Collections.emptyMap());
+    }
+
+    /**
+     * @param attributes calculates the layout specific attributes of the paths
+     */
+    public RepositoryFileSystemFixture(Path basedir,
+                                       Function<RepositoryPath, Map<RepositoryFileAttributeType, Object>> attributes)
+    {
+        this.basedir = basedir;
+        this.provider = new StorageFileSystemProvider(FileSystems.getDefault().provider())
+        {
+            @Override
+            protected Map<RepositoryFileAttributeType, Object> getRepositoryFileAttributes(
+                    RepositoryPath repositoryPath,
+                    RepositoryFileAttributeType... attributeTypes)
+            {
+                return attributes.apply(repositoryPath);
+            }
+        };
+    }
+
+    public StorageFileSystemProvider getProvider()
+    {
+        return provider;
+    }
+
+    /**
+     * @return the absolute path of the repository, which is created on first use
+     */
+    public RepositoryPath path(String repositoryId,
+                               String path)
+    {
+        return fileSystems.computeIfAbsent(repositoryId, this::newFileSystem).getRootDirectory().resolve(path);
+    }
+
+    private LayoutFileSystem newFileSystem(String repositoryId)
+    {
+        Path repositoryDir = basedir.resolve(repositoryId);
+        try
+        {
+            Files.createDirectories(repositoryDir);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        Storage storage = mock(Storage.class);
+        when(storage.getId()).thenReturn(STORAGE_ID);
+
+        MutableRepository repository = new MutableRepository();
+        repository.setId(repositoryId);
+        repository.setBasedir(repositoryDir.toString());
+
+        return new LayoutFileSystem(new ImmutableRepository(repository, storage), FileSystems.getDefault(), provider)
+        {
+            @Override
+            public Set<String> getDigestAlgorithmSet()
+            {
+                return new LinkedHashSet<>(Arrays.asList(MessageDigestAlgorithms.MD5,
+                                                         MessageDigestAlgorithms.SHA_1));
+            }
+        };
+    }
+
+}
@@ -0,0 +1,118 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Read lock acquire/release throughput of the {@link RepositoryLockService} backends, with all the threads contending
+ * on the same few artifacts.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.carlspring.strongbox.providers.io.RepositoryLockServiceBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class RepositoryLockServiceBenchmark
+{
+
+    private static final String[] LOCKS = new String[]{ "org.carlspring.strongbox:strongbox-commons",
+                                                        "org.carlspring.strongbox:strongbox-storage-api",
+                                                        "org.carlspring.strongbox:strongbox-web-core",
+                                                        "org.carlspring.strongbox:strongbox-client" };
+
+    @Param({ "local", "hazelcast" })
+    private String backend;
+
+    /**
+     * The stripes of the local backend.
+     */
+    @Param({ "1024" })
+    private int stripes;
+
+    private HazelcastInstance hazelcastInstance;
+
+    private RepositoryLockService lockService;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        if ("local".equals(backend))
+        {
+            lockService = new LocalRepositoryLockService(stripes);
+
+            return;
+        }
+
+        Config config = new Config().setInstanceName("strongbox-lock-benchmark");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        hazelcastInstance = Hazelcast.newHazelcastInstance(config);
+
+        HazelcastRepositoryLockService hazelcastLockService = new HazelcastRepositoryLockService();
+        hazelcastLockService.setHazelcastInstance(hazelcastInstance);
+
+        lockService = hazelcastLockService;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        if (hazelcastInstance != null)
+        {
+            hazelcastInstance.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void readLock(ThreadState state)
+    {
+        Lock lock = lockService.getLock(LOCKS[state.next()], null).readLock();
+        lock.lock();
+        lock.unlock();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState
+    {
+
+        private int counter;
+
+        int next()
+        {
+            return counter++ & (LOCKS.length - 1);
+        }
+
+    }
+
+    public static void main(String[] args)
+        throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(RepositoryLockServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,135 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@Execution(CONCURRENT)
+public class RepositoryPathCacheTest
+{
+
+    private static final String METRIC_PREFIX = "strongbox.test.repository.path.cache";
+
+    private RepositoryPathCache<String> cache;
+
+    @BeforeEach
+    public void setUp()
+    {
+        cache = new RepositoryPathCache<>(METRIC_PREFIX, 100, 0);
+    }
+
+    @Test
+    public void zeroSizedCacheShouldCacheNothing()
+    {
+        cache = new RepositoryPathCache<>(METRIC_PREFIX, 0, 0);
+
+        cache.put(key("releases", "a1"), "a1");
+
+        assertNull(cache.get(key("releases", "a1")));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesShouldBeEvicted()
+    {
+        cache = new RepositoryPathCache<>(METRIC_PREFIX, 2, 0);
+
+        cache.put(key("releases", "a"), "a");
+        cache.put(key("releases", "b"), "b");
+        assertNotNull(cache.get(key("releases", "a")));
+        cache.put(key("releases", "c"), "c");
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(key("releases", "a")));
+        assertNull(cache.get(key("releases", "b")));
+        assertNotNull(cache.get(key("releases", "c")));
+    }
+
+    @Test
+    public void expiredEntriesShouldBeDropped()
+        throws Exception
+    {
+        cache = new RepositoryPathCache<>(METRIC_PREFIX, 100, 1);
+
+        cache.put(key("releases", "a1"), "a1");
+        Thread.sleep(10);
+
+        assertNull(cache.get(key("releases", "a1")));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void staleEntriesShouldBeInvalidated()
+    {
+        cache.put(key("releases", "a1"), "a1");
+
+        assertNull(cache.getIfCurrent(key("releases", "a1"), v -> false));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void treeShouldBeInvalidatedInItsRepository()
+    {
+        cache.put(key("releases", "a1"), "a1");
+        cache.put(key("releases", "a1/1.0/a1-1.0.jar"), "a1-1.0.jar");
+        cache.put(key("releases", "a10/1.0/a10-1.0.jar"), "a10-1.0.jar");
+        cache.put(key("snapshots", "a1/1.0/a1-1.0.jar"), "a1-1.0.jar");
+
+        cache.invalidateTree(key("releases", "a1"));
+
+        assertNull(cache.get(key("releases", "a1")));
+        assertNull(cache.get(key("releases", "a1/1.0/a1-1.0.jar")));
+        assertNotNull(cache.get(key("releases", "a10/1.0/a10-1.0.jar")));
+        assertNotNull(cache.get(key("snapshots", "a1/1.0/a1-1.0.jar")));
+    }
+
+    @Test
+    public void treeShouldBeInvalidatedInAllRepositories()
+    {
+        cache.put(key("releases", "a1/1.0/a1-1.0.jar"), "a1-1.0.jar");
+        cache.put(key("snapshots", "a1/1.0/a1-1.0.jar"), "a1-1.0.jar");
+        cache.put(key("snapshots", "a10/1.0/a10-1.0.jar"), "a10-1.0.jar");
+
+        cache.invalidateTree("a1/");
+
+        assertNull(cache.get(key("releases", "a1/1.0/a1-1.0.jar")));
+        assertNull(cache.get(key("snapshots", "a1/1.0/a1-1.0.jar")));
+        assertNotNull(cache.get(key("snapshots", "a10/1.0/a10-1.0.jar")));
+    }
+
+    @Test
+    public void repositoryShouldBeInvalidated()
+    {
+        cache.put(key("releases", "a1"), "a1");
+        cache.put(key("releases1", "a1"), "a1");
+
+        cache.invalidateRepository(RepositoryFileSystemFixture.STORAGE_ID, "releases");
+
+        assertNull(cache.get(key("releases", "a1")));
+        assertNotNull(cache.get(key("releases1", "a1")));
+    }
+
+    @Test
+    public void evictedKeysShouldBeDroppedFromTheIndex()
+    {
+        cache = new RepositoryPathCache<>(METRIC_PREFIX, 3, 0);
+        for (int i = 0; i < 10; i++)
+        {
+            cache.put(key("releases", "a" + i), "a" + i);
+        }
+
+        assertEquals(3, cache.size());
+        assertEquals(3, cache.indexSize());
+    }
+
+    private static RepositoryPathKey key(String repositoryId,
+                                         String path)
+    {
+        return new RepositoryPathKey(RepositoryFileSystemFixture.STORAGE_ID, repositoryId, path);
+    }
+
+}
@@ -0,0 +1,152 @@
+package org.carlspring.strongbox.providers.io;
+
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryPolicyEnum;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.mockito.Mock;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+@Execution(CONCURRENT)
+public class RepositoryPathLockTest
+{
+
+    @Mock
+    private RepositoryPath repositoryPath;
+
+    @Mock
+    private LayoutFileSystem fileSystem;
+
+    @Mock
+    private StorageFileSystemProvider provider;
+
+    @Mock
+    private Repository repository;
+
+    @Mock
+    private ArtifactCoordinates coordinates;
+
+    private RepositoryLockService lockService;
+
+    private RepositoryPathLock repositoryPathLock;
+
+    @BeforeEach
+    public void setUp()
+        throws Exception
+    {
+        initMocks(this);
+
+        when(repositoryPath.getFileSystem()).thenReturn(fileSystem);
+        when(repositoryPath.getRepository()).thenReturn(repository);
+        when(fileSystem.provider()).thenReturn(provider);
+        when(coordinates.getId()).thenReturn("org.carlspring:a1:1.0:jar");
+        doReturn(coordinates).when(provider).readRepositoryFileAttribute(repositoryPath,
+                                                                         RepositoryFileAttributeType.COORDINATES);
+
+        when(repository.isHostedRepository()).thenReturn(true);
+        when(repository.getPolicy()).thenReturn(RepositoryPolicyEnum.RELEASE.getPolicy());
+        when(repository.allowsRedeployment()).thenReturn(false);
+
+        lockService = spy(new LocalRepositoryLockService(1024));
+
+        repositoryPathLock = new RepositoryPathLock();
+        ReflectionTestUtils.setField(repositoryPathLock, "lockService", lockService);
+    }
+
+    @Test
+    public void immutableReleaseArtifactShouldBeReadWithoutLock()
+        throws Exception
+    {
+        doReturn(Boolean.TRUE).when(provider).readRepositoryFileAttribute(repositoryPath,
+                                                                          RepositoryFileAttributeType.ARTIFACT);
+        InputStream is = new ByteArrayInputStream(new byte[0]);
+
+        assertSame(is, repositoryPathLock.lockInputStream(repositoryPath, () -> is));
+
+        verify(lockService, never()).getLock(any(), any());
+    }
+
+    @Test
+    public void redeployableArtifactShouldBeReadWithLock()
+        throws Exception
+    {
+        when(repository.allowsRedeployment()).thenReturn(true);
+        doReturn(Boolean.TRUE).when(provider).readRepositoryFileAttribute(repositoryPath,
+                                                                          RepositoryFileAttributeType.ARTIFACT);
+
+        assertReadLocked("org.carlspring:a1:1.0:jar");
+    }
+
+    @Test
+    public void snapshotArtifactShouldBeReadWithLock()
+        throws Exception
+    {
+        when(repository.getPolicy()).thenReturn(RepositoryPolicyEnum.SNAPSHOT.getPolicy());
+        doReturn(Boolean.TRUE).when(provider).readRepositoryFileAttribute(repositoryPath,
+                                                                          RepositoryFileAttributeType.ARTIFACT);
+
+        assertReadLocked("org.carlspring:a1:1.0:jar");
+    }
+
+    @Test
+    public void releaseMetadataShouldBeReadWithLock()
+        throws Exception
+    {
+        doReturn(Boolean.FALSE).when(provider).readRepositoryFileAttribute(repositoryPath,
+                                                                           RepositoryFileAttributeType.ARTIFACT);
+        when(repositoryPath.toUri()).thenReturn(new URI("strongbox:/storage0/releases/maven-metadata.xml"));
+
+        assertReadLocked("strongbox:/storage0/releases/maven-metadata.xml");
+    }
+
+    private void assertReadLocked(String lockKey)
+        throws Exception
+    {
+        InputStream is = repositoryPathLock.lockInputStream(repositoryPath,
+                                                            () -> new ByteArrayInputStream(new byte[0]));
+        Lock writeLock = lockService.getLock(lockKey, null).writeLock();
+
+        assertFalse(tryWriteLock(writeLock));
+
+        is.close();
+
+        assertTrue(tryWriteLock(writeLock));
+    }
+
+    private boolean tryWriteLock(Lock writeLock)
+        throws Exception
+    {
+        return CompletableFuture.supplyAsync(() -> {
+            if (!writeLock.tryLock())
+            {
+                return false;
+            }
+
+            writeLock.unlock();
+
+            return true;
+        }).get(5, TimeUnit.SECONDS);
+    }
+
+}
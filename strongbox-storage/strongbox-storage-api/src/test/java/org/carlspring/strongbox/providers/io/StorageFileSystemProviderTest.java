@@ -0,0 +1,66 @@
+package org.carlspring.strongbox.providers.io;
+
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.spi.FileSystemProvider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.mockito.InOrder;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Execution(CONCURRENT)
+public class StorageFileSystemProviderTest
+{
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void moveShouldReplaceTargetAtomically()
+        throws Exception
+    {
+        Path source = Files.write(tempDir.resolve("a1-1.0.jar.tmp"), new byte[]{ 2 });
+        Path target = Files.write(tempDir.resolve("a1-1.0.jar"), new byte[]{ 1 });
+
+        StorageFileSystemProvider.moveAtomically(source, target);
+
+        assertFalse(Files.exists(source));
+        assertArrayEquals(new byte[]{ 2 }, Files.readAllBytes(target));
+    }
+
+    @Test
+    public void moveShouldFallBackWhenAtomicMoveIsNotSupported()
+        throws Exception
+    {
+        FileSystemProvider provider = mock(FileSystemProvider.class);
+        FileSystem fileSystem = mock(FileSystem.class);
+        when(fileSystem.provider()).thenReturn(provider);
+
+        Path source = mock(Path.class);
+        Path target = mock(Path.class);
+        when(source.getFileSystem()).thenReturn(fileSystem);
+        when(target.getFileSystem()).thenReturn(fileSystem);
+
+        doThrow(new AtomicMoveNotSupportedException("source", "target", "test")).when(provider)
+                                                                                .move(source, target,
+                                                                                      StandardCopyOption.ATOMIC_MOVE);
+
+        StorageFileSystemProvider.moveAtomically(source, target);
+
+        InOrder inOrder = inOrder(provider);
+        inOrder.verify(provider).move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        inOrder.verify(provider).move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+}
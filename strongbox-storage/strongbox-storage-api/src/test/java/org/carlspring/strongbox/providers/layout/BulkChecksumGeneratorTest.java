@@ -0,0 +1,210 @@
+package org.carlspring.strongbox.providers.layout;
+
+import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
+import org.carlspring.strongbox.providers.io.RepositoryFileSystemFixture;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.util.MessageDigestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Execution(CONCURRENT)
+public class BulkChecksumGeneratorTest
+{
+
+    private static final String MD5 = MessageDigestAlgorithms.MD5;
+
+    private static final String SHA1 = MessageDigestAlgorithms.SHA_1;
+
+    private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+
+    @TempDir
+    Path storageDir;
+
+    private Path repositoryDir;
+
+    private RepositoryPath rootPath;
+
+    private BulkChecksumGenerator bulkChecksumGenerator;
+
+    @BeforeEach
+    public void setUp()
+    {
+        RepositoryPathLock repositoryPathLock = mock(RepositoryPathLock.class);
+        when(repositoryPathLock.lock(any())).thenReturn(readWriteLock);
+
+        bulkChecksumGenerator = new BulkChecksumGenerator();
+        ReflectionTestUtils.setField(bulkChecksumGenerator, "repositoryPathLock", repositoryPathLock);
+        ReflectionTestUtils.setField(bulkChecksumGenerator, "parallelism", 2);
+        // Smaller than the files, so that they are digested in several reads.
+        ReflectionTestUtils.setField(bulkChecksumGenerator, "bufferSize", 4);
+        ReflectionTestUtils.setField(bulkChecksumGenerator, "progressIntervalSeconds", 30L);
+        bulkChecksumGenerator.afterPropertiesSet();
+
+        RepositoryFileSystemFixture fixture = new RepositoryFileSystemFixture(storageDir, repositoryPath -> {
+            String fileName = repositoryPath.getFileName().toString();
+
+            return Collections.singletonMap(RepositoryFileAttributeType.CHECKSUM,
+                                            fileName.endsWith(".md5") || fileName.endsWith(".sha1"));
+        });
+
+        rootPath = fixture.path("releases", "");
+        repositoryDir = storageDir.resolve("releases");
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        bulkChecksumGenerator.destroy();
+    }
+
+    @Test
+    public void checksumsShouldBeWritten()
+        throws Exception
+    {
+        Path artifactFile = write("a1/1.0/a1-1.0.jar", "strongbox-a1");
+        Path otherArtifactFile = write("a2/1.0/a2-1.0.jar", "strongbox-a2");
+
+        bulkChecksumGenerator.generate(rootPath, false);
+
+        assertChecksums(artifactFile);
+        assertChecksums(otherArtifactFile);
+        // Checksum files have no checksums of their own.
+        assertFalse(Files.exists(repositoryDir.resolve("a1/1.0/a1-1.0.jar.md5.sha1")));
+    }
+
+    @Test
+    public void moreFilesThanCanBeQueuedShouldAllBeDigested()
+        throws Exception
+    {
+        // Four files per thread are queued at most.
+        Path[] artifactFiles = new Path[50];
+        for (int i = 0; i < artifactFiles.length; i++)
+        {
+            artifactFiles[i] = write(String.format("a%s/1.0/a%s-1.0.jar", i, i), "strongbox-a" + i);
+        }
+
+        bulkChecksumGenerator.generate(rootPath, false);
+
+        for (Path artifactFile : artifactFiles)
+        {
+            assertChecksums(artifactFile);
+        }
+    }
+
+    @Test
+    public void upToDateChecksumsShouldBeSkippedUnlessForced()
+        throws Exception
+    {
+        Path artifactFile = write("a1-1.0.jar", "strongbox-a1");
+        write("a1-1.0.jar.md5", "stored-md5");
+        write("a1-1.0.jar.sha1", "stored-sha1");
+
+        bulkChecksumGenerator.generate(rootPath, false);
+
+        assertEquals("stored-md5", read("a1-1.0.jar.md5"));
+        assertEquals("stored-sha1", read("a1-1.0.jar.sha1"));
+
+        bulkChecksumGenerator.generate(rootPath, true);
+
+        assertChecksums(artifactFile);
+    }
+
+    @Test
+    public void staleChecksumsShouldBeRewritten()
+        throws Exception
+    {
+        Path artifactFile = write("a1-1.0.jar", "strongbox-a1");
+        write("a1-1.0.jar.sha1", "stored-sha1");
+
+        bulkChecksumGenerator.generate(rootPath, false);
+
+        assertChecksums(artifactFile);
+    }
+
+    @Test
+    public void checksumsShouldBeWrittenUnderTheReadLock()
+        throws Exception
+    {
+        Path artifactFile = write("a1-1.0.jar", "strongbox-a1");
+
+        CompletableFuture<Void> generation;
+        readWriteLock.writeLock().lock();
+        try
+        {
+            generation = CompletableFuture.runAsync(() -> {
+                try
+                {
+                    bulkChecksumGenerator.generate(rootPath, false);
+                }
+                catch (IOException e)
+                {
+                    throw new RuntimeException(e);
+                }
+            });
+
+            // A deploy holds the write lock, so the file isn't digested until it's done.
+            assertThrows(TimeoutException.class, () -> generation.get(500, TimeUnit.MILLISECONDS));
+            assertFalse(Files.exists(repositoryDir.resolve("a1-1.0.jar.sha1")));
+        }
+        finally
+        {
+            readWriteLock.writeLock().unlock();
+        }
+
+        generation.get(10, TimeUnit.SECONDS);
+
+        assertChecksums(artifactFile);
+    }
+
+    private void assertChecksums(Path artifactFile)
+        throws Exception
+    {
+        assertEquals(MessageDigestUtils.calculateChecksum(artifactFile, MD5),
+                     new String(Files.readAllBytes(artifactFile.resolveSibling(artifactFile.getFileName() + ".md5")),
+                                StandardCharsets.UTF_8));
+        assertEquals(MessageDigestUtils.calculateChecksum(artifactFile, SHA1),
+                     new String(Files.readAllBytes(artifactFile.resolveSibling(artifactFile.getFileName() + ".sha1")),
+                                StandardCharsets.UTF_8));
+    }
+
+    private Path write(String path,
+                       String content)
+        throws IOException
+    {
+        Path file = repositoryDir.resolve(path);
+        Files.createDirectories(file.getParent());
+
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String read(String path)
+        throws IOException
+    {
+        return new String(Files.readAllBytes(repositoryDir.resolve(path)), StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,234 @@
+package org.carlspring.strongbox.providers.layout;
+
+import org.carlspring.strongbox.io.LayoutInputStream;
+import org.carlspring.strongbox.providers.io.LayoutFileSystem;
+import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock.StreamSupplier;
+import org.carlspring.strongbox.storage.repository.ImmutableRepository;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.util.MessageDigestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Execution(CONCURRENT)
+public class LayoutFileSystemProviderTest
+{
+
+    private static final String MD5 = MessageDigestAlgorithms.MD5;
+
+    private static final String SHA1 = MessageDigestAlgorithms.SHA_1;
+
+    private static final byte[] CONTENT = "strongbox".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path repositoryDir;
+
+    private Path artifactFile;
+
+    private RepositoryPath artifactPath;
+
+    @BeforeEach
+    public void setUp()
+        throws IOException
+    {
+        artifactFile = Files.write(repositoryDir.resolve("a1-1.0.jar"), CONTENT);
+
+        TestLayoutFileSystemProvider provider = new TestLayoutFileSystemProvider(FileSystems.getDefault().provider());
+
+        RepositoryPathLock repositoryPathLock = mock(RepositoryPathLock.class);
+        when(repositoryPathLock.lockInputStream(any(), any())).thenAnswer(
+                invocation -> ((StreamSupplier<?>) invocation.getArgument(1)).get());
+        when(repositoryPathLock.lock(any())).thenReturn(new ReentrantReadWriteLock());
+        ReflectionTestUtils.setField(provider, "repositoryPathLock", repositoryPathLock);
+
+        BulkChecksumGenerator bulkChecksumGenerator = new BulkChecksumGenerator();
+        ReflectionTestUtils.setField(bulkChecksumGenerator, "repositoryPathLock", repositoryPathLock);
+        ReflectionTestUtils.setField(bulkChecksumGenerator, "bufferSize", 4);
+        ReflectionTestUtils.setField(provider, "bulkChecksumGenerator", bulkChecksumGenerator);
+
+        MutableRepository repository = new MutableRepository();
+        repository.setBasedir(repositoryDir.toString());
+
+        LayoutFileSystem fileSystem = new LayoutFileSystem(new ImmutableRepository(repository),
+                                                           FileSystems.getDefault(), provider)
+        {
+            @Override
+            public Set<String> getDigestAlgorithmSet()
+            {
+                return new LinkedHashSet<>(Arrays.asList(MD5, SHA1));
+            }
+        };
+
+        artifactPath = fileSystem.getRootDirectory().resolve("a1-1.0.jar");
+    }
+
+    @Test
+    public void storedChecksumsShouldBeReadWithoutDigesting()
+        throws Exception
+    {
+        writeChecksum("md5", "stored-md5");
+        writeChecksum("sha1", "stored-sha1");
+
+        try (LayoutInputStream is = (LayoutInputStream) Files.newInputStream(artifactPath))
+        {
+            assertFalse(is.hasAlgorithm(MD5));
+            assertFalse(is.hasAlgorithm(SHA1));
+
+            IOUtils.copy(is, NullOutputStream.NULL_OUTPUT_STREAM);
+
+            assertEquals("stored-md5", is.getMessageDigestAsHexadecimalString(MD5));
+            assertEquals("stored-sha1", is.getMessageDigestAsHexadecimalString(SHA1));
+        }
+    }
+
+    @Test
+    public void missingChecksumShouldBeDigested()
+        throws Exception
+    {
+        writeChecksum("sha1", "stored-sha1");
+
+        LayoutInputStream is = (LayoutInputStream) Files.newInputStream(artifactPath);
+        try
+        {
+            assertTrue(is.hasAlgorithm(MD5));
+            assertFalse(is.hasAlgorithm(SHA1));
+
+            IOUtils.copy(is, NullOutputStream.NULL_OUTPUT_STREAM);
+        }
+        finally
+        {
+            is.close();
+        }
+
+        assertEquals(MessageDigestUtils.calculateChecksum(artifactFile, MD5),
+                     is.getMessageDigestAsHexadecimalString(MD5));
+        assertEquals("stored-sha1", is.getMessageDigestAsHexadecimalString(SHA1));
+    }
+
+    @Test
+    public void emptyChecksumFileShouldBeDigested()
+        throws Exception
+    {
+        writeChecksum("md5", "");
+        writeChecksum("sha1", "stored-sha1");
+
+        try (LayoutInputStream is = (LayoutInputStream) Files.newInputStream(artifactPath))
+        {
+            assertTrue(is.hasAlgorithm(MD5));
+            assertFalse(is.hasAlgorithm(SHA1));
+        }
+    }
+
+    @Test
+    public void checksumFileShouldNotBeDigested()
+        throws Exception
+    {
+        writeChecksum("md5", "stored-md5");
+
+        try (LayoutInputStream is = (LayoutInputStream) Files.newInputStream(artifactPath.resolveSibling(
+                "a1-1.0.jar.md5")))
+        {
+            assertFalse(is.hasAlgorithm(MD5));
+            assertFalse(is.hasAlgorithm(SHA1));
+            assertTrue(is.getHexDigests().isEmpty());
+        }
+    }
+
+    @Test
+    public void writeChecksumShouldWriteOnlyTheMissingChecksums()
+        throws Exception
+    {
+        writeChecksum("md5", "stored-md5");
+
+        ((LayoutFileSystemProvider) artifactPath.getFileSystem().provider()).writeChecksum(artifactPath, false);
+
+        assertEquals("stored-md5", readChecksum("md5"));
+        assertEquals(MessageDigestUtils.calculateChecksum(artifactFile, SHA1), readChecksum("sha1"));
+    }
+
+    @Test
+    public void writeChecksumShouldRewriteAllTheChecksumsWhenForced()
+        throws Exception
+    {
+        writeChecksum("md5", "stored-md5");
+        writeChecksum("sha1", "stored-sha1");
+
+        ((LayoutFileSystemProvider) artifactPath.getFileSystem().provider()).writeChecksum(artifactPath, true);
+
+        assertEquals(MessageDigestUtils.calculateChecksum(artifactFile, MD5), readChecksum("md5"));
+        assertEquals(MessageDigestUtils.calculateChecksum(artifactFile, SHA1), readChecksum("sha1"));
+    }
+
+    private String readChecksum(String extension)
+        throws IOException
+    {
+        return new String(Files.readAllBytes(repositoryDir.resolve("a1-1.0.jar." + extension)), StandardCharsets.UTF_8);
+    }
+
+    private void writeChecksum(String extension,
+                               String checksum)
+        throws IOException
+    {
+        Files.write(repositoryDir.resolve("a1-1.0.jar." + extension), checksum.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class TestLayoutFileSystemProvider
+            extends LayoutFileSystemProvider
+    {
+
+        private TestLayoutFileSystemProvider(FileSystemProvider storageFileSystemProvider)
+        {
+            super(storageFileSystemProvider);
+        }
+
+        @Override
+        protected AbstractLayoutProvider getLayoutProvider()
+        {
+            return null;
+        }
+
+        @Override
+        protected Map<RepositoryFileAttributeType, Object> getRepositoryFileAttributes(RepositoryPath repositoryPath,
+                                                                                       RepositoryFileAttributeType... attributeTypes)
+        {
+            String fileName = repositoryPath.getFileName().toString();
+
+            Map<RepositoryFileAttributeType, Object> result = new EnumMap<>(RepositoryFileAttributeType.class);
+            result.put(RepositoryFileAttributeType.CHECKSUM, fileName.endsWith(".md5") || fileName.endsWith(".sha1"));
+            result.put(RepositoryFileAttributeType.ARTIFACT, Boolean.FALSE);
+
+            return result;
+        }
+
+    }
+
+}
@@ -0,0 +1,132 @@
+package org.carlspring.strongbox.providers.repository;
+
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinates;
+import org.carlspring.strongbox.domain.ArtifactEntry;
+import org.carlspring.strongbox.event.artifact.ArtifactEventListenerRegistry;
+import org.carlspring.strongbox.providers.io.LayoutFileSystem;
+import org.carlspring.strongbox.providers.io.LocalRepositoryLockService;
+import org.carlspring.strongbox.providers.io.RepositoryFileAttributeType;
+import org.carlspring.strongbox.providers.io.RepositoryLockService;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.providers.io.RepositoryStreamSupport.RepositoryInputStream;
+import org.carlspring.strongbox.providers.io.StorageFileSystemProvider;
+import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.storage.repository.RepositoryPolicyEnum;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.mockito.Mock;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+/**
+ * Checks the locking of the artifact reads through the {@link RepositoryInputStream}s of the
+ * {@link HostedRepositoryProvider}.
+ */
+@Execution(CONCURRENT)
+public class HostedRepositoryProviderTest
+{
+
+    private static final String LOCK_KEY = "org.carlspring:a1:1.0:jar";
+
+    @Mock
+    private RepositoryPath repositoryPath;
+
+    @Mock
+    private LayoutFileSystem fileSystem;
+
+    @Mock
+    private StorageFileSystemProvider provider;
+
+    @Mock
+    private Repository repository;
+
+    @Mock
+    private ArtifactCoordinates coordinates;
+
+    @Mock
+    private ArtifactEventListenerRegistry artifactEventListenerRegistry;
+
+    private RepositoryLockService lockService;
+
+    private HostedRepositoryProvider hostedRepositoryProvider;
+
+    @BeforeEach
+    public void setUp()
+        throws Exception
+    {
+        initMocks(this);
+
+        when(repositoryPath.getFileSystem()).thenReturn(fileSystem);
+        when(repositoryPath.getRepository()).thenReturn(repository);
+        when(repositoryPath.getArtifactEntry()).thenReturn(new ArtifactEntry());
+        when(fileSystem.provider()).thenReturn(provider);
+        when(coordinates.getId()).thenReturn(LOCK_KEY);
+        doReturn(coordinates).when(provider).readRepositoryFileAttribute(repositoryPath,
+                                                                         RepositoryFileAttributeType.COORDINATES);
+        doReturn(Boolean.TRUE).when(provider).readRepositoryFileAttribute(repositoryPath,
+                                                                          RepositoryFileAttributeType.ARTIFACT);
+        when(provider.newInputStream(eq(repositoryPath), any())).thenReturn(new ByteArrayInputStream(new byte[]{ 1 }));
+
+        when(repository.isHostedRepository()).thenReturn(true);
+        when(repository.getPolicy()).thenReturn(RepositoryPolicyEnum.RELEASE.getPolicy());
+        when(repository.allowsRedeployment()).thenReturn(false);
+
+        lockService = spy(new LocalRepositoryLockService(1024));
+
+        RepositoryPathLock repositoryPathLock = new RepositoryPathLock();
+        ReflectionTestUtils.setField(repositoryPathLock, "lockService", lockService);
+
+        hostedRepositoryProvider = new HostedRepositoryProvider();
+        ReflectionTestUtils.setField(hostedRepositoryProvider, "repositoryPathLock", repositoryPathLock);
+        ReflectionTestUtils.setField(hostedRepositoryProvider, "artifactEventListenerRegistry",
+                                     artifactEventListenerRegistry);
+    }
+
+    @Test
+    public void immutableReleaseArtifactShouldBeReadWithoutLock()
+        throws Exception
+    {
+        read();
+
+        verify(lockService, never()).getLock(any(), any());
+    }
+
+    @Test
+    public void redeployableArtifactShouldBeReadWithLock()
+        throws Exception
+    {
+        when(repository.allowsRedeployment()).thenReturn(true);
+
+        read();
+
+        verify(lockService).getLock(eq(LOCK_KEY), isNull());
+    }
+
+    private void read()
+        throws Exception
+    {
+        try (RepositoryInputStream is = hostedRepositoryProvider.getInputStream(repositoryPath))
+        {
+            assertEquals(1, is.read());
+        }
+
+        verify(artifactEventListenerRegistry).dispatchArtifactDownloadingEvent(repositoryPath);
+        verify(artifactEventListenerRegistry).dispatchArtifactDownloadedEvent(repositoryPath);
+    }
+
+}
@@ -0,0 +1,196 @@
+package org.carlspring.strongbox.providers.repository.group;
+
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositoryParallelLookup.ProbeResult;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+import static org.mockito.Mockito.mock;
+
+@Execution(CONCURRENT)
+public class GroupRepositoryParallelLookupTest
+{
+
+    private final RepositoryPath member1 = mock(RepositoryPath.class);
+
+    private final RepositoryPath member2 = mock(RepositoryPath.class);
+
+    private final RepositoryPath member3 = mock(RepositoryPath.class);
+
+    private final List<RepositoryPath> fetched = Collections.synchronizedList(new ArrayList<>());
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp()
+    {
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void firstMemberInGroupOrderShouldWin()
+        throws Exception
+    {
+        CountDownLatch member2Probed = new CountDownLatch(1);
+        GroupRepositoryParallelLookup lookup = new GroupRepositoryParallelLookup(executor, 3);
+
+        RepositoryPath result = lookup.lookup(members(), candidate -> {
+            if (candidate == member1)
+            {
+                // The member which is awaited answers after the one behind it.
+                member2Probed.await(5, TimeUnit.SECONDS);
+            }
+            else if (candidate == member2)
+            {
+                member2Probed.countDown();
+            }
+
+            return ProbeResult.FOUND;
+        }, this::fetch);
+
+        assertSame(member1, result);
+        assertEquals(Collections.singletonList(member1), fetched);
+    }
+
+    @Test
+    public void membersProbedAsMissingShouldNotBeFetched()
+        throws Exception
+    {
+        GroupRepositoryParallelLookup lookup = new GroupRepositoryParallelLookup(executor, 3);
+
+        RepositoryPath result = lookup.lookup(members(), candidate -> candidate == member3 ? ProbeResult.FOUND
+                : ProbeResult.NOT_FOUND, this::fetch);
+
+        assertSame(member3, result);
+        assertEquals(Collections.singletonList(member3), fetched);
+    }
+
+    @Test
+    public void unknownMembersShouldBeFetchedInGroupOrder()
+        throws Exception
+    {
+        GroupRepositoryParallelLookup lookup = new GroupRepositoryParallelLookup(executor, 2);
+
+        RepositoryPath result = lookup.lookup(members(), candidate -> ProbeResult.UNKNOWN,
+                                              candidate -> fetch(candidate) == member3 ? member3 : null);
+
+        assertSame(member3, result);
+        assertEquals(members(), fetched);
+    }
+
+    @Test
+    public void failedProbeShouldFallBackToFetch()
+        throws Exception
+    {
+        GroupRepositoryParallelLookup lookup = new GroupRepositoryParallelLookup(executor, 3);
+
+        RepositoryPath result = lookup.lookup(members(), candidate -> {
+            throw new IOException("Broken member");
+        }, this::fetch);
+
+        assertSame(member1, result);
+    }
+
+    @Test
+    public void membersShouldBeFetchedInRequestingThread()
+        throws Exception
+    {
+        Thread requestingThread = Thread.currentThread();
+        GroupRepositoryParallelLookup lookup = new GroupRepositoryParallelLookup(executor, 3);
+
+        RepositoryPath result = lookup.lookup(members(), candidate -> ProbeResult.UNKNOWN, candidate -> {
+            assertSame(requestingThread, Thread.currentThread());
+
+            return candidate == member2 ? candidate : null;
+        });
+
+        assertSame(member2, result);
+    }
+
+    @Test
+    public void pendingProbesShouldBeCancelled()
+        throws Exception
+    {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger member3Probes = new AtomicInteger();
+
+        // With a single probe thread, the probe of the third member is still queued behind the second one when the
+        // first member wins.
+        ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor();
+        try
+        {
+            GroupRepositoryParallelLookup lookup = new GroupRepositoryParallelLookup(singleThreadExecutor, 3);
+
+            RepositoryPath result = lookup.lookup(members(), candidate -> {
+                if (candidate == member2)
+                {
+                    release.await(5, TimeUnit.SECONDS);
+                }
+                else if (candidate == member3)
+                {
+                    member3Probes.incrementAndGet();
+                }
+
+                return candidate == member1 ? ProbeResult.FOUND : ProbeResult.NOT_FOUND;
+            }, this::fetch);
+
+            release.countDown();
+            singleThreadExecutor.shutdown();
+            assertTrue(singleThreadExecutor.awaitTermination(5, TimeUnit.SECONDS));
+
+            assertSame(member1, result);
+            assertEquals(0, member3Probes.get());
+        }
+        finally
+        {
+            singleThreadExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void missingPathShouldResolveToNull()
+        throws Exception
+    {
+        GroupRepositoryParallelLookup lookup = new GroupRepositoryParallelLookup(executor, 3);
+
+        assertNull(lookup.lookup(members(), candidate -> ProbeResult.NOT_FOUND, this::fetch));
+        assertTrue(fetched.isEmpty());
+    }
+
+    private List<RepositoryPath> members()
+    {
+        return Arrays.asList(member1, member2, member3);
+    }
+
+    private RepositoryPath fetch(RepositoryPath candidate)
+    {
+        fetched.add(candidate);
+
+        return candidate;
+    }
+
+}
@@ -0,0 +1,167 @@
+package org.carlspring.strongbox.providers.repository.group;
+
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryFileSystemFixture;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.repository.group.GroupRepositoryPathCache.CachedMember;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@Execution(CONCURRENT)
+public class GroupRepositoryPathCacheTest
+{
+
+    private static final String ARTIFACT_PATH = "org/carlspring/a1/1.0/a1-1.0.jar";
+
+    private static final String GROUP1 = "group1";
+
+    private static final String GROUP2 = "group2";
+
+    @TempDir
+    Path storageDir;
+
+    private RepositoryFileSystemFixture fixture;
+
+    private Repository member;
+
+    private GroupRepositoryPathCache pathCache;
+
+    @BeforeEach
+    public void setUp()
+    {
+        fixture = new RepositoryFileSystemFixture(storageDir);
+        member = fixture.path("releases", "").getRepository();
+
+        pathCache = new GroupRepositoryPathCache();
+        ReflectionTestUtils.setField(pathCache, "enabled", true);
+        ReflectionTestUtils.setField(pathCache, "maxSize", 3);
+        ReflectionTestUtils.setField(pathCache, "ttlSeconds", 60L);
+        pathCache.afterPropertiesSet();
+    }
+
+    @Test
+    public void cacheShouldBeDisabledByDefault()
+        throws Exception
+    {
+        GroupRepositoryPathCache defaultPathCache = new GroupRepositoryPathCache();
+        defaultPathCache.afterPropertiesSet();
+
+        defaultPathCache.put(newPath(GROUP1, ARTIFACT_PATH), member);
+
+        assertNull(defaultPathCache.get(newPath(GROUP1, ARTIFACT_PATH)));
+    }
+
+    @Test
+    public void resolvedMemberShouldBeRemembered()
+        throws Exception
+    {
+        pathCache.put(newPath(GROUP1, ARTIFACT_PATH), member);
+
+        CachedMember cachedMember = pathCache.get(newPath(GROUP1, ARTIFACT_PATH));
+        assertNotNull(cachedMember);
+        assertEquals("storage0", cachedMember.getStorageId());
+        assertEquals("releases", cachedMember.getRepositoryId());
+
+        assertNull(pathCache.get(newPath(GROUP2, ARTIFACT_PATH)));
+    }
+
+    @Test
+    public void storedPathShouldBeInvalidatedInAllGroups()
+        throws Exception
+    {
+        String otherPath = "org/carlspring/a1/1.0/a1-1.0.pom";
+        pathCache.put(newPath(GROUP1, ARTIFACT_PATH), member);
+        pathCache.put(newPath(GROUP2, ARTIFACT_PATH), member);
+        pathCache.put(newPath(GROUP1, otherPath), member);
+
+        pathCache.handle(new ArtifactEvent<>(newPath(member.getId(), ARTIFACT_PATH),
+                                             ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType()));
+
+        assertNull(pathCache.get(newPath(GROUP1, ARTIFACT_PATH)));
+        assertNull(pathCache.get(newPath(GROUP2, ARTIFACT_PATH)));
+        assertNotNull(pathCache.get(newPath(GROUP1, otherPath)));
+        assertEquals(1, pathCache.size());
+    }
+
+    @Test
+    public void deletedDirectoryShouldInvalidateItsSubtree()
+        throws Exception
+    {
+        String siblingPath = "org/carlspring/a10/1.0/a10-1.0.jar";
+        pathCache.put(newPath(GROUP1, ARTIFACT_PATH), member);
+        pathCache.put(newPath(GROUP1, "org/carlspring/a1/2.0/a1-2.0.jar"), member);
+        pathCache.put(newPath(GROUP1, siblingPath), member);
+
+        pathCache.handle(new ArtifactEvent<>(newPath(member.getId(), "org/carlspring/a1"),
+                                             ArtifactEventTypeEnum.EVENT_ARTIFACT_PATH_DELETED.getType()));
+
+        assertNull(pathCache.get(newPath(GROUP1, ARTIFACT_PATH)));
+        assertNull(pathCache.get(newPath(GROUP1, "org/carlspring/a1/2.0/a1-2.0.jar")));
+        assertNotNull(pathCache.get(newPath(GROUP1, siblingPath)));
+        assertEquals(1, pathCache.size());
+    }
+
+    @Test
+    public void otherEventsShouldNotInvalidate()
+        throws Exception
+    {
+        pathCache.put(newPath(GROUP1, ARTIFACT_PATH), member);
+
+        pathCache.handle(new ArtifactEvent<>(newPath(member.getId(), ARTIFACT_PATH),
+                                             ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_DOWNLOADED.getType()));
+
+        assertNotNull(pathCache.get(newPath(GROUP1, ARTIFACT_PATH)));
+    }
+
+    @Test
+    public void cacheShouldBeBounded()
+        throws Exception
+    {
+        for (int i = 0; i < 10; i++)
+        {
+            pathCache.put(newPath(GROUP1, "a" + i), member);
+        }
+
+        assertEquals(3, pathCache.size());
+        assertNotNull(pathCache.get(newPath(GROUP1, "a9")));
+
+        // Evicted entries are dropped from the path index as well.
+        for (int i = 0; i < 10; i++)
+        {
+            pathCache.invalidate("a" + i);
+        }
+        assertEquals(0, pathCache.size());
+    }
+
+    @Test
+    public void invalidateAllShouldDropEverything()
+        throws Exception
+    {
+        pathCache.put(newPath(GROUP1, ARTIFACT_PATH), member);
+        pathCache.put(newPath(GROUP2, ARTIFACT_PATH), member);
+
+        pathCache.invalidateAll();
+
+        assertEquals(0, pathCache.size());
+        assertNull(pathCache.get(newPath(GROUP1, ARTIFACT_PATH)));
+    }
+
+    private RepositoryPath newPath(String repositoryId,
+                                   String path)
+    {
+        return fixture.path(repositoryId, path);
+    }
+
+}
@@ -0,0 +1,165 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.event.artifact.ArtifactEvent;
+import org.carlspring.strongbox.event.artifact.ArtifactEventTypeEnum;
+import org.carlspring.strongbox.event.repository.RepositoryEvent;
+import org.carlspring.strongbox.event.repository.RepositoryEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.repository.ImmutableRepository;
+import org.carlspring.strongbox.storage.repository.remote.MutableRemoteRepository;
+import org.carlspring.strongbox.storage.repository.remote.RemoteRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.mockito.Mock;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+@Execution(CONCURRENT)
+public class ProxyRepositoryNegativeCacheTest
+{
+
+    private static final String PATH = "org/carlspring/a1/1.0/a1-1.0-sources.jar";
+
+    @Mock
+    private ImmutableRepository repository;
+
+    @Mock
+    private RemoteRepository remoteRepository;
+
+    private ProxyRepositoryNegativeCache negativeCache;
+
+    @BeforeEach
+    public void setUp()
+    {
+        initMocks(this);
+
+        Storage storage = mock(Storage.class);
+        when(storage.getId()).thenReturn("storage0");
+        when(repository.getStorage()).thenReturn(storage);
+        when(repository.getId()).thenReturn("proxy");
+        when(repository.getRemoteRepository()).thenReturn(remoteRepository);
+        when(remoteRepository.getNegativeCacheTtlSeconds()).thenReturn(60);
+        when(remoteRepository.getNegativeCacheMaxSize()).thenReturn(2);
+
+        negativeCache = new ProxyRepositoryNegativeCache();
+    }
+
+    @Test
+    public void missingPathShouldBeRemembered()
+        throws Exception
+    {
+        assertFalse(negativeCache.isNotFound(newPath(PATH)));
+
+        negativeCache.putNotFound(newPath(PATH));
+
+        assertTrue(negativeCache.isNotFound(newPath(PATH)));
+        assertFalse(negativeCache.isNotFound(newPath("org/carlspring/a1/1.0/a1-1.0.jar")));
+    }
+
+    @Test
+    public void cacheShouldBeDisabledByDefault()
+        throws Exception
+    {
+        assertEquals(0, MutableRemoteRepository.DEFAULT_NEGATIVE_CACHE_TTL_SECONDS);
+        when(remoteRepository.getNegativeCacheTtlSeconds()).thenReturn(
+                MutableRemoteRepository.DEFAULT_NEGATIVE_CACHE_TTL_SECONDS);
+
+        negativeCache.putNotFound(newPath(PATH));
+
+        assertFalse(negativeCache.isNotFound(newPath(PATH)));
+        assertEquals(0, negativeCache.size());
+    }
+
+    @Test
+    public void expiredEntryShouldBeDropped()
+        throws Exception
+    {
+        when(remoteRepository.getNegativeCacheTtlSeconds()).thenReturn(1);
+        negativeCache.putNotFound(newPath(PATH));
+        assertTrue(negativeCache.isNotFound(newPath(PATH)));
+
+        Thread.sleep(1100);
+
+        assertFalse(negativeCache.isNotFound(newPath(PATH)));
+        assertEquals(0, negativeCache.size());
+    }
+
+    @Test
+    public void disabledCacheShouldDropEntries()
+        throws Exception
+    {
+        negativeCache.putNotFound(newPath(PATH));
+
+        when(remoteRepository.getNegativeCacheTtlSeconds()).thenReturn(0);
+        assertFalse(negativeCache.isNotFound(newPath(PATH)));
+        assertEquals(0, negativeCache.size());
+
+        when(remoteRepository.getNegativeCacheTtlSeconds()).thenReturn(60);
+        assertFalse(negativeCache.isNotFound(newPath(PATH)));
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryShouldBeEvicted()
+        throws Exception
+    {
+        negativeCache.putNotFound(newPath("a1"));
+        negativeCache.putNotFound(newPath("a2"));
+        assertTrue(negativeCache.isNotFound(newPath("a1")));
+
+        negativeCache.putNotFound(newPath("a3"));
+
+        assertTrue(negativeCache.isNotFound(newPath("a1")));
+        assertFalse(negativeCache.isNotFound(newPath("a2")));
+        assertTrue(negativeCache.isNotFound(newPath("a3")));
+    }
+
+    @Test
+    public void storedPathShouldBeInvalidated()
+        throws Exception
+    {
+        negativeCache.putNotFound(newPath(PATH));
+
+        negativeCache.handle(new ArtifactEvent<>(newPath(PATH),
+                                                 ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType()));
+
+        assertFalse(negativeCache.isNotFound(newPath(PATH)));
+    }
+
+    @Test
+    public void deletedRepositoryEntriesShouldBeDropped()
+        throws Exception
+    {
+        negativeCache.putNotFound(newPath(PATH));
+        assertEquals(1, negativeCache.size());
+
+        negativeCache.handle(new RepositoryEvent("storage0", "other",
+                                                 RepositoryEventTypeEnum.EVENT_REPOSITORY_DELETED.getType()));
+        assertEquals(1, negativeCache.size());
+
+        negativeCache.handle(new RepositoryEvent("storage0", "proxy",
+                                                 RepositoryEventTypeEnum.EVENT_REPOSITORY_DELETED.getType()));
+
+        assertEquals(0, negativeCache.size());
+        assertFalse(negativeCache.isNotFound(newPath(PATH)));
+    }
+
+    private RepositoryPath newPath(String path)
+    {
+        RepositoryPath repositoryPath = mock(RepositoryPath.class);
+        when(repositoryPath.getRepository()).thenReturn(repository);
+        // The relative path is memoized in the path itself.
+        ReflectionTestUtils.setField(repositoryPath, "path", path);
+
+        return repositoryPath;
+    }
+
+}
@@ -0,0 +1,301 @@
+package org.carlspring.strongbox.providers.repository.proxied;
+
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Execution(CONCURRENT)
+public class TeeDownloadTest
+{
+
+    private static final int CONTENT_LENGTH = 256 * 1024;
+
+    @TempDir
+    Path spoolDirectory;
+
+    @Test
+    public void concurrentReadersShouldGetWholeContent()
+        throws Exception
+    {
+        byte[] content = newContent();
+        TeeDownload download = new TeeDownload(mock(RepositoryPath.class), spoolDirectory);
+
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try
+        {
+            List<Future<byte[]>> readers = new ArrayList<>();
+            for (int i = 0; i < 4; i++)
+            {
+                InputStream is = download.newInputStream();
+                readers.add(executor.submit(() -> {
+                    try (InputStream spool = is)
+                    {
+                        return IOUtils.toByteArray(spool);
+                    }
+                }));
+            }
+
+            Future<Void> writer = executor.submit(() -> store(download, new SlowInputStream(content)));
+
+            for (Future<byte[]> reader : readers)
+            {
+                assertArrayEquals(content, reader.get(30, TimeUnit.SECONDS));
+            }
+            writer.get(30, TimeUnit.SECONDS);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        assertTrue(download.sweep());
+        assertFalse(Files.exists(download.getSpoolPath()));
+    }
+
+    @Test
+    public void readersShouldFailWhenUpstreamIsAborted()
+        throws Exception
+    {
+        byte[] content = newContent();
+        TeeDownload download = new TeeDownload(mock(RepositoryPath.class), spoolDirectory);
+        InputStream reader = download.newInputStream();
+
+        CompletableFuture.runAsync(() -> store(download, new SlowInputStream(content, CONTENT_LENGTH / 2)));
+
+        assertThrows(IOException.class, () -> IOUtils.toByteArray(reader));
+        assertFalse(download.sweep());
+
+        reader.close();
+
+        assertTrue(download.sweep());
+        assertFalse(Files.exists(download.getSpoolPath()));
+    }
+
+    @Test
+    public void spoolShouldBeDeletedWhenDoneWithoutReaders()
+        throws Exception
+    {
+        TeeDownload download = new TeeDownload(mock(RepositoryPath.class), spoolDirectory);
+        assertTrue(Files.exists(download.getSpoolPath()));
+
+        store(download, new ByteArrayInputStream(newContent()));
+
+        assertFalse(Files.exists(download.getSpoolPath()));
+        assertNull(download.newInputStream());
+    }
+
+    @Test
+    public void abandonedReaderShouldBeSwept()
+        throws Exception
+    {
+        TeeDownload download = new TeeDownload(mock(RepositoryPath.class), spoolDirectory);
+        download.newInputStream();
+
+        store(download, new ByteArrayInputStream(newContent()));
+
+        for (int i = 0; i < 50 && !download.sweep(); i++)
+        {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertTrue(download.sweep());
+        assertFalse(Files.exists(download.getSpoolPath()));
+    }
+
+    @Test
+    public void skippedBytesShouldBeSpooled()
+        throws Exception
+    {
+        byte[] content = newContent();
+        TeeDownload download = new TeeDownload(mock(RepositoryPath.class), spoolDirectory);
+        InputStream reader = download.newInputStream();
+
+        InputStream tee = download.connect(new ByteArrayInputStream(content), content.length);
+        assertEquals(1000, tee.skip(1000));
+        IOUtils.toByteArray(tee);
+        download.complete();
+
+        assertEquals(100, reader.skip(100));
+        byte[] rest = IOUtils.toByteArray(reader);
+        reader.close();
+
+        assertEquals(content.length - 100, rest.length);
+        assertEquals(content[100], rest[0]);
+        assertEquals(0, reader.skip(1));
+    }
+
+    @Test
+    public void concurrentStartsShouldShareDownload()
+        throws Exception
+    {
+        RepositoryPath repositoryPath = mock(RepositoryPath.class);
+        when(repositoryPath.toUri()).thenReturn(new URI("strongbox:/storage0/proxy/a1-1.0.jar"));
+
+        TeeDownloadRegistry registry = new TeeDownloadRegistry()
+        {
+            @Override
+            TeeDownload newDownload(RepositoryPath repositoryPath)
+                throws IOException
+            {
+                return new TeeDownload(repositoryPath, spoolDirectory);
+            }
+        };
+        ReflectionTestUtils.setField(registry, "threads", 2);
+        registry.afterPropertiesSet();
+        try
+        {
+            CountDownLatch finish = new CountDownLatch(1);
+            AtomicInteger executions = new AtomicInteger();
+            TeeDownloadRegistry.TeeDownloadTask task = d -> {
+                executions.incrementAndGet();
+                InputStream tee = d.connect(new ByteArrayInputStream(new byte[]{ 1 }), 1);
+                try
+                {
+                    finish.await(30, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                IOUtils.toByteArray(tee);
+            };
+
+            TeeDownload first = registry.start(repositoryPath, task);
+            TeeDownload second = registry.start(repositoryPath, task);
+
+            assertSame(first, second);
+            assertSame(first, registry.get(repositoryPath));
+            assertEquals(1, executions.get());
+
+            finish.countDown();
+            for (int i = 0; i < 100 && registry.get(repositoryPath) != null; i++)
+            {
+                Thread.sleep(10);
+            }
+
+            assertNull(registry.get(repositoryPath));
+            assertEquals(0, registry.getDrainingCount());
+        }
+        finally
+        {
+            registry.destroy();
+        }
+    }
+
+    private static byte[] newContent()
+    {
+        byte[] content = new byte[CONTENT_LENGTH];
+        new Random(CONTENT_LENGTH).nextBytes(content);
+
+        return content;
+    }
+
+    private static Void store(TeeDownload download,
+                              InputStream remote)
+    {
+        try (InputStream tee = download.connect(remote, CONTENT_LENGTH))
+        {
+            IOUtils.toByteArray(tee);
+            download.complete();
+        }
+        catch (IOException e)
+        {
+            download.fail(e);
+        }
+
+        return null;
+    }
+
+    /**
+     * Remote stream which delivers the content in small chunks, and optionally breaks after some bytes.
+     */
+    private static class SlowInputStream
+            extends InputStream
+    {
+
+        private final byte[] content;
+
+        private final int failAt;
+
+        private int position;
+
+        private SlowInputStream(byte[] content)
+        {
+            this(content, -1);
+        }
+
+        private SlowInputStream(byte[] content,
+                                int failAt)
+        {
+            this.content = content;
+            this.failAt = failAt;
+        }
+
+        @Override
+        public int read()
+            throws IOException
+        {
+            byte[] b = new byte[1];
+
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b,
+                        int off,
+                        int len)
+            throws IOException
+        {
+            if (failAt >= 0 && position >= failAt)
+            {
+                throw new IOException("Connection reset");
+            }
+            if (position == content.length)
+            {
+                return -1;
+            }
+
+            Thread.yield();
+
+            int n = Math.min(Math.min(len, 4096), content.length - position);
+            System.arraycopy(content, position, b, off, n);
+            position += n;
+
+            return n;
+        }
+
+    }
+
+}
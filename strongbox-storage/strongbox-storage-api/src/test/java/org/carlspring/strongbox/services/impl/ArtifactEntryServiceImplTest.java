@@ -0,0 +1,146 @@
+package org.carlspring.strongbox.services.impl;
+
+import org.carlspring.strongbox.artifact.coordinates.ArtifactCoordinatesSearchIndex;
+import org.carlspring.strongbox.data.criteria.PageCursor;
+import org.carlspring.strongbox.data.criteria.Paginator;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.javatuples.Pair;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
+
+@Execution(CONCURRENT)
+public class ArtifactEntryServiceImplTest
+{
+
+    private static final String REPOSITORY_CONDITION = "(storageId = :storageId0 AND repositoryId = :repositoryId0)";
+
+    @Test
+    public void strictLookupShouldUseExactTokens()
+    {
+        String query = buildQuery(false, true, true);
+
+        assertEquals("SELECT * FROM ArtifactEntry WHERE artifactCoordinates IN (SELECT FROM AbstractArtifactCoordinates"
+                     + " WHERE searchTokens CONTAINS :groupId AND searchTokens CONTAINS :artifactId) AND "
+                     + REPOSITORY_CONDITION,
+                     query);
+    }
+
+    @Test
+    public void substringLookupShouldUseNgramTokens()
+    {
+        String query = buildQuery(true, false, true);
+
+        assertEquals("SELECT * FROM ArtifactEntry WHERE"
+                     + " artifactCoordinates.coordinates.artifactId.toLowerCase() like :artifactId"
+                     + " AND artifactCoordinates IN (SELECT FROM AbstractArtifactCoordinates"
+                     + " WHERE searchTokens CONTAINS :groupIdNgram0 AND searchTokens CONTAINS :groupIdNgram1"
+                     + " AND coordinates.groupId.toLowerCase() like :groupId) AND "
+                     + REPOSITORY_CONDITION,
+                     query);
+    }
+
+    @Test
+    public void substringLookupWithoutNgramsShouldNotUseSubquery()
+    {
+        String query = buildQuery(false, false, true);
+
+        assertEquals("SELECT * FROM ArtifactEntry WHERE"
+                     + " artifactCoordinates.coordinates.groupId.toLowerCase() like :groupId"
+                     + " AND artifactCoordinates.coordinates.artifactId.toLowerCase() like :artifactId AND "
+                     + REPOSITORY_CONDITION,
+                     query);
+    }
+
+    @Test
+    public void lookupShouldFallBackToScanUntilIndexIsReady()
+    {
+        String query = buildQuery(true, true, false);
+
+        assertEquals("SELECT * FROM ArtifactEntry WHERE"
+                     + " artifactCoordinates.coordinates.groupId.toLowerCase() = :groupId"
+                     + " AND artifactCoordinates.coordinates.artifactId.toLowerCase() = :artifactId AND "
+                     + REPOSITORY_CONDITION,
+                     query);
+    }
+
+    @Test
+    public void firstKeysetPageShouldBeOrderedByUuid()
+    {
+        Paginator paginator = new Paginator();
+        paginator.setKeyset(true);
+        paginator.setLimit(10);
+
+        String query = newArtifactEntryService(false).buildCoordinatesKeysetQuery(repositories(), coordinates(),
+                                                                                  paginator, true, false);
+
+        assertEquals("SELECT * FROM ArtifactEntry WHERE"
+                     + " artifactCoordinates.coordinates.groupId.toLowerCase() = :groupId"
+                     + " AND artifactCoordinates.coordinates.artifactId.toLowerCase() = :artifactId AND "
+                     + REPOSITORY_CONDITION + " ORDER BY uuid LIMIT 10",
+                     query);
+    }
+
+    @Test
+    public void nextKeysetPageShouldSeekAfterCursor()
+    {
+        Paginator paginator = new Paginator();
+        paginator.setKeyset(true);
+        paginator.setLimit(10);
+        paginator.setAfter(new PageCursor(null, "uuid-10"));
+
+        String query = newArtifactEntryService(false).buildCoordinatesKeysetQuery(repositories(), coordinates(),
+                                                                                  paginator, true, false);
+
+        assertEquals("SELECT * FROM ArtifactEntry WHERE"
+                     + " artifactCoordinates.coordinates.groupId.toLowerCase() = :groupId"
+                     + " AND artifactCoordinates.coordinates.artifactId.toLowerCase() = :artifactId AND "
+                     + REPOSITORY_CONDITION + " AND uuid > :keysetUuid ORDER BY uuid LIMIT 10",
+                     query);
+    }
+
+    private String buildQuery(boolean ngramEnabled,
+                              boolean strict,
+                              boolean indexed)
+    {
+        return newArtifactEntryService(ngramEnabled).buildCoordinatesQuery(repositories(), coordinates(),
+                                                                           Collections.emptySet(), 0, 0, null,
+                                                                           strict, indexed);
+    }
+
+    private ArtifactEntryServiceImpl newArtifactEntryService(boolean ngramEnabled)
+    {
+        ArtifactCoordinatesSearchIndex searchIndex = new ArtifactCoordinatesSearchIndex();
+        ReflectionTestUtils.setField(searchIndex, "ngramEnabled", ngramEnabled);
+
+        ArtifactEntryServiceImpl artifactEntryService = new ArtifactEntryServiceImpl();
+        ReflectionTestUtils.setField(artifactEntryService, "searchIndex", searchIndex);
+
+        return artifactEntryService;
+    }
+
+    private List<Pair<String, String>> repositories()
+    {
+        return Collections.singletonList(Pair.with("storage0", "releases"));
+    }
+
+    /**
+     * The artifact id is too short for n-grams.
+     */
+    private Map<String, String> coordinates()
+    {
+        Map<String, String> coordinates = new LinkedHashMap<>();
+        coordinates.put("groupId", "carl");
+        coordinates.put("artifactId", "a1");
+
+        return coordinates;
+    }
+
+}
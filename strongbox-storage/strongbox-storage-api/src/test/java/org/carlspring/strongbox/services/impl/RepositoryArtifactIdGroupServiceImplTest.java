@@ -2,9 +2,15 @@ package org.carlspring.strongbox.services.impl;
 
 import javax.inject.Inject;
 
+import java.util.List;
+
 import org.carlspring.strongbox.StorageApiTestConfig;
+import org.carlspring.strongbox.artifact.coordinates.NullArtifactCoordinates;
 import org.carlspring.strongbox.data.CacheManagerTestExecutionListener;
+import org.carlspring.strongbox.domain.ArtifactCatalogEntry;
+import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry;
+import org.carlspring.strongbox.services.ArtifactEntryService;
 import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -28,6 +34,9 @@ class RepositoryArtifactIdGroupServiceImplTest
     @Inject
     private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
 
+    @Inject
+    private ArtifactEntryService artifactEntryService;
+
     @Test
     public void repositoryArtifactIdGroupShouldBeProtectedByIndex()
     {
@@ -45,4 +54,26 @@ class RepositoryArtifactIdGroupServiceImplTest
             System.out.println(repositoryArtifactIdGroupService.save(g2).getObjectId());
         });
     }
+
+    @Test
+    public void catalogShouldListArtifactEntriesOfGroup()
+    {
+        ArtifactEntry artifactEntry = new ArtifactEntry();
+        artifactEntry.setStorageId("s2");
+        artifactEntry.setRepositoryId("r2");
+        artifactEntry.setArtifactCoordinates(new NullArtifactCoordinates("org/catalog/a2/1.0/a2-1.0.pom"));
+        artifactEntry = artifactEntryService.save(artifactEntry);
+
+        RepositoryArtifactIdGroupEntry group = repositoryArtifactIdGroupService.findOneOrCreate("s2", "r2", "a2");
+        repositoryArtifactIdGroupService.addArtifactToGroup(group, artifactEntry);
+
+        List<ArtifactCatalogEntry> catalog = repositoryArtifactIdGroupService.findCatalog("s2", "r2", "a2");
+
+        Assertions.assertEquals(1, catalog.size());
+        Assertions.assertEquals("org/catalog/a2/1.0/a2-1.0.pom", catalog.get(0).getCoordinate("path"));
+        Assertions.assertNotNull(catalog.get(0).getCreated());
+
+        Assertions.assertTrue(repositoryArtifactIdGroupService.findCatalog("s2", "r2", "missing").isEmpty());
+    }
+
 }
@@ -1,11 +1,10 @@
 package org.carlspring.strongbox.io;
 
-import org.carlspring.commons.util.MessageDigestUtils;
+import org.carlspring.strongbox.util.MultipleMessageDigest;
 
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -18,6 +17,10 @@ import org.apache.commons.io.input.ProxyInputStream;
 
 /**
  * This class decorates storage {@link InputStream} with common layout specific logic.
+ * <p>
+ * The content is digested only with the algorithms which have been added to the stream, so reading without any
+ * algorithm (for example when the checksums are already stored) costs nothing but the copy. All the algorithms are
+ * updated in a single pass, see {@link MultipleMessageDigest}.
  * 
  * You don't need to instantiate it directly, see example below:
  * 
@@ -37,7 +40,7 @@ public class LayoutInputStream
                                                                        MessageDigestAlgorithms.SHA_1)
                                                                    .collect(Collectors.toSet()); 
     
-    private Map<String, MessageDigest> digests = new LinkedHashMap<>();
+    private final MultipleMessageDigest digest = new MultipleMessageDigest();
 
     private Map<String, String> hexDigests = new LinkedHashMap<>();
 
@@ -62,19 +65,12 @@ public class LayoutInputStream
     public final void addAlgorithm(String algorithm)
             throws NoSuchAlgorithmException
     {
-        MessageDigest digest = MessageDigest.getInstance(algorithm);
-
-        digests.put(algorithm, digest);
+        digest.addAlgorithm(algorithm);
     }
 
-    public MessageDigest getMessageDigest(String algorithm)
+    public boolean hasAlgorithm(String algorithm)
     {
-        return digests.get(algorithm);
-    }
-
-    public Map<String, MessageDigest> getDigests()
-    {
-        return digests;
+        return digest.contains(algorithm);
     }
 
     public void resetHexDidests()
@@ -89,24 +85,7 @@ public class LayoutInputStream
 
     public String getMessageDigestAsHexadecimalString(String algorithm)
     {
-        if (hexDigests.containsKey(algorithm))
-        {
-            return hexDigests.get(algorithm);
-        }
-        else
-        {
-            // This method will invoke MessageDigest.digest() which will reset the bytes when it's done
-            // and thus this data will no longer be available, so we'll need to cache the calculated digest
-            String hexDigest = MessageDigestUtils.convertToHexadecimalString(getMessageDigest(algorithm));
-            hexDigests.put(algorithm, hexDigest);
-
-            return hexDigest;
-        }
-    }
-
-    public void setDigests(Map<String, MessageDigest> digests)
-    {
-        this.digests = digests;
+        return hexDigests.computeIfAbsent(algorithm, digest::getHexDigest);
     }
 
     @Override
@@ -116,11 +95,7 @@ public class LayoutInputStream
         int ch = in.read();
         if (ch != -1)
         {
-            for (Map.Entry entry : digests.entrySet())
-            {
-                MessageDigest digest = (MessageDigest) entry.getValue();
-                digest.update((byte) ch);
-            }
+            digest.update((byte) ch);
         }
 
         return ch;
@@ -133,13 +108,9 @@ public class LayoutInputStream
             throws IOException
     {
         int numberOfBytesRead = in.read(bytes, off, len);
-        if (numberOfBytesRead != -1)
+        if (numberOfBytesRead > 0)
         {
-            for (Map.Entry entry : digests.entrySet())
-            {
-                MessageDigest digest = (MessageDigest) entry.getValue();
-                digest.update(bytes, off, numberOfBytesRead);
-            }
+            digest.update(bytes, off, numberOfBytesRead);
         }
 
         return numberOfBytesRead;
@@ -149,15 +120,24 @@ public class LayoutInputStream
     public int read(byte[] bytes)
             throws IOException
     {
-        int len = in.read(bytes);
+        return read(bytes, 0, bytes.length);
+    }
 
-        for (Map.Entry entry : digests.entrySet())
+    /**
+     * Completes the digests, which can still be read afterwards.
+     */
+    @Override
+    public void close()
+            throws IOException
+    {
+        try
         {
-            MessageDigest digest = (MessageDigest) entry.getValue();
-            digest.update(bytes);
+            super.close();
+        }
+        finally
+        {
+            digest.finish();
         }
-
-        return len;
     }
 
     InputStream getTarget()
@@ -1,7 +1,7 @@
 package org.carlspring.strongbox.io;
 
-import org.carlspring.commons.io.MultipleDigestOutputStream;
 import org.carlspring.strongbox.util.MessageDigestUtils;
+import org.carlspring.strongbox.util.MultipleMessageDigest;
 
 import java.io.BufferedOutputStream;
 import java.io.IOException;
@@ -11,11 +11,15 @@ import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.apache.commons.io.output.ProxyOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * This class decorates storage {@link OutputStream} with common layout specific logic.
+ * <p>
+ * The content is digested with the algorithms which have been added to the stream, all of them updated in a single
+ * pass, see {@link MultipleMessageDigest}.
  * 
  * Note that you don't need to instantiate it directly, see example below:
  * 
@@ -26,11 +30,13 @@ import org.slf4j.LoggerFactory;
  * 
  * @author Sergey Bespalov
  */
-public class LayoutOutputStream extends MultipleDigestOutputStream
+public class LayoutOutputStream extends ProxyOutputStream
 {
 
     private static final Logger logger = LoggerFactory.getLogger(LayoutOutputStream.class);
 
+    private final MultipleMessageDigest digest = new MultipleMessageDigest();
+
     private Function<byte[], String> digestStringifier = MessageDigestUtils::convertToHexadecimalString;
 
     /**
@@ -42,7 +48,13 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
     public LayoutOutputStream(OutputStream source)
             throws NoSuchAlgorithmException
     {
-        super(new BufferedOutputStream(source), new String[]{});
+        super(new BufferedOutputStream(source));
+    }
+
+    public void addAlgorithm(String algorithm)
+            throws NoSuchAlgorithmException
+    {
+        digest.addAlgorithm(algorithm);
     }
 
     public void setCacheOutputStreamTemplate(Function<OutputStreamFunction, ?> chahceOutputStreamTemplate)
@@ -72,10 +84,11 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
 
     public Map<String, String> getDigestMap()
     {
-        return getDigests().entrySet()
-                           .stream()
-                           .collect(Collectors.toMap(Map.Entry::getKey,
-                                                     e -> stringifyDigest(digestStringifier, e.getValue().digest())));
+        return digest.getDigests()
+                     .entrySet()
+                     .stream()
+                     .collect(Collectors.toMap(Map.Entry::getKey,
+                                               e -> stringifyDigest(digestStringifier, e.getValue())));
     }
 
     protected String stringifyDigest(Function<byte[], String> digestStringifier,
@@ -89,6 +102,7 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
         throws IOException
     {
         super.write(b);
+        digest.update((byte) b);
         cacheOutputStreamTemplate.apply(o -> o.write(b));
     }
 
@@ -99,6 +113,7 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
         throws IOException
     {
         super.write(b, off, len);
+        digest.update(b, off, len);
         cacheOutputStreamTemplate.apply(o -> o.write(b, off, len));
     }
 
@@ -106,15 +121,21 @@ public class LayoutOutputStream extends MultipleDigestOutputStream
     public void write(byte[] b)
             throws IOException
     {
-        super.write(b);
-        cacheOutputStreamTemplate.apply(o -> o.write(b));
+        write(b, 0, b.length);
     }
 
     @Override
     public void close()
             throws IOException
     {
-        super.close();
+        try
+        {
+            super.close();
+        }
+        finally
+        {
+            digest.finish();
+        }
         cacheOutputStreamTemplate.apply(o -> o.close());
     }
 
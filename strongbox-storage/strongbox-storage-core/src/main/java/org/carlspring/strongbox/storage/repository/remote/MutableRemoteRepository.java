@@ -16,6 +16,10 @@ public class MutableRemoteRepository
         implements Serializable
 {
 
+    public static final int DEFAULT_NEGATIVE_CACHE_TTL_SECONDS = 0;
+
+    public static final int DEFAULT_NEGATIVE_CACHE_MAX_SIZE = 10000;
+
     @XmlAttribute
     private String url;
 
@@ -46,6 +50,15 @@ public class MutableRemoteRepository
     @XmlAttribute(name = "auto-import-remote-ssl-certificate")
     private boolean autoImportRemoteSSLCertificate;
 
+    /**
+     * How long a "not found" remote lookup is remembered, zero (the default) disables the negative cache.
+     */
+    @XmlAttribute(name = "negative-cache-ttl-seconds")
+    private Integer negativeCacheTtlSeconds = DEFAULT_NEGATIVE_CACHE_TTL_SECONDS;
+
+    @XmlAttribute(name = "negative-cache-max-size")
+    private Integer negativeCacheMaxSize = DEFAULT_NEGATIVE_CACHE_MAX_SIZE;
+
     @XmlElementRef
     private MutableRemoteRepositoryConfiguration customConfiguration;
     
@@ -153,6 +166,26 @@ public class MutableRemoteRepository
         return allowsDirectoryBrowsing;
     }
 
+    public Integer getNegativeCacheTtlSeconds()
+    {
+        return negativeCacheTtlSeconds;
+    }
+
+    public void setNegativeCacheTtlSeconds(Integer negativeCacheTtlSeconds)
+    {
+        this.negativeCacheTtlSeconds = negativeCacheTtlSeconds;
+    }
+
+    public Integer getNegativeCacheMaxSize()
+    {
+        return negativeCacheMaxSize;
+    }
+
+    public void setNegativeCacheMaxSize(Integer negativeCacheMaxSize)
+    {
+        this.negativeCacheMaxSize = negativeCacheMaxSize;
+    }
+
     public MutableRemoteRepositoryConfiguration getCustomConfiguration()
     {
         return customConfiguration;
@@ -37,6 +37,10 @@ public class RemoteRepository
     private boolean autoImportRemoteSSLCertificate;
 
     private String url;
+
+    private Integer negativeCacheTtlSeconds;
+
+    private Integer negativeCacheMaxSize;
     
     private CustomRemoteRepositoryConfiguration customConfiguration;
 
@@ -57,6 +61,8 @@ public class RemoteRepository
         this.checkIntervalSeconds = other.getCheckIntervalSeconds();
         this.allowsDirectoryBrowsing = other.allowsDirectoryBrowsing();
         this.autoImportRemoteSSLCertificate = other.isAutoImportRemoteSSLCertificate();
+        this.negativeCacheTtlSeconds = other.getNegativeCacheTtlSeconds();
+        this.negativeCacheMaxSize = other.getNegativeCacheMaxSize();
         this.customConfiguration = immuteRemoteRepositoryConfiguration(other.getCustomConfiguration());
     }
 
@@ -110,6 +116,16 @@ public class RemoteRepository
         return autoImportRemoteSSLCertificate;
     }
 
+    public Integer getNegativeCacheTtlSeconds()
+    {
+        return negativeCacheTtlSeconds;
+    }
+
+    public Integer getNegativeCacheMaxSize()
+    {
+        return negativeCacheMaxSize;
+    }
+
     public CustomRemoteRepositoryConfiguration getCustomConfiguration()
     {
         return customConfiguration;
@@ -72,49 +72,10 @@ public class VersionCollector
                 // No pom, no metadata.
                 if (pomArtifactPath != null)
                 {
-                    Model pom = getPom(pomArtifactPath);
-
-                    BasicFileAttributes fileAttributes = Files.readAttributes(versionDirectoryPath,
-                                                                              BasicFileAttributes.class);
-
-                    // TODO: This will not work for versionless POM-s which extend the version from a parent.
-                    // TODO: If pom.getVersion() == null, walk the parents until a parent with
-                    // TODO: a non-null version is found and use that as the version.
-                    String version = pom.getVersion() != null ? pom.getVersion() :
-                                     (pom.getParent() != null ? pom.getVersion() : null);
-
-                    if (version == null)
-                    {
-                        continue;
-                    }
-
-                    if (ArtifactUtils.isSnapshot(version))
-                    {
-                        version = ArtifactUtils.getSnapshotBaseVersion(version);
-                    }
-
-                    MetadataVersion metadataVersion = new MetadataVersion();
-                    metadataVersion.setVersion(version);
-                    metadataVersion.setCreatedDate(fileAttributes.lastModifiedTime());
-
-                    versions.add(metadataVersion);
-
-                    if (artifactIsPlugin(pom))
+                    MetadataVersion metadataVersion = collectVersion(request, versionDirectoryPath, pomArtifactPath);
+                    if (metadataVersion != null)
                     {
-                        String name = pom.getName() != null ? pom.getName() : pom.getArtifactId();
-
-                        // TODO: SB-339: Get the maven plugin's prefix properly when generating metadata
-                        // TODO: This needs to be addressed properly, as it's not correct.
-                        // TODO: This can be obtained from the jar's META-INF/maven/plugin.xml and should be read
-                        // TODO: either via a ZipInputStream, or using TrueZip.
-                        // String prefix = pom.getArtifactId().replace("maven-plugin", "").replace("-plugin$", "");
-
-                        Plugin plugin = new Plugin();
-                        plugin.setName(name);
-                        plugin.setArtifactId(pom.getArtifactId());
-                        plugin.setPrefix(PluginDescriptor.getGoalPrefixFromArtifactId(pom.getArtifactId()));
-
-                        request.addPlugin(plugin);
+                        versions.add(metadataVersion);
                     }
                 }
             }
@@ -136,6 +97,89 @@ public class VersionCollector
         return request;
     }
 
+    /**
+     * Collects the version (and the plugin, if any) of a single POM, the same way {@link #collectVersions(Path)} does
+     * for each version directory, without listing or parsing the other versions.
+     */
+    public VersionCollectionRequest collectVersion(Path pomPath)
+            throws IOException
+    {
+        Path versionDirectoryPath = pomPath.getParent();
+
+        VersionCollectionRequest request = new VersionCollectionRequest();
+        request.setArtifactBasePath(versionDirectoryPath.getParent());
+
+        List<MetadataVersion> versions = new ArrayList<>();
+        try
+        {
+            MetadataVersion metadataVersion = collectVersion(request, versionDirectoryPath, pomPath);
+            if (metadataVersion != null)
+            {
+                versions.add(metadataVersion);
+            }
+        }
+        catch (XmlPullParserException e)
+        {
+            throw new IOException("POM file '" + pomPath + "' appears to be corrupt.", e);
+        }
+
+        request.setMetadataVersions(versions);
+        request.setVersioning(generateVersioning(versions));
+
+        return request;
+    }
+
+    private MetadataVersion collectVersion(VersionCollectionRequest request,
+                                           Path versionDirectoryPath,
+                                           Path pomArtifactPath)
+            throws IOException, XmlPullParserException
+    {
+        Model pom = getPom(pomArtifactPath);
+
+        BasicFileAttributes fileAttributes = Files.readAttributes(versionDirectoryPath,
+                                                                  BasicFileAttributes.class);
+
+        // TODO: This will not work for versionless POM-s which extend the version from a parent.
+        // TODO: If pom.getVersion() == null, walk the parents until a parent with
+        // TODO: a non-null version is found and use that as the version.
+        String version = pom.getVersion() != null ? pom.getVersion() :
+                         (pom.getParent() != null ? pom.getVersion() : null);
+
+        if (version == null)
+        {
+            return null;
+        }
+
+        if (ArtifactUtils.isSnapshot(version))
+        {
+            version = ArtifactUtils.getSnapshotBaseVersion(version);
+        }
+
+        MetadataVersion metadataVersion = new MetadataVersion();
+        metadataVersion.setVersion(version);
+        metadataVersion.setCreatedDate(fileAttributes.lastModifiedTime());
+
+        if (artifactIsPlugin(pom))
+        {
+            String name = pom.getName() != null ? pom.getName() : pom.getArtifactId();
+
+            // TODO: SB-339: Get the maven plugin's prefix properly when generating metadata
+            // TODO: This needs to be addressed properly, as it's not correct.
+            // TODO: This can be obtained from the jar's META-INF/maven/plugin.xml and should be read
+            // TODO: either via a ZipInputStream, or using TrueZip.
+            // String prefix = pom.getArtifactId().replace("maven-plugin", "").replace("-plugin$", "");
+
+            Plugin plugin = new Plugin();
+            plugin.setName(name);
+            plugin.setArtifactId(pom.getArtifactId());
+            plugin.setPrefix(PluginDescriptor.getGoalPrefixFromArtifactId(pom.getArtifactId()));
+
+            request.addPlugin(plugin);
+        }
+
+        return metadataVersion;
+    }
+
     private Path getPomPath(Path artifactBasePath,
                             Path versionDirectoryPath)
     {
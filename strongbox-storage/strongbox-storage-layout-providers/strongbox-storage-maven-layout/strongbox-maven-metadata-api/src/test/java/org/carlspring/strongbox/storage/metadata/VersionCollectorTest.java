@@ -0,0 +1,117 @@
+package org.carlspring.strongbox.storage.metadata;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VersionCollectorTest
+{
+
+    private static final String GROUP_PATH = "org/carlspring/strongbox";
+
+    @TempDir
+    Path repositoryDir;
+
+    private Path artifactBasePath;
+
+    @BeforeEach
+    public void setUp()
+    {
+        artifactBasePath = repositoryDir.resolve(GROUP_PATH).resolve("foo");
+    }
+
+    @Test
+    public void versionShouldBeCollectedFromThePom()
+            throws Exception
+    {
+        Path pomPath = writePom("1.2", "foo-1.2.pom", "1.2", "jar");
+
+        VersionCollectionRequest request = new VersionCollector().collectVersion(pomPath);
+
+        assertEquals(artifactBasePath, request.getArtifactBasePath());
+        assertEquals(1, request.getMetadataVersions().size());
+        assertEquals("1.2", request.getMetadataVersions().get(0).getVersion());
+        assertEquals(Collections.singletonList("1.2"), request.getVersioning().getVersions());
+        assertTrue(request.getPlugins().isEmpty());
+    }
+
+    @Test
+    public void timestampedSnapshotShouldBeCollectedWithItsBaseVersion()
+            throws Exception
+    {
+        // The deployed POM declares the base version, only its file name is timestamped.
+        Path pomPath = writePom("1.2-SNAPSHOT", "foo-1.2-20181017.010203-1.pom", "1.2-SNAPSHOT", "jar");
+
+        VersionCollectionRequest request = new VersionCollector().collectVersion(pomPath);
+
+        assertEquals("1.2-SNAPSHOT", request.getMetadataVersions().get(0).getVersion());
+    }
+
+    @Test
+    public void pluginShouldBeCollected()
+            throws Exception
+    {
+        Path pomPath = writePom("1.2", "foo-1.2.pom", "1.2", "maven-plugin");
+
+        VersionCollectionRequest request = new VersionCollector().collectVersion(pomPath);
+
+        assertEquals(1, request.getPlugins().size());
+        assertEquals("foo", request.getPlugins().get(0).getArtifactId());
+        assertEquals("foo", request.getPlugins().get(0).getPrefix());
+    }
+
+    @Test
+    public void versionShouldMatchTheFullCollection()
+            throws Exception
+    {
+        writePom("1.1", "foo-1.1.pom", "1.1", "jar");
+        Path pomPath = writePom("1.2", "foo-1.2.pom", "1.2", "jar");
+
+        VersionCollectionRequest request = new VersionCollector().collectVersions(artifactBasePath);
+
+        assertEquals(2, request.getMetadataVersions().size());
+        assertEquals(new VersionCollector().collectVersion(pomPath).getMetadataVersions().get(0).getVersion(),
+                     request.getMetadataVersions().get(1).getVersion());
+    }
+
+    @Test
+    public void corruptPomShouldBeReported()
+            throws Exception
+    {
+        Path pomPath = artifactBasePath.resolve("1.2").resolve("foo-1.2.pom");
+        Files.createDirectories(pomPath.getParent());
+        Files.write(pomPath, "<project>".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IOException.class, () -> new VersionCollector().collectVersion(pomPath));
+    }
+
+    private Path writePom(String versionDirectory,
+                         String fileName,
+                         String version,
+                         String packaging)
+            throws IOException
+    {
+        Path pomPath = artifactBasePath.resolve(versionDirectory).resolve(fileName);
+        Files.createDirectories(pomPath.getParent());
+
+        String pom = "<project>\n" +
+                     "    <modelVersion>4.0.0</modelVersion>\n" +
+                     "    <groupId>org.carlspring.strongbox</groupId>\n" +
+                     "    <artifactId>foo</artifactId>\n" +
+                     "    <version>" + version + "</version>\n" +
+                     "    <packaging>" + packaging + "</packaging>\n" +
+                     "</project>\n";
+
+        return Files.write(pomPath, pom.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,67 @@
+package org.carlspring.strongbox.event.artifact;
+
+import org.carlspring.strongbox.event.AsyncEventListener;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.storage.metadata.MetadataHelper;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Merges the version of a POM deployed into a hosted repository into the {@code maven-metadata.xml} of its artifact,
+ * see {@link org.carlspring.strongbox.storage.metadata.MavenMetadataManager#mergeVersion(RepositoryPath)}.
+ * <p>
+ * Maven uploads the metadata it has merged itself, so this is meant for the repositories which are deployed to by
+ * clients that upload the artifacts only (a plain HTTP {@code PUT}, for example), and whose metadata would otherwise
+ * be out of date until the next metadata rebuild. The metadata stored event is dispatched only when the versions of
+ * the metadata have changed.
+ */
+@Component
+public class MavenArtifactStoredEventListener
+        extends BaseMavenArtifactEventListener
+{
+
+    @Inject
+    private ArtifactEventListenerRegistry artifactEventListenerRegistry;
+
+    @AsyncEventListener
+    public void handle(final ArtifactEvent<RepositoryPath> event)
+    {
+        final Repository repository = getRepository(event);
+
+        if (!Maven2LayoutProvider.ALIAS.equals(repository.getLayout()) ||
+            !repository.isHostedRepository())
+        {
+            return;
+        }
+
+        if (event.getType() != ArtifactEventTypeEnum.EVENT_ARTIFACT_FILE_STORED.getType())
+        {
+            return;
+        }
+
+        RepositoryPath pomPath = event.getPath();
+        if (!pomPath.getFileName().toString().endsWith(".pom"))
+        {
+            return;
+        }
+
+        try
+        {
+            RepositoryPath artifactBasePath = mavenMetadataManager.mergeVersion(pomPath);
+            if (artifactBasePath != null)
+            {
+                artifactEventListenerRegistry.dispatchArtifactMetadataStoredEvent(
+                        artifactBasePath.resolve(MetadataHelper.MAVEN_METADATA_XML));
+            }
+        }
+        catch (Exception e)
+        {
+            logger.error("Unable to update the metadata of " + pomPath, e);
+        }
+    }
+
+}
@@ -79,8 +79,7 @@ public abstract class AbstractMavenArtifactLocatorOperation
         }
         getVisitedRootPaths().put(artifactGroupDirectoryPath, versionDirectories);
 
-        VersionCollector versionCollector = new VersionCollector();
-        VersionCollectionRequest request = versionCollector.collectVersions(artifactGroupDirectoryPath.toAbsolutePath());
+        VersionCollectionRequest request = collectVersions(artifactGroupDirectoryPath);
 
         if (logger.isDebugEnabled())
         {
@@ -94,6 +93,46 @@ public abstract class AbstractMavenArtifactLocatorOperation
         executeOperation(request, artifactGroupDirectoryPath, versionDirectories);
     }
 
+    @Override
+    public void execute(RepositoryPath artifactDirectoryPath,
+                        List<RepositoryPath> versionDirectories)
+            throws IOException
+    {
+        if (versionDirectories.isEmpty())
+        {
+            return;
+        }
+
+        VersionCollectionRequest request = collectVersions(artifactDirectoryPath);
+
+        if (logger.isDebugEnabled())
+        {
+            logger.debug(String.format("Artifact directory [%s] with version directories %s", artifactDirectoryPath,
+                                       versionDirectories));
+        }
+
+        executeOperation(request, artifactDirectoryPath, versionDirectories);
+    }
+
+    /**
+     * Only the directories with a POM are version directories. The directories which have just a
+     * {@code maven-metadata.xml}, like the groupId directories with the plugin metadata, are not.
+     */
+    @Override
+    public boolean isVersionDirectoryFile(RepositoryPath path)
+    {
+        return path.getFileName().toString().endsWith(".pom");
+    }
+
+    /**
+     * Collects the versions of the artifact, from the file system by default.
+     */
+    protected VersionCollectionRequest collectVersions(RepositoryPath artifactGroupDirectoryPath)
+            throws IOException
+    {
+        return new VersionCollector().collectVersions(artifactGroupDirectoryPath.toAbsolutePath());
+    }
+
     public abstract void executeOperation(VersionCollectionRequest request,
                                           RepositoryPath artifactGroupDirectoryPath,
                                           List<RepositoryPath> versionDirectories)
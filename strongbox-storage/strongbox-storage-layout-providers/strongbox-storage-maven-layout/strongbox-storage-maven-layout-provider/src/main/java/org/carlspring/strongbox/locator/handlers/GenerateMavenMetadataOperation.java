@@ -35,6 +35,15 @@ public class GenerateMavenMetadataOperation
         this.artifactEventListenerRegistry = artifactEventListenerRegistry;
     }
 
+    /**
+     * The artifact directories are processed independently of each other.
+     */
+    @Override
+    public boolean isConcurrent()
+    {
+        return true;
+    }
+
     @Override
     public void executeOperation(VersionCollectionRequest request,
                                  RepositoryPath artifactGroupDirectoryPath,
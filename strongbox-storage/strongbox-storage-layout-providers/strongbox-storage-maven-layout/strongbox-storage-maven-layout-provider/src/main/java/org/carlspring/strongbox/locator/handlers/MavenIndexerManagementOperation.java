@@ -30,6 +30,24 @@ public class MavenIndexerManagementOperation
         this.artifactIndexesService = artifactIndexesService;
     }
 
+    /**
+     * The artifact directories are processed independently of each other.
+     */
+    @Override
+    public boolean isConcurrent()
+    {
+        return true;
+    }
+
+    /**
+     * The files of the version directories are indexed as they are, so the versions are not collected.
+     */
+    @Override
+    protected VersionCollectionRequest collectVersions(RepositoryPath artifactGroupDirectoryPath)
+    {
+        return null;
+    }
+
     @Override
     public void executeOperation(VersionCollectionRequest request,
                                  RepositoryPath artifactPath,
@@ -95,9 +95,6 @@ public class RemoveTimestampedSnapshotOperation
         
         getVisitedRootPaths().put(basePath, versionDirectories);
 
-        VersionCollector versionCollector = new VersionCollector();
-        VersionCollectionRequest request = versionCollector.collectVersions(basePath);
-
         if (logger.isDebugEnabled())
         {
             for (RepositoryPath directory : versionDirectories)
@@ -106,7 +103,37 @@ public class RemoveTimestampedSnapshotOperation
                 System.out.println(" " + directory.toAbsolutePath());
             }
         }
-        
+
+        deleteTimestampedSnapshotArtifacts(basePath);
+    }
+
+    /**
+     * The timestamped snapshots are removed for the whole artifact directory at once.
+     */
+    @Override
+    public void execute(RepositoryPath artifactDirectoryPath,
+                        List<RepositoryPath> versionDirectories)
+            throws IOException
+    {
+        deleteTimestampedSnapshotArtifacts(artifactDirectoryPath);
+    }
+
+    /**
+     * As for the other Maven operations, only the directories with a POM are version directories, so that the groupId
+     * directories with the plugin metadata are not taken for artifact directories.
+     */
+    @Override
+    public boolean isVersionDirectoryFile(RepositoryPath path)
+    {
+        return path.getFileName().toString().endsWith(".pom");
+    }
+
+    private void deleteTimestampedSnapshotArtifacts(RepositoryPath basePath)
+            throws IOException
+    {
+        VersionCollector versionCollector = new VersionCollector();
+        VersionCollectionRequest request = versionCollector.collectVersions(basePath);
+
         try
         {
             mavenSnapshotManager.deleteTimestampedSnapshotArtifacts(basePath, request.getVersioning(),
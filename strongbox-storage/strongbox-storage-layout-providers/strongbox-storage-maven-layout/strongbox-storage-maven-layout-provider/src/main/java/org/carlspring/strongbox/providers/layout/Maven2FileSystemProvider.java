@@ -2,13 +2,17 @@ package org.carlspring.strongbox.providers.layout;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.carlspring.commons.io.reloading.FSReloadableInputStreamHandler;
 import org.carlspring.maven.commons.util.ArtifactUtils;
 import org.carlspring.strongbox.artifact.coordinates.MavenArtifactCoordinates;
+import org.carlspring.strongbox.io.ByteRangeInputStream;
+import org.carlspring.strongbox.io.LayoutInputStream;
 import org.carlspring.strongbox.providers.io.*;
 import org.carlspring.strongbox.providers.search.MavenIndexerSearchProvider;
 import org.carlspring.strongbox.providers.search.SearchException;
 import org.carlspring.strongbox.services.ArtifactSearchService;
 import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.metadata.MavenGroupMetadataCache;
 import org.carlspring.strongbox.storage.metadata.MavenMetadataManager;
 import org.carlspring.strongbox.storage.metadata.MetadataHelper;
 import org.carlspring.strongbox.storage.metadata.MetadataType;
@@ -18,10 +22,16 @@ import org.carlspring.strongbox.storage.search.SearchResult;
 import org.carlspring.strongbox.storage.search.SearchResults;
 
 import javax.inject.Inject;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.spi.FileSystemProvider;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -51,6 +61,9 @@ public class Maven2FileSystemProvider extends LayoutFileSystemProvider
 
     @Inject
     private MavenMetadataManager mavenMetadataManager;
+
+    @Inject
+    private MavenGroupMetadataCache mavenGroupMetadataCache;
     
     
     public Maven2FileSystemProvider(FileSystemProvider storageFileSystemProvider)
@@ -64,6 +77,68 @@ public class Maven2FileSystemProvider extends LayoutFileSystemProvider
         return layoutProvider;
     }
 
+    /**
+     * The {@code maven-metadata.xml} files of the group repositories, and their checksum files, are served from the
+     * {@link MavenGroupMetadataCache}.
+     */
+    @Override
+    public LayoutInputStream newInputStream(Path path,
+                                            OpenOption... options)
+        throws IOException
+    {
+        RepositoryPath repositoryPath = (RepositoryPath) path;
+
+        byte[] content = mavenGroupMetadataCache.getContent(repositoryPath);
+        if (content == null)
+        {
+            return super.newInputStream(path, options);
+        }
+
+        try
+        {
+            ByteRangeInputStream bris = new ByteRangeInputStream(new ByteArrayInputStream(content));
+            bris.setLength(content.length);
+
+            LayoutInputStream result = new LayoutInputStream(bris, Collections.emptySet());
+            // The checksums are calculated in memory and may differ from the checksum files, so they are served
+            // without a reload handler; the metadata content is the one stored, so its ranges can be reloaded.
+            if (!Boolean.TRUE.equals(RepositoryFiles.isChecksum(repositoryPath)))
+            {
+                bris.setReloadableInputStreamHandler(new FSReloadableInputStreamHandler(repositoryPath.toFile()));
+
+                for (String digestAlgorithm : repositoryPath.getFileSystem().getDigestAlgorithmSet())
+                {
+                    byte[] checksum = mavenGroupMetadataCache.getContent(getChecksumPath(repositoryPath,
+                                                                                         digestAlgorithm));
+                    if (checksum == null)
+                    {
+                        result.addAlgorithm(digestAlgorithm);
+                    }
+                    else
+                    {
+                        result.getHexDigests().put(digestAlgorithm, new String(checksum, StandardCharsets.UTF_8));
+                    }
+                }
+            }
+
+            return result;
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public OutputStream newOutputStream(Path path,
+                                        OpenOption... options)
+        throws IOException
+    {
+        mavenGroupMetadataCache.invalidate((RepositoryPath) path);
+
+        return super.newOutputStream(path, options);
+    }
+
     @Override
     public void delete(Path path,
                        boolean force)
@@ -73,6 +148,8 @@ public class Maven2FileSystemProvider extends LayoutFileSystemProvider
         
         logger.debug("Removing " + repositoryPath + "...");
 
+        mavenGroupMetadataCache.invalidateTree(repositoryPath);
+
         if (Files.isDirectory(repositoryPath))
         {
             cleanupDirectory(repositoryPath.relativize(), force);
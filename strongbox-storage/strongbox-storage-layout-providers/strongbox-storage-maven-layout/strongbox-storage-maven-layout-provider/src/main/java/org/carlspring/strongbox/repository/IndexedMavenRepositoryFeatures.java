@@ -151,6 +151,10 @@ public class IndexedMavenRepositoryFeatures
                 throw new ArtifactStorageException("Target repository not found!");
             }
 
+            // The queued changes are merged as well.
+            sourceIndex.flush();
+            targetIndex.flush();
+
             targetIndex.getIndexingContext().merge(FSDirectory.open(sourceIndex.getIndexDir()));
         }
         catch (IOException e)
@@ -164,6 +168,9 @@ public class IndexedMavenRepositoryFeatures
             throws IOException
     {
         RepositoryIndexer indexer = getIndexer(storageId, repositoryId);
+        // The queued changes are packed as well.
+        indexer.flush();
+
         IndexingContext context = indexer.getIndexingContext();
         Path indexPath = resolveIndexPath(storageId, repositoryId, null);
         final IndexSearcher indexSearcher = context.acquireIndexSearcher();
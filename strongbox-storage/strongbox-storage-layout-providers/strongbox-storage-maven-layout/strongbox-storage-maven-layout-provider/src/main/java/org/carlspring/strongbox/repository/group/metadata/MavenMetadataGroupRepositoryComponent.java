@@ -81,7 +81,7 @@ public class MavenMetadataGroupRepositoryComponent
         public void performUpdate(final RepositoryPath parentRepositoryArtifactAbsolutePath)
                 throws IOException
         {
-            mavenMetadataManager.mergeAndStore(parentRepositoryArtifactAbsolutePath, mergeMetadata);
+            mavenMetadataManager.mergeAndStoreGroupMetadata(parentRepositoryArtifactAbsolutePath, mergeMetadata);
         }
     }
 
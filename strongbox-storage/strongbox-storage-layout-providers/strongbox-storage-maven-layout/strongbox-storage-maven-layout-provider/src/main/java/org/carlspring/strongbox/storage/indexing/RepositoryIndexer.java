@@ -9,7 +9,17 @@ import org.carlspring.strongbox.storage.search.SearchResult;
 
 import java.io.IOException;
 import java.util.*;
-
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
 import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
@@ -27,6 +37,22 @@ import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationContext;
 import static org.apache.lucene.search.BooleanClause.Occur.MUST;
 
+/**
+ * The Maven index of a repository.
+ * <p>
+ * Additions and deletions are queued, and written to the index writer of the indexing context in batches, with a
+ * single commit per batch. The queue is flushed once it holds {@link #setBatchSize(int) batch size} changes, or
+ * {@link #setCommitIntervalMillis(long) commit interval} after the first queued change, on the
+ * {@link #setCommitScheduler(ScheduledExecutorService) commit scheduler}. Each change is written on its own, so a
+ * failed one doesn't drop the others, and a failed commit is retried with the next flush. Without a scheduler, or
+ * with a batch size of one, every change is committed right away.
+ * <p>
+ * The searches write the queued changes to the index writer, without committing them, and see them through the
+ * near-real-time searchers of the indexing context, which are refreshed when they are next acquired.
+ * <p>
+ * The queue depth and the time the flushes take are published as {@code strongbox.maven.index.queue.size} and
+ * {@code strongbox.maven.index.commit} metrics, tagged with the context id.
+ */
 public class RepositoryIndexer
 {
 
@@ -40,8 +66,16 @@ public class RepositoryIndexer
 
     private static final WhitespaceAnalyzer luceneAnalyzer = new WhitespaceAnalyzer();
 
+    /**
+     * The queues of the current indexers by context id. The queue size gauge is registered once per context id, so it
+     * reads the queue of the latest indexer of the context from here, rather than the one it was registered with.
+     */
+    private static final Map<String, BlockingQueue<?>> queues = new ConcurrentHashMap<>();
+
     private Indexer indexer;
 
+    private IndexerEngine indexerEngine;
+
     private Scanner scanner;
 
     private List<IndexCreator> indexers;
@@ -62,10 +96,37 @@ public class RepositoryIndexer
 
     private ApplicationContext applicationContext;
 
+    private final BlockingQueue<IndexOperation> queue = new LinkedBlockingQueue<>();
+
+    private final Object flushLock = new Object();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /**
+     * Whether changes have been written to the index writer since the last commit.
+     */
+    private volatile boolean uncommitted;
+
+    private final Timer commitTimer;
+
+    private int batchSize = 1;
+
+    private long commitIntervalMillis;
+
+    private ScheduledExecutorService commitScheduler;
+
 
     public RepositoryIndexer(String contextId)
     {
         this.contextId = contextId;
+
+        Tags tags = Tags.of("context", contextId);
+        queues.put(contextId, queue);
+        Metrics.gauge("strongbox.maven.index.queue.size", tags, queues, q -> {
+            BlockingQueue<?> current = q.get(contextId);
+            return current != null ? current.size() : 0;
+        });
+        this.commitTimer = Metrics.timer("strongbox.maven.index.commit", tags);
     }
 
     public void addArtifactToIndex(final RepositoryPath artifactPath)
@@ -82,15 +143,9 @@ public class RepositoryIndexer
             {
                 return;
             }
-            final ArtifactInfo artifactInfo = artifactContext.getArtifactInfo();
 
-            // preserve duplicates
-            if (CollectionUtils.isNotEmpty(
-                    search(artifactInfo)))
-            {
-                return;
-            }
-            getIndexer().addArtifactToIndex(artifactContext, indexingContext);
+            queue.add(new IndexOperation(artifactContext, false));
+            afterEnqueue();
         }
         catch (Exception e) // it's not really a critical problem, artifacts could be added to index later
         {
@@ -101,28 +156,228 @@ public class RepositoryIndexer
     public void delete(final Collection<ArtifactInfo> artifactInfos)
             throws IOException
     {
-        final List<ArtifactContext> delete = new ArrayList<>();
         for (final ArtifactInfo artifactInfo : artifactInfos)
+        {
+            queue.add(new IndexOperation(new SafeArtifactContext(new ArtifactContext(null, null, null, artifactInfo,
+                                                                                     null)),
+                                         true));
+        }
+
+        afterEnqueue();
+    }
+
+    /**
+     * Writes the queued changes to the index and commits them.
+     */
+    public void flush()
+            throws IOException
+    {
+        if (queue.isEmpty() && !uncommitted)
+        {
+            return;
+        }
+
+        synchronized (flushLock)
+        {
+            final long startTime = System.nanoTime();
+            try
+            {
+                apply();
+                if (!uncommitted)
+                {
+                    return;
+                }
+
+                indexingContext.commit();
+                uncommitted = false;
+            }
+            finally
+            {
+                commitTimer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+            }
+
+            logger.debug("Committed the index changes of [{}].", contextId);
+        }
+    }
+
+    /**
+     * Writes the queued changes to the index writer, so that the searches see them, and leaves the commit to the
+     * next flush, which has been scheduled when they were queued.
+     */
+    private void refresh()
+    {
+        if (queue.isEmpty())
+        {
+            return;
+        }
+
+        synchronized (flushLock)
+        {
+            apply();
+        }
+    }
+
+    /**
+     * Writes the queued changes to the index writer, without committing them. The caller must hold the flush lock.
+     */
+    private void apply()
+    {
+        final List<IndexOperation> operations = new ArrayList<>();
+        queue.drainTo(operations);
+        if (operations.isEmpty())
+        {
+            return;
+        }
+
+        // The runs of consecutive additions (or deletions) are looked up in the index before any of them is written.
+        int start = 0;
+        for (int i = 1; i <= operations.size(); i++)
+        {
+            if (i < operations.size() && operations.get(i).delete == operations.get(start).delete)
+            {
+                continue;
+            }
+
+            final List<IndexOperation> run = operations.subList(start, i);
+            if (run.get(0).delete)
+            {
+                deleteFromIndex(run);
+            }
+            else
+            {
+                addToIndex(run);
+            }
+
+            start = i;
+        }
+
+        uncommitted = true;
+
+        logger.debug("Applied [{}] index changes of [{}].", operations.size(), contextId);
+    }
+
+    private void afterEnqueue()
+            throws IOException
+    {
+        if (queue.size() >= batchSize || commitScheduler == null)
+        {
+            flush();
+
+            return;
+        }
+
+        if (!flushScheduled.compareAndSet(false, true))
+        {
+            return;
+        }
+
+        try
+        {
+            commitScheduler.schedule(this::scheduledFlush, commitIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        catch (RejectedExecutionException e)
+        {
+            flushScheduled.set(false);
+            flush();
+        }
+    }
+
+    private void scheduledFlush()
+    {
+        flushScheduled.set(false);
+
+        try
+        {
+            flush();
+        }
+        catch (IOException | RuntimeException e)
+        {
+            logger.error(String.format("Unable to flush the index changes of [%s]", contextId), e);
+        }
+    }
+
+    private void addToIndex(final List<IndexOperation> operations)
+    {
+        final Set<String> queued = new HashSet<>();
+        final List<ArtifactContext> add = new ArrayList<>();
+        for (final IndexOperation operation : operations)
+        {
+            final ArtifactInfo artifactInfo = operation.artifactContext.getArtifactInfo();
+
+            // preserve duplicates
+            if (!queued.add(artifactInfo.getUinfo()) || isIndexed(artifactInfo, false))
+            {
+                continue;
+            }
+            add.add(operation.artifactContext);
+        }
+
+        for (final ArtifactContext artifactContext : add)
+        {
+            try
+            {
+                indexerEngine.update(indexingContext, artifactContext);
+            }
+            catch (Exception e) // it's not really a critical problem, artifacts could be added to index later
+            {
+                logger.warn(String.format("Unable to add [%s] to the index of [%s]",
+                                          artifactContext.getArtifactInfo().getUinfo(), contextId), e);
+            }
+        }
+    }
+
+    private void deleteFromIndex(final List<IndexOperation> operations)
+    {
+        final List<ArtifactContext> delete = new ArrayList<>();
+        for (final IndexOperation operation : operations)
         {
             // preserve extra delete index records
-            if (CollectionUtils.isEmpty(search(artifactInfo)))
+            if (!isIndexed(operation.artifactContext.getArtifactInfo(), true))
             {
                 continue;
             }
-            delete.add(new SafeArtifactContext(new ArtifactContext(null, null, null, artifactInfo, null)));
+            delete.add(operation.artifactContext);
         }
 
-        getIndexer().deleteArtifactsFromIndex(delete, indexingContext);
+        for (final ArtifactContext artifactContext : delete)
+        {
+            try
+            {
+                indexerEngine.remove(indexingContext, artifactContext);
+            }
+            catch (Exception e)
+            {
+                logger.warn(String.format("Unable to delete [%s] from the index of [%s]",
+                                          artifactContext.getArtifactInfo().getUinfo(), contextId), e);
+            }
+        }
+    }
+
+    /**
+     * @param unknown the result if the index can't be searched, which lets the change be written anyway
+     */
+    private boolean isIndexed(final ArtifactInfo artifactInfo,
+                              final boolean unknown)
+    {
+        try
+        {
+            return CollectionUtils.isNotEmpty(doSearch(artifactInfo));
+        }
+        catch (Exception e)
+        {
+            logger.warn(String.format("Unable to look up [%s] in the index of [%s]", artifactInfo.getUinfo(),
+                                      contextId), e);
+
+            return unknown;
+        }
     }
 
     public Set<SearchResult> search(final ArtifactInfo artifactInfo)
         throws IOException
     {
-        return search(artifactInfo.getGroupId(),
-                      artifactInfo.getArtifactId(),
-                      artifactInfo.getVersion(),
-                      artifactInfo.getFileExtension(),
-                      artifactInfo.getClassifier());
+        refresh();
+
+        return doSearch(artifactInfo);
     }
 
     public Set<SearchResult> search(final String groupId,
@@ -131,6 +386,28 @@ public class RepositoryIndexer
                                     final String extension,
                                     final String classifier)
             throws IOException
+    {
+        refresh();
+
+        return doSearch(groupId, artifactId, version, extension, classifier);
+    }
+
+    private Set<SearchResult> doSearch(final ArtifactInfo artifactInfo)
+        throws IOException
+    {
+        return doSearch(artifactInfo.getGroupId(),
+                        artifactInfo.getArtifactId(),
+                        artifactInfo.getVersion(),
+                        artifactInfo.getFileExtension(),
+                        artifactInfo.getClassifier());
+    }
+
+    private Set<SearchResult> doSearch(final String groupId,
+                                       final String artifactId,
+                                       final String version,
+                                       final String extension,
+                                       final String classifier)
+            throws IOException
     {
         final Builder booleanQueryBuiler = new Builder();
 
@@ -196,6 +473,8 @@ public class RepositoryIndexer
     {
         try
         {
+            refresh();
+
             final Query query = new MultiFieldQueryParser(luceneFields, luceneAnalyzer).parse(queryText);
 
             logger.debug("Text of the query: {}", queryText);
@@ -242,6 +521,8 @@ public class RepositoryIndexer
     public Set<SearchResult> searchBySHA1(final String checksum)
             throws IOException
     {
+        refresh();
+
         final Builder booleanQueryBuilder = new Builder();
 
         booleanQueryBuilder.add(getIndexer().constructQuery(MAVEN.SHA1, new SourcedSearchExpression(checksum)), MUST);
@@ -307,12 +588,25 @@ public class RepositoryIndexer
     public void close()
             throws IOException
     {
+        flush();
+        queues.remove(contextId, queue);
+
         indexer.closeIndexingContext(indexingContext, false);
     }
 
     public void close(boolean deleteFiles)
             throws IOException
     {
+        if (deleteFiles)
+        {
+            queue.clear();
+        }
+        else
+        {
+            flush();
+        }
+        queues.remove(contextId, queue);
+
         indexingContext.close(deleteFiles);
     }
 
@@ -336,6 +630,16 @@ public class RepositoryIndexer
         this.indexer = indexer;
     }
 
+    public IndexerEngine getIndexerEngine()
+    {
+        return indexerEngine;
+    }
+
+    public void setIndexerEngine(IndexerEngine indexerEngine)
+    {
+        this.indexerEngine = indexerEngine;
+    }
+
     public Scanner getScanner()
     {
         return scanner;
@@ -420,4 +724,51 @@ public class RepositoryIndexer
     {
         this.applicationContext = applicationContext;
     }
+
+    public int getBatchSize()
+    {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize)
+    {
+        this.batchSize = batchSize;
+    }
+
+    public long getCommitIntervalMillis()
+    {
+        return commitIntervalMillis;
+    }
+
+    public void setCommitIntervalMillis(long commitIntervalMillis)
+    {
+        this.commitIntervalMillis = commitIntervalMillis;
+    }
+
+    public ScheduledExecutorService getCommitScheduler()
+    {
+        return commitScheduler;
+    }
+
+    public void setCommitScheduler(ScheduledExecutorService commitScheduler)
+    {
+        this.commitScheduler = commitScheduler;
+    }
+
+    private static class IndexOperation
+    {
+
+        private final ArtifactContext artifactContext;
+
+        private final boolean delete;
+
+        private IndexOperation(ArtifactContext artifactContext,
+                               boolean delete)
+        {
+            this.artifactContext = artifactContext;
+            this.delete = delete;
+        }
+
+    }
+
 }
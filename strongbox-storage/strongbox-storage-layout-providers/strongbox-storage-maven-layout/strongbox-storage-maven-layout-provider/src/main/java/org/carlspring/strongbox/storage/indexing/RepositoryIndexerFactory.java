@@ -10,24 +10,34 @@ import org.carlspring.strongbox.xml.configuration.repository.MavenRepositoryConf
 import javax.inject.Inject;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
+import org.apache.maven.index.IndexerEngine;
 import org.apache.maven.index.context.IndexCreator;
 import org.apache.maven.index.context.IndexingContext;
 import org.apache.maven.index.creator.JarFileContentsIndexCreator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.stereotype.Component;
 
 /**
+ * Creates the {@link RepositoryIndexer}s, which share the same commit policy: the changes are committed in batches of
+ * {@code strongbox.maven.index.batch.size}, or {@code strongbox.maven.index.commit.interval.millis} after they have
+ * been queued, on a single commit thread.
+ *
  * @author mtodorov
  */
 @Component("repositoryIndexerFactory")
 @Conditional(MavenIndexerEnabledCondition.class)
 public class RepositoryIndexerFactory
+        implements DisposableBean
 {
 
     private static final Logger logger = LoggerFactory.getLogger(RepositoryIndexerFactory.class);
@@ -35,12 +45,34 @@ public class RepositoryIndexerFactory
     @Inject
     private IndexerConfiguration indexerConfiguration;
 
+    @Inject
+    private IndexerEngine indexerEngine;
+
     @Inject
     private ApplicationContext applicationContext;
 
     @Inject
     private ConfigurationManager configurationManager;
 
+    @Value("${strongbox.maven.index.batch.size:500}")
+    private int batchSize;
+
+    @Value("${strongbox.maven.index.commit.interval.millis:1000}")
+    private long commitIntervalMillis;
+
+    private final ScheduledExecutorService commitScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "strongbox-maven-index-commit");
+        thread.setDaemon(true);
+
+        return thread;
+    });
+
+    @Override
+    public void destroy()
+    {
+        commitScheduler.shutdown();
+    }
+
     public RepositoryIndexer createRepositoryIndexer(String storageId,
                                                      String repositoryId,
                                                      String indexType,
@@ -66,9 +98,13 @@ public class RepositoryIndexerFactory
         repositoryIndexer.setIndexDir(indexDir);
         repositoryIndexer.setIndexingContext(indexingContext);
         repositoryIndexer.setIndexer(indexerConfiguration.getIndexer());
+        repositoryIndexer.setIndexerEngine(indexerEngine);
         repositoryIndexer.setScanner(indexerConfiguration.getScanner());
         repositoryIndexer.setConfiguration(configurationManager.getConfiguration());
         repositoryIndexer.setApplicationContext(applicationContext);
+        repositoryIndexer.setBatchSize(batchSize);
+        repositoryIndexer.setCommitIntervalMillis(commitIntervalMillis);
+        repositoryIndexer.setCommitScheduler(commitScheduler);
 
         return repositoryIndexer;
     }
@@ -0,0 +1,395 @@
+package org.carlspring.strongbox.storage.metadata;
+
+import org.carlspring.strongbox.event.repository.RepositoryEvent;
+import org.carlspring.strongbox.event.repository.RepositoryEventTypeEnum;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryPathCache;
+import org.carlspring.strongbox.providers.io.RepositoryPathKey;
+import org.carlspring.strongbox.providers.io.RepositoryPathLock;
+import org.carlspring.strongbox.util.MultipleMessageDigest;
+
+import javax.inject.Inject;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Writer;
+import org.codehaus.plexus.util.WriterFactory;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * The merged {@code maven-metadata.xml} files of the group repositories, keyed by storage, repository and artifact
+ * base path. Each entry holds the parsed {@link Metadata}, its serialized content and the checksums of the content,
+ * so that the group metadata (and its checksum files) is served from memory, see
+ * {@link org.carlspring.strongbox.providers.layout.Maven2FileSystemProvider#newInputStream}, and the member metadata
+ * is merged into the cached model, see {@link MavenMetadataManager#mergeAndStoreGroupMetadata}.
+ * <p>
+ * Entries are replaced whenever the metadata of a member repository is stored and merged into the group, and they are
+ * loaded from the file system when a group metadata file is first read. Writing or deleting the metadata of a group
+ * through the provider invalidates its entry, and so does creating or deleting its repository. Each entry remembers
+ * the modification time of the file it was stored to or loaded from, and it's dropped as soon as the file has another
+ * modification time or size, so that the changes made by other nodes, or behind the provider's back, are neither
+ * served stale nor overwritten by a merge. In any case the entries expire after
+ * {@code strongbox.maven.metadata.group.cache.ttl.millis}.
+ * <p>
+ * The cache is disabled unless {@code strongbox.maven.metadata.group.cache.enabled} is set. It's a
+ * {@link RepositoryPathCache} of {@code strongbox.maven.metadata.group.cache.max.size} entries, with
+ * {@code strongbox.maven.metadata.group.cache.*} metrics.
+ */
+@Component
+public class MavenGroupMetadataCache
+        implements InitializingBean
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(MavenGroupMetadataCache.class);
+
+    private static final String METRIC_PREFIX = "strongbox.maven.metadata.group.cache";
+
+    @Inject
+    private RepositoryPathLock repositoryPathLock;
+
+    @Value("${strongbox.maven.metadata.group.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${strongbox.maven.metadata.group.cache.max.size:10000}")
+    private int maxSize;
+
+    @Value("${strongbox.maven.metadata.group.cache.ttl.millis:600000}")
+    private long ttlMillis;
+
+    private RepositoryPathCache<CachedGroupMetadata> cache;
+
+    @Override
+    public void afterPropertiesSet()
+    {
+        cache = new RepositoryPathCache<>(METRIC_PREFIX, maxSize, ttlMillis);
+    }
+
+    /**
+     * @return the content of the group {@code maven-metadata.xml} file or of one of its checksum files, or
+     *         {@code null} if the path is not such a file, or its metadata can't be cached.
+     */
+    public byte[] getContent(RepositoryPath path)
+            throws IOException
+    {
+        if (!enabled || !path.getRepository().isGroupRepository() || path.getFileName() == null)
+        {
+            return null;
+        }
+
+        String fileName = path.getFileName().toString();
+        if (!fileName.startsWith(MetadataHelper.MAVEN_METADATA_XML))
+        {
+            return null;
+        }
+
+        String extension = fileName.substring(MetadataHelper.MAVEN_METADATA_XML.length());
+        if (!extension.isEmpty() && !extension.startsWith("."))
+        {
+            return null;
+        }
+
+        RepositoryPath metadataBasePath = path.getParent();
+        CachedGroupMetadata result = get(metadataBasePath);
+        if (result == null)
+        {
+            result = load(metadataBasePath);
+        }
+
+        if (result == null)
+        {
+            return null;
+        }
+        if (extension.isEmpty())
+        {
+            return result.content;
+        }
+
+        String checksum = result.checksums.get(extension.substring(1));
+
+        return checksum != null ? checksum.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * @return the cached metadata of the artifact base path, or {@code null} if there is none, it has been expired,
+     *         or the file has been changed since.
+     */
+    public CachedGroupMetadata get(RepositoryPath metadataBasePath)
+            throws IOException
+    {
+        if (!enabled)
+        {
+            return null;
+        }
+
+        try
+        {
+            return cache.getIfCurrent(RepositoryPathKey.of(metadataBasePath), m -> isCurrent(metadataBasePath, m));
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Serializes the metadata and calculates the checksums of the content, with the digest algorithms of the
+     * repository. The entry is not cached until it's {@link #put(RepositoryPath, CachedGroupMetadata) put}.
+     */
+    public CachedGroupMetadata newEntry(RepositoryPath metadataBasePath,
+                                        Metadata metadata)
+            throws IOException
+    {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        Writer writer = WriterFactory.newXmlWriter(os);
+        new MetadataXpp3Writer().write(writer, metadata);
+        writer.flush();
+
+        return newEntry(metadataBasePath, metadata, os.toByteArray());
+    }
+
+    /**
+     * Caches the entry, once its content has been stored to (or loaded from) the file system, along with the
+     * modification time of the file.
+     */
+    public void put(RepositoryPath metadataBasePath,
+                    CachedGroupMetadata groupMetadata)
+            throws IOException
+    {
+        if (!enabled || groupMetadata == null)
+        {
+            return;
+        }
+
+        BasicFileAttributes attributes = readAttributes(metadataBasePath);
+        if (attributes == null || attributes.size() != groupMetadata.content.length)
+        {
+            return;
+        }
+        groupMetadata.lastModified = attributes.lastModifiedTime();
+
+        cache.put(RepositoryPathKey.of(metadataBasePath), groupMetadata);
+    }
+
+    /**
+     * Invalidates the metadata of the group {@code maven-metadata.xml} file (or of one of its checksum files).
+     */
+    public void invalidate(RepositoryPath path)
+    {
+        if (cache.isEmpty() || path.getFileName() == null ||
+            !path.getFileName().toString().startsWith(MetadataHelper.MAVEN_METADATA_XML))
+        {
+            return;
+        }
+
+        cache.invalidate(RepositoryPathKey.of(path.getParent()));
+    }
+
+    /**
+     * Invalidates the metadata of the path and of everything under it.
+     */
+    public void invalidateTree(RepositoryPath path)
+    {
+        if (cache.isEmpty())
+        {
+            return;
+        }
+
+        cache.invalidateTree(RepositoryPathKey.of(path));
+    }
+
+    public void invalidateAll()
+    {
+        cache.invalidateAll();
+    }
+
+    /**
+     * A repository might have been recreated, with other files than the ones cached.
+     */
+    @EventListener
+    public void handle(RepositoryEvent event)
+    {
+        if (cache.isEmpty() ||
+            event.getType() != RepositoryEventTypeEnum.EVENT_REPOSITORY_CREATED.getType() &&
+            event.getType() != RepositoryEventTypeEnum.EVENT_REPOSITORY_DELETED.getType())
+        {
+            return;
+        }
+
+        cache.invalidateRepository(event.getStorageId(), event.getRepositoryId());
+    }
+
+    private boolean isCurrent(RepositoryPath metadataBasePath,
+                              CachedGroupMetadata groupMetadata)
+    {
+        BasicFileAttributes attributes;
+        try
+        {
+            attributes = readAttributes(metadataBasePath);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+
+        return attributes != null && attributes.size() == groupMetadata.content.length &&
+               attributes.lastModifiedTime().equals(groupMetadata.lastModified);
+    }
+
+    /**
+     * @return the attributes of the metadata file, or {@code null} if there is no such file
+     */
+    private BasicFileAttributes readAttributes(RepositoryPath metadataBasePath)
+            throws IOException
+    {
+        try
+        {
+            return Files.readAttributes(getMetadataFile(metadataBasePath), BasicFileAttributes.class);
+        }
+        catch (NoSuchFileException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * The metadata file is accessed bypassing the layout provider, which serves it from this cache.
+     */
+    private Path getMetadataFile(RepositoryPath metadataBasePath)
+    {
+        return metadataBasePath.resolve(MetadataHelper.MAVEN_METADATA_XML).toFile().toPath();
+    }
+
+    /**
+     * Reads the metadata from the file system.
+     */
+    private CachedGroupMetadata load(RepositoryPath metadataBasePath)
+            throws IOException
+    {
+        Lock lock = repositoryPathLock.lock(metadataBasePath).readLock();
+        lock.lock();
+
+        try
+        {
+            Path metadataPath = getMetadataFile(metadataBasePath);
+            if (!Files.isRegularFile(metadataPath))
+            {
+                return null;
+            }
+
+            byte[] content = Files.readAllBytes(metadataPath);
+            Metadata metadata = new MetadataXpp3Reader().read(new ByteArrayInputStream(content));
+
+            CachedGroupMetadata result = newEntry(metadataBasePath, metadata, content);
+            put(metadataBasePath, result);
+
+            return result;
+        }
+        catch (XmlPullParserException e)
+        {
+            logger.warn(String.format("Unable to parse the group metadata of [%s].", metadataBasePath), e);
+
+            return null;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private CachedGroupMetadata newEntry(RepositoryPath metadataBasePath,
+                                         Metadata metadata,
+                                         byte[] content)
+            throws IOException
+    {
+        Map<String, String> checksums = new LinkedHashMap<>();
+        try
+        {
+            MultipleMessageDigest digest = new MultipleMessageDigest(metadataBasePath.getFileSystem()
+                                                                                     .getDigestAlgorithmSet());
+            digest.update(content, 0, content.length);
+            digest.finish();
+
+            for (String algorithm : digest.getAlgorithms())
+            {
+                // The same extensions as the checksum files, see LayoutFileSystemProvider.getChecksumPath().
+                checksums.put(algorithm.toLowerCase().replaceAll("-", ""), digest.getHexDigest(algorithm));
+            }
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IOException(e);
+        }
+
+        return new CachedGroupMetadata(metadata, content, checksums);
+    }
+
+    /**
+     * The merged metadata of a group repository artifact. The metadata model must not be modified, it has to be
+     * cloned before merging.
+     */
+    public static class CachedGroupMetadata
+    {
+
+        private final Metadata metadata;
+
+        private final byte[] content;
+
+        private final Map<String, String> checksums;
+
+        /**
+         * The modification time of the file the content was stored to, or loaded from, set when it's cached.
+         */
+        private volatile FileTime lastModified;
+
+        private CachedGroupMetadata(Metadata metadata,
+                                    byte[] content,
+                                    Map<String, String> checksums)
+        {
+            this.metadata = metadata;
+            this.content = content;
+            this.checksums = Collections.unmodifiableMap(checksums);
+        }
+
+        public Metadata getMetadata()
+        {
+            return metadata;
+        }
+
+        public byte[] getContent()
+        {
+            return content;
+        }
+
+        /**
+         * @return the hex checksums of the content, by checksum file extension (like {@code md5} or {@code sha1}).
+         */
+        public Map<String, String> getChecksums()
+        {
+            return checksums;
+        }
+
+    }
+
+}
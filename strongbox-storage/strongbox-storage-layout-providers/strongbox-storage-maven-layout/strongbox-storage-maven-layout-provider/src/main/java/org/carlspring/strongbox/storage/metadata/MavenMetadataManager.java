@@ -24,6 +24,7 @@ import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.function.Consumer;
 
@@ -61,6 +62,12 @@ public class MavenMetadataManager
     @Inject
     private RepositoryPathLock repositoryPathLock;
 
+    @Inject
+    private MavenVersionCatalog mavenVersionCatalog;
+
+    @Inject
+    private MavenGroupMetadataCache mavenGroupMetadataCache;
+
 
     public Metadata readMetadata(MavenArtifact artifact)
             throws IOException,
@@ -154,6 +161,19 @@ public class MavenMetadataManager
         );
     }
 
+    /**
+     * Collects the versions of an artifact from the {@link MavenVersionCatalog}, or from the file system if the
+     * catalog can't provide them. Used only on deployment, the metadata rebuild collects the versions from the file
+     * system.
+     */
+    public VersionCollectionRequest collectVersions(RepositoryPath artifactBasePath)
+            throws IOException
+    {
+        VersionCollectionRequest request = mavenVersionCatalog.collectVersions(artifactBasePath);
+
+        return request != null ? request : new VersionCollector().collectVersions(artifactBasePath.toAbsolutePath());
+    }
+
     /**
      * Generate a metadata file for an artifact.
      */
@@ -236,11 +256,21 @@ public class MavenMetadataManager
                 metadata.setVersioning(versioning);
 
                 // Generate and write additional snapshot metadata.
-                for (String version : metadata.getVersioning().getVersions())
+                for (MetadataVersion metadataVersion : baseVersioning)
                 {
+                    String version = metadataVersion.getVersion();
                     RepositoryPath snapshotBasePath = artifactGroupDirectoryPath.toAbsolutePath()
                                                                                 .resolve(MavenArtifactUtils.getSnapshotBaseVersion(version));
 
+                    // The timestamped snapshots are collected along with the versions, when they come from the
+                    // version catalog.
+                    if (!metadataVersion.getSnapshots().isEmpty())
+                    {
+                        generateSnapshotVersioningMetadata(artifactGroupId, artifactId, snapshotBasePath, version,
+                                                           metadataVersion.getSnapshots(), true);
+                        continue;
+                    }
+
                     generateSnapshotVersioningMetadata(artifactGroupId, artifactId, snapshotBasePath,
                                                        version, true);
                 }
@@ -269,6 +299,220 @@ public class MavenMetadataManager
         }
     }
 
+    /**
+     * Merges the version of a newly stored POM into the existing metadata of its artifact, instead of collecting and
+     * parsing the POM-s of all the versions as {@link #generateMetadata(RepositoryPath, VersionCollectionRequest)}
+     * does. The snapshot metadata of the version and the plugin metadata of the group are updated as well, where
+     * needed.
+     * <p>
+     * When the artifact has no metadata yet, or it can't be read, the metadata is generated from all the versions.
+     *
+     * @return the artifact base path, if the versions of the artifact metadata have changed
+     */
+    public RepositoryPath mergeVersion(RepositoryPath pomPath)
+            throws IOException
+    {
+        RepositoryPath artifactGroupDirectoryPath = pomPath.getParent().getParent();
+        Repository repository = artifactGroupDirectoryPath.getRepository();
+
+        boolean release = repository.getPolicy().equals(RepositoryPolicyEnum.RELEASE.getPolicy());
+        boolean snapshot = repository.getPolicy().equals(RepositoryPolicyEnum.SNAPSHOT.getPolicy());
+        if (!release && !snapshot)
+        {
+            // The metadata is not generated for the other policies, see generateMetadata().
+            return null;
+        }
+
+        VersionCollectionRequest request = new VersionCollector().collectVersion(pomPath);
+        if (request.getMetadataVersions().isEmpty())
+        {
+            return null;
+        }
+
+        String version = request.getMetadataVersions().get(0).getVersion();
+        Pair<String, String> artifactGroup = MavenArtifactUtils.getArtifactGroupId(artifactGroupDirectoryPath);
+
+        AtomicBoolean generated = new AtomicBoolean();
+        AtomicBoolean merged = new AtomicBoolean();
+        doInLock(artifactGroupDirectoryPath,
+                 (RepositoryPath) MetadataHelper.getArtifactMetadataPath(artifactGroupDirectoryPath), path ->
+        {
+            try
+            {
+                Metadata metadata = readArtifactMetadata(path);
+                if (metadata == null)
+                {
+                    generateMetadata(artifactGroupDirectoryPath, collectVersions(artifactGroupDirectoryPath));
+                    generated.set(true);
+
+                    return;
+                }
+
+                if (mergeVersion(metadata, version, release))
+                {
+                    storeMetadata(artifactGroupDirectoryPath, null, metadata, MetadataType.ARTIFACT_ROOT_LEVEL);
+                    merged.set(true);
+                }
+            }
+            catch (Exception e)
+            {
+                throw new UndeclaredThrowableException(e);
+            }
+        });
+
+        if (generated.get())
+        {
+            // The metadata has been generated from all the versions, along with the snapshot and plugin metadata.
+            return artifactGroupDirectoryPath;
+        }
+
+        if (snapshot)
+        {
+            RepositoryPath snapshotBasePath = artifactGroupDirectoryPath.toAbsolutePath()
+                                                                        .resolve(MavenArtifactUtils.getSnapshotBaseVersion(version));
+
+            // The timestamped snapshots are listed and stored under the lock, so that concurrent deployments of the
+            // same snapshot version can't store an older listing over a newer one.
+            doInLock(artifactGroupDirectoryPath, snapshotBasePath, path ->
+            {
+                try
+                {
+                    generateSnapshotVersioningMetadata(artifactGroup.getValue0(), artifactGroup.getValue1(),
+                                                       snapshotBasePath, version, true);
+                }
+                catch (IOException e)
+                {
+                    throw new UndeclaredThrowableException(e);
+                }
+            });
+        }
+
+        if (!request.getPlugins().isEmpty())
+        {
+            mergeMavenPluginMetadata(artifactGroupDirectoryPath.getParent(), request.getPlugins());
+        }
+
+        if (!merged.get())
+        {
+            return null;
+        }
+
+        logger.debug("Merged version " + version + " into the Maven metadata of " + artifactGroup.getValue0() + ":" +
+                     artifactGroup.getValue1() + ".");
+
+        return artifactGroupDirectoryPath;
+    }
+
+    /**
+     * Adds the version to the artifact level metadata, unless it's listed already, and updates the latest (and
+     * release) version accordingly.
+     *
+     * @return {@code true} if the version has been added
+     */
+    boolean mergeVersion(Metadata metadata,
+                         String version,
+                         boolean release)
+    {
+        Versioning versioning = metadata.getVersioning();
+        if (versioning == null)
+        {
+            versioning = new Versioning();
+            metadata.setVersioning(versioning);
+        }
+        if (versioning.getVersions().contains(version))
+        {
+            return false;
+        }
+
+        versioning.addVersion(version);
+        versioning.getVersions().sort(new VersionComparator());
+
+        String latestVersion = versioning.getVersions().get(versioning.getVersions().size() - 1);
+        versioning.setLatest(latestVersion);
+        if (release)
+        {
+            versioning.setRelease(latestVersion);
+        }
+        MetadataHelper.setLastUpdated(versioning);
+
+        return true;
+    }
+
+    /**
+     * @return {@code null} if there is no metadata, or it can't be read
+     */
+    private Metadata readArtifactMetadata(Path metadataPath)
+    {
+        if (!Files.exists(metadataPath))
+        {
+            return null;
+        }
+
+        try (InputStream is = Files.newInputStream(metadataPath))
+        {
+            return readMetadata(is);
+        }
+        catch (XmlPullParserException | IOException e)
+        {
+            logger.warn(String.format("Failed to read [%s], the metadata will be regenerated.", metadataPath), e);
+
+            return null;
+        }
+    }
+
+    /**
+     * Adds the plugins which are missing from the plugin metadata, which is stored where
+     * {@link #generateMavenPluginMetadata(String, String, RepositoryPath, List)} stores it.
+     */
+    private void mergeMavenPluginMetadata(RepositoryPath pluginMetadataPath,
+                                          List<Plugin> plugins)
+            throws IOException
+    {
+        doInLock(pluginMetadataPath, (RepositoryPath) MetadataHelper.getPluginMetadataPath(pluginMetadataPath),
+                 metadataPath ->
+        {
+            Metadata pluginMetadata = new Metadata();
+            if (Files.exists(metadataPath))
+            {
+                try (InputStream is = Files.newInputStream(metadataPath))
+                {
+                    pluginMetadata = readMetadata(is);
+                }
+                catch (XmlPullParserException | IOException e)
+                {
+                    logger.warn(String.format("Failed to read [%s], the plugin metadata will be replaced.",
+                                              metadataPath), e);
+                }
+            }
+
+            boolean updated = false;
+            for (Plugin plugin : plugins)
+            {
+                if (pluginMetadata.getPlugins()
+                                  .stream()
+                                  .noneMatch(p -> plugin.getArtifactId().equals(p.getArtifactId())))
+                {
+                    pluginMetadata.addPlugin(plugin);
+                    updated = true;
+                }
+            }
+
+            if (!updated)
+            {
+                return;
+            }
+
+            try
+            {
+                storeMetadata(pluginMetadataPath, null, pluginMetadata, MetadataType.PLUGIN_GROUP_LEVEL);
+            }
+            catch (IOException e)
+            {
+                throw new UndeclaredThrowableException(e);
+            }
+        });
+    }
+
     private void generateMavenPluginMetadata(String groupId, String aritfactId, RepositoryPath pluginMetadataPath, List<Plugin> plugins) throws IOException
     {
         Metadata pluginMetadata = new Metadata();
@@ -286,10 +530,25 @@ public class MavenMetadataManager
                                                        boolean store)
             throws IOException
     {
-        VersionCollector versionCollector = new VersionCollector();
-        List<SnapshotVersion> snapshotVersions = versionCollector.collectTimestampedSnapshotVersions(snapshotBasePath);
+        List<SnapshotVersion> snapshotVersions = new VersionCollector().collectTimestampedSnapshotVersions(
+                snapshotBasePath);
 
-        Versioning snapshotVersioning = versionCollector.generateSnapshotVersions(snapshotVersions);
+        return generateSnapshotVersioningMetadata(groupId, aritfactId, snapshotBasePath, version, snapshotVersions,
+                                                  store);
+    }
+
+    /**
+     * Generates the snapshot metadata from timestamped snapshot versions which have been collected already, in order.
+     */
+    public Metadata generateSnapshotVersioningMetadata(String groupId,
+                                                       String aritfactId,
+                                                       RepositoryPath snapshotBasePath,
+                                                       String version,
+                                                       List<SnapshotVersion> snapshotVersions,
+                                                       boolean store)
+            throws IOException
+    {
+        Versioning snapshotVersioning = new VersionCollector().generateSnapshotVersions(snapshotVersions);
 
         MetadataHelper.setupSnapshotVersioning(snapshotVersioning);
 
@@ -351,6 +610,98 @@ public class MavenMetadataManager
         });
     }
 
+    /**
+     * Merges the metadata of a member repository into the {@code maven-metadata.xml} of a group repository.
+     * <p>
+     * The metadata is merged into the model cached by the {@link MavenGroupMetadataCache}, if the file hasn't been
+     * changed since it was cached, or else into the metadata read from the file system under the lock. It's serialized
+     * once: the same content is stored and cached, along with its checksums. Nothing is stored if the merge doesn't
+     * change the group metadata.
+     */
+    public void mergeAndStoreGroupMetadata(final RepositoryPath metadataBasePath,
+                                           final Metadata mergeMetadata) throws IOException
+    {
+        doInLock(metadataBasePath, path ->
+        {
+            try
+            {
+                Path metadataPath = MetadataHelper.getMetadataPath(metadataBasePath);
+
+                MavenGroupMetadataCache.CachedGroupMetadata cached = mavenGroupMetadataCache.get(metadataBasePath);
+                Metadata metadata = cached != null ? cached.getMetadata().clone() : readGroupMetadata(metadataPath);
+
+                boolean changed = true;
+                if (metadata == null)
+                {
+                    metadata = mergeMetadata.clone();
+                }
+                else
+                {
+                    changed = metadata.merge(mergeMetadata);
+                }
+
+                if (!changed && cached != null)
+                {
+                    return;
+                }
+
+                Versioning versioning = metadata.getVersioning();
+                if (versioning != null && versioning.getVersions() != null)
+                {
+                    versioning.getVersions().sort(new VersionComparator());
+                }
+                if (versioning != null && versioning.getSnapshotVersions() != null)
+                {
+                    versioning.getSnapshotVersions().sort(new SnapshotVersionComparator());
+                }
+
+                MavenGroupMetadataCache.CachedGroupMetadata groupMetadata =
+                        mavenGroupMetadataCache.newEntry(metadataBasePath, metadata);
+
+                // Stored even if unchanged, when it's not cached yet, so the file matches the cached content.
+                Files.createDirectories(metadataBasePath);
+                try (OutputStream os = new MultipleDigestOutputStream(metadataPath,
+                                                                      Files.newOutputStream(metadataPath,
+                                                                                            StandardOpenOption.CREATE,
+                                                                                            StandardOpenOption.TRUNCATE_EXISTING)))
+                {
+                    os.write(groupMetadata.getContent());
+                    os.flush();
+                }
+
+                mavenGroupMetadataCache.put(metadataBasePath, groupMetadata);
+            }
+            catch (IOException e)
+            {
+                mavenGroupMetadataCache.invalidate((RepositoryPath) MetadataHelper.getMetadataPath(metadataBasePath));
+
+                throw new UndeclaredThrowableException(e);
+            }
+        });
+    }
+
+    private Metadata readGroupMetadata(Path metadataPath)
+    {
+        if (!Files.exists(metadataPath))
+        {
+            return null;
+        }
+
+        // Read from the file system, the layout provider serves the group metadata from the cache.
+        try (InputStream is = Files.newInputStream(metadataPath.toFile().toPath()))
+        {
+            return readMetadata(is);
+        }
+        catch (Exception e)
+        {
+            // Exception not propagated, intentionally
+            logger.debug("Unable to read the group metadata " + metadataPath +
+                         ". Exception message was: {}. Continuing with storing new metadata ...", e.getMessage());
+
+            return null;
+        }
+    }
+
     public void mergeAndStore(MavenArtifact artifact,
                               Metadata mergeMetadata)
             throws IOException,
@@ -429,4 +780,36 @@ public class MavenMetadataManager
         }
     }
 
+    /**
+     * Locks the metadata file as well, the way a client storing the file does, so that a read-modify-write of the
+     * metadata doesn't lose a concurrent client update. The base path is locked first, as by
+     * {@link #storeMetadata(RepositoryPath, String, Metadata, MetadataType)}.
+     */
+    private void doInLock(RepositoryPath metadataBasePath,
+                          RepositoryPath metadataPath,
+                          Consumer<Path> operation) throws IOException
+    {
+        Lock baseLock = repositoryPathLock.lock(metadataBasePath).writeLock();
+        Lock lock = repositoryPathLock.lock(metadataPath).writeLock();
+        baseLock.lock();
+
+        try
+        {
+            lock.lock();
+
+            try
+            {
+                operation.accept(metadataPath);
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+        finally
+        {
+            baseLock.unlock();
+        }
+    }
+
 }
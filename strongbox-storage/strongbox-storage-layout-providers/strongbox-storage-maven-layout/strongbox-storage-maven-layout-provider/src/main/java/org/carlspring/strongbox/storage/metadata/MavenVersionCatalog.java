@@ -0,0 +1,235 @@
+package org.carlspring.strongbox.storage.metadata;
+
+import org.carlspring.maven.commons.util.ArtifactUtils;
+import org.carlspring.strongbox.artifact.MavenArtifactUtils;
+import org.carlspring.strongbox.domain.ArtifactCatalogEntry;
+import org.carlspring.strongbox.io.filters.ArtifactVersionDirectoryFilter;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
+import org.carlspring.strongbox.storage.metadata.comparators.MetadataVersionComparator;
+import org.carlspring.strongbox.storage.metadata.comparators.SnapshotVersionComparator;
+import org.carlspring.strongbox.storage.metadata.versions.MetadataVersion;
+import org.carlspring.strongbox.storage.repository.Repository;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.artifact.repository.metadata.SnapshotVersion;
+import org.javatuples.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collects the versions of an artifact for its {@code maven-metadata.xml} from the database, instead of listing the
+ * version directories and parsing the POM of each version like {@link VersionCollector} does.
+ * <p>
+ * The catalog of an artifact is made of the coordinates and creation times of the entries of its
+ * {@link org.carlspring.strongbox.domain.RepositoryArtifactIdGroupEntry}, which is read with a single indexed query.
+ * Every version with a POM is listed, sorted the same way as {@link MetadataVersionComparator} does, along with the
+ * timestamped snapshots of each snapshot version. Only the POM of the latest version is parsed, to tell if the
+ * artifact is a Maven plugin.
+ * <p>
+ * The created date of a version, which orders the versions deployed at the same time, is the creation time of the
+ * entry of its latest POM, rather than the last modification time of its directory as with {@link VersionCollector}.
+ * <p>
+ * The catalog is used only when the metadata of an artifact is generated on deployment, the metadata rebuild always
+ * collects the versions from the file system.
+ * <p>
+ * Artifacts which were put into the storage directly, without going through the repository providers, are not in the
+ * catalog. Unless {@code strongbox.maven.metadata.catalog.verify} is turned off, the names of the version directories
+ * are listed (only the unknown ones are checked for a POM), and the catalog is used only if it covers all of them;
+ * the timestamped snapshots are then collected from the version directories as well. The catalog can be disabled
+ * with {@code strongbox.maven.metadata.catalog.enabled}.
+ */
+@Component
+public class MavenVersionCatalog
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(MavenVersionCatalog.class);
+
+    @Inject
+    private RepositoryArtifactIdGroupService repositoryArtifactIdGroupService;
+
+    @Value("${strongbox.maven.metadata.catalog.enabled:true}")
+    private boolean enabled;
+
+    @Value("${strongbox.maven.metadata.catalog.verify:true}")
+    private boolean verify;
+
+    /**
+     * @return the versions of the artifact, or {@code null} if they have to be collected from the file system
+     */
+    public VersionCollectionRequest collectVersions(RepositoryPath artifactBasePath)
+            throws IOException
+    {
+        if (!enabled)
+        {
+            return null;
+        }
+
+        Repository repository = artifactBasePath.getRepository();
+        Pair<String, String> artifactGroup = MavenArtifactUtils.getArtifactGroupId(artifactBasePath);
+        String artifactId = artifactGroup.getValue1();
+
+        List<ArtifactCatalogEntry> catalog = repositoryArtifactIdGroupService.findCatalog(repository.getStorage()
+                                                                                                    .getId(),
+                                                                                          repository.getId(),
+                                                                                          String.format("%s/%s",
+                                                                                                        artifactGroup.getValue0(),
+                                                                                                        artifactId));
+
+        // The versions which have a POM, by their directory name, along with the latest POM of each one.
+        Map<String, MetadataVersion> versions = new LinkedHashMap<>();
+        Map<String, ArtifactCatalogEntry> poms = new LinkedHashMap<>();
+        for (ArtifactCatalogEntry entry : catalog)
+        {
+            String version = entry.getCoordinate("version");
+            if (version == null || !"pom".equals(entry.getCoordinate("extension")) ||
+                entry.getCoordinate("classifier") != null)
+            {
+                continue;
+            }
+
+            String baseVersion = ArtifactUtils.isSnapshot(version) ? ArtifactUtils.getSnapshotBaseVersion(version) :
+                                 version;
+            MetadataVersion metadataVersion = versions.computeIfAbsent(baseVersion, v -> {
+                MetadataVersion result = new MetadataVersion();
+                result.setVersion(v);
+
+                return result;
+            });
+
+            FileTime created = toFileTime(entry.getCreated());
+            if (metadataVersion.getCreatedDate() == null || metadataVersion.getCreatedDate().compareTo(created) < 0)
+            {
+                metadataVersion.setCreatedDate(created);
+                poms.put(baseVersion, entry);
+            }
+        }
+
+        if (versions.isEmpty())
+        {
+            return null;
+        }
+
+        if (verify && !coversVersionDirectories(artifactBasePath, versions.keySet()))
+        {
+            logger.debug(String.format("The version catalog of [%s] is incomplete.", artifactBasePath));
+
+            return null;
+        }
+
+        if (!verify)
+        {
+            for (ArtifactCatalogEntry entry : catalog)
+            {
+                addSnapshotVersion(versions, entry);
+            }
+        }
+
+        List<MetadataVersion> metadataVersions = new ArrayList<>(versions.values());
+        metadataVersions.sort(new MetadataVersionComparator());
+        for (MetadataVersion metadataVersion : metadataVersions)
+        {
+            metadataVersion.getSnapshots().sort(new SnapshotVersionComparator());
+        }
+
+        VersionCollector versionCollector = new VersionCollector();
+
+        VersionCollectionRequest request = new VersionCollectionRequest();
+        request.setArtifactBasePath(artifactBasePath);
+        request.setMetadataVersions(metadataVersions);
+        request.setVersioning(versionCollector.generateVersioning(metadataVersions));
+
+        // A plugin is told by the packaging of its POM, which is only parsed for the latest version.
+        MetadataVersion latestVersion = metadataVersions.get(metadataVersions.size() - 1);
+        ArtifactCatalogEntry latestPom = poms.get(latestVersion.getVersion());
+        Path latestPomPath = artifactBasePath.resolve(latestVersion.getVersion())
+                                             .resolve(String.format("%s-%s.pom", artifactId,
+                                                                    latestPom.getCoordinate("version")));
+        if (!Files.exists(latestPomPath))
+        {
+            return null;
+        }
+        request.setPlugins(versionCollector.collectVersion(latestPomPath).getPlugins());
+
+        return request;
+    }
+
+    private boolean coversVersionDirectories(RepositoryPath artifactBasePath,
+                                             Set<String> versions)
+            throws IOException
+    {
+        ArtifactVersionDirectoryFilter versionDirectoryFilter = new ArtifactVersionDirectoryFilter();
+
+        Set<String> versionDirectories = new HashSet<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(artifactBasePath, path -> Files.isDirectory(path)))
+        {
+            for (Path directoryPath : ds)
+            {
+                String directoryName = directoryPath.getFileName().toString();
+                if (versions.contains(directoryName))
+                {
+                    versionDirectories.add(directoryName);
+                }
+                else if (versionDirectoryFilter.accept(directoryPath))
+                {
+                    // A version which is not in the catalog.
+                    return false;
+                }
+            }
+        }
+
+        // Versions which have been removed from the file system are dropped from the catalog.
+        versions.retainAll(versionDirectories);
+
+        return !versions.isEmpty();
+    }
+
+    private void addSnapshotVersion(Map<String, MetadataVersion> versions,
+                                    ArtifactCatalogEntry entry)
+    {
+        String version = entry.getCoordinate("version");
+        if (version == null || !ArtifactUtils.isSnapshot(version))
+        {
+            return;
+        }
+
+        // Only the timestamped files are listed in the snapshot metadata.
+        String baseVersion = ArtifactUtils.getSnapshotBaseVersion(version);
+        MetadataVersion metadataVersion = versions.get(baseVersion);
+        if (metadataVersion == null || baseVersion.equals(version))
+        {
+            return;
+        }
+
+        SnapshotVersion snapshotVersion = new SnapshotVersion();
+        snapshotVersion.setVersion(version);
+        snapshotVersion.setExtension(entry.getCoordinate("extension"));
+        snapshotVersion.setClassifier(entry.getCoordinate("classifier"));
+        snapshotVersion.setUpdated(MetadataHelper.getDateFormatInstance()
+                                                 .format(entry.getCreated() != null ? entry.getCreated() :
+                                                         new Date()));
+
+        metadataVersion.getSnapshots().add(snapshotVersion);
+    }
+
+    private FileTime toFileTime(Date date)
+    {
+        return FileTime.fromMillis(date != null ? date.getTime() : 0L);
+    }
+
+}
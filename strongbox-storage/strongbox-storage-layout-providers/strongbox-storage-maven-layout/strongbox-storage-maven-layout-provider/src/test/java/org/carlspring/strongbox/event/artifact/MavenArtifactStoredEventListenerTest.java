@@ -0,0 +1,127 @@
+package org.carlspring.strongbox.event.artifact;
+
+import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
+import org.carlspring.strongbox.services.ArtifactManagementService;
+import org.carlspring.strongbox.storage.metadata.MetadataHelper;
+import org.carlspring.strongbox.storage.repository.MutableRepository;
+import org.carlspring.strongbox.storage.repository.RepositoryPolicyEnum;
+import org.carlspring.strongbox.testing.TestCaseWithMavenArtifactGenerationAndIndexing;
+
+import javax.inject.Inject;
+import javax.xml.bind.JAXBException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.parallel.ExecutionMode.SAME_THREAD;
+
+/**
+ * Checks that the versions of the POMs deployed into a hosted repository are merged into its metadata.
+ */
+@SpringBootTest
+@ActiveProfiles(profiles = "test")
+@ContextConfiguration(classes = Maven2LayoutProviderTestConfig.class)
+@Execution(SAME_THREAD)
+public class MavenArtifactStoredEventListenerTest
+        extends TestCaseWithMavenArtifactGenerationAndIndexing
+{
+
+    private static final String REPOSITORY_RELEASES = "masel-releases";
+
+    private static final String ARTIFACT_BASE_PATH = "org/carlspring/strongbox/stored/stored-listener";
+
+    @Inject
+    private ArtifactManagementService artifactManagementService;
+
+
+    @BeforeAll
+    public static void cleanUp()
+            throws Exception
+    {
+        cleanUp(getRepositoriesToClean());
+    }
+
+    @BeforeEach
+    public void initialize()
+            throws Exception
+    {
+        createRepository(STORAGE0, REPOSITORY_RELEASES, RepositoryPolicyEnum.RELEASE.getPolicy(), false);
+    }
+
+    @AfterEach
+    public void removeRepositories()
+            throws IOException, JAXBException
+    {
+        removeRepositories(getRepositoriesToClean());
+    }
+
+    public static Set<MutableRepository> getRepositoriesToClean()
+    {
+        Set<MutableRepository> repositories = new LinkedHashSet<>();
+        repositories.add(createRepositoryMock(STORAGE0, REPOSITORY_RELEASES, Maven2LayoutProvider.ALIAS));
+
+        return repositories;
+    }
+
+    @Test
+    public void deployedVersionsShouldBeMergedIntoTheMetadata()
+            throws Exception
+    {
+        deployPom("1.0");
+        deployPom("1.1");
+
+        RepositoryPath artifactBasePath = repositoryPathResolver.resolve(STORAGE0, REPOSITORY_RELEASES,
+                                                                         ARTIFACT_BASE_PATH);
+        RepositoryPath metadataPath = artifactBasePath.resolve(MetadataHelper.MAVEN_METADATA_XML);
+
+        await().atMost(10, TimeUnit.SECONDS)
+               .until(() -> Files.exists(metadataPath) &&
+                            mavenMetadataManager.readMetadata(artifactBasePath)
+                                                .getVersioning()
+                                                .getVersions()
+                                                .size() == 2);
+
+        Metadata metadata = mavenMetadataManager.readMetadata(artifactBasePath);
+        assertEquals(Arrays.asList("1.0", "1.1"), metadata.getVersioning().getVersions());
+        assertEquals("1.1", metadata.getVersioning().getRelease());
+    }
+
+    private void deployPom(String version)
+            throws Exception
+    {
+        String pom = String.format("<project>\n" +
+                                   "  <modelVersion>4.0.0</modelVersion>\n" +
+                                   "  <groupId>org.carlspring.strongbox.stored</groupId>\n" +
+                                   "  <artifactId>stored-listener</artifactId>\n" +
+                                   "  <version>%s</version>\n" +
+                                   "  <packaging>jar</packaging>\n" +
+                                   "</project>\n", version);
+
+        RepositoryPath pomPath = repositoryPathResolver.resolve(STORAGE0, REPOSITORY_RELEASES,
+                                                                String.format("%s/%s/stored-listener-%s.pom",
+                                                                              ARTIFACT_BASE_PATH, version,
+                                                                              version));
+
+        artifactManagementService.validateAndStore(pomPath,
+                                                   new ByteArrayInputStream(pom.getBytes(StandardCharsets.UTF_8)));
+    }
+
+}
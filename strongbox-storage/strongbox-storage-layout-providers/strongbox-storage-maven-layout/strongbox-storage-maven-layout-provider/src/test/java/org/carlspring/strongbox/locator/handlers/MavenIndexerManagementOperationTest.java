@@ -0,0 +1,121 @@
+package org.carlspring.strongbox.locator.handlers;
+
+import org.carlspring.strongbox.artifact.locator.ArtifactDirectoryLocator;
+import org.carlspring.strongbox.providers.io.RepositoryFileSystemFixture;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.services.ArtifactIndexesService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class MavenIndexerManagementOperationTest
+{
+
+    private final List<String> indexedPaths = Collections.synchronizedList(new ArrayList<>());
+
+    @TempDir
+    Path storageDir;
+
+    private Path repositoryDir;
+
+    private RepositoryPath rootPath;
+
+    private ArtifactIndexesService artifactIndexesService;
+
+    @BeforeEach
+    public void setUp()
+    {
+        rootPath = new RepositoryFileSystemFixture(storageDir).path("releases", "");
+        repositoryDir = storageDir.resolve("releases");
+
+        artifactIndexesService = mock(ArtifactIndexesService.class);
+        doAnswer(invocation -> {
+            indexedPaths.add(RepositoryFiles.relativizePath(invocation.getArgument(0)));
+            return null;
+        }).when(artifactIndexesService).addArtifactToIndex(any(RepositoryPath.class));
+    }
+
+    @Test
+    public void eachArtifactFileShouldBeIndexedOnce()
+        throws Exception
+    {
+        // The plugin metadata of the groupId directories.
+        write("org/carlspring/maven-metadata.xml", "<metadata/>");
+        write("org/carlspring/strongbox/maven-metadata.xml", "<metadata/>");
+
+        Set<String> expected = new HashSet<>();
+        for (int i = 0; i < 20; i++)
+        {
+            String artifactId = "a" + i;
+            for (String version : new String[]{ "1.0", "1.1" })
+            {
+                expected.add(writePom("org/carlspring/strongbox", artifactId, version));
+                expected.add(write(String.format("org/carlspring/strongbox/%s/%s/%s-%s.jar",
+                                                 artifactId, version, artifactId, version), "jar"));
+            }
+            write(String.format("org/carlspring/strongbox/%s/maven-metadata.xml", artifactId), "<metadata/>");
+        }
+        expected.add(writePom("org/carlspring/strongbox/nested", "bar", "2.0"));
+
+        MavenIndexerManagementOperation operation = new MavenIndexerManagementOperation(artifactIndexesService);
+        operation.setBasePath(rootPath);
+
+        ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
+        locator.setOperation(operation);
+        locator.setParallelism(4);
+        locator.locateArtifactDirectories();
+
+        // Every file of the version directories is indexed once, none of the metadata of the groupId directories.
+        assertEquals(expected.size(), indexedPaths.size());
+        assertEquals(expected, new HashSet<>(indexedPaths));
+        assertFalse(indexedPaths.contains("org/carlspring/maven-metadata.xml"));
+        assertFalse(indexedPaths.contains("org/carlspring/strongbox/maven-metadata.xml"));
+        assertTrue(indexedPaths.contains("org/carlspring/strongbox/nested/bar/2.0/bar-2.0.pom"));
+    }
+
+    private String writePom(String groupPath,
+                            String artifactId,
+                            String version)
+        throws IOException
+    {
+        String groupId = groupPath.replace('/', '.');
+        String pom = "<project>\n" +
+                     "    <modelVersion>4.0.0</modelVersion>\n" +
+                     "    <groupId>" + groupId + "</groupId>\n" +
+                     "    <artifactId>" + artifactId + "</artifactId>\n" +
+                     "    <version>" + version + "</version>\n" +
+                     "</project>\n";
+
+        return write(String.format("%s/%s/%s/%s-%s.pom", groupPath, artifactId, version, artifactId, version), pom);
+    }
+
+    private String write(String path,
+                         String content)
+        throws IOException
+    {
+        Path file = repositoryDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+
+        return path;
+    }
+
+}
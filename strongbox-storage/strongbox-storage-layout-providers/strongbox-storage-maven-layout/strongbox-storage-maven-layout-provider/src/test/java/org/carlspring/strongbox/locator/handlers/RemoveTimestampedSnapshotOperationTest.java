@@ -0,0 +1,110 @@
+package org.carlspring.strongbox.locator.handlers;
+
+import org.carlspring.strongbox.artifact.locator.ArtifactDirectoryLocator;
+import org.carlspring.strongbox.providers.io.RepositoryFileSystemFixture;
+import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.storage.metadata.MavenSnapshotManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class RemoveTimestampedSnapshotOperationTest
+{
+
+    private final Set<String> artifactDirectories = ConcurrentHashMap.newKeySet();
+
+    @TempDir
+    Path storageDir;
+
+    private Path repositoryDir;
+
+    private RepositoryPath rootPath;
+
+    private MavenSnapshotManager mavenSnapshotManager;
+
+    @BeforeEach
+    public void setUp()
+        throws Exception
+    {
+        rootPath = new RepositoryFileSystemFixture(storageDir).path("snapshots", "");
+        repositoryDir = storageDir.resolve("snapshots");
+
+        mavenSnapshotManager = mock(MavenSnapshotManager.class);
+        doAnswer(invocation -> {
+            RepositoryPath basePath = invocation.getArgument(0);
+            artifactDirectories.add(StringUtils.removeEnd(RepositoryFiles.relativizePath(basePath), "/"));
+            return null;
+        }).when(mavenSnapshotManager).deleteTimestampedSnapshotArtifacts(any(RepositoryPath.class),
+                                                                         any(Versioning.class), anyInt(), anyInt());
+    }
+
+    @Test
+    public void onlyTheArtifactDirectoriesWithPomsShouldBeProcessed()
+        throws Exception
+    {
+        // The plugin metadata of the groupId directories.
+        write("org/carlspring/maven-metadata.xml", "<metadata/>");
+        write("org/carlspring/strongbox/maven-metadata.xml", "<metadata/>");
+
+        writePom("org/carlspring/strongbox", "foo", "1.0-SNAPSHOT", "1.0-20181017.101010-1");
+        writePom("org/carlspring/strongbox", "foo", "1.0-SNAPSHOT", "1.0-20181017.111010-2");
+        write("org/carlspring/strongbox/foo/maven-metadata.xml", "<metadata/>");
+        writePom("org/carlspring/strongbox/nested", "bar", "2.0-SNAPSHOT", "2.0-20181017.101010-1");
+
+        RemoveTimestampedSnapshotOperation operation = new RemoveTimestampedSnapshotOperation(mavenSnapshotManager);
+        operation.setBasePath(rootPath);
+        operation.setNumberToKeep(1);
+
+        ArtifactDirectoryLocator locator = new ArtifactDirectoryLocator();
+        locator.setOperation(operation);
+        locator.locateArtifactDirectories();
+
+        assertEquals(new HashSet<>(Arrays.asList("org/carlspring/strongbox/foo",
+                                                 "org/carlspring/strongbox/nested/bar")),
+                     artifactDirectories);
+    }
+
+    private void writePom(String groupPath,
+                          String artifactId,
+                          String version,
+                          String timestampedVersion)
+        throws IOException
+    {
+        String pom = "<project>\n" +
+                     "    <modelVersion>4.0.0</modelVersion>\n" +
+                     "    <groupId>" + groupPath.replace('/', '.') + "</groupId>\n" +
+                     "    <artifactId>" + artifactId + "</artifactId>\n" +
+                     "    <version>" + version + "</version>\n" +
+                     "</project>\n";
+
+        write(String.format("%s/%s/%s/%s-%s.pom", groupPath, artifactId, version, artifactId, timestampedVersion), pom);
+    }
+
+    private void write(String path,
+                       String content)
+        throws IOException
+    {
+        Path file = repositoryDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -1,5 +1,6 @@
 package org.carlspring.strongbox.providers.repository;
 
+import org.carlspring.strongbox.artifact.ArtifactDownloadStatisticsAccumulator;
 import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 
@@ -48,6 +49,9 @@ public class ParallelDownloadRemoteArtifactTest
 
     @Inject
     private PlatformTransactionManager transactionManager;
+
+    @Inject
+    private ArtifactDownloadStatisticsAccumulator downloadStatisticsAccumulator;
     
     @BeforeEach
     public void setup()
@@ -93,6 +97,8 @@ public class ParallelDownloadRemoteArtifactTest
 
         assertArrayEquals(expected, actual);
         
+        downloadStatisticsAccumulator.flush();
+
         RepositoryPath repositoryPath = repositoryPathResolver.resolve(storageId, repositoryId, path);
 
         assertNotNull(repositoryPath.getArtifactEntry());
@@ -6,15 +6,20 @@ import static org.junit.jupiter.api.parallel.ExecutionMode.CONCURRENT;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
 import javax.inject.Inject;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.maven.artifact.repository.metadata.Metadata;
 import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
 import org.carlspring.strongbox.providers.io.RepositoryFiles;
@@ -22,6 +27,8 @@ import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.layout.Maven2LayoutProvider;
 import org.carlspring.strongbox.repository.group.BaseMavenGroupRepositoryComponentTest;
 import org.carlspring.strongbox.storage.Storage;
+import org.carlspring.strongbox.storage.metadata.MavenGroupMetadataCache;
+import org.carlspring.strongbox.storage.metadata.MetadataHelper;
 import org.carlspring.strongbox.storage.repository.ImmutableRepository;
 import org.carlspring.strongbox.storage.repository.MutableRepository;
 import org.carlspring.strongbox.storage.repository.Repository;
@@ -34,6 +41,7 @@ import org.junit.jupiter.api.parallel.Execution;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
 
 /**
  * @author Przemyslaw Fusik
@@ -71,6 +79,9 @@ public class MavenMetadataGroupRepositoryComponentOnUploadTest
     @Inject
     private MavenMetadataGroupRepositoryComponent mavenGroupRepositoryComponent;
 
+    @Inject
+    private MavenGroupMetadataCache mavenGroupMetadataCache;
+
     protected Set<MutableRepository> getRepositories()
     {
         Set<MutableRepository> repositories = new LinkedHashSet<>();
@@ -93,6 +104,8 @@ public class MavenMetadataGroupRepositoryComponentOnUploadTest
     public void initialize()
             throws Exception
     {
+        ReflectionTestUtils.setField(mavenGroupMetadataCache, "enabled", true);
+
         createLeaf(STORAGE0, REPOSITORY_LEAF_AE);
         createLeaf(STORAGE0, REPOSITORY_LEAF_AL);
         createLeaf(STORAGE0, REPOSITORY_LEAF_AZ);
@@ -315,6 +328,31 @@ public class MavenMetadataGroupRepositoryComponentOnUploadTest
         assertThat(metadata.getVersioning().getVersions().size(), CoreMatchers.equalTo(2));
         assertThat(metadata.getVersioning().getVersions().get(0), CoreMatchers.equalTo("1.2.1"));
         assertThat(metadata.getVersioning().getVersions().get(1), CoreMatchers.equalTo("1.2.2"));
+
+        // The merged group metadata is served from the cache, as it was stored.
+        RepositoryPath groupMetadataPath = repositoryPathResolver.resolve(
+                configurationManager.getConfiguration().getStorage(STORAGE0).getRepository(REPOSITORY_GROUP_AA),
+                "com/artifacts/to/update/releases/update-group/maven-metadata.xml");
+
+        byte[] content = mavenGroupMetadataCache.getContent(groupMetadataPath);
+        assertThat(content, CoreMatchers.notNullValue());
+        assertThat(content, CoreMatchers.equalTo(Files.readAllBytes(groupMetadataPath.toFile().toPath())));
+        try (InputStream is = Files.newInputStream(groupMetadataPath))
+        {
+            assertThat(IOUtils.toByteArray(is), CoreMatchers.equalTo(content));
+        }
+        assertThat(new String(mavenGroupMetadataCache.getContent(
+                           groupMetadataPath.resolveSibling(MetadataHelper.MAVEN_METADATA_XML + ".sha1"))),
+                   CoreMatchers.equalTo(DigestUtils.sha1Hex(content)));
+
+        // A change made behind the provider's back is picked up, rather than overwritten by the next merge.
+        Path groupMetadataFile = groupMetadataPath.toFile().toPath();
+        byte[] changedContent = new String(content).replace("1.2.2", "1.2.3").getBytes();
+        Files.write(groupMetadataFile, changedContent);
+        Files.setLastModifiedTime(groupMetadataFile, FileTime.fromMillis(
+                Files.getLastModifiedTime(groupMetadataFile).toMillis() + 1000));
+
+        assertThat(mavenGroupMetadataCache.getContent(groupMetadataPath), CoreMatchers.equalTo(changedContent));
     }
 
 }
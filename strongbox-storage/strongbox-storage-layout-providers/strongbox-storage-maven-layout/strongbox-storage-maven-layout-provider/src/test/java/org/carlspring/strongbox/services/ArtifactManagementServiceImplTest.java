@@ -32,6 +32,7 @@ import javax.xml.bind.JAXBException;
 import org.apache.maven.artifact.Artifact;
 import org.carlspring.maven.commons.io.filters.JarFilenameFilter;
 import org.carlspring.maven.commons.util.ArtifactUtils;
+import org.carlspring.strongbox.artifact.ArtifactDownloadStatisticsAccumulator;
 import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
 import org.carlspring.strongbox.artifact.ArtifactTag;
 import org.carlspring.strongbox.config.Maven2LayoutProviderTestConfig;
@@ -102,6 +103,9 @@ public class ArtifactManagementServiceImplTest
     @Inject
     private RepositoryPathResolver repositoryPathResolver;
 
+    @Inject
+    private ArtifactDownloadStatisticsAccumulator downloadStatisticsAccumulator;
+
     private Set<MutableRepository> getRepositories(TestInfo testInfo)
     {
         Set<MutableRepository> repositories = new LinkedHashSet<>();
@@ -600,6 +604,8 @@ public class ArtifactManagementServiceImplTest
                          String.format("Operation [%s:%s] content size don't match.", i % 2 == 0 ? "write" : "read", i));
         }
 
+        downloadStatisticsAccumulator.flush();
+
         RepositoryPath repositoryPathResult = repositoryPathResolver.resolve(repository, path);
         ArtifactEntry artifactEntry = repositoryPathResult.getArtifactEntry();
 
@@ -0,0 +1,295 @@
+package org.carlspring.strongbox.storage.indexing;
+
+import org.carlspring.strongbox.configuration.Configuration;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.maven.index.ArtifactContext;
+import org.apache.maven.index.ArtifactContextProducer;
+import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.index.FlatSearchRequest;
+import org.apache.maven.index.FlatSearchResponse;
+import org.apache.maven.index.Indexer;
+import org.apache.maven.index.IndexerEngine;
+import org.apache.maven.index.context.IndexingContext;
+import org.apache.maven.index.expr.SearchExpression;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationContext;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the batching of the index changes against a mocked {@link Indexer}, {@link IndexerEngine} and
+ * {@link IndexingContext}.
+ */
+public class RepositoryIndexerBatchingTest
+{
+
+    private static final long COMMIT_INTERVAL_MILLIS = 100L;
+
+    private Indexer indexer;
+
+    private IndexerEngine indexerEngine;
+
+    private IndexingContext indexingContext;
+
+    private ApplicationContext applicationContext;
+
+    private Configuration configuration;
+
+    private ArtifactContextProducer artifactContextProducer;
+
+    private ScheduledExecutorService commitScheduler;
+
+    @BeforeEach
+    public void setUp()
+        throws IOException
+    {
+        indexer = mock(Indexer.class);
+        when(indexer.constructQuery(any(), any(SearchExpression.class))).thenReturn(new MatchAllDocsQuery());
+        when(indexer.searchFlat(any(FlatSearchRequest.class)))
+                .thenAnswer(invocation -> new FlatSearchResponse(new MatchAllDocsQuery(), 0, Collections.emptySet()));
+
+        indexerEngine = mock(IndexerEngine.class);
+
+        indexingContext = mock(IndexingContext.class);
+        when(indexingContext.getId()).thenReturn("storage0:releases:local");
+        when(indexingContext.getIndexDirectory()).thenReturn(mock(Directory.class));
+
+        artifactContextProducer = mock(ArtifactContextProducer.class);
+        applicationContext = mock(ApplicationContext.class);
+        configuration = mock(Configuration.class);
+        when(configuration.getBaseUrl()).thenReturn("http://localhost:48080/");
+        commitScheduler = mock(ScheduledExecutorService.class);
+    }
+
+    @Test
+    public void changesShouldBeCommittedOnceTheBatchIsFull()
+        throws IOException
+    {
+        RepositoryIndexer repositoryIndexer = newRepositoryIndexer(newContextId(), 3);
+
+        add(repositoryIndexer, "1.0");
+        add(repositoryIndexer, "1.1");
+
+        verify(indexerEngine, never()).update(any(IndexingContext.class), any(ArtifactContext.class));
+        verify(indexingContext, never()).commit();
+        // The interval flush is scheduled once, for the first queued change.
+        verify(commitScheduler).schedule(any(Runnable.class), eq(COMMIT_INTERVAL_MILLIS), eq(TimeUnit.MILLISECONDS));
+
+        add(repositoryIndexer, "1.2");
+
+        verify(indexerEngine, times(3)).update(eq(indexingContext), any(ArtifactContext.class));
+        verify(indexingContext).commit();
+    }
+
+    @Test
+    public void changesShouldBeCommittedAfterTheInterval()
+        throws IOException
+    {
+        RepositoryIndexer repositoryIndexer = newRepositoryIndexer(newContextId(), 10);
+
+        add(repositoryIndexer, "1.0");
+
+        ArgumentCaptor<Runnable> scheduledFlush = ArgumentCaptor.forClass(Runnable.class);
+        verify(commitScheduler).schedule(scheduledFlush.capture(), eq(COMMIT_INTERVAL_MILLIS),
+                                         eq(TimeUnit.MILLISECONDS));
+        verify(indexingContext, never()).commit();
+
+        scheduledFlush.getValue().run();
+
+        verify(indexerEngine).update(eq(indexingContext), argThat(this::isVersion10));
+        verify(indexingContext).commit();
+
+        // The next change schedules another flush.
+        add(repositoryIndexer, "1.1");
+
+        verify(commitScheduler, times(2)).schedule(any(Runnable.class), eq(COMMIT_INTERVAL_MILLIS),
+                                                   eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void searchShouldSeeTheQueuedChangesWithoutCommitting()
+        throws IOException
+    {
+        RepositoryIndexer repositoryIndexer = newRepositoryIndexer(newContextId(), 10);
+
+        add(repositoryIndexer, "1.0");
+
+        repositoryIndexer.search("org.carlspring.strongbox", "foo", "1.0", "jar", null);
+
+        InOrder inOrder = inOrder(indexerEngine, indexer);
+        inOrder.verify(indexerEngine).update(eq(indexingContext), argThat(this::isVersion10));
+        inOrder.verify(indexer).searchFlat(any(FlatSearchRequest.class));
+        verify(indexingContext, never()).commit();
+
+        // The scheduled flush commits the changes which have been written for the search.
+        ArgumentCaptor<Runnable> scheduledFlush = ArgumentCaptor.forClass(Runnable.class);
+        verify(commitScheduler).schedule(scheduledFlush.capture(), eq(COMMIT_INTERVAL_MILLIS),
+                                         eq(TimeUnit.MILLISECONDS));
+        scheduledFlush.getValue().run();
+
+        verify(indexerEngine).update(any(IndexingContext.class), any(ArtifactContext.class));
+        verify(indexingContext).commit();
+    }
+
+    @Test
+    public void failedChangesShouldNotDropTheOthers()
+        throws IOException
+    {
+        RepositoryIndexer repositoryIndexer = newRepositoryIndexer(newContextId(), 10);
+
+        doThrow(new IOException("Broken artifact")).when(indexerEngine).update(eq(indexingContext),
+                                                                                argThat(this::isVersion11));
+        // The deletion has to find the artifact in the index.
+        when(indexer.searchFlat(any(FlatSearchRequest.class)))
+                .thenAnswer(invocation -> new FlatSearchResponse(new MatchAllDocsQuery(), 1, Collections.singleton(
+                        newArtifactInfo("0.9"))))
+                .thenAnswer(invocation -> new FlatSearchResponse(new MatchAllDocsQuery(), 0, Collections.emptySet()));
+        doThrow(new IOException("Broken index")).when(indexerEngine).remove(eq(indexingContext),
+                                                                             any(ArtifactContext.class));
+
+        repositoryIndexer.delete(Collections.singleton(newArtifactInfo("0.9")));
+        add(repositoryIndexer, "1.0");
+        add(repositoryIndexer, "1.1");
+        add(repositoryIndexer, "1.2");
+
+        repositoryIndexer.flush();
+
+        verify(indexerEngine).remove(eq(indexingContext), any(ArtifactContext.class));
+        verify(indexerEngine, times(3)).update(eq(indexingContext), any(ArtifactContext.class));
+        verify(indexingContext).commit();
+    }
+
+    @Test
+    public void failedCommitShouldBeRetried()
+        throws IOException
+    {
+        RepositoryIndexer repositoryIndexer = newRepositoryIndexer(newContextId(), 10);
+
+        doThrow(new IOException("Broken commit")).doNothing().when(indexingContext).commit();
+
+        add(repositoryIndexer, "1.0");
+
+        assertThrows(IOException.class, repositoryIndexer::flush);
+
+        repositoryIndexer.flush();
+
+        verify(indexerEngine).update(eq(indexingContext), argThat(this::isVersion10));
+        verify(indexingContext, times(2)).commit();
+    }
+
+    @Test
+    public void queueSizeGaugeShouldFollowTheCurrentIndexer()
+        throws IOException
+    {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.globalRegistry.add(registry);
+        try
+        {
+            String contextId = newContextId();
+
+            RepositoryIndexer repositoryIndexer = newRepositoryIndexer(contextId, 10);
+            add(repositoryIndexer, "1.0");
+            add(repositoryIndexer, "1.1");
+
+            Gauge gauge = registry.find("strongbox.maven.index.queue.size").tags("context", contextId).gauge();
+            assertNotNull(gauge);
+            assertEquals(2.0, gauge.value());
+
+            // The context has been recreated.
+            repositoryIndexer = newRepositoryIndexer(contextId, 10);
+            add(repositoryIndexer, "1.2");
+
+            assertEquals(1.0, gauge.value());
+
+            repositoryIndexer.close(true);
+
+            assertEquals(0.0, gauge.value());
+        }
+        finally
+        {
+            Metrics.globalRegistry.remove(registry);
+        }
+    }
+
+    private boolean isVersion10(ArtifactContext artifactContext)
+    {
+        return artifactContext != null && "1.0".equals(artifactContext.getArtifactInfo().getVersion());
+    }
+
+    private boolean isVersion11(ArtifactContext artifactContext)
+    {
+        return artifactContext != null && "1.1".equals(artifactContext.getArtifactInfo().getVersion());
+    }
+
+    private RepositoryIndexer newRepositoryIndexer(String contextId,
+                                                   int batchSize)
+    {
+        RepositoryIndexer repositoryIndexer = new RepositoryIndexer(contextId);
+        repositoryIndexer.setIndexer(indexer);
+        repositoryIndexer.setIndexerEngine(indexerEngine);
+        repositoryIndexer.setIndexingContext(indexingContext);
+        repositoryIndexer.setApplicationContext(applicationContext);
+        repositoryIndexer.setConfiguration(configuration);
+        repositoryIndexer.setBatchSize(batchSize);
+        repositoryIndexer.setCommitIntervalMillis(COMMIT_INTERVAL_MILLIS);
+        repositoryIndexer.setCommitScheduler(commitScheduler);
+
+        return repositoryIndexer;
+    }
+
+    private void add(RepositoryIndexer repositoryIndexer,
+                     String version)
+        throws IOException
+    {
+        File file = new File(String.format("foo-%s.jar", version));
+
+        RepositoryPath artifactPath = mock(RepositoryPath.class);
+        when(artifactPath.toAbsolutePath()).thenReturn(artifactPath);
+        when(artifactPath.toFile()).thenReturn(file);
+        when(applicationContext.getBean(ArtifactContextProducer.class, artifactPath))
+                .thenReturn(artifactContextProducer);
+
+        when(artifactContextProducer.getArtifactContext(indexingContext, file))
+                .thenReturn(new ArtifactContext(null, file, null, newArtifactInfo(version), null));
+
+        repositoryIndexer.addArtifactToIndex(artifactPath);
+    }
+
+    private static ArtifactInfo newArtifactInfo(String version)
+    {
+        return new ArtifactInfo("releases", "org.carlspring.strongbox", "foo", version, null, "jar");
+    }
+
+    private static String newContextId()
+    {
+        return "storage0:" + UUID.randomUUID() + ":local";
+    }
+
+}
@@ -0,0 +1,81 @@
+package org.carlspring.strongbox.storage.metadata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MavenMetadataManagerMergeVersionTest
+{
+
+    private final MavenMetadataManager mavenMetadataManager = new MavenMetadataManager();
+
+    @Test
+    public void releaseShouldBeMergedInOrder()
+    {
+        Metadata metadata = metadata("1.0", "1.2");
+
+        assertTrue(mavenMetadataManager.mergeVersion(metadata, "1.10", true));
+        assertTrue(mavenMetadataManager.mergeVersion(metadata, "1.1", true));
+
+        Versioning versioning = metadata.getVersioning();
+        assertEquals(Arrays.asList("1.0", "1.1", "1.2", "1.10"), versioning.getVersions());
+        assertEquals("1.10", versioning.getLatest());
+        assertEquals("1.10", versioning.getRelease());
+        assertNotNull(versioning.getLastUpdated());
+    }
+
+    @Test
+    public void snapshotShouldNotBeReleased()
+    {
+        Metadata metadata = metadata("1.0-SNAPSHOT");
+
+        assertTrue(mavenMetadataManager.mergeVersion(metadata, "1.1-SNAPSHOT", false));
+
+        assertEquals(Arrays.asList("1.0-SNAPSHOT", "1.1-SNAPSHOT"), metadata.getVersioning().getVersions());
+        assertEquals("1.1-SNAPSHOT", metadata.getVersioning().getLatest());
+        assertNull(metadata.getVersioning().getRelease());
+    }
+
+    @Test
+    public void listedVersionShouldNotChangeTheMetadata()
+    {
+        Metadata metadata = metadata("1.0", "1.2");
+        metadata.getVersioning().setLastUpdated("20181017010203");
+
+        assertFalse(mavenMetadataManager.mergeVersion(metadata, "1.0", true));
+
+        assertEquals(Arrays.asList("1.0", "1.2"), metadata.getVersioning().getVersions());
+        assertEquals("20181017010203", metadata.getVersioning().getLastUpdated());
+    }
+
+    @Test
+    public void versioningShouldBeAddedIfMissing()
+    {
+        Metadata metadata = new Metadata();
+
+        assertTrue(mavenMetadataManager.mergeVersion(metadata, "1.0", true));
+
+        assertEquals(Arrays.asList("1.0"), metadata.getVersioning().getVersions());
+        assertEquals("1.0", metadata.getVersioning().getRelease());
+    }
+
+    private static Metadata metadata(String... versions)
+    {
+        Versioning versioning = new Versioning();
+        versioning.setVersions(new ArrayList<>(Arrays.asList(versions)));
+
+        Metadata metadata = new Metadata();
+        metadata.setVersioning(versioning);
+
+        return metadata;
+    }
+
+}
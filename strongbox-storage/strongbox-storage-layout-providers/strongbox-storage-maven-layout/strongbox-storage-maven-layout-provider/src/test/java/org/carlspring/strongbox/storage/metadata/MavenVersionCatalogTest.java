@@ -0,0 +1,229 @@
+package org.carlspring.strongbox.storage.metadata;
+
+import org.carlspring.strongbox.domain.ArtifactCatalogEntry;
+import org.carlspring.strongbox.providers.io.RepositoryFileSystemFixture;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.services.RepositoryArtifactIdGroupService;
+import org.carlspring.strongbox.storage.metadata.versions.MetadataVersion;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MavenVersionCatalogTest
+{
+
+    private static final String ARTIFACT_PATH = "org/carlspring/strongbox/foo";
+
+    private final List<ArtifactCatalogEntry> catalog = new ArrayList<>();
+
+    @TempDir
+    Path storageDir;
+
+    private RepositoryPath artifactBasePath;
+
+    private MavenVersionCatalog mavenVersionCatalog;
+
+    @BeforeEach
+    public void setUp()
+    {
+        RepositoryArtifactIdGroupService repositoryArtifactIdGroupService = mock(RepositoryArtifactIdGroupService.class);
+        when(repositoryArtifactIdGroupService.findCatalog(RepositoryFileSystemFixture.STORAGE_ID, "releases",
+                                                          "org.carlspring.strongbox/foo"))
+                .thenReturn(catalog);
+
+        mavenVersionCatalog = new MavenVersionCatalog();
+        ReflectionTestUtils.setField(mavenVersionCatalog, "repositoryArtifactIdGroupService",
+                                     repositoryArtifactIdGroupService);
+        ReflectionTestUtils.setField(mavenVersionCatalog, "enabled", true);
+        ReflectionTestUtils.setField(mavenVersionCatalog, "verify", false);
+
+        artifactBasePath = new RepositoryFileSystemFixture(storageDir).path("releases", ARTIFACT_PATH);
+    }
+
+    @Test
+    public void releasesShouldBeCollectedFromTheCatalog()
+        throws Exception
+    {
+        writePom("1.10", "1.10", "jar");
+        addEntry("1.2", "pom", null, 2000L);
+        addEntry("1.2", "jar", null, 2000L);
+        addEntry("1.10", "pom", null, 3000L);
+        addEntry("1.10", "jar", "sources", 3000L);
+        addEntry("1.0", "pom", null, 1000L);
+        // Versions with no POM are not listed.
+        addEntry("1.3", "jar", null, 4000L);
+
+        VersionCollectionRequest request = mavenVersionCatalog.collectVersions(artifactBasePath);
+
+        assertNotNull(request);
+        assertEquals(Arrays.asList("1.0", "1.2", "1.10"), versions(request));
+        assertEquals(Arrays.asList("1.0", "1.2", "1.10"), request.getVersioning().getVersions());
+        assertEquals(FileTime.fromMillis(2000L), request.getMetadataVersions().get(1).getCreatedDate());
+        assertTrue(request.getPlugins().isEmpty());
+        for (MetadataVersion metadataVersion : request.getMetadataVersions())
+        {
+            assertTrue(metadataVersion.getSnapshots().isEmpty());
+        }
+    }
+
+    @Test
+    public void snapshotsShouldBeCollectedFromTheCatalog()
+        throws Exception
+    {
+        writePom("1.0-SNAPSHOT", "1.0-20181017.010203-2", "jar");
+        addEntry("1.0-20181017.010203-2", "pom", null, 2000L);
+        addEntry("1.0-20181017.010203-2", "jar", null, 2000L);
+        addEntry("1.0-20181017.010203-1", "pom", null, 1000L);
+        addEntry("1.0-20181017.010203-1", "jar", "sources", 1000L);
+        // Only the timestamped files are listed in the snapshot metadata.
+        addEntry("1.0-SNAPSHOT", "pom", null, 500L);
+
+        VersionCollectionRequest request = mavenVersionCatalog.collectVersions(artifactBasePath);
+
+        assertNotNull(request);
+        assertEquals(Collections.singletonList("1.0-SNAPSHOT"), versions(request));
+
+        MetadataVersion metadataVersion = request.getMetadataVersions().get(0);
+        // The created date is the one of the latest POM.
+        assertEquals(FileTime.fromMillis(2000L), metadataVersion.getCreatedDate());
+        assertEquals(Arrays.asList("1.0-20181017.010203-1:sources:jar",
+                                   "1.0-20181017.010203-1:null:pom",
+                                   "1.0-20181017.010203-2:null:jar",
+                                   "1.0-20181017.010203-2:null:pom"),
+                     metadataVersion.getSnapshots()
+                                    .stream()
+                                    .map(s -> s.getVersion() + ":" + s.getClassifier() + ":" + s.getExtension())
+                                    .sorted()
+                                    .collect(Collectors.toList()));
+        assertEquals("1.0-20181017.010203-1", metadataVersion.getSnapshots().get(0).getVersion());
+    }
+
+    @Test
+    public void pluginShouldBeDetectedFromTheLatestPom()
+        throws Exception
+    {
+        writePom("1.1", "1.1", "maven-plugin");
+        addEntry("1.0", "pom", null, 1000L);
+        addEntry("1.1", "pom", null, 2000L);
+
+        VersionCollectionRequest request = mavenVersionCatalog.collectVersions(artifactBasePath);
+
+        assertNotNull(request);
+        assertEquals(1, request.getPlugins().size());
+        assertEquals("foo", request.getPlugins().get(0).getArtifactId());
+    }
+
+    @Test
+    public void missingLatestPomShouldFallBackToTheFileSystem()
+        throws Exception
+    {
+        addEntry("1.0", "pom", null, 1000L);
+
+        assertNull(mavenVersionCatalog.collectVersions(artifactBasePath));
+    }
+
+    @Test
+    public void emptyOrDisabledCatalogShouldFallBackToTheFileSystem()
+        throws Exception
+    {
+        assertNull(mavenVersionCatalog.collectVersions(artifactBasePath));
+
+        writePom("1.0", "1.0", "jar");
+        addEntry("1.0", "pom", null, 1000L);
+        ReflectionTestUtils.setField(mavenVersionCatalog, "enabled", false);
+
+        assertNull(mavenVersionCatalog.collectVersions(artifactBasePath));
+    }
+
+    @Test
+    public void verifiedCatalogShouldCoverTheVersionDirectories()
+        throws Exception
+    {
+        ReflectionTestUtils.setField(mavenVersionCatalog, "verify", true);
+
+        writePom("1.0", "1.0", "jar");
+        writePom("1.1", "1.1", "jar");
+        addEntry("1.1", "pom", null, 2000L);
+
+        // 1.0 has been put into the storage directly.
+        assertNull(mavenVersionCatalog.collectVersions(artifactBasePath));
+
+        addEntry("1.0", "pom", null, 1000L);
+        // 0.9 has been removed from the storage.
+        addEntry("0.9", "pom", null, 500L);
+        // A directory which isn't a version.
+        Files.createDirectories(artifactBasePath.resolve("foo-child"));
+
+        VersionCollectionRequest request = mavenVersionCatalog.collectVersions(artifactBasePath);
+
+        assertNotNull(request);
+        assertEquals(Arrays.asList("1.0", "1.1"), versions(request));
+        // The timestamped snapshots are collected from the version directories instead.
+        assertTrue(request.getMetadataVersions().get(0).getSnapshots().isEmpty());
+    }
+
+    private void addEntry(String version,
+                          String extension,
+                          String classifier,
+                          long created)
+    {
+        Map<String, String> coordinates = new LinkedHashMap<>();
+        coordinates.put("groupId", "org.carlspring.strongbox");
+        coordinates.put("artifactId", "foo");
+        coordinates.put("version", version);
+        coordinates.put("classifier", classifier);
+        coordinates.put("extension", extension);
+
+        catalog.add(new ArtifactCatalogEntry(coordinates, new Date(created)));
+    }
+
+    private void writePom(String versionDirectory,
+                          String version,
+                          String packaging)
+        throws IOException
+    {
+        Path pomPath = artifactBasePath.resolve(versionDirectory).resolve(String.format("foo-%s.pom", version));
+        Files.createDirectories(pomPath.getParent());
+
+        String pom = "<project>\n" +
+                     "    <modelVersion>4.0.0</modelVersion>\n" +
+                     "    <groupId>org.carlspring.strongbox</groupId>\n" +
+                     "    <artifactId>foo</artifactId>\n" +
+                     "    <version>" + version + "</version>\n" +
+                     "    <packaging>" + packaging + "</packaging>\n" +
+                     "</project>\n";
+
+        Files.write(pomPath, pom.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> versions(VersionCollectionRequest request)
+    {
+        return request.getMetadataVersions()
+                      .stream()
+                      .map(MetadataVersion::getVersion)
+                      .collect(Collectors.toList());
+    }
+
+}
@@ -1,6 +1,12 @@
 package org.carlspring.strongbox.controllers;
 
+import org.carlspring.strongbox.artifact.ArtifactNotFoundException;
+import org.carlspring.strongbox.providers.io.ArtifactHeadersCache;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
+import org.carlspring.strongbox.providers.io.RepositoryStreamSupport.RepositoryInputStream;
+import org.carlspring.strongbox.providers.repository.proxied.TeeDownload;
+import org.carlspring.strongbox.providers.repository.proxied.TeeDownloadRegistry;
+import org.carlspring.strongbox.resource.ResourceCloser;
 import org.carlspring.strongbox.services.ArtifactManagementService;
 import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.repository.Repository;
@@ -9,13 +15,16 @@ import org.carlspring.strongbox.utils.ArtifactControllerHelper;
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.InputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
 
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -31,6 +40,12 @@ public abstract class BaseArtifactController
     @Inject
     protected ArtifactManagementService artifactManagementService;
 
+    @Inject
+    private TeeDownloadRegistry teeDownloadRegistry;
+
+    @Inject
+    private ArtifactHeadersCache artifactHeadersCache;
+
 
     @ApiOperation(value = "Used to deploy an artifact")
     @ApiResponses(value = { @ApiResponse(code = 200, message = "The artifact was deployed successfully."),
@@ -83,26 +98,116 @@ public abstract class BaseArtifactController
             throws Exception
     {
         logger.debug("Resolved path: " + repositoryPath);
+
+        TeeDownload teeDownload = repositoryPath == null ? null : teeDownloadRegistry.get(repositoryPath);
+        if (teeDownload != null && !Files.exists(repositoryPath))
+        {
+            return provideTeeDownloadResponse(request, response, repositoryPath, teeDownload);
+        }
         
-        ArtifactControllerHelper.provideArtifactHeaders(response, repositoryPath);
+        ArtifactControllerHelper.provideArtifactHeaders(request, response, repositoryPath, artifactHeadersCache);
         if (response.getStatus() == HttpStatus.NOT_FOUND.value())
         {
             return false;
         }
-        else if (request.getMethod().equals(RequestMethod.HEAD.name()))
+        else if (request.getMethod().equals(RequestMethod.HEAD.name())
+                || response.getStatus() == HttpStatus.NOT_MODIFIED.value())
         {
             return true;
         }
 
-        InputStream is = artifactResolutionService.getInputStream(repositoryPath);
+        RepositoryInputStream is = artifactResolutionService.getInputStream(repositoryPath);
+        if (!openArtifactStream(is, repositoryPath, response))
+        {
+            return false;
+        }
+
+        // The size is read once the path is locked, so that the ranges match the content that is sent.
+        long length = Files.size(repositoryPath);
+        List<HttpRange> ranges = null;
         if (ArtifactControllerHelper.isRangedRequest(httpHeaders))
         {
             logger.debug("Detected ranged request.");
 
-            ArtifactControllerHelper.handlePartialDownload(is, httpHeaders, response);
+            ranges = ArtifactControllerHelper.getSatisfiableRanges(httpHeaders, response, length);
+            if (ranges != null && ranges.isEmpty())
+            {
+                ResourceCloser.close(is, logger);
+                ArtifactControllerHelper.provideRangeNotSatisfiableHeaders(response, length);
+
+                return true;
+            }
+        }
+
+        if (ranges != null && ranges.size() > 1)
+        {
+            logger.debug(String.format("Serving [%s] ranges of [%s].", ranges.size(), repositoryPath));
+
+            transferRangesToResponse(is, repositoryPath, ranges, response);
+
+            return true;
+        }
+
+        long position = 0;
+        long count = length;
+        if (ranges != null)
+        {
+            ArtifactControllerHelper.provideSingleRangeHeaders(response, ranges.get(0), length);
+
+            position = ranges.get(0).getRangeStart(length);
+            count = ranges.get(0).getRangeEnd(length) - position + 1;
+        }
+
+        transferToResponse(is, repositoryPath, position, count, response);
+
+        return true;
+    }
+
+    /**
+     * Opens the artifact stream, which is not read since the content is sent from the file channel, so that the path
+     * is locked and the download events are fired just like when the stream is copied.
+     *
+     * @return {@code false} if the artifact doesn't exist, in which case the response status is set to 404.
+     */
+    private boolean openArtifactStream(RepositoryInputStream is,
+                                       RepositoryPath repositoryPath,
+                                       HttpServletResponse response)
+            throws IOException
+    {
+        try
+        {
+            is.open();
+
+            return true;
+        }
+        catch (ArtifactNotFoundException e)
+        {
+            logger.debug(String.format("Artifact [%s] not found.", repositoryPath));
+
+            ResourceCloser.close(is, logger);
+            response.reset();
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+
+            return false;
+        }
+    }
+
+    private boolean provideTeeDownloadResponse(HttpServletRequest request,
+                                               HttpServletResponse response,
+                                               RepositoryPath repositoryPath,
+                                               TeeDownload teeDownload)
+            throws Exception
+    {
+        logger.debug(String.format("Serving [%s] while it is being downloaded from remote.", repositoryPath));
+
+        ArtifactControllerHelper.provideTeeDownloadHeaders(response, repositoryPath,
+                                                           teeDownload.getContentLength());
+        if (request.getMethod().equals(RequestMethod.HEAD.name()))
+        {
+            return true;
         }
 
-        copyToResponse(is, response);
+        copyToResponse(artifactResolutionService.getInputStream(repositoryPath), response);
 
         return true;
     }
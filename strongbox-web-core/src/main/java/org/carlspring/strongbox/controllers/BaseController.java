@@ -6,23 +6,37 @@ import org.carlspring.strongbox.configuration.MutableConfiguration;
 import org.carlspring.strongbox.controllers.support.ErrorResponseEntityBody;
 import org.carlspring.strongbox.controllers.support.ListEntityBody;
 import org.carlspring.strongbox.controllers.support.ResponseEntityBody;
+import org.carlspring.strongbox.providers.io.RepositoryPath;
 import org.carlspring.strongbox.providers.io.RepositoryPathResolver;
+import org.carlspring.strongbox.providers.io.RepositoryStreamSupport.RepositoryInputStream;
 import org.carlspring.strongbox.resource.ResourceCloser;
 import org.carlspring.strongbox.services.ArtifactResolutionService;
 import org.carlspring.strongbox.services.ConfigurationManagementService;
 
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletResponse;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.UUID;
 
 import org.apache.commons.collections.IteratorUtils;
+import org.eclipse.jetty.server.HttpOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -36,6 +50,8 @@ import org.springframework.http.ResponseEntity;
 public abstract class BaseController
 {
 
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
     @Inject
@@ -266,13 +282,13 @@ public abstract class BaseController
         {
             long totalBytes = 0L;
 
+            // The container buffers the output, so it's only flushed once everything has been written.
             int readLength;
-            byte[] bytes = new byte[4096];
+            byte[] bytes = new byte[COPY_BUFFER_SIZE];
             while ((readLength = is.read(bytes, 0, bytes.length)) != -1)
             {
                 // Write the artifact
                 os.write(bytes, 0, readLength);
-                os.flush();
 
                 totalBytes += readLength;
             }
@@ -287,4 +303,170 @@ public abstract class BaseController
         }
     }
 
+    /**
+     * Sends the given ranges of the file as a {@code multipart/byteranges} response (see RFC 7233, Appendix A), with
+     * the content type already set on the response used for every part. All the parts are read from one
+     * {@link FileChannel} with positional reads, so the file is opened once however many ranges are requested.
+     * <p>
+     * The given stream of the same file is not read, so it must have been opened with
+     * {@link RepositoryInputStream#open()}, which holds the read lock of the path and fires the downloading event.
+     * It's closed once the content has been sent, which fires the downloaded event. The ranges are resolved against
+     * the size of the opened channel, since the file might have changed before it was locked.
+     */
+    protected void transferRangesToResponse(RepositoryInputStream is,
+                                            RepositoryPath path,
+                                            List<HttpRange> ranges,
+                                            HttpServletResponse response)
+            throws IOException
+    {
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+
+        OutputStream os = null;
+        try (FileChannel channel = openChannel(path))
+        {
+            long length = channel.size();
+
+            List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+            long contentLength = 0;
+            for (HttpRange range : ranges)
+            {
+                long start = getRangeStart(range, length);
+                long end = range.getRangeEnd(length);
+                byte[] partHeader = String.format("\r\n--%s\r\nContent-Type: %s\r\n"
+                                                  + "Content-Range: bytes %s-%s/%s\r\n\r\n",
+                                                  boundary, response.getContentType(), start, end, length)
+                                          .getBytes(StandardCharsets.US_ASCII);
+
+                partHeaders.add(partHeader);
+                contentLength += partHeader.length + end - start + 1;
+            }
+
+            byte[] closeDelimiter = String.format("\r\n--%s--\r\n", boundary).getBytes(StandardCharsets.US_ASCII);
+            contentLength += closeDelimiter.length;
+
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setContentType("multipart/byteranges; boundary=" + boundary);
+            response.setHeader(HttpHeaders.CONTENT_LENGTH, Long.toString(contentLength));
+            os = response.getOutputStream();
+
+            ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+            for (int i = 0; i < ranges.size(); i++)
+            {
+                long start = ranges.get(i).getRangeStart(length);
+                long end = ranges.get(i).getRangeEnd(length);
+
+                os.write(partHeaders.get(i));
+                transfer(channel, start, end - start + 1, buffer, os);
+            }
+            os.write(closeDelimiter);
+
+            response.flushBuffer();
+        }
+        finally
+        {
+            ResourceCloser.close(is, logger);
+            ResourceCloser.close(os, logger);
+        }
+    }
+
+    /**
+     * Sends the {@code [position, position + count)} part of the file straight from its {@link FileChannel}, without
+     * copying it through the heap: Jetty writes a memory mapped buffer of the file, other containers get the bytes with
+     * {@link FileChannel#transferTo}.
+     * <p>
+     * As with {@link #transferRangesToResponse}, the given stream of the same file must have been opened with
+     * {@link RepositoryInputStream#open()} and is closed once the content has been sent.
+     */
+    protected void transferToResponse(RepositoryInputStream is,
+                                      RepositoryPath path,
+                                      long position,
+                                      long count,
+                                      HttpServletResponse response)
+            throws IOException
+    {
+        OutputStream os = null;
+        try (FileChannel channel = openChannel(path))
+        {
+            if (channel.size() < position + count)
+            {
+                throw new EOFException(String.format("The file [%s] is shorter than [%s] bytes.", path,
+                                                     position + count));
+            }
+
+            response.setHeader(HttpHeaders.CONTENT_LENGTH, Long.toString(count));
+            os = response.getOutputStream();
+
+            if (os instanceof HttpOutput && count <= Integer.MAX_VALUE)
+            {
+                ((HttpOutput) os).sendContent(channel.map(FileChannel.MapMode.READ_ONLY, position, count));
+            }
+            else
+            {
+                WritableByteChannel target = Channels.newChannel(os);
+                for (long transferred = 0; transferred < count; )
+                {
+                    // The target is blocking, so nothing is transferred only once the end of the file is reached.
+                    long written = channel.transferTo(position + transferred, count - transferred, target);
+                    if (written <= 0)
+                    {
+                        throw new EOFException(String.format("Unexpected end of file at [%s].",
+                                                             position + transferred));
+                    }
+
+                    transferred += written;
+                }
+            }
+
+            response.flushBuffer();
+        }
+        finally
+        {
+            ResourceCloser.close(is, logger);
+            ResourceCloser.close(os, logger);
+        }
+    }
+
+    private FileChannel openChannel(RepositoryPath path)
+            throws IOException
+    {
+        return path.getFileSystem().provider().newFileChannel(path, EnumSet.of(StandardOpenOption.READ));
+    }
+
+    private long getRangeStart(HttpRange range,
+                               long length)
+            throws EOFException
+    {
+        try
+        {
+            return range.getRangeStart(length);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new EOFException(String.format("The range [%s] is past the end of file, at [%s].", range, length));
+        }
+    }
+
+    private void transfer(FileChannel channel,
+                          long position,
+                          long count,
+                          ByteBuffer buffer,
+                          OutputStream target)
+            throws IOException
+    {
+        for (long transferred = 0; transferred < count; )
+        {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), count - transferred));
+
+            int read = channel.read(buffer, position + transferred);
+            if (read <= 0)
+            {
+                throw new EOFException(String.format("Unexpected end of file at [%s].", position + transferred));
+            }
+
+            target.write(buffer.array(), 0, read);
+            transferred += read;
+        }
+    }
+
 }
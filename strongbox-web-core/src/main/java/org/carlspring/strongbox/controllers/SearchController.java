@@ -1,5 +1,7 @@
 package org.carlspring.strongbox.controllers;
 
+import org.carlspring.strongbox.data.criteria.PageCursor;
+import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.providers.search.SearchException;
 import org.carlspring.strongbox.services.ArtifactSearchService;
 import org.carlspring.strongbox.storage.search.SearchRequest;
@@ -59,6 +61,10 @@ public class SearchController
                                  @RequestParam(name = "q") final String query,
                                  @ApiParam(value = "The search provider", required = false)
                                  @RequestParam(name = "searchProvider", required = false) final String searchProvider,
+                                 @ApiParam(value = "Continuation token of the page to start from, an empty value starts keyset pagination from the first page", required = false)
+                                 @RequestParam(name = "after", required = false) final String after,
+                                 @ApiParam(value = "The page size of keyset pagination", required = false)
+                                 @RequestParam(name = "limit", required = false) final Integer limit,
                                  HttpServletRequest request)
             throws IOException, SearchException
     {
@@ -70,7 +76,7 @@ public class SearchController
 
         if (accept.equalsIgnoreCase(MediaType.TEXT_PLAIN_VALUE))
         {
-            final SearchResults artifacts = getSearchResults(storageId, repositoryId, q, searchProvider);
+            final SearchResults artifacts = getSearchResults(storageId, repositoryId, q, searchProvider, after, limit);
 
             return ResponseEntity.ok(artifacts.toString());
         }
@@ -79,7 +85,7 @@ public class SearchController
             // Apparently, the JSON root tag's name is based on the name of the object
             // which the Jersey method returns, hence this is "artifacts".
             @SuppressWarnings("UnnecessaryLocalVariable")
-            final SearchResults artifacts = getSearchResults(storageId, repositoryId, q, searchProvider);
+            final SearchResults artifacts = getSearchResults(storageId, repositoryId, q, searchProvider, after, limit);
 
             return ResponseEntity.ok(artifacts);
         }
@@ -88,13 +94,25 @@ public class SearchController
     private SearchResults getSearchResults(String storageId,
                                            String repositoryId,
                                            String query,
-                                           String searchProvider)
+                                           String searchProvider,
+                                           String after,
+                                           Integer limit)
             throws SearchException
     {
-        return artifactSearchService.search(new SearchRequest(storageId,
-                                                              repositoryId,
-                                                              query,
-                                                              searchProvider));
+        SearchRequest searchRequest = new SearchRequest(storageId,
+                                                        repositoryId,
+                                                        query,
+                                                        searchProvider);
+
+        Paginator paginator = searchRequest.getPaginator();
+        paginator.setLimit(limit);
+        if (after != null)
+        {
+            paginator.setKeyset(true);
+            paginator.setAfter(after.trim().isEmpty() ? null : PageCursor.decode(after));
+        }
+
+        return artifactSearchService.search(searchRequest);
     }
 
 }
@@ -2,6 +2,8 @@ package org.carlspring.strongbox.controllers.aql;
 
 import org.carlspring.strongbox.aql.grammar.AqlQueryParser;
 import org.carlspring.strongbox.controllers.BaseController;
+import org.carlspring.strongbox.data.criteria.PageCursor;
+import org.carlspring.strongbox.data.criteria.Paginator;
 import org.carlspring.strongbox.data.criteria.Selector;
 import org.carlspring.strongbox.domain.ArtifactEntry;
 import org.carlspring.strongbox.services.AqlSearchService;
@@ -36,12 +38,21 @@ public class AqlController extends BaseController
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
     @PreAuthorize("hasAuthority('SEARCH_ARTIFACTS')")
     @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE })
-    public ResponseEntity search(@ApiParam(value = "Search query", required = true) @RequestParam(name = "query", required = true) String query)
+    public ResponseEntity search(@ApiParam(value = "Search query", required = true) @RequestParam(name = "query", required = true) String query,
+                                 @ApiParam(value = "Continuation token of the page to start from, an empty value starts keyset pagination from the first page")
+                                 @RequestParam(name = "after", required = false) String after)
         throws IOException
     {
         AqlQueryParser parser = new AqlQueryParser(query);
         Selector<ArtifactEntry> selector = parser.parseQuery();
 
+        if (after != null)
+        {
+            Paginator paginator = selector.getPaginator();
+            paginator.setKeyset(true);
+            paginator.setAfter(after.trim().isEmpty() ? null : PageCursor.decode(after));
+        }
+
         SearchResults result = aqlSearchService.search(selector);
 
         return ResponseEntity.ok(result);
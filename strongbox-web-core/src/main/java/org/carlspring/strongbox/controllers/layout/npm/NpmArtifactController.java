@@ -54,6 +54,7 @@ import org.carlspring.strongbox.repository.NpmRepositoryFeatures.ViewPackageEven
 import org.carlspring.strongbox.services.ArtifactManagementService;
 import org.carlspring.strongbox.storage.repository.Repository;
 import org.carlspring.strongbox.storage.validation.artifact.ArtifactCoordinatesValidationException;
+import org.carlspring.strongbox.utils.ArtifactControllerHelper;
 import org.javatuples.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -187,6 +188,7 @@ public class NpmArtifactController extends BaseArtifactController
                                      @PathVariable(name = "packageScope") String packageScope,
                                      @PathVariable(name = "packageName") String packageName,
                                      @PathVariable(name = "packageVersion") String packageVersion,
+                                     HttpServletRequest request,
                                      HttpServletResponse response)
         throws Exception
     {
@@ -210,7 +212,7 @@ public class NpmArtifactController extends BaseArtifactController
         PackageVersion npmPackage = packageDesc.getNpmPackage();
         
         response.setContentType(MediaType.APPLICATION_JSON);
-        response.getOutputStream().write(npmJacksonMapper.writeValueAsBytes(npmPackage));
+        ArtifactControllerHelper.writeGeneratedContent(request, response, npmJacksonMapper.writeValueAsBytes(npmPackage));
     }
     
     @GetMapping(path = "{storageId}/{repositoryId}/{packageScope}/{packageName}")
@@ -219,6 +221,7 @@ public class NpmArtifactController extends BaseArtifactController
                                          @PathVariable(name = "repositoryId") String repositoryId,
                                          @PathVariable(name = "packageScope") String packageScope,
                                          @PathVariable(name = "packageName") String packageName,
+                                         HttpServletRequest request,
                                          HttpServletResponse response)
         throws Exception
     {
@@ -274,7 +277,7 @@ public class NpmArtifactController extends BaseArtifactController
         });
 
         response.setContentType(MediaType.APPLICATION_JSON);
-        response.getOutputStream().write(npmJacksonMapper.writeValueAsBytes(packageFeed));
+        ArtifactControllerHelper.writeGeneratedContent(request, response, npmJacksonMapper.writeValueAsBytes(packageFeed));
     }
 
     @GetMapping(path = "{storageId}/{repositoryId}/{packageName}")
@@ -282,10 +285,11 @@ public class NpmArtifactController extends BaseArtifactController
     public void viewPackageFeed(@PathVariable(name = "storageId") String storageId,
                                 @PathVariable(name = "repositoryId") String repositoryId,
                                 @PathVariable(name = "packageName") String packageName,
+                                HttpServletRequest request,
                                 HttpServletResponse response)
         throws Exception
     {
-        viewPackageFeedWithScope(storageId, repositoryId, null, packageName, response);
+        viewPackageFeedWithScope(storageId, repositoryId, null, packageName, request, response);
     }
 
     private Predicate createSearchPredicate(String packageScope,
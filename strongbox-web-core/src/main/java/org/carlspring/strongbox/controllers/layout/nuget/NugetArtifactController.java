@@ -22,6 +22,7 @@ import org.carlspring.strongbox.storage.Storage;
 import org.carlspring.strongbox.storage.metadata.nuget.Nuspec;
 import org.carlspring.strongbox.storage.metadata.nuget.TempNupkgFile;
 import org.carlspring.strongbox.storage.repository.Repository;
+import org.carlspring.strongbox.utils.ArtifactControllerHelper;
 import org.semver.Version;
 
 import javax.inject.Inject;
@@ -171,7 +172,8 @@ public class NugetArtifactController extends BaseArtifactController
         nugetSearchRequest.setTargetFramework(targetFramework);
         repositorySearchEventListener.setNugetSearchRequest(nugetSearchRequest);
         
-        String feedId = getFeedUri(((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest(),
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        String feedId = getFeedUri(request,
                                    storageId,
                                    repositoryId);
 
@@ -188,18 +190,39 @@ public class NugetArtifactController extends BaseArtifactController
         PackageFeed feed = transform(feedId, files);
 
         response.setHeader("content-type", MediaType.APPLICATION_XML);
-        feed.writeXml(response.getOutputStream());
+        writeFeed(feed, request, response);
 
-        return new ResponseEntity<>(HttpStatus.OK);
+        return ResponseEntity.status(response.getStatus()).build();
     }
     
+    /**
+     * Feeds are revalidated by the clients constantly, so they are sent with an {@code ETag} of their content and
+     * answered with {@code 304 Not Modified} when nothing has changed.
+     */
+    private void writeFeed(PackageFeed feed,
+                           HttpServletRequest request,
+                           HttpServletResponse response)
+        throws JAXBException, IOException
+    {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        feed.writeXml(os);
+
+        ArtifactControllerHelper.writeGeneratedContent(request, response, os.toByteArray());
+    }
+
     private PackageFeed transform(String feedId,
                                   Collection<? extends Nupkg> files)
     {
         PackageFeed feed = new PackageFeed();
         // feed.setId(getContext().getRootUri().toString());
         feed.setId(feedId);
-        feed.setUpdated(new Date());
+        // The feed is as fresh as its latest package, so that the content (and its ETag) is the same until something
+        // changes.
+        feed.setUpdated(files.stream()
+                             .map(Nupkg::getUpdated)
+                             .filter(Objects::nonNull)
+                             .max(Date::compareTo)
+                             .orElseGet(Date::new));
         feed.setTitle("Packages");
         List<PackageEntry> packageEntrys = new ArrayList<>();
         for (Nupkg nupkg : files)
@@ -305,16 +328,17 @@ public class NugetArtifactController extends BaseArtifactController
 
         Collection<? extends Nupkg> files = searchNupkg(storageId, repositoryId, provider, paginator, predicate);
 
-        String feedId = getFeedUri(((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest(),
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        String feedId = getFeedUri(request,
                                    storageId,
                                    repositoryId);
 
         PackageFeed feed = transform(feedId, files);
 
         response.setHeader("Content-Type", MediaType.APPLICATION_XML);
-        feed.writeXml(response.getOutputStream());
+        writeFeed(feed, request, response);
 
-        return new ResponseEntity<>(HttpStatus.OK);
+        return ResponseEntity.status(response.getStatus()).build();
     }
 
     public Collection<? extends Nupkg> getPackages(String storageId,
@@ -28,6 +28,14 @@ public enum RemoteRepositoryFormConverter
         result.setCheckIntervalSeconds(source.getCheckIntervalSeconds());
         result.setAllowsDirectoryBrowsing(source.isAllowsDirectoryBrowsing());
         result.setAutoImportRemoteSSLCertificate(source.isAutoImportRemoteSSLCertificate());
+        if (source.getNegativeCacheTtlSeconds() != null)
+        {
+            result.setNegativeCacheTtlSeconds(source.getNegativeCacheTtlSeconds());
+        }
+        if (source.getNegativeCacheMaxSize() != null)
+        {
+            result.setNegativeCacheMaxSize(source.getNegativeCacheMaxSize());
+        }
         return result;
     }
 }
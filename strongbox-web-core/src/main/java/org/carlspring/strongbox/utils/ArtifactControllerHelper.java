@@ -1,28 +1,30 @@
 package org.carlspring.strongbox.utils;
 
-import org.carlspring.commons.http.range.ByteRange;
-import org.carlspring.commons.http.range.ByteRangeHeaderParser;
-import org.carlspring.strongbox.io.ByteRangeInputStream;
-import org.carlspring.strongbox.io.StreamUtils;
-import org.carlspring.strongbox.providers.io.RepositoryFileAttributes;
-import org.carlspring.strongbox.providers.io.RepositoryFiles;
+import org.carlspring.strongbox.providers.io.ArtifactHeaders;
+import org.carlspring.strongbox.providers.io.ArtifactHeadersCache;
 import org.carlspring.strongbox.providers.io.RepositoryPath;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.io.FilterInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Files;
+import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
 import static org.springframework.http.HttpStatus.PARTIAL_CONTENT;
 import static org.springframework.http.HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE;
 
@@ -38,92 +40,107 @@ public class ArtifactControllerHelper
     {
     }
 
-    public static void handlePartialDownload(InputStream is,
-                                             HttpHeaders headers,
-                                             HttpServletResponse response)
-            throws IOException
+    /**
+     * Resolves the requested byte ranges against the artifact length, as described by RFC 7233: open
+     * ({@code bytes=500-}) and suffix ({@code bytes=-500}) ranges are supported, and range ends beyond the artifact are
+     * clamped to its last byte. The {@code Range} header is ignored if it can't be parsed, or if the {@code If-Range}
+     * validator doesn't match the {@code ETag} or {@code Last-Modified} headers already provided for the artifact.
+     * <p>
+     * Overlapping and adjacent ranges are coalesced (see RFC 7233, section 4.1), so that no byte is sent more than
+     * once however the ranges are requested (see RFC 7233, section 6.1).
+     *
+     * @return the satisfiable ranges in ascending order, which is empty if none of the requested ones is, or
+     *         {@code null} if the whole artifact should be served
+     */
+    public static List<HttpRange> getSatisfiableRanges(HttpHeaders headers,
+                                                       HttpServletResponse response,
+                                                       long length)
     {
-        ByteRangeHeaderParser parser = new ByteRangeHeaderParser(headers.getFirst(HEADER_NAME_RANGE));
-        List<ByteRange> ranges = parser.getRanges();
-        if (ranges.size() == 1)
+        String ifRange = headers.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.startsWith("W/") && !ifRange.equals(response.getHeader(HttpHeaders.ETAG))
+                && !ifRange.equals(response.getHeader(HttpHeaders.LAST_MODIFIED)))
         {
-            logger.debug("Received request for a partial download with a single range.");
-            handlePartialDownloadWithSingleRange(is, (ByteRange) ranges.get(0), response);
-        }
-        else
-        {
-            logger.debug("Received request for a partial download with multiple ranges.");
-            handlePartialDownloadWithMultipleRanges(is, ranges, response);
+            logger.debug("The If-Range validator does not match, ignoring the requested ranges.");
+
+            return null;
         }
-    }
 
-    public static void handlePartialDownloadWithSingleRange(InputStream is,
-                                                            ByteRange byteRange,
-                                                            HttpServletResponse response)
-            throws IOException
-    {
-        ByteRangeInputStream bris = StreamUtils.findSource(ByteRangeInputStream.class, (FilterInputStream)is);
-        long length = StreamUtils.getLength(bris);
-        if (byteRange.getOffset() < length)
+        List<HttpRange> ranges;
+        try
         {
-            long partialLength = calculatePartialRangeLength(byteRange, length);
-
-            logger.debug("Calculated partial range length ->>> " + partialLength + "\n");
-
-            StreamUtils.setCurrentByteRange(bris, byteRange);
-
-            response.setHeader("Content-Length", partialLength + "");
-            response.setStatus(PARTIAL_CONTENT.value());
-
-            prepareResponseBuilderForPartialRequest(byteRange, length, response);
+            ranges = HttpRange.parseRanges(headers.getFirst(HEADER_NAME_RANGE));
         }
-        else
+        catch (IllegalArgumentException e)
         {
-            response.setStatus(REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            logger.debug(String.format("Ignoring invalid range header [%s].", headers.getFirst(HEADER_NAME_RANGE)));
+
+            return null;
         }
-    }
 
-    public static void handlePartialDownloadWithMultipleRanges(InputStream is,
-                                                               List<ByteRange> byteRanges,
-                                                               HttpServletResponse response)
-            throws IOException
-    {
-        // XXX: this is not implemented yet
-        response.setStatus(REQUESTED_RANGE_NOT_SATISFIABLE.value());
+        return coalesceRanges(ranges.stream()
+                                    .filter(r -> r.getRangeStart(length) < length)
+                                    .collect(Collectors.toList()),
+                              length);
     }
 
-    public static long calculatePartialRangeLength(ByteRange byteRange,
-                                                   long length)
+    private static List<HttpRange> coalesceRanges(List<HttpRange> ranges,
+                                                  long length)
     {
-        if (byteRange.getLimit() > 0L && byteRange.getOffset() > 0L)
+        if (ranges.size() < 2)
         {
-            logger.debug("Partial content byteRange.getOffset: " + byteRange.getOffset());
-            logger.debug("Partial content byteRange.getLimit: " + byteRange.getLimit());
-            logger.debug("Partial content length: " + (byteRange.getLimit() - byteRange.getOffset()));
-
-            return byteRange.getLimit() - byteRange.getOffset();
+            return ranges;
         }
-        else if (length > 0L && byteRange.getOffset() > 0L && byteRange.getLimit() == 0L)
+
+        List<HttpRange> sortedRanges = new ArrayList<>(ranges);
+        sortedRanges.sort(Comparator.comparingLong(r -> r.getRangeStart(length)));
+
+        List<HttpRange> result = new ArrayList<>(sortedRanges.size());
+        long start = sortedRanges.get(0).getRangeStart(length);
+        long end = sortedRanges.get(0).getRangeEnd(length);
+        for (HttpRange range : sortedRanges.subList(1, sortedRanges.size()))
         {
-            logger.debug("Partial content length: " + (length - byteRange.getOffset()));
-            return length - byteRange.getOffset();
+            if (range.getRangeStart(length) > end + 1)
+            {
+                result.add(HttpRange.createByteRange(start, end));
+                start = range.getRangeStart(length);
+            }
+
+            end = Math.max(end, range.getRangeEnd(length));
         }
-        else
+        result.add(HttpRange.createByteRange(start, end));
+
+        if (result.size() < ranges.size())
         {
-            return -1L;
+            logger.debug(String.format("Coalesced [%s] requested ranges into [%s].", ranges.size(), result.size()));
         }
+
+        return result;
     }
 
-    public static void prepareResponseBuilderForPartialRequest(ByteRange br,
-                                                               long length,
-                                                               HttpServletResponse response)
+    /**
+     * Provides the headers of a {@code 206 Partial Content} response with a single range, which ends on the last byte
+     * requested rather than on the last byte of the artifact.
+     */
+    public static void provideSingleRangeHeaders(HttpServletResponse response,
+                                                 HttpRange range,
+                                                 long length)
     {
-        response.setHeader("Accept-Ranges", "bytes");
-        response.setHeader("Content-Range",
-                           "bytes " + br.getOffset() + "-" + (length - 1L) + "/" + length);
+        long start = range.getRangeStart(length);
+        long end = range.getRangeEnd(length);
+
+        response.setStatus(PARTIAL_CONTENT.value());
+        response.setHeader("Content-Range", String.format("bytes %s-%s/%s", start, end, length));
+        response.setHeader("Content-Length", String.valueOf(end - start + 1));
 
         logger.debug("Content-Range HEADER ->>> " + response.getHeader("Content-Range"));
-        response.setHeader("Pragma", "no-cache");
+    }
+
+    public static void provideRangeNotSatisfiableHeaders(HttpServletResponse response,
+                                                         long length)
+    {
+        response.setStatus(REQUESTED_RANGE_NOT_SATISFIABLE.value());
+        response.setHeader("Content-Range", "bytes */" + length);
+        response.setHeader("Content-Length", "0");
     }
 
     public static boolean isRangedRequest(HttpHeaders headers)
@@ -140,57 +157,110 @@ public class ArtifactControllerHelper
         }
     }
 
-    public static void provideArtifactHeaders(HttpServletResponse response,
-                                              RepositoryPath path)
+    /**
+     * Provides the artifact headers, including a strong {@code ETag} derived from the size and modification time of
+     * the artifact file. If the request is conditional and the client already has the artifact, the status is set to
+     * {@code 304 Not Modified} and only the validators are provided.
+     * <p>
+     * The headers are taken from the {@link ArtifactHeadersCache} if possible, so that repeated requests of the same
+     * artifact don't touch the file system. The cache is populated as the files are stored rather than here, since
+     * the headers read here may already be outdated by a concurrent store.
+     */
+    public static void provideArtifactHeaders(HttpServletRequest request,
+                                              HttpServletResponse response,
+                                              RepositoryPath path,
+                                              ArtifactHeadersCache artifactHeadersCache)
         throws IOException
     {
-        if (path == null || !Files.exists(path) || Files.isDirectory(path))
+        ArtifactHeaders artifactHeaders = path == null ? null : artifactHeadersCache.get(path);
+        if (artifactHeaders == null)
         {
-            response.setStatus(HttpStatus.NOT_FOUND.value());
+            if (path == null || !Files.exists(path) || Files.isDirectory(path))
+            {
+                response.setStatus(HttpStatus.NOT_FOUND.value());
+                return;
+            }
+
+            artifactHeaders = ArtifactHeaders.read(path);
+        }
+
+        Map<String, String> checksums = artifactHeaders.getChecksums();
+        long lastModified = artifactHeaders.getLastModified();
+        String eTag = calculateETag(artifactHeaders.getSize(), lastModified);
+        if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified))
+        {
+            logger.debug(String.format("Not modified [%s].", path));
+
             return;
         }
-        RepositoryFileAttributes fileAttributes = Files.readAttributes(path, RepositoryFileAttributes.class);
 
-        response.setHeader("Content-Length", String.valueOf(fileAttributes.size()));
+        response.setHeader("Content-Length", String.valueOf(artifactHeaders.getSize()));
         response.setHeader("Last-Modified", DateTimeFormatter.RFC_1123_DATE_TIME.format(
-                ZonedDateTime.ofInstant(fileAttributes.lastModifiedTime().toInstant(), ZoneId.systemDefault())));
+                ZonedDateTime.ofInstant(Instant.ofEpochMilli(lastModified), ZoneId.systemDefault())));
 
-        // TODO: This is far from optimal and will need to have a content type approach at some point:
-        if (RepositoryFiles.isChecksum(path) || (path.getFileName().toString().endsWith(".properties")))
-        {
-            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
-        }
-        else if (path.getFileName().toString().endsWith("xml"))
-        {
-            response.setContentType(MediaType.APPLICATION_XML_VALUE);
-        }
-        else if (path.getFileName().toString().endsWith(".gz"))
-        {
-            response.setContentType(com.google.common.net.MediaType.GZIP.toString());
-        }
-        else
-        {
-            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
-        }
+        response.setContentType(artifactHeaders.getContentType());
 
         response.setHeader("Accept-Ranges", "bytes");
 
-        path.getFileSystem().provider().resolveChecksumPathMap(path).entrySet().stream().forEach(e -> {
-            String checksumValue;
-            try
-            {
-                checksumValue = new String(Files.readAllBytes(e.getValue()), "UTF-8").trim();
-            }
-            catch (IOException ioe)
-            {
-                return;
-            }
+        checksums.forEach((algorithm, checksumValue) -> {
             String checksumName = String.format("Checksum-%s",
-                                                e.getKey().toUpperCase().replaceAll("-", ""));
+                                                algorithm.toUpperCase().replaceAll("-", ""));
             response.setHeader(checksumName,
                                checksumValue);
         });
         
     }
 
+    /**
+     * The checksum files are not used here, because they are stored independently of the artifact: a client may
+     * upload them after the artifact is redeployed, or not at all, and the {@code ETag} must change with the content.
+     * The artifact files are always replaced rather than rewritten, so a new content comes with a new modification
+     * time.
+     *
+     * @return strong {@code ETag} of the size and modification time of the artifact file
+     */
+    private static String calculateETag(long size,
+                                        long lastModified)
+    {
+        return String.format("\"%s-%s\"", Long.toHexString(size), Long.toHexString(lastModified));
+    }
+
+    /**
+     * Writes generated content, like package feeds, with a strong {@code ETag} of the content itself, or responds with
+     * {@code 304 Not Modified} if the client already has it.
+     */
+    public static void writeGeneratedContent(HttpServletRequest request,
+                                             HttpServletResponse response,
+                                             byte[] content)
+        throws IOException
+    {
+        String eTag = String.format("\"%s\"", DigestUtils.md5DigestAsHex(content));
+        if (new ServletWebRequest(request, response).checkNotModified(eTag))
+        {
+            return;
+        }
+
+        response.setContentLength(content.length);
+        response.getOutputStream().write(content);
+    }
+
+    /**
+     * Provides the headers of an artifact which is still being downloaded from a remote repository. Range requests
+     * are not supported until the download is complete.
+     */
+    public static void provideTeeDownloadHeaders(HttpServletResponse response,
+                                                 RepositoryPath path,
+                                                 long contentLength)
+        throws IOException
+    {
+        if (contentLength >= 0)
+        {
+            response.setHeader("Content-Length", String.valueOf(contentLength));
+        }
+
+        response.setContentType(ArtifactHeaders.probeContentType(path));
+
+        response.setHeader("Accept-Ranges", "none");
+    }
+
 }
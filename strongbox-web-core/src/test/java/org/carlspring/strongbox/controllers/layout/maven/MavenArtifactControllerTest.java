@@ -3,6 +3,7 @@ package org.carlspring.strongbox.controllers.layout.maven;
 import org.carlspring.commons.encryption.EncryptionAlgorithmsEnum;
 import org.carlspring.commons.io.MultipleDigestOutputStream;
 import org.carlspring.maven.commons.util.ArtifactUtils;
+import org.carlspring.strongbox.artifact.ArtifactDownloadStatisticsAccumulator;
 import org.carlspring.strongbox.artifact.generator.MavenArtifactDeployer;
 import org.carlspring.strongbox.booters.PropertiesBooter;
 import org.carlspring.strongbox.client.ArtifactOperationException;
@@ -130,6 +131,9 @@ public class MavenArtifactControllerTest
     @Inject
     private PropertiesBooter propertiesBooter;
 
+    @Inject
+    private ArtifactDownloadStatisticsAccumulator downloadStatisticsAccumulator;
+
 
     @BeforeAll
     public static void cleanUp()
@@ -464,6 +468,69 @@ public class MavenArtifactControllerTest
         assertHeadersEquals(headersFromGET, headersFromHEAD);
     }
 
+    @Test
+    public void testConditionalFetch()
+    {
+        String url = getContextBaseUrl() + "/storages/" + STORAGE0 + "/" + REPOSITORY_RELEASES1;
+        String pathToPom = "/org/carlspring/strongbox/browse/foo-bar/2.4/foo-bar-2.4.pom";
+        String artifactPath = url + pathToPom;
+
+        String eTag = given().header("user-agent", "Maven/*")
+                             .when()
+                             .get(artifactPath)
+                             .then()
+                             .statusCode(HttpStatus.OK.value())
+                             .extract()
+                             .header("ETag");
+        assertNotNull(eTag);
+
+        given().header("user-agent", "Maven/*")
+               .header("If-None-Match", eTag)
+               .when()
+               .get(artifactPath)
+               .then()
+               .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        given().header("user-agent", "Maven/*")
+               .header("If-None-Match", "\"outdated\"")
+               .when()
+               .get(artifactPath)
+               .then()
+               .statusCode(HttpStatus.OK.value());
+    }
+
+    @Test
+    public void testConditionalFetchAfterRedeployWithStaleChecksum()
+            throws Exception
+    {
+        String url = getContextBaseUrl() + "/storages/" + STORAGE0 + "/" + REPOSITORY_RELEASES2;
+        String fileName = "etag-foo-1.0.jar";
+        String artifactPath = url + "/org/carlspring/strongbox/etag/etag-foo/1.0/" + fileName;
+
+        client.deployFile(new ByteArrayInputStream(new byte[]{ 1 }), artifactPath, fileName);
+        client.deployFile(new ByteArrayInputStream("stale".getBytes()), artifactPath + ".sha1", fileName + ".sha1");
+
+        String eTag = given().header("user-agent", "Maven/*")
+                             .when()
+                             .get(artifactPath)
+                             .then()
+                             .statusCode(HttpStatus.OK.value())
+                             .extract()
+                             .header("ETag");
+        assertNotNull(eTag);
+        assertFalse(eTag.contains("stale"));
+
+        // The checksum is not redeployed, so it no longer matches the content.
+        client.deployFile(new ByteArrayInputStream(new byte[]{ 1, 2 }), artifactPath, fileName);
+
+        given().header("user-agent", "Maven/*")
+               .header("If-None-Match", eTag)
+               .when()
+               .get(artifactPath)
+               .then()
+               .statusCode(HttpStatus.OK.value());
+    }
+
     private void assertHeadersEquals(Headers h1,
                                      Headers h2)
     {
@@ -576,6 +643,146 @@ public class MavenArtifactControllerTest
         assertEquals(sha1Remote, sha1Local, "Glued partial fetches did not match SHA-1 checksum!");
     }
 
+    @Test
+    public void testRangesFetch()
+            throws Exception
+    {
+        String url = getContextBaseUrl() + "/storages/" + STORAGE0 + "/" + REPOSITORY_RELEASES1;
+        String pathToJar = "/org/carlspring/strongbox/partial/partial-foo/3.1/partial-foo-3.1.jar";
+        String artifactPath = url + pathToJar;
+
+        byte[] content = given().header("user-agent", "Maven/*")
+                                .when()
+                                .get(artifactPath)
+                                .then()
+                                .statusCode(HttpStatus.OK.value())
+                                .extract()
+                                .asByteArray();
+        int length = content.length;
+
+        // Suffix range
+        byte[] suffix = given().header("user-agent", "Maven/*")
+                               .header("Range", "bytes=-10")
+                               .when()
+                               .get(artifactPath)
+                               .then()
+                               .statusCode(HttpStatus.PARTIAL_CONTENT.value())
+                               .header("Content-Range", "bytes " + (length - 10) + "-" + (length - 1) + "/" + length)
+                               .extract()
+                               .asByteArray();
+        assertArrayEquals(Arrays.copyOfRange(content, length - 10, length), suffix);
+
+        // Closed range
+        byte[] range = given().header("user-agent", "Maven/*")
+                              .header("Range", "bytes=10-19")
+                              .when()
+                              .get(artifactPath)
+                              .then()
+                              .statusCode(HttpStatus.PARTIAL_CONTENT.value())
+                              .header("Content-Range", "bytes 10-19/" + length)
+                              .extract()
+                              .asByteArray();
+        assertArrayEquals(Arrays.copyOfRange(content, 10, 20), range);
+
+        // Multiple ranges
+        String multipart = given().header("user-agent", "Maven/*")
+                                  .header("Range", "bytes=0-9,20-29")
+                                  .when()
+                                  .get(artifactPath)
+                                  .then()
+                                  .statusCode(HttpStatus.PARTIAL_CONTENT.value())
+                                  .extract()
+                                  .asString();
+        assertTrue(multipart.contains("Content-Range: bytes 0-9/" + length));
+        assertTrue(multipart.contains("Content-Range: bytes 20-29/" + length));
+
+        // Overlapping and adjacent ranges are coalesced
+        byte[] coalesced = given().header("user-agent", "Maven/*")
+                                  .header("Range", "bytes=5-14,0-9,15-19,0-9")
+                                  .when()
+                                  .get(artifactPath)
+                                  .then()
+                                  .statusCode(HttpStatus.PARTIAL_CONTENT.value())
+                                  .header("Content-Range", "bytes 0-19/" + length)
+                                  .extract()
+                                  .asByteArray();
+        assertArrayEquals(Arrays.copyOfRange(content, 0, 20), coalesced);
+
+        multipart = given().header("user-agent", "Maven/*")
+                           .header("Range", "bytes=20-29,0-9,25-")
+                           .when()
+                           .get(artifactPath)
+                           .then()
+                           .statusCode(HttpStatus.PARTIAL_CONTENT.value())
+                           .extract()
+                           .asString();
+        assertTrue(multipart.contains("Content-Range: bytes 0-9/" + length));
+        assertTrue(multipart.contains("Content-Range: bytes 20-" + (length - 1) + "/" + length));
+        assertFalse(multipart.contains("Content-Range: bytes 25-"));
+
+        // Unsatisfiable range
+        given().header("user-agent", "Maven/*")
+               .header("Range", "bytes=" + length + "-")
+               .when()
+               .get(artifactPath)
+               .then()
+               .statusCode(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value())
+               .header("Content-Range", "bytes */" + length);
+    }
+
+    @Test
+    public void testFetchShouldFireDownloadEvents()
+            throws Exception
+    {
+        String path = "org/carlspring/strongbox/partial/partial-foo/3.2/partial-foo-3.2.jar";
+        String artifactPath = getContextBaseUrl() + "/storages/" + STORAGE0 + "/" + REPOSITORY_RELEASES1 + "/" + path;
+
+        downloadStatisticsAccumulator.flush();
+        int downloadCount = getDownloadCount(path);
+
+        given().header("user-agent", "Maven/*")
+               .when()
+               .get(artifactPath)
+               .then()
+               .statusCode(HttpStatus.OK.value());
+
+        given().header("user-agent", "Maven/*")
+               .header("Range", "bytes=0-9,20-29")
+               .when()
+               .get(artifactPath)
+               .then()
+               .statusCode(HttpStatus.PARTIAL_CONTENT.value());
+
+        downloadStatisticsAccumulator.flush();
+        assertEquals(downloadCount + 2, getDownloadCount(path));
+    }
+
+    @Test
+    public void testMultiRangeFetchOfArtifactWithoutEntry()
+            throws Exception
+    {
+        // The file is there, but it hasn't been stored as an artifact.
+        String path = "org/carlspring/strongbox/multirange/multirange-foo/1.0/multirange-foo-1.0.jar";
+        Path artifactFile = getRepositoryBasedir(STORAGE0, REPOSITORY_RELEASES1).toPath().resolve(path);
+        Files.createDirectories(artifactFile.getParent());
+        Files.write(artifactFile, new byte[]{ 1, 2, 3 });
+
+        given().header("user-agent", "Maven/*")
+               .header("Range", "bytes=0-0,2-2")
+               .when()
+               .get(getContextBaseUrl() + "/storages/" + STORAGE0 + "/" + REPOSITORY_RELEASES1 + "/" + path)
+               .then()
+               .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+
+    private int getDownloadCount(String path)
+    {
+        ArtifactEntry artifactEntry = artifactEntryService.findOneArtifact(STORAGE0, REPOSITORY_RELEASES1, path);
+        assertNotNull(artifactEntry);
+
+        return artifactEntry.getDownloadCount();
+    }
+
     @Test
     public void testCopyArtifactFile()
             throws Exception
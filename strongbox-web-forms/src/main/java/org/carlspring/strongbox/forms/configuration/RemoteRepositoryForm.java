@@ -33,6 +33,12 @@ public class RemoteRepositoryForm
 
     private boolean autoImportRemoteSSLCertificate;
 
+    @PositiveOrZero(message = "A negativeCacheTtlSeconds must be positive or zero.")
+    private Integer negativeCacheTtlSeconds;
+
+    @PositiveOrZero(message = "A negativeCacheMaxSize must be positive or zero.")
+    private Integer negativeCacheMaxSize;
+
     public String getUrl()
     {
         return url;
@@ -92,4 +98,24 @@ public class RemoteRepositoryForm
     {
         return autoImportRemoteSSLCertificate;
     }
+
+    public Integer getNegativeCacheTtlSeconds()
+    {
+        return negativeCacheTtlSeconds;
+    }
+
+    public void setNegativeCacheTtlSeconds(Integer negativeCacheTtlSeconds)
+    {
+        this.negativeCacheTtlSeconds = negativeCacheTtlSeconds;
+    }
+
+    public Integer getNegativeCacheMaxSize()
+    {
+        return negativeCacheMaxSize;
+    }
+
+    public void setNegativeCacheMaxSize(Integer negativeCacheMaxSize)
+    {
+        this.negativeCacheMaxSize = negativeCacheMaxSize;
+    }
 }